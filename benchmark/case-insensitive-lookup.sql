@@ -0,0 +1,81 @@
+-- Case-insensitive genre/author lookups before and after the normalized lookup columns.
+--
+-- Builds a throwaway copy of the book table with one million generated rows in its own schema,
+-- so it never touches the application's data, and prints the plan and execution time of the
+-- queries Hibernate issues for a genre/author page, count and cursor seek:
+--
+--   before: upper(genre) = upper(?) against the plain idx_genre / idx_author indexes
+--   after:  genre_key = ? against the (genre_key, id) / (author_key, id) indexes
+--
+-- Run it against the compose database with:
+--   docker compose exec -T db psql -U user -d bookstore_db -f - < benchmark/case-insensitive-lookup.sql
+
+\set ON_ERROR_STOP on
+\timing on
+
+DROP SCHEMA IF EXISTS lookup_bench CASCADE;
+CREATE SCHEMA lookup_bench;
+SET search_path TO lookup_bench;
+
+CREATE TABLE book (
+  id          bigserial PRIMARY KEY,
+  title       varchar(255),
+  genre       varchar(255),
+  author      varchar(255),
+  description varchar(2000)
+);
+
+-- 40 genres with a long tail and 50k authors, mixed case like the faker data.
+INSERT INTO book (title, genre, author, description)
+SELECT 'Title ' || i,
+       'Genre ' || (floor(40 * power(random(), 2)))::int,
+       'Author ' || (i % 50000),
+       repeat('lorem ipsum ', 20)
+  FROM generate_series(1, 1000000) AS i;
+
+CREATE INDEX idx_genre ON book (genre);
+CREATE INDEX idx_author ON book (author);
+VACUUM ANALYZE book;
+
+\echo '==================== before: upper(column) = upper(?) ===================='
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM book WHERE upper(genre) = upper('genre 3') OFFSET 5000 ROWS FETCH FIRST 11 ROWS ONLY;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM book WHERE upper(genre) = upper('genre 3');
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM book WHERE upper(author) = upper('author 42') OFFSET 0 ROWS FETCH FIRST 11 ROWS ONLY;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM book WHERE upper(genre) = upper('genre 3') AND id > 500000 ORDER BY id
+ FETCH FIRST 11 ROWS ONLY;
+
+-- Same shape as the Book entity now: normalized columns filled on write, indexed with id so the
+-- cursor endpoints seek and sort on the same index.
+ALTER TABLE book ADD COLUMN genre_key varchar(255), ADD COLUMN author_key varchar(255);
+UPDATE book SET genre_key = lower(genre), author_key = lower(author);
+DROP INDEX idx_genre;
+DROP INDEX idx_author;
+CREATE INDEX idx_genre_key ON book (genre_key, id);
+CREATE INDEX idx_author_key ON book (author_key, id);
+VACUUM ANALYZE book;
+
+\echo '==================== after: column_key = ? ===================='
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM book WHERE genre_key = 'genre 3' OFFSET 5000 ROWS FETCH FIRST 11 ROWS ONLY;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM book WHERE genre_key = 'genre 3';
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM book WHERE author_key = 'author 42' OFFSET 0 ROWS FETCH FIRST 11 ROWS ONLY;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM book WHERE genre_key = 'genre 3' AND id > 500000 ORDER BY id
+ FETCH FIRST 11 ROWS ONLY;
+
+RESET search_path;
+DROP SCHEMA lookup_bench CASCADE;
@@ -1,12 +1,17 @@
 package com.br.bookdata;
 
+import com.br.bookdata.domain.ingest.BookImportRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class BookDataApplication {
 
   public static void main(String[] args) {
-    SpringApplication.run(BookDataApplication.class, args);
+    ConfigurableApplicationContext context = SpringApplication.run(BookDataApplication.class, args);
+    if (context.getEnvironment().matchesProfiles(BookImportRunner.PROFILE)) {
+      System.exit(SpringApplication.exit(context));
+    }
   }
 }
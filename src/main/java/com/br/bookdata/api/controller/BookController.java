@@ -1,32 +1,68 @@
 package com.br.bookdata.api.controller;
 
+import static com.br.bookdata.domain.service.BookCacheServiceImpl.mountKeyByCursor;
+import static com.br.bookdata.domain.service.BookCacheServiceImpl.mountKeyById;
+import static com.br.bookdata.domain.service.BookCacheServiceImpl.mountKeyByPaged;
+import static com.br.bookdata.domain.service.BookCacheServiceImpl.tagOf;
+import static com.br.bookdata.domain.service.enums.BookCacheKeyType.*;
+
 import com.br.bookdata.api.dtos.BookBasicDTO;
+import com.br.bookdata.api.dtos.BookBatchItemDTO;
 import com.br.bookdata.api.dtos.BookDTO;
+import com.br.bookdata.api.dtos.BookRequestDTO;
 import com.br.bookdata.api.facade.BookFacade;
+import com.br.bookdata.api.response.BookExportWriter;
+import com.br.bookdata.api.response.ExportFormat;
+import com.br.bookdata.api.response.RenderedResponseCache;
+import com.br.bookdata.api.response.RenderedResponseCache.Profile;
+import com.br.bookdata.domain.ingest.ImportFormat;
+import com.br.bookdata.domain.ingest.ImportReport;
+import com.br.bookdata.domain.utils.CursorPage;
+import com.br.bookdata.domain.utils.CursorToken;
 import com.br.bookdata.domain.utils.CustomPage;
+import com.br.bookdata.domain.warmup.HotKey.Kind;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-@Tag(name = "Books API", description = "Endpoints for searching books")
+@Tag(name = "Books API", description = "Endpoints for searching and editing books")
 @RestController
 @RequestMapping("/books")
 @Validated
 public class BookController {
 
+  private static final String IMPORT_NDJSON = "application/x-ndjson";
+  private static final String IMPORT_CSV = "text/csv";
+
   private final BookFacade bookFacade;
+  private final RenderedResponseCache responseCache;
+  private final ObjectMapper objectMapper;
 
-  public BookController(BookFacade bookFacade) {
+  public BookController(
+      BookFacade bookFacade, RenderedResponseCache responseCache, ObjectMapper objectMapper) {
     this.bookFacade = bookFacade;
+    this.responseCache = responseCache;
+    this.objectMapper = objectMapper;
   }
 
   @Operation(
@@ -41,12 +77,17 @@ public class BookController {
       @RequestParam(name = "size", defaultValue = "10")
           @Min(value = 1, message = "Size must be at least 1")
           @Max(value = 100, message = "Size must not exceed 100")
-          Integer size) {
-    CustomPage<BookBasicDTO> books = bookFacade.getAllBooks(page, size);
-    if (books.isEmpty()) {
-      return ResponseEntity.noContent().build();
-    }
-    return ResponseEntity.ok().body(books);
+          Integer size,
+      HttpServletRequest request,
+      HttpServletResponse response) {
+    return responseCache.render(
+        mountKeyByPaged(BOOK_PAGED_KEY, page, size),
+        tagOf(BOOK_PAGED_KEY, null),
+        Profile.LIST,
+        request,
+        response,
+        () -> bookFacade.recordPageRead(Kind.ALL, page, size, null),
+        () -> okOrNoContent(bookFacade.getAllBooks(page, size)));
   }
 
   @Operation(
@@ -54,18 +95,167 @@ public class BookController {
       description = "Retrieve a specific book by its ID",
       responses = {
         @ApiResponse(description = "Book details", responseCode = "200"),
+        @ApiResponse(description = "Unchanged since the If-None-Match ETag", responseCode = "304"),
         @ApiResponse(description = "Book not found", responseCode = "404")
       })
   @GetMapping(path = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<BookDTO> getBookById(
-      @Parameter(description = "ID of the book to retrieve") @PathVariable Long id) {
-    return ResponseEntity.ok().body(bookFacade.getBookById(id));
+      @Parameter(description = "ID of the book to retrieve") @PathVariable Long id,
+      HttpServletRequest request,
+      HttpServletResponse response) {
+    return responseCache.render(
+        mountKeyById(BOOK_ID_KEY, id),
+        Profile.DETAIL,
+        request,
+        response,
+        () -> bookFacade.recordBookRead(id),
+        () -> ResponseEntity.ok().body(bookFacade.getBookById(id)));
+  }
+
+  @Operation(
+      summary = "Get books by IDs",
+      description =
+          "Retrieve up to 200 books in one call. Items follow the order of the requested IDs and"
+              + " IDs without a book come back with found set to false",
+      responses = {
+        @ApiResponse(description = "Books in request order", responseCode = "200"),
+        @ApiResponse(description = "Missing or too many IDs", responseCode = "400")
+      })
+  @GetMapping(path = "/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<List<BookBatchItemDTO>> getBooksByIds(
+      @Parameter(description = "Comma separated IDs of the books to retrieve")
+          @RequestParam(name = "ids")
+          @NotEmpty(message = "At least one id is required")
+          @Size(max = 200, message = "No more than 200 ids per request")
+          List<@NotNull Long> ids) {
+    return ResponseEntity.ok(bookFacade.getBooksByIds(ids));
+  }
+
+  @Operation(
+      summary = "Create a book",
+      description =
+          "Store a new book and write it through to the cache. Only the cached lists of its"
+              + " genre, its author and the unfiltered lists are evicted",
+      responses = {
+        @ApiResponse(description = "Created book", responseCode = "201"),
+        @ApiResponse(description = "Missing or too long fields", responseCode = "400")
+      })
+  @PostMapping(
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<BookDTO> createBook(@Valid @RequestBody BookRequestDTO book) {
+    BookDTO created = bookFacade.createBook(book);
+    URI location =
+        ServletUriComponentsBuilder.fromCurrentRequest()
+            .path("/{id}")
+            .buildAndExpand(created.id())
+            .toUri();
+    return ResponseEntity.created(location).body(created);
+  }
+
+  @Operation(
+      summary = "Update a book",
+      description =
+          "Replace the fields of a book and write it through to the cache. The cached lists of"
+              + " its old and new genre and author are evicted",
+      responses = {
+        @ApiResponse(description = "Updated book", responseCode = "200"),
+        @ApiResponse(description = "Missing or too long fields", responseCode = "400"),
+        @ApiResponse(description = "Book not found", responseCode = "404")
+      })
+  @PutMapping(
+      path = "/{id}",
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<BookDTO> updateBook(
+      @Parameter(description = "ID of the book to update") @PathVariable Long id,
+      @Valid @RequestBody BookRequestDTO book) {
+    return ResponseEntity.ok(bookFacade.updateBook(id, book));
+  }
+
+  @Operation(
+      summary = "Delete a book",
+      description = "Delete a book and evict it and the cached lists it appeared in",
+      responses = {
+        @ApiResponse(description = "Book deleted", responseCode = "204"),
+        @ApiResponse(description = "Book not found", responseCode = "404")
+      })
+  @DeleteMapping(path = "/{id}")
+  public ResponseEntity<Void> deleteBook(
+      @Parameter(description = "ID of the book to delete") @PathVariable Long id) {
+    bookFacade.deleteBook(id);
+    return ResponseEntity.noContent().build();
+  }
+
+  @Operation(
+      summary = "Export the catalog",
+      description =
+          "Stream every book, optionally filtered by genre and author, as NDJSON or CSV in id"
+              + " order. Rows are written as they are read, so memory use does not grow with the"
+              + " catalog",
+      responses = {
+        @ApiResponse(description = "Exported books", responseCode = "200"),
+        @ApiResponse(description = "Unknown format", responseCode = "400")
+      })
+  @GetMapping(path = "/export")
+  public void exportBooks(
+      @Parameter(description = "NDJSON or CSV")
+          @RequestParam(name = "format", defaultValue = "NDJSON")
+          ExportFormat format,
+      @Parameter(description = "Only books of this genre") @RequestParam(required = false)
+          String genre,
+      @Parameter(description = "Only books by this author") @RequestParam(required = false)
+          String author,
+      HttpServletResponse response)
+      throws IOException {
+    response.setStatus(HttpStatus.OK.value());
+    response.setContentType(format.getContentType());
+    response.setCharacterEncoding("UTF-8");
+    response.setHeader(
+        HttpHeaders.CONTENT_DISPOSITION,
+        "attachment; filename=\"books." + format.getExtension() + "\"");
+    try (BookExportWriter writer =
+        new BookExportWriter(format, response.getOutputStream(), objectMapper)) {
+      bookFacade.exportBooks(genre, author, writer::write);
+    }
+  }
+
+  @Operation(
+      summary = "Import books",
+      description =
+          "Upsert a catalog feed sent as NDJSON or CSV with a header row. The body is parsed as"
+              + " it arrives and written in batches; books with an id overwrite the stored one."
+              + " Only the cache entries of the touched books, genres and authors are evicted. A"
+              + " failed write stops the import; the batches already written stay, and the report"
+              + " gives the last line written so the rest of the feed can be sent again",
+      responses = {
+        @ApiResponse(description = "Throughput and rejected records", responseCode = "200"),
+        @ApiResponse(
+            description = "Write failed; the report gives the last line written",
+            responseCode = "500"),
+        @ApiResponse(description = "CSV header misses a required column", responseCode = "400")
+      })
+  @PostMapping(
+      path = "/import",
+      consumes = {IMPORT_NDJSON, IMPORT_CSV},
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<ImportReport> importBooks(HttpServletRequest request) throws IOException {
+    ImportFormat format =
+        MediaType.parseMediaType(request.getContentType()).getSubtype().equals("csv")
+            ? ImportFormat.CSV
+            : ImportFormat.NDJSON;
+    ImportReport report = bookFacade.importBooks(format, request.getInputStream());
+    HttpStatus status = report.error() == null ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR;
+    return ResponseEntity.status(status).body(report);
   }
 
   @Operation(
       summary = "Get books by genre",
       description = "Retrieve a paginated list of books filtered by genre",
-      responses = {@ApiResponse(description = "List of books by genre", responseCode = "200")})
+      responses = {
+        @ApiResponse(description = "List of books by genre", responseCode = "200"),
+        @ApiResponse(description = "Unchanged since the If-None-Match ETag", responseCode = "304")
+      })
   @GetMapping(path = "/genre/{genre}", produces = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<CustomPage<BookBasicDTO>> getBooksByGenre(
       @Parameter(description = "Genre to filter books by") @PathVariable @NotNull String genre,
@@ -75,12 +265,17 @@ public class BookController {
       @RequestParam(name = "size", defaultValue = "10")
           @Min(value = 1, message = "Size must be at least 1")
           @Max(value = 100, message = "Size must not exceed 100")
-          Integer size) {
-    CustomPage<BookBasicDTO> books = bookFacade.getBooksByGenre(genre, page, size);
-    if (books.isEmpty()) {
-      return ResponseEntity.noContent().build();
-    }
-    return ResponseEntity.ok(books);
+          Integer size,
+      HttpServletRequest request,
+      HttpServletResponse response) {
+    return responseCache.render(
+        mountKeyByPaged(BOOK_PAGED_GENRE_KEY, page, size, genre),
+        tagOf(BOOK_PAGED_GENRE_KEY, genre),
+        Profile.LIST,
+        request,
+        response,
+        () -> bookFacade.recordPageRead(Kind.GENRE, page, size, genre),
+        () -> okOrNoContent(bookFacade.getBooksByGenre(genre, page, size)));
   }
 
   @Operation(
@@ -96,12 +291,105 @@ public class BookController {
       @RequestParam(name = "size", defaultValue = "10")
           @Min(value = 1, message = "Size must be at least 1")
           @Max(value = 100, message = "Size must not exceed 100")
-          Integer size) {
-    CustomPage<BookBasicDTO> books = bookFacade.getBooksByAuthor(author, page, size);
-    if (books.isEmpty()) {
-      return ResponseEntity.noContent().build();
-    }
-    return ResponseEntity.ok(books);
+          Integer size,
+      HttpServletRequest request,
+      HttpServletResponse response) {
+    return responseCache.render(
+        mountKeyByPaged(BOOK_PAGED_AUTHOR_KEY, page, size, author),
+        tagOf(BOOK_PAGED_AUTHOR_KEY, author),
+        Profile.LIST,
+        request,
+        response,
+        () -> bookFacade.recordPageRead(Kind.AUTHOR, page, size, author),
+        () -> okOrNoContent(bookFacade.getBooksByAuthor(author, page, size)));
+  }
+
+  @Operation(
+      summary = "Get all books by cursor",
+      description =
+          "Retrieve all books ordered by id using keyset pagination. Pass the 'next' token of a"
+              + " response as cursor to fetch the following page",
+      responses = {
+        @ApiResponse(description = "List of books", responseCode = "200"),
+        @ApiResponse(description = "Invalid cursor", responseCode = "400")
+      })
+  @GetMapping(path = "/cursor", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<CursorPage<BookBasicDTO>> getAllBooksByCursor(
+      @Parameter(description = "Token returned as 'next' by the previous page")
+          @RequestParam(name = "cursor", required = false)
+          String cursor,
+      @RequestParam(name = "size", defaultValue = "10")
+          @Min(value = 1, message = "Size must be at least 1")
+          @Max(value = 100, message = "Size must not exceed 100")
+          Integer size,
+      HttpServletRequest request,
+      HttpServletResponse response) {
+    return responseCache.render(
+        mountKeyByCursor(BOOK_CURSOR_KEY, CursorToken.decode(cursor), size, ""),
+        tagOf(BOOK_CURSOR_KEY, null),
+        Profile.LIST,
+        request,
+        response,
+        () -> {},
+        () -> okOrNoContent(bookFacade.getAllBooksByCursor(cursor, size)));
+  }
+
+  @Operation(
+      summary = "Get books by genre by cursor",
+      description = "Retrieve books filtered by genre ordered by id using keyset pagination",
+      responses = {
+        @ApiResponse(description = "List of books by genre", responseCode = "200"),
+        @ApiResponse(description = "Invalid cursor", responseCode = "400")
+      })
+  @GetMapping(path = "/genre/{genre}/cursor", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<CursorPage<BookBasicDTO>> getBooksByGenreByCursor(
+      @Parameter(description = "Genre to filter books by") @PathVariable @NotNull String genre,
+      @Parameter(description = "Token returned as 'next' by the previous page")
+          @RequestParam(name = "cursor", required = false)
+          String cursor,
+      @RequestParam(name = "size", defaultValue = "10")
+          @Min(value = 1, message = "Size must be at least 1")
+          @Max(value = 100, message = "Size must not exceed 100")
+          Integer size,
+      HttpServletRequest request,
+      HttpServletResponse response) {
+    return responseCache.render(
+        mountKeyByCursor(BOOK_CURSOR_GENRE_KEY, CursorToken.decode(cursor), size, genre),
+        tagOf(BOOK_CURSOR_GENRE_KEY, genre),
+        Profile.LIST,
+        request,
+        response,
+        () -> {},
+        () -> okOrNoContent(bookFacade.getBooksByGenreByCursor(genre, cursor, size)));
+  }
+
+  @Operation(
+      summary = "Get books by author by cursor",
+      description = "Retrieve books filtered by author ordered by id using keyset pagination",
+      responses = {
+        @ApiResponse(description = "List of books by author", responseCode = "200"),
+        @ApiResponse(description = "Invalid cursor", responseCode = "400")
+      })
+  @GetMapping(path = "/author/{author}/cursor", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<CursorPage<BookBasicDTO>> getBooksByAuthorByCursor(
+      @Parameter(description = "Author to filter books by") @PathVariable @NotNull String author,
+      @Parameter(description = "Token returned as 'next' by the previous page")
+          @RequestParam(name = "cursor", required = false)
+          String cursor,
+      @RequestParam(name = "size", defaultValue = "10")
+          @Min(value = 1, message = "Size must be at least 1")
+          @Max(value = 100, message = "Size must not exceed 100")
+          Integer size,
+      HttpServletRequest request,
+      HttpServletResponse response) {
+    return responseCache.render(
+        mountKeyByCursor(BOOK_CURSOR_AUTHOR_KEY, CursorToken.decode(cursor), size, author),
+        tagOf(BOOK_CURSOR_AUTHOR_KEY, author),
+        Profile.LIST,
+        request,
+        response,
+        () -> {},
+        () -> okOrNoContent(bookFacade.getBooksByAuthorByCursor(author, cursor, size)));
   }
 
   @Operation(
@@ -118,4 +406,12 @@ public class BookController {
     }
     return ResponseEntity.ok().body(books);
   }
+
+  private static <T> ResponseEntity<CustomPage<T>> okOrNoContent(CustomPage<T> page) {
+    return page.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(page);
+  }
+
+  private static <T> ResponseEntity<CursorPage<T>> okOrNoContent(CursorPage<T> page) {
+    return page.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(page);
+  }
 }
@@ -0,0 +1,3 @@
+package com.br.bookdata.api.dtos;
+
+public record BookBatchItemDTO(Long id, boolean found, BookDTO book) {}
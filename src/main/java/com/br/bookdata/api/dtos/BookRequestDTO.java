@@ -0,0 +1,17 @@
+package com.br.bookdata.api.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record BookRequestDTO(
+    @NotBlank(message = "Title is required")
+        @Size(max = 255, message = "Title must not exceed 255 characters")
+        String title,
+    @NotBlank(message = "Author is required")
+        @Size(max = 255, message = "Author must not exceed 255 characters")
+        String author,
+    @NotBlank(message = "Genre is required")
+        @Size(max = 255, message = "Genre must not exceed 255 characters")
+        String genre,
+    @Size(max = 2000, message = "Description must not exceed 2000 characters")
+        String description) {}
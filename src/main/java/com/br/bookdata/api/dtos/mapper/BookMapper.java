@@ -2,7 +2,9 @@ package com.br.bookdata.api.dtos.mapper;
 
 import com.br.bookdata.api.dtos.BookBasicDTO;
 import com.br.bookdata.api.dtos.BookDTO;
+import com.br.bookdata.api.dtos.BookRequestDTO;
 import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.model.BookSummary;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
@@ -17,4 +19,17 @@ public final class BookMapper {
   public static BookBasicDTO toBasicDTO(Book book) {
     return new BookBasicDTO(book.getId(), book.getTitle(), book.getAuthor(), book.getGenre());
   }
+
+  public static BookBasicDTO toBasicDTO(BookSummary book) {
+    return new BookBasicDTO(book.id(), book.title(), book.author(), book.genre());
+  }
+
+  public static Book toEntity(BookRequestDTO book) {
+    return Book.builder()
+        .title(book.title())
+        .author(book.author())
+        .genre(book.genre())
+        .description(book.description())
+        .build();
+  }
 }
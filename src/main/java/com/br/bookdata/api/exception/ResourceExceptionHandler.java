@@ -1,6 +1,8 @@
 package com.br.bookdata.api.exception;
 
 import com.br.bookdata.domain.exception.BookNotFoundException;
+import com.br.bookdata.domain.exception.InvalidCursorException;
+import com.br.bookdata.domain.exception.InvalidImportException;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Path;
@@ -121,6 +123,30 @@ public final class ResourceExceptionHandler {
     return ResponseEntity.status(standardError.getStatus()).body(standardError);
   }
 
+  @ExceptionHandler(InvalidCursorException.class)
+  public ResponseEntity<StandardError> invalidCursor(
+      InvalidCursorException invalidCursorException) {
+    StandardError standardError =
+        new StandardError(
+            HttpStatus.BAD_REQUEST.value(),
+            invalidCursorException.getMessage(),
+            System.currentTimeMillis());
+
+    return ResponseEntity.status(standardError.getStatus()).body(standardError);
+  }
+
+  @ExceptionHandler(InvalidImportException.class)
+  public ResponseEntity<StandardError> invalidImport(
+      InvalidImportException invalidImportException) {
+    StandardError standardError =
+        new StandardError(
+            HttpStatus.BAD_REQUEST.value(),
+            invalidImportException.getMessage(),
+            System.currentTimeMillis());
+
+    return ResponseEntity.status(standardError.getStatus()).body(standardError);
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<StandardError> exception(Exception exception) {
     StandardError standardError =
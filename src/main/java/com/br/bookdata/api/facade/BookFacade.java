@@ -1,33 +1,79 @@
 package com.br.bookdata.api.facade;
 
 import com.br.bookdata.api.dtos.BookBasicDTO;
+import com.br.bookdata.api.dtos.BookBatchItemDTO;
 import com.br.bookdata.api.dtos.BookDTO;
+import com.br.bookdata.api.dtos.BookRequestDTO;
 import com.br.bookdata.api.dtos.mapper.BookMapper;
+import com.br.bookdata.domain.ingest.BookImporter;
+import com.br.bookdata.domain.ingest.ImportFormat;
+import com.br.bookdata.domain.ingest.ImportReport;
 import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.model.BookSummary;
+import com.br.bookdata.domain.observer.contract.ISubject;
+import com.br.bookdata.domain.service.contract.IBookExportService;
 import com.br.bookdata.domain.service.contract.IBookService;
+import com.br.bookdata.domain.timing.StageTimings;
+import com.br.bookdata.domain.utils.CursorPage;
 import com.br.bookdata.domain.utils.CustomPage;
+import com.br.bookdata.domain.warmup.HotKey;
+import com.br.bookdata.domain.warmup.HotKey.Kind;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 @Service
 public final class BookFacade {
   private final IBookService<Book, Long> bookService;
+  private final IBookExportService<Book> exportService;
+  private final BookImporter importer;
+  private final ISubject<String> hotKeys;
+  private final StageTimings timings;
 
-  public BookFacade(@Qualifier("bookServiceImpl") IBookService<Book, Long> bookService) {
+  public BookFacade(
+      @Qualifier("bookServiceImpl") IBookService<Book, Long> bookService,
+      @Qualifier("bookExportServiceImpl") IBookExportService<Book> exportService,
+      BookImporter importer,
+      @Qualifier("hotKeyISubject") ISubject<String> hotKeys,
+      StageTimings timings) {
     this.bookService = bookService;
+    this.exportService = exportService;
+    this.importer = importer;
+    this.hotKeys = hotKeys;
+    this.timings = timings;
   }
 
   public CustomPage<BookBasicDTO> getAllBooks(int page, int size) {
-    return bookService.getAllBooks(page, size).map(BookMapper::toBasicDTO);
+    recordPageRead(Kind.ALL, page, size, null);
+    return toBasicDTOs(bookService.getAllBooks(page, size));
   }
 
   public CustomPage<BookBasicDTO> getBooksByGenre(String genre, int page, int size) {
-    return bookService.getBooksByGenre(genre, page, size).map(BookMapper::toBasicDTO);
+    recordPageRead(Kind.GENRE, page, size, genre);
+    return toBasicDTOs(bookService.getBooksByGenre(genre, page, size));
   }
 
   public CustomPage<BookBasicDTO> getBooksByAuthor(String author, int page, int size) {
-    return bookService.getBooksByAuthor(author, page, size).map(BookMapper::toBasicDTO);
+    recordPageRead(Kind.AUTHOR, page, size, author);
+    return toBasicDTOs(bookService.getBooksByAuthor(author, page, size));
+  }
+
+  public CursorPage<BookBasicDTO> getAllBooksByCursor(String cursor, int size) {
+    return toBasicDTOs(bookService.getAllBooksByCursor(cursor, size));
+  }
+
+  public CursorPage<BookBasicDTO> getBooksByGenreByCursor(String genre, String cursor, int size) {
+    return toBasicDTOs(bookService.getBooksByGenreByCursor(genre, cursor, size));
+  }
+
+  public CursorPage<BookBasicDTO> getBooksByAuthorByCursor(
+      String author, String cursor, int size) {
+    return toBasicDTOs(bookService.getBooksByAuthorByCursor(author, cursor, size));
   }
 
   public List<BookDTO> getRecentlyViewed() {
@@ -35,6 +81,59 @@ public final class BookFacade {
   }
 
   public BookDTO getBookById(Long id) {
-    return BookMapper.toDTO(bookService.getBookById(id));
+    hotKeys.notifyObservers(HotKey.byId(id).member());
+    Book book = bookService.getBookById(id);
+    return timings.time("map", () -> BookMapper.toDTO(book));
+  }
+
+  public List<BookBatchItemDTO> getBooksByIds(List<Long> ids) {
+    List<Optional<Book>> books = bookService.getBooksByIds(ids);
+    return IntStream.range(0, ids.size())
+        .mapToObj(
+            index ->
+                books
+                    .get(index)
+                    .map(book -> new BookBatchItemDTO(ids.get(index), true, BookMapper.toDTO(book)))
+                    .orElseGet(() -> new BookBatchItemDTO(ids.get(index), false, null)))
+        .toList();
+  }
+
+  public BookDTO createBook(BookRequestDTO book) {
+    return BookMapper.toDTO(bookService.createBook(BookMapper.toEntity(book)));
+  }
+
+  public BookDTO updateBook(Long id, BookRequestDTO book) {
+    return BookMapper.toDTO(bookService.updateBook(id, BookMapper.toEntity(book)));
+  }
+
+  public void deleteBook(Long id) {
+    bookService.deleteBook(id);
+  }
+
+  public long exportBooks(String genre, String author, Consumer<BookDTO> sink) {
+    return exportService.exportBooks(genre, author, book -> sink.accept(BookMapper.toDTO(book)));
+  }
+
+  public ImportReport importBooks(ImportFormat format, InputStream in) throws IOException {
+    return importer.importBooks(format, in);
+  }
+
+  /** Records a page read that was answered from the rendered response cache. */
+  public void recordPageRead(Kind kind, int page, int size, String filter) {
+    hotKeys.notifyObservers(HotKey.page(kind, page, size, filter).member());
+  }
+
+  /** Records a book read that was answered from the rendered response cache. */
+  public void recordBookRead(Long id) {
+    hotKeys.notifyObservers(HotKey.byId(id).member());
+    bookService.recordView(id);
+  }
+
+  private CustomPage<BookBasicDTO> toBasicDTOs(CustomPage<BookSummary> page) {
+    return timings.time("map", () -> page.map(BookMapper::toBasicDTO));
+  }
+
+  private CursorPage<BookBasicDTO> toBasicDTOs(CursorPage<BookSummary> page) {
+    return timings.time("map", () -> page.map(BookMapper::toBasicDTO));
   }
 }
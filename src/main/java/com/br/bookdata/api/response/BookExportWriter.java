@@ -0,0 +1,78 @@
+package com.br.bookdata.api.response;
+
+import com.br.bookdata.api.dtos.BookDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes exported books one row at a time. Only the current row is held in memory; the buffered
+ * writer hands full chunks to the servlet stream, which sends them to the client as they fill.
+ */
+public final class BookExportWriter implements AutoCloseable {
+  static final String CSV_HEADER = "id,title,author,genre,description";
+
+  private final ExportFormat format;
+  private final BufferedWriter writer;
+  private final JsonGenerator generator;
+  private final ObjectWriter rowWriter;
+
+  public BookExportWriter(ExportFormat format, OutputStream out, ObjectMapper objectMapper)
+      throws IOException {
+    this.format = format;
+    this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    // One generator for the whole export, without the space Jackson puts between root values.
+    this.generator =
+        objectMapper
+            .getFactory()
+            .createGenerator(writer)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .setRootValueSeparator(null);
+    this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    if (format == ExportFormat.CSV) {
+      writer.write(CSV_HEADER);
+      writer.write('\n');
+    }
+  }
+
+  public void write(BookDTO book) {
+    try {
+      if (format == ExportFormat.NDJSON) {
+        rowWriter.writeValue(generator, book);
+        generator.writeRaw('\n');
+        return;
+      }
+      writer.write(String.valueOf(book.id()));
+      for (String value :
+          new String[] {book.title(), book.author(), book.genre(), book.description()}) {
+        writer.write(',');
+        quote(value);
+      }
+      writer.write('\n');
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    generator.close();
+    writer.flush();
+  }
+
+  private void quote(String value) throws IOException {
+    if (value == null) {
+      return;
+    }
+    writer.write('"');
+    writer.write(value.replace("\"", "\"\""));
+    writer.write('"');
+  }
+}
@@ -0,0 +1,275 @@
+package com.br.bookdata.api.response;
+
+import static com.br.bookdata.domain.service.BookCacheServiceImpl.RESPONSE_CACHE_NAME;
+import static com.br.bookdata.domain.service.BookCacheServiceImpl.versionedKey;
+import static com.br.bookdata.domain.service.enums.BookCacheKeyType.RESPONSE_KEY;
+
+import com.br.bookdata.domain.cache.RedisCacheGenerations;
+import com.br.bookdata.domain.cache.RedisCacheTags;
+import com.br.bookdata.domain.cache.RenderedBody;
+import com.br.bookdata.domain.cache.contract.ICache;
+import com.br.bookdata.domain.timing.StageTimings;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the final JSON bytes of read endpoints. A hit is written to the response as is, without
+ * decoding a cached object, mapping it to DTOs and serializing it again. Bodies above the gzip
+ * threshold are stored compressed and sent that way to clients that accept gzip. Only 200
+ * responses are cached.
+ *
+ * <p>Each entry carries a strong ETag hashed when it was rendered, so a matching {@code
+ * If-None-Match} is answered with 304 by comparing strings. The gzip representation gets its own
+ * tag, as strong validators must differ between encodings. With the cache disabled the handler's
+ * body is still rendered and hashed here on every request, so ETags and 304s don't depend on it.
+ *
+ * <p>List entries are tagged like the pages they render, so writes to a book evict them along with
+ * the pages; detail entries are evicted by id. Keys carry the generation of the family they
+ * render, so retiring a family retires its responses too, and while that generation is unknown
+ * responses are rendered as with the cache disabled.
+ */
+@Component
+public class RenderedResponseCache {
+  private static final String GZIP = "gzip";
+  private static final String GZIP_ETAG_SUFFIX = "-gzip";
+
+  /** The {@code Cache-Control} policy of an endpoint family. */
+  public enum Profile {
+    LIST,
+    DETAIL
+  }
+
+  private final ICache cache;
+  private final RedisCacheTags cacheTags;
+  private final RedisCacheGenerations generations;
+  private final StageTimings timings;
+  private final ObjectMapper objectMapper;
+  private final boolean enabled;
+  private final Duration ttl;
+  private final boolean gzipEnabled;
+  private final int gzipMinSize;
+  private final Map<Profile, String> cacheControls;
+
+  public RenderedResponseCache(
+      @Qualifier("nearCacheImpl") ICache cache,
+      RedisCacheTags cacheTags,
+      RedisCacheGenerations generations,
+      StageTimings timings,
+      ObjectMapper objectMapper,
+      @Value("${bookdata.cache.response.enabled:false}") boolean enabled,
+      @Value("${bookdata.cache.response.ttl:60s}") Duration ttl,
+      @Value("${bookdata.cache.response.gzip.enabled:true}") boolean gzipEnabled,
+      @Value("${bookdata.cache.response.gzip.min-size:1024}") int gzipMinSize,
+      @Value("${bookdata.http.cache-control.list.max-age:30s}") Duration listMaxAge,
+      @Value("${bookdata.http.cache-control.list.s-max-age:60s}") Duration listSharedMaxAge,
+      @Value("${bookdata.http.cache-control.detail.max-age:60s}") Duration detailMaxAge,
+      @Value("${bookdata.http.cache-control.detail.s-max-age:300s}") Duration detailSharedMaxAge) {
+    this.cache = cache;
+    this.cacheTags = cacheTags;
+    this.generations = generations;
+    this.timings = timings;
+    this.objectMapper = objectMapper;
+    this.enabled = enabled;
+    this.ttl = ttl;
+    this.gzipEnabled = gzipEnabled;
+    this.gzipMinSize = gzipMinSize;
+    this.cacheControls = new EnumMap<>(Profile.class);
+    cacheControls.put(Profile.LIST, cacheControl(listMaxAge, listSharedMaxAge));
+    cacheControls.put(Profile.DETAIL, cacheControl(detailMaxAge, detailSharedMaxAge));
+  }
+
+  /** Renders an entry that no tag covers, such as a detail evicted by its id. */
+  public <T> ResponseEntity<T> render(
+      String cacheKey,
+      Profile profile,
+      HttpServletRequest request,
+      HttpServletResponse response,
+      Runnable onHit,
+      Supplier<ResponseEntity<T>> handler) {
+    return render(cacheKey, null, profile, request, response, onHit, handler);
+  }
+
+  /**
+   * Answers from the cached bytes of {@code cacheKey} or calls {@code handler} and caches what it
+   * renders, added to {@code tag} when there is one. {@code onHit} runs for cached answers, so side
+   * effects of the handler such as view tracking still happen. Returns {@code null} when the body,
+   * or a 304, was written here, which Spring MVC takes as a handled response.
+   */
+  public <T> ResponseEntity<T> render(
+      String cacheKey,
+      String tag,
+      Profile profile,
+      HttpServletRequest request,
+      HttpServletResponse response,
+      Runnable onHit,
+      Supplier<ResponseEntity<T>> handler) {
+    String cacheControl = cacheControls.get(profile);
+    Optional<String> versioned =
+        enabled
+            ? versionedKey(RESPONSE_KEY.getValue() + cacheKey, generations)
+            : Optional.empty();
+    if (versioned.isEmpty()) {
+      ResponseEntity<T> entity = handler.get();
+      if (!isCacheable(entity)) {
+        return entity;
+      }
+      write(
+          timings.time("serialize", () -> render(entity.getBody(), false)),
+          cacheControl,
+          request,
+          response);
+      return null;
+    }
+    String key = versioned.get();
+    Optional<RenderedBody> cached =
+        cache.getFromCache(key, new TypeReference<RenderedBody>() {}, RESPONSE_CACHE_NAME);
+    if (cached.isPresent()) {
+      onHit.run();
+      write(cached.get(), cacheControl, request, response);
+      return null;
+    }
+
+    String tagVersion = tag == null ? null : cacheTags.version(tag);
+    ResponseEntity<T> entity = handler.get();
+    if (!isCacheable(entity)) {
+      return entity;
+    }
+    RenderedBody rendered = timings.time("serialize", () -> render(entity.getBody(), gzipEnabled));
+    // Tagged before it is stored, and only if no write evicted the tag while the handler ran.
+    if (tag == null || cacheTags.tag(RESPONSE_CACHE_NAME, key, tag, ttl, tagVersion)) {
+      cache.putToCache(key, rendered, RESPONSE_CACHE_NAME, ttl);
+      if (tag != null && !cacheTags.isCurrent(tag, tagVersion)) {
+        cache.removeCache(key, RESPONSE_CACHE_NAME);
+      }
+    }
+    write(rendered, cacheControl, request, response);
+    return null;
+  }
+
+  private static boolean isCacheable(ResponseEntity<?> entity) {
+    return entity.getStatusCode().value() == HttpStatus.OK.value() && entity.getBody() != null;
+  }
+
+  /** Only bodies kept in the cache are worth compressing; one-off bodies are sent as they are. */
+  private RenderedBody render(Object body, boolean gzip) {
+    try {
+      byte[] json = objectMapper.writeValueAsBytes(body);
+      String etag = RenderedBody.etagOf(json);
+      if (!gzip || json.length < gzipMinSize) {
+        return new RenderedBody(json, false, etag);
+      }
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 4);
+      try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+        out.write(json);
+      }
+      return new RenderedBody(bytes.toByteArray(), true, etag);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void write(
+      RenderedBody rendered,
+      String cacheControl,
+      HttpServletRequest request,
+      HttpServletResponse response) {
+    try {
+      boolean sendGzipped =
+          rendered.gzipped() && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+      String etag = "\"" + rendered.etag() + (sendGzipped ? GZIP_ETAG_SUFFIX : "") + "\"";
+      if (gzipEnabled) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+      }
+      response.setHeader(HttpHeaders.ETAG, etag);
+      response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+      if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), rendered.etag())) {
+        response.setStatus(HttpStatus.NOT_MODIFIED.value());
+        return;
+      }
+
+      byte[] body = rendered.body();
+      if (sendGzipped) {
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+      } else if (rendered.gzipped()) {
+        body = gunzip(body);
+      }
+      response.setStatus(HttpStatus.OK.value());
+      response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+      response.setContentLength(body.length);
+      response.getOutputStream().write(body);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Weak comparison, as RFC 9110 asks for {@code If-None-Match}. Both encodings of an entry match,
+   * since a client holding either one has the current content.
+   */
+  static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*")) {
+        return true;
+      }
+      if (tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if (tag.equals("\"" + etag + "\"") || tag.equals("\"" + etag + GZIP_ETAG_SUFFIX + "\"")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.split(";");
+      if (GZIP.equalsIgnoreCase(parts[0].trim())) {
+        return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+      }
+    }
+    return false;
+  }
+
+  private static String cacheControl(Duration maxAge, Duration sharedMaxAge) {
+    return CacheControl.maxAge(maxAge)
+        .sMaxAge(sharedMaxAge)
+        .cachePublic()
+        .mustRevalidate()
+        .getHeaderValue();
+  }
+
+  private static byte[] gunzip(byte[] body) throws IOException {
+    try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      return gzip.readAllBytes();
+    }
+  }
+}
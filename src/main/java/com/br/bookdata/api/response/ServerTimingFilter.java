@@ -0,0 +1,94 @@
+package com.br.bookdata.api.response;
+
+import com.br.bookdata.domain.timing.StageTimings;
+import com.br.bookdata.domain.timing.StageTimings.Recording;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Records the stages of each request with {@link StageTimings} and, when enabled, reports them in
+ * a {@code Server-Timing} header. Headers can't follow the body, so the header is set when the
+ * body starts being written and covers the stages finished by then; serialization by Spring MVC
+ * converters happens later and only reaches the stage timers.
+ */
+@Component
+public class ServerTimingFilter extends OncePerRequestFilter {
+  static final String SERVER_TIMING = "Server-Timing";
+
+  private final StageTimings timings;
+  private final boolean headerEnabled;
+
+  public ServerTimingFilter(
+      StageTimings timings,
+      @Value("${bookdata.timing.server-timing.enabled:true}") boolean headerEnabled) {
+    this.timings = timings;
+    this.headerEnabled = headerEnabled;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !timings.isEnabled();
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    Recording recording = timings.begin();
+    try {
+      if (!headerEnabled) {
+        filterChain.doFilter(request, response);
+        return;
+      }
+      TimingResponse timingResponse = new TimingResponse(response, recording);
+      filterChain.doFilter(request, timingResponse);
+      timingResponse.writeHeader();
+    } finally {
+      timings.end();
+    }
+  }
+
+  private static final class TimingResponse extends HttpServletResponseWrapper {
+    private final Recording recording;
+    private boolean headerWritten;
+
+    TimingResponse(HttpServletResponse response, Recording recording) {
+      super(response);
+      this.recording = recording;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      writeHeader();
+      return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      writeHeader();
+      return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      writeHeader();
+      super.flushBuffer();
+    }
+
+    void writeHeader() {
+      if (!headerWritten && !isCommitted()) {
+        setHeader(SERVER_TIMING, recording.serverTiming());
+      }
+      headerWritten = true;
+    }
+  }
+}
@@ -1,40 +1,76 @@
 package com.br.bookdata.domain;
 
-import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.dataset.BookDatasetGenerator;
+import com.br.bookdata.domain.repository.BookBulkInsertRepository;
 import com.br.bookdata.domain.repository.IBookRepository;
-import com.github.javafaker.Faker;
-import java.util.stream.Stream;
+import com.br.bookdata.domain.utils.Throughput;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Log4j2
 public class DataLoader implements CommandLineRunner {
+
   @Value("${quantities.fake.books:10}")
   private Long quantityFakeBooks;
 
   private final IBookRepository repository;
+  private final BookBulkInsertRepository bulkInsertRepository;
+  private final BookDatasetGenerator datasetGenerator;
 
-  public DataLoader(IBookRepository repository) {
+  public DataLoader(
+      IBookRepository repository,
+      BookBulkInsertRepository bulkInsertRepository,
+      BookDatasetGenerator datasetGenerator) {
     this.repository = repository;
+    this.bulkInsertRepository = bulkInsertRepository;
+    this.datasetGenerator = datasetGenerator;
   }
 
   @Override
   public void run(String... args) {
-    if (repository.thereAreRecords()) return;
-    Faker faker = new Faker();
-    var books =
-        Stream.generate(
-                () ->
-                    Book.builder()
-                        .title(faker.book().title())
-                        .author(faker.book().author())
-                        .genre(faker.book().genre())
-                        .description(faker.lorem().paragraph())
-                        .build())
-            .limit(quantityFakeBooks)
-            .toList();
-
-    repository.saveAll(books);
+    int backfilled = bulkInsertRepository.backfillLookupKeys();
+    if (backfilled > 0) {
+      log.info("Backfilled the genre and author lookup keys of {} books", backfilled);
+    }
+    if (repository.thereAreRecords()) {
+      // Rows written before ids came from book_id_seq would collide with its first values. Once
+      // the sequence is past them this leaves it alone.
+      bulkInsertRepository.syncIdSequence();
+      return;
+    }
+    long start = System.nanoTime();
+    long[] progress = {0, start};
+
+    long inserted =
+        datasetGenerator.generate(
+            quantityFakeBooks,
+            batch -> {
+              bulkInsertRepository.insertAll(batch);
+              progress[0] += batch.size();
+              long now = System.nanoTime();
+              if (now - progress[1] >= Throughput.PROGRESS_INTERVAL_NANOS) {
+                log.info(
+                    "Seeded {} of {} books ({} rows/s)",
+                    progress[0],
+                    quantityFakeBooks,
+                    Throughput.rowsPerSecond(progress[0], now - start));
+                progress[1] = now;
+              }
+            });
+
+    bulkInsertRepository.analyze();
+    long elapsed = System.nanoTime() - start;
+    log.info(
+        "Seeded {} books in {} ms ({} rows/s)",
+        inserted,
+        TimeUnit.NANOSECONDS.toMillis(elapsed),
+        Throughput.rowsPerSecond(inserted, elapsed));
   }
 }
@@ -0,0 +1,6 @@
+package com.br.bookdata.domain.cache;
+
+import java.time.Duration;
+
+/** A value to be written by a bulk put together with its own time to live (null keeps it). */
+public record CacheEntry<T>(T value, Duration ttl) {}
@@ -0,0 +1,112 @@
+package com.br.bookdata.domain.cache;
+
+import com.br.bookdata.domain.service.enums.BookCacheKeyType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache meters tagged by cache name and key family ({@link BookCacheKeyType}): gets by result,
+ * operation latency and serialized payload sizes. Meters are looked up once per tag combination,
+ * so recording on the hot path is a map read and an increment.
+ *
+ * <p>Every layer counts its own hits and misses, and a near miss is the get the Redis layer then
+ * sees, so the hit ratio of a family is its hits of every layer over its near gets. Batch calls
+ * count each key under its own family.
+ */
+@Component
+public class CacheMetrics {
+  public static final String NEAR_LAYER = "near";
+  public static final String REDIS_LAYER = "redis";
+  private static final String OTHER_FAMILY = "OTHER";
+
+  private final MeterRegistry meterRegistry;
+  private final Map<MeterKey, Counter> gets = new ConcurrentHashMap<>();
+  private final Map<MeterKey, Timer> latencies = new ConcurrentHashMap<>();
+  private final Map<MeterKey, DistributionSummary> payloadSizes = new ConcurrentHashMap<>();
+  private final Map<MeterKey, Counter> decodeFailures = new ConcurrentHashMap<>();
+
+  public CacheMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  public void recordGets(String layer, String cacheName, String key, int hits, int misses) {
+    if (hits > 0) {
+      getCounter(cacheName, key, layer, "hit").increment(hits);
+    }
+    if (misses > 0) {
+      getCounter(cacheName, key, layer, "miss").increment(misses);
+    }
+  }
+
+  /** Records the time since {@code startNanos}, taken from {@link System#nanoTime()}. */
+  public void recordLatency(String operation, String cacheName, String key, long startNanos) {
+    latencies
+        .computeIfAbsent(
+            new MeterKey(cacheName, familyOf(key), operation),
+            meterKey ->
+                Timer.builder("bookdata.cache.latency")
+                    .description("Time spent in Redis per cache operation")
+                    .tags(meterKey.tags("operation"))
+                    .register(meterRegistry))
+        .record(Duration.ofNanos(System.nanoTime() - startNanos));
+  }
+
+  public void recordPayload(String operation, String cacheName, String key, int bytes) {
+    payloadSizes
+        .computeIfAbsent(
+            new MeterKey(cacheName, familyOf(key), operation),
+            meterKey ->
+                DistributionSummary.builder("bookdata.cache.payload.size")
+                    .description("Serialized size of cached values")
+                    .baseUnit("bytes")
+                    .tags(meterKey.tags("operation"))
+                    .register(meterRegistry))
+        .record(bytes);
+  }
+
+  /** Counts an entry that was found but could not be decoded, and was dropped. */
+  public void recordDecodeFailure(String cacheName, String key) {
+    decodeFailures
+        .computeIfAbsent(
+            new MeterKey(cacheName, familyOf(key), "decode"),
+            meterKey ->
+                Counter.builder("bookdata.cache.decode.failures")
+                    .description("Cached entries dropped because they could not be decoded")
+                    .tags("cache", cacheName, "family", meterKey.family())
+                    .register(meterRegistry))
+        .increment();
+  }
+
+  /**
+   * The family of {@code key}, matched by prefix, so versioned keys count with their family.
+   * Rendered responses count with the family of the key they render and are told apart by cache.
+   */
+  public static String familyOf(String key) {
+    String prefix = BookCacheKeyType.RESPONSE_KEY.getValue();
+    String familyKey = key.startsWith(prefix) ? key.substring(prefix.length()) : key;
+    return BookCacheKeyType.familyOf(familyKey).map(Enum::name).orElse(OTHER_FAMILY);
+  }
+
+  private Counter getCounter(String cacheName, String key, String layer, String result) {
+    return gets.computeIfAbsent(
+        new MeterKey(cacheName, familyOf(key), layer + ":" + result),
+        meterKey ->
+            Counter.builder("bookdata.cache.gets")
+                .description("Cache gets by the layer that answered and their result")
+                .tags("cache", cacheName, "family", meterKey.family())
+                .tags("layer", layer, "result", result)
+                .register(meterRegistry));
+  }
+
+  private record MeterKey(String cacheName, String family, String variant) {
+    String[] tags(String variantTag) {
+      return new String[] {"cache", cacheName, "family", family, variantTag, variant};
+    }
+  }
+}
@@ -0,0 +1,203 @@
+package com.br.bookdata.domain.cache;
+
+import static com.br.bookdata.domain.cache.CacheMetrics.NEAR_LAYER;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.br.bookdata.domain.cache.codec.ValueCodecRegistry;
+import com.br.bookdata.domain.cache.contract.ICache;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-process tier in front of the remote cache. Entries are kept encoded with the same codecs as
+ * Redis and decoded on every read, so each caller gets its own copy and changing a returned book or
+ * list can't change what the next reader sees. Writes and removals are published on a Redis
+ * channel so the other nodes drop their copy.
+ */
+@Service("nearCacheImpl")
+@Log4j2
+public class NearCacheImpl implements ICache, MessageListener {
+  private static final String MESSAGE_SEPARATOR = "|";
+  private static final String KEY_SEPARATOR = "\n";
+
+  private final ICache remoteCache;
+  private final StringRedisTemplate stringRedisTemplate;
+  private final CacheMetrics cacheMetrics;
+  private final ValueCodecRegistry codecRegistry;
+  private final Cache<String, byte[]> localCache;
+  private final String invalidationChannel;
+  private final String nodeId = UUID.randomUUID().toString();
+
+  public NearCacheImpl(
+      @Qualifier("writeBehindCacheImpl") ICache remoteCache,
+      StringRedisTemplate stringRedisTemplate,
+      RedisMessageListenerContainer listenerContainer,
+      CacheMetrics cacheMetrics,
+      ValueCodecRegistry codecRegistry,
+      @Value("${bookdata.cache.near.maximum-size:10000}") long maximumSize,
+      @Value("${bookdata.cache.near.ttl:30s}") Duration ttl,
+      @Value("${bookdata.cache.near.invalidation-channel:bookdata:near-cache:invalidate}")
+          String invalidationChannel) {
+    this.remoteCache = remoteCache;
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.cacheMetrics = cacheMetrics;
+    this.codecRegistry = codecRegistry;
+    this.invalidationChannel = invalidationChannel;
+    this.localCache = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+    listenerContainer.addMessageListener(this, new ChannelTopic(invalidationChannel));
+  }
+
+  @Override
+  public <T> Optional<T> getFromCache(
+      String key, TypeReference<T> typeReference, String cacheName) {
+    T localValue = getLocal(key, typeReference, cacheName);
+    if (localValue != null) {
+      cacheMetrics.recordGets(NEAR_LAYER, cacheName, key, 1, 0);
+      log.debug("Near cache hit. Key: {}, Cache Name: {}", key, cacheName);
+      return Optional.of(localValue);
+    }
+    cacheMetrics.recordGets(NEAR_LAYER, cacheName, key, 0, 1);
+
+    Optional<T> remoteValue = remoteCache.getFromCache(key, typeReference, cacheName);
+    remoteValue.ifPresent(value -> putLocal(key, value, cacheName));
+    return remoteValue;
+  }
+
+  @Override
+  public <T> Map<String, T> multiGet(
+      List<String> keys, TypeReference<T> typeReference, String cacheName) {
+    Map<String, T> found = new LinkedHashMap<>();
+    List<String> remoteKeys = new ArrayList<>();
+    for (String key : keys) {
+      T localValue = getLocal(key, typeReference, cacheName);
+      if (localValue != null) {
+        found.put(key, localValue);
+        cacheMetrics.recordGets(NEAR_LAYER, cacheName, key, 1, 0);
+      } else {
+        remoteKeys.add(key);
+        cacheMetrics.recordGets(NEAR_LAYER, cacheName, key, 0, 1);
+      }
+    }
+    log.debug("Near cache resolved {} of {} keys locally", found.size(), keys.size());
+
+    if (!remoteKeys.isEmpty()) {
+      Map<String, T> remoteValues = remoteCache.multiGet(remoteKeys, typeReference, cacheName);
+      remoteValues.forEach((key, value) -> putLocal(key, value, cacheName));
+      found.putAll(remoteValues);
+    }
+    return found;
+  }
+
+  @Override
+  public <T> void putToCache(String key, T value, String cacheName, Duration duration) {
+    String prefixedKey = cacheName + ":" + key;
+    remoteCache.putToCache(key, value, cacheName, duration);
+    putLocal(key, value, cacheName);
+    // Peers re-read invalidated keys from Redis, so they are told once the write has reached it.
+    remoteCache.afterWrites(() -> publishInvalidation(prefixedKey));
+  }
+
+  @Override
+  public <T> void multiPut(Map<String, CacheEntry<T>> entries, String cacheName) {
+    if (entries.isEmpty()) {
+      return;
+    }
+    remoteCache.multiPut(entries, cacheName);
+    List<String> prefixedKeys = new ArrayList<>(entries.size());
+    entries.forEach(
+        (key, entry) -> {
+          putLocal(key, entry.value(), cacheName);
+          prefixedKeys.add(cacheName + ":" + key);
+        });
+    remoteCache.afterWrites(() -> publishInvalidation(String.join(KEY_SEPARATOR, prefixedKeys)));
+  }
+
+  @Override
+  public void removeCache(String key, String cacheName) {
+    String prefixedKey = cacheName + ":" + key;
+    remoteCache.removeCache(key, cacheName);
+    localCache.invalidate(prefixedKey);
+    publishInvalidation(prefixedKey);
+  }
+
+  @Override
+  public void multiRemove(List<String> keys, String cacheName) {
+    if (keys.isEmpty()) {
+      return;
+    }
+    remoteCache.multiRemove(keys, cacheName);
+    List<String> prefixedKeys = keys.stream().map(key -> cacheName + ":" + key).toList();
+    localCache.invalidateAll(prefixedKeys);
+    publishInvalidation(String.join(KEY_SEPARATOR, prefixedKeys));
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    String body = new String(message.getBody(), UTF_8);
+    int separator = body.indexOf(MESSAGE_SEPARATOR);
+    if (separator < 0) {
+      log.warn("Ignoring malformed near cache invalidation message: {}", body);
+      return;
+    }
+
+    String senderId = body.substring(0, separator);
+    if (nodeId.equals(senderId)) {
+      return;
+    }
+
+    List<String> keys = List.of(body.substring(separator + 1).split(KEY_SEPARATOR));
+    localCache.invalidateAll(keys);
+    log.debug("Near cache entries invalidated by node {}. Keys: {}", senderId, keys);
+  }
+
+  private <T> T getLocal(String key, TypeReference<T> typeReference, String cacheName) {
+    String prefixedKey = cacheName + ":" + key;
+    byte[] bytes = localCache.getIfPresent(prefixedKey);
+    if (bytes == null) {
+      return null;
+    }
+    try {
+      return codecRegistry.decode(key, bytes, typeReference);
+    } catch (RuntimeException e) {
+      localCache.invalidate(prefixedKey);
+      log.warn("Dropping undecodable near cache entry. Key: {}. Error: {}", key, e.getMessage());
+      return null;
+    }
+  }
+
+  private void putLocal(String key, Object value, String cacheName) {
+    String prefixedKey = cacheName + ":" + key;
+    try {
+      localCache.put(prefixedKey, codecRegistry.encode(key, value));
+    } catch (RuntimeException e) {
+      localCache.invalidate(prefixedKey);
+      log.warn("Could not encode near cache entry. Key: {}. Error: {}", key, e.getMessage());
+    }
+  }
+
+  private void publishInvalidation(String key) {
+    try {
+      stringRedisTemplate.convertAndSend(invalidationChannel, nodeId + MESSAGE_SEPARATOR + key);
+    } catch (Exception e) {
+      log.warn(
+          "Failed to publish near cache invalidation. Key: {}. Error: {}", key, e.getMessage(), e);
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package com.br.bookdata.domain.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Generation counters of cache key families, kept in one Redis hash. Keys embed the generation of
+ * their family, so bumping a counter retires every entry of the family at once: readers move on to
+ * keys nobody wrote yet and the old entries age out by their TTL, with nothing scanned or deleted.
+ *
+ * <p>Readers use a local copy of the hash that is reloaded once it is older than {@code
+ * bookdata.cache.generations.refresh}, which bounds how long another node keeps reading a retired
+ * generation. Counters only grow, so a copy never replaces a newer generation with an older one.
+ *
+ * <p>Until the hash is loaded once, generations are unknown and callers bypass the cache: reading
+ * generation {@code 0} instead could serve the entries a bulk eviction retired.
+ */
+@Component
+@Log4j2
+public class RedisCacheGenerations {
+  private static final String KEY = "bookdata:generations";
+
+  @SuppressWarnings("rawtypes")
+  private static final RedisScript<List> BUMP_SCRIPT =
+      new DefaultRedisScript<>(
+          "local generations = {} "
+              + "for i, family in ipairs(ARGV) do "
+              + "generations[i] = redis.call('hincrby', KEYS[1], family, 1) "
+              + "end "
+              + "return generations",
+          List.class);
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final long refreshNanos;
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+  private volatile Map<String, Long> generations = Map.of();
+  private volatile long checkedAt;
+  private volatile boolean checked;
+  private volatile boolean loaded;
+
+  public RedisCacheGenerations(
+      StringRedisTemplate stringRedisTemplate,
+      @Value("${bookdata.cache.generations.refresh:5s}") Duration refresh) {
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.refreshNanos = refresh.toNanos();
+  }
+
+  /**
+   * The current generation of {@code family}, {@code 0} until it is first bumped, or empty while
+   * the generations could not be loaded.
+   */
+  public OptionalLong current(String family) {
+    if (!loaded) {
+      loadFirst();
+    } else if (System.nanoTime() - checkedAt >= refreshNanos
+        && refreshing.compareAndSet(false, true)) {
+      try {
+        load();
+      } finally {
+        refreshing.set(false);
+      }
+    }
+    return loaded ? OptionalLong.of(generations.getOrDefault(family, 0L)) : OptionalLong.empty();
+  }
+
+  /**
+   * Increments the generations of {@code families} in Redis, in one script so no reader sees only
+   * some of them bumped, and applies them locally right away. Other nodes see them on their next
+   * refresh.
+   */
+  @SuppressWarnings("unchecked")
+  public void bump(Collection<String> families) {
+    if (families.isEmpty()) {
+      return;
+    }
+    List<String> ordered = List.copyOf(families);
+    List<Long> bumpedGenerations;
+    try {
+      bumpedGenerations =
+          stringRedisTemplate.execute(BUMP_SCRIPT, List.of(KEY), ordered.toArray());
+    } catch (Exception e) {
+      log.warn(
+          "Failed to bump cache generations. Families: {}. Error: {}", ordered, e.getMessage(), e);
+      return;
+    }
+    Map<String, Long> bumped = new HashMap<>();
+    if (bumpedGenerations != null) {
+      for (int i = 0; i < Math.min(ordered.size(), bumpedGenerations.size()); i++) {
+        bumped.put(ordered.get(i), bumpedGenerations.get(i));
+      }
+    }
+    merge(bumped);
+    log.info("Bumped cache generations: {}", bumped);
+  }
+
+  /**
+   * Callers wait for the first load, as generation {@code 0} could name a retired family. A failed
+   * load is retried once per refresh interval; meanwhile generations stay unknown. Later reloads
+   * happen on one caller while the others keep reading the copy they have.
+   */
+  private synchronized void loadFirst() {
+    if (!loaded && (!checked || System.nanoTime() - checkedAt >= refreshNanos)) {
+      load();
+    }
+  }
+
+  private void load() {
+    try {
+      Map<Object, Object> entries = stringRedisTemplate.opsForHash().entries(KEY);
+      Map<String, Long> fresh = new HashMap<>();
+      entries.forEach(
+          (family, generation) ->
+              fresh.put(String.valueOf(family), Long.valueOf(String.valueOf(generation))));
+      merge(fresh);
+      loaded = true;
+    } catch (Exception e) {
+      log.warn("Failed to load cache generations. Error: {}", e.getMessage(), e);
+    } finally {
+      checkedAt = System.nanoTime();
+      checked = true;
+    }
+  }
+
+  private synchronized void merge(Map<String, Long> fresh) {
+    Map<String, Long> merged = new HashMap<>(generations);
+    fresh.forEach((family, generation) -> merged.merge(family, generation, Math::max));
+    generations = Map.copyOf(merged);
+  }
+}
@@ -1,27 +1,54 @@
 package com.br.bookdata.domain.cache;
 
+import static com.br.bookdata.domain.cache.CacheMetrics.REDIS_LAYER;
 import static java.util.Objects.isNull;
 
+import com.br.bookdata.domain.cache.codec.ValueCodecRegistry;
 import com.br.bookdata.domain.cache.contract.ICache;
+import com.br.bookdata.domain.timing.StageTimings;
+import com.br.bookdata.domain.timing.StageTimings.Stage;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.stereotype.Service;
 
 @Service("redisCacheImpl")
 @Log4j2
 public final class RedisCacheImpl implements ICache {
 
-  private final RedisTemplate<String, Object> redisTemplate;
-  private final ObjectMapper objectMapper;
+  private final RedisTemplate<String, byte[]> redisTemplate;
+  private final ValueCodecRegistry codecRegistry;
+  private final CacheMetrics cacheMetrics;
+  private final StageTimings timings;
+  private final int chunkSize;
 
-  public RedisCacheImpl(RedisTemplate<String, Object> redisTemplate, ObjectMapper objectMapper) {
+  public RedisCacheImpl(
+      RedisTemplate<String, byte[]> redisTemplate,
+      ValueCodecRegistry codecRegistry,
+      CacheMetrics cacheMetrics,
+      StageTimings timings,
+      @Value("${bookdata.cache.batch.chunk-size:500}") int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("bookdata.cache.batch.chunk-size must be positive");
+    }
     this.redisTemplate = redisTemplate;
-    this.objectMapper = objectMapper;
+    this.codecRegistry = codecRegistry;
+    this.cacheMetrics = cacheMetrics;
+    this.timings = timings;
+    this.chunkSize = chunkSize;
   }
 
   @Override
@@ -30,15 +57,27 @@ public final class RedisCacheImpl implements ICache {
     String prefixedKey = cacheName + ":" + key;
     try {
       log.debug("Attempting to retrieve data from cache. Key: {}, Cache Name: {}", key, cacheName);
-      Object value = redisTemplate.opsForValue().get(prefixedKey);
+      long start = System.nanoTime();
+      byte[] value = timings.time("redis", () -> redisTemplate.opsForValue().get(prefixedKey));
+      cacheMetrics.recordLatency("get", cacheName, key, start);
 
       if (isNull(value)) {
-        log.info("Cache miss. No value found for key: {}, Cache Name: {}", key, cacheName);
+        cacheMetrics.recordGets(REDIS_LAYER, cacheName, key, 0, 1);
+        log.debug("Cache miss. No value found for key: {}, Cache Name: {}", key, cacheName);
         return Optional.empty();
       }
 
+      cacheMetrics.recordPayload("get", cacheName, key, value.length);
+      Optional<T> decoded =
+          timings.time("decode", () -> decode(key, value, typeReference, cacheName));
+      if (decoded.isEmpty()) {
+        cacheMetrics.recordGets(REDIS_LAYER, cacheName, key, 0, 1);
+        dropUndecodable(List.of(key), cacheName);
+        return decoded;
+      }
+      cacheMetrics.recordGets(REDIS_LAYER, cacheName, key, 1, 0);
       log.debug("Cache hit. Value found for key: {}, Cache Name: {}", key, cacheName);
-      return Optional.of(objectMapper.convertValue(value, typeReference));
+      return decoded;
     } catch (RedisConnectionFailureException e) {
       log.warn(
           "Redis connection failure while retrieving value. Key: {}, Cache Name: {}. Error: {}",
@@ -58,6 +97,60 @@ public final class RedisCacheImpl implements ICache {
     }
   }
 
+  @Override
+  public <T> Map<String, T> multiGet(
+      List<String> keys, TypeReference<T> typeReference, String cacheName) {
+    Map<String, T> found = new LinkedHashMap<>();
+    if (keys.isEmpty()) {
+      return found;
+    }
+    try {
+      log.debug(
+          "Attempting to retrieve {} keys from cache. Cache Name: {}", keys.size(), cacheName);
+      for (List<String> familyKeys : byFamily(keys, key -> key)) {
+        long start = System.nanoTime();
+        int familyFound = found.size();
+        for (List<String> chunk : chunks(familyKeys)) {
+          List<String> prefixedKeys = chunk.stream().map(key -> cacheName + ":" + key).toList();
+          List<byte[]> values =
+              timings.time("redis", () -> redisTemplate.opsForValue().multiGet(prefixedKeys));
+
+          List<String> undecodable = new ArrayList<>();
+          try (Stage decode = timings.start("decode")) {
+            for (int i = 0; i < chunk.size(); i++) {
+              byte[] value = values == null ? null : values.get(i);
+              if (!isNull(value)) {
+                String key = chunk.get(i);
+                cacheMetrics.recordPayload("get", cacheName, key, value.length);
+                decode(key, value, typeReference, cacheName)
+                    .ifPresentOrElse(
+                        decoded -> found.put(key, decoded), () -> undecodable.add(key));
+              }
+            }
+          }
+          dropUndecodable(undecodable, cacheName);
+        }
+        int hits = found.size() - familyFound;
+        cacheMetrics.recordLatency("multi_get", cacheName, familyKeys.get(0), start);
+        cacheMetrics.recordGets(
+            REDIS_LAYER, cacheName, familyKeys.get(0), hits, familyKeys.size() - hits);
+      }
+      log.debug(
+          "Multi-get resolved {} of {} keys. Cache Name: {}", found.size(), keys.size(), cacheName);
+      return found;
+    } catch (Exception e) {
+      log.warn(
+          "Failed to retrieve {} keys from Redis, returning {} found so far. Cache Name: {}."
+              + " Error: {}",
+          keys.size(),
+          found.size(),
+          cacheName,
+          e.getMessage(),
+          e);
+      return found;
+    }
+  }
+
   @Override
   public <T> void putToCache(String key, T value, String cacheName, Duration duration) {
     String prefixedKey = cacheName + ":" + key;
@@ -67,12 +160,18 @@ public final class RedisCacheImpl implements ICache {
           key,
           cacheName,
           duration);
-      Optional.ofNullable(duration)
-          .ifPresentOrElse(
-              expire -> redisTemplate.opsForValue().set(prefixedKey, value, expire),
-              () -> redisTemplate.opsForValue().set(prefixedKey, value));
+      byte[] payload = timings.time("encode", () -> codecRegistry.encode(key, value));
+      long start = System.nanoTime();
+      try (Stage redis = timings.start("redis")) {
+        Optional.ofNullable(duration)
+            .ifPresentOrElse(
+                expire -> redisTemplate.opsForValue().set(prefixedKey, payload, expire),
+                () -> redisTemplate.opsForValue().set(prefixedKey, payload));
+      }
+      cacheMetrics.recordLatency("put", cacheName, key, start);
+      cacheMetrics.recordPayload("put", cacheName, key, payload.length);
 
-      log.info(
+      log.debug(
           "Successfully stored data in cache. Key: {}, Cache Name: {}, Expiration: {}",
           key,
           cacheName,
@@ -102,9 +201,167 @@ public final class RedisCacheImpl implements ICache {
   }
 
   @Override
-  public void removeCache(String key) {
-    log.debug("Attempting to delete data in cache. Key: {}", key);
-    redisTemplate.delete(key);
-    log.info("Successfully delete data in cache. Key: {}", key);
+  public <T> void multiPut(Map<String, CacheEntry<T>> entries, String cacheName) {
+    if (entries.isEmpty()) {
+      return;
+    }
+    try {
+      for (List<Map.Entry<String, CacheEntry<T>>> familyEntries :
+          byFamily(new ArrayList<>(entries.entrySet()), Map.Entry::getKey)) {
+        long start = System.nanoTime();
+        for (List<Map.Entry<String, CacheEntry<T>>> chunk : chunks(familyEntries)) {
+          Map<String, CacheEntry<byte[]>> payloads = new LinkedHashMap<>();
+          chunk.forEach(
+              entry ->
+                  payloads.put(
+                      cacheName + ":" + entry.getKey(),
+                      new CacheEntry<>(
+                          codecRegistry.encode(entry.getKey(), entry.getValue().value()),
+                          entry.getValue().ttl())));
+          redisTemplate.executePipelined(setAll(payloads));
+          payloads.forEach(
+              (prefixedKey, entry) ->
+                  cacheMetrics.recordPayload(
+                      "put",
+                      cacheName,
+                      prefixedKey.substring(cacheName.length() + 1),
+                      entry.value().length));
+        }
+        cacheMetrics.recordLatency("multi_put", cacheName, familyEntries.get(0).getKey(), start);
+      }
+      log.debug("Stored {} keys in pipelines. Cache Name: {}", entries.size(), cacheName);
+    } catch (Exception e) {
+      log.warn(
+          "Failed to store {} keys in Redis. Cache Name: {}. Error: {}",
+          entries.size(),
+          cacheName,
+          e.getMessage(),
+          e);
+    }
+  }
+
+  @Override
+  public void removeCache(String key, String cacheName) {
+    String prefixedKey = cacheName + ":" + key;
+    try {
+      log.debug("Attempting to delete data in cache. Key: {}, Cache Name: {}", key, cacheName);
+      long start = System.nanoTime();
+      redisTemplate.delete(prefixedKey);
+      cacheMetrics.recordLatency("remove", cacheName, key, start);
+      log.debug("Successfully delete data in cache. Key: {}, Cache Name: {}", key, cacheName);
+    } catch (Exception e) {
+      log.warn(
+          "Failed to delete data in Redis. Key: {}, Cache Name: {}. Error: {}",
+          key,
+          cacheName,
+          e.getMessage(),
+          e);
+    }
+  }
+
+  @Override
+  public void multiRemove(List<String> keys, String cacheName) {
+    if (keys.isEmpty()) {
+      return;
+    }
+    try {
+      long removed = 0;
+      for (List<String> familyKeys : byFamily(keys, key -> key)) {
+        long start = System.nanoTime();
+        for (List<String> chunk : chunks(familyKeys)) {
+          Long deleted =
+              redisTemplate.delete(chunk.stream().map(key -> cacheName + ":" + key).toList());
+          removed += deleted == null ? 0 : deleted;
+        }
+        cacheMetrics.recordLatency("multi_remove", cacheName, familyKeys.get(0), start);
+      }
+      log.debug(
+          "Removed {} of {} keys from cache. Cache Name: {}", removed, keys.size(), cacheName);
+    } catch (Exception e) {
+      log.warn(
+          "Failed to remove {} keys from Redis. Cache Name: {}. Error: {}",
+          keys.size(),
+          cacheName,
+          e.getMessage(),
+          e);
+    }
+  }
+
+  /**
+   * Decodes one entry. An entry that can't be decoded, e.g. one written in an older format, is
+   * counted and treated as a miss, so one bad entry never fails the others of a batch.
+   */
+  private <T> Optional<T> decode(
+      String key, byte[] value, TypeReference<T> typeReference, String cacheName) {
+    try {
+      return Optional.of(codecRegistry.decode(key, value, typeReference));
+    } catch (RuntimeException e) {
+      cacheMetrics.recordDecodeFailure(cacheName, key);
+      log.warn(
+          "Dropping cache entry that could not be decoded. Key: {}, Cache Name: {}. Error: {}",
+          key,
+          cacheName,
+          e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /** Deletes undecodable entries, so the next read misses and caches a fresh value. */
+  private void dropUndecodable(List<String> keys, String cacheName) {
+    if (keys.isEmpty()) {
+      return;
+    }
+    try {
+      redisTemplate.delete(keys.stream().map(key -> cacheName + ":" + key).toList());
+    } catch (Exception e) {
+      log.warn(
+          "Failed to delete {} undecodable keys. Cache Name: {}. Error: {}",
+          keys.size(),
+          cacheName,
+          e.getMessage(),
+          e);
+    }
+  }
+
+  /**
+   * Splits a batch by key family, keeping the order within each family, so a batch mixing families
+   * times each one under its own tag.
+   */
+  private static <E> Collection<List<E>> byFamily(List<E> items, Function<E, String> keyOf) {
+    Map<String, List<E>> families = new LinkedHashMap<>();
+    for (E item : items) {
+      families
+          .computeIfAbsent(CacheMetrics.familyOf(keyOf.apply(item)), family -> new ArrayList<>())
+          .add(item);
+    }
+    return families.values();
+  }
+
+  private <E> List<List<E>> chunks(List<E> items) {
+    List<List<E>> chunks = new ArrayList<>();
+    for (int from = 0; from < items.size(); from += chunkSize) {
+      chunks.add(items.subList(from, Math.min(from + chunkSize, items.size())));
+    }
+    return chunks;
+  }
+
+  private static SessionCallback<Object> setAll(Map<String, CacheEntry<byte[]>> payloads) {
+    return new SessionCallback<>() {
+      @Override
+      @SuppressWarnings("unchecked")
+      public <K, V> Object execute(RedisOperations<K, V> operations) {
+        ValueOperations<String, byte[]> valueOperations =
+            ((RedisOperations<String, byte[]>) operations).opsForValue();
+        payloads.forEach(
+            (prefixedKey, entry) -> {
+              if (isNull(entry.ttl())) {
+                valueOperations.set(prefixedKey, entry.value());
+              } else {
+                valueOperations.set(prefixedKey, entry.value(), entry.ttl());
+              }
+            });
+        return null;
+      }
+    };
   }
 }
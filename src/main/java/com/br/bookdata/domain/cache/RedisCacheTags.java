@@ -0,0 +1,180 @@
+package com.br.bookdata.domain.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis sets naming the cache entries that depend on a tag, such as every cached page of a genre.
+ * Entries add themselves when they are cached, and a write pops the sets of the tags it touches to
+ * evict exactly those entries instead of scanning or flushing the cache. Members carry their cache
+ * name, so one set covers the book and the rendered response caches.
+ *
+ * <p>The sets are sorted by when each entry expires. Tagging drops the members that expired and
+ * the set lives as long as its longest-lived member, so a set kept alive by steady reads, such as
+ * {@code all} with one cursor key per position, holds only the entries that are still cached.
+ *
+ * <p>Each pop also bumps a version of its tags, and retiring every list bumps one shared by all
+ * tags. A reader takes the {@link #version} before loading and {@link #tag tags} with it, which
+ * fails when a write evicted the tag since: the loaded value may predate that write, so it is not
+ * cached.
+ */
+@Component
+@Log4j2
+public class RedisCacheTags {
+  private static final String TAG_PREFIX = "bookdata:tag:";
+  private static final String MEMBER_SEPARATOR = ":";
+  private static final String VERSIONS_KEY = "bookdata:tag-versions";
+  private static final String ALL_TAGS_FIELD = "*";
+  // Never a stored version, so tagging with it always fails.
+  private static final String UNAVAILABLE_VERSION = "-";
+  private static final String VERSION_OF =
+      "local function version(tag) "
+          + "local versions = redis.call('hmget', KEYS[1], tag, '"
+          + ALL_TAGS_FIELD
+          + "') "
+          + "return (versions[1] or '0') .. ':' .. (versions[2] or '0') "
+          + "end ";
+  // Redis' clock, so members tagged by different nodes expire on the same time line.
+  private static final String NOW_MILLIS =
+      "local time = redis.call('time') "
+          + "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) ";
+  private static final RedisScript<String> VERSION_SCRIPT =
+      new DefaultRedisScript<>(VERSION_OF + "return version(ARGV[1])", String.class);
+  private static final RedisScript<Long> TAG_SCRIPT =
+      new DefaultRedisScript<>(
+          NOW_MILLIS
+              + VERSION_OF
+              + "if version(ARGV[3]) ~= ARGV[4] then return -1 end "
+              + "local ttl = tonumber(ARGV[2]) "
+              + "redis.call('zremrangebyscore', KEYS[2], '-inf', now) "
+              + "redis.call('zadd', KEYS[2], now + ttl, ARGV[1]) "
+              + "if redis.call('pttl', KEYS[2]) < ttl then "
+              + "redis.call('pexpire', KEYS[2], ttl) "
+              + "end "
+              + "return redis.call('zcard', KEYS[2])",
+          Long.class);
+
+  @SuppressWarnings("rawtypes")
+  private static final RedisScript<List> POP_SCRIPT =
+      new DefaultRedisScript<>(
+          NOW_MILLIS
+              + "local members = {} "
+              + "for i = 2, #KEYS do "
+              + "for _, member in ipairs(redis.call('zrangebyscore', KEYS[i], now, '+inf')) do "
+              + "members[#members + 1] = member "
+              + "end "
+              + "redis.call('del', KEYS[i]) "
+              + "redis.call('hincrby', KEYS[1], ARGV[i - 1], 1) "
+              + "end "
+              + "return members",
+          List.class);
+
+  private final StringRedisTemplate stringRedisTemplate;
+
+  public RedisCacheTags(StringRedisTemplate stringRedisTemplate) {
+    this.stringRedisTemplate = stringRedisTemplate;
+  }
+
+  /**
+   * The current version of {@code tag}, to be read before loading what will be tagged with it. When
+   * Redis can't be read it is a version no {@link #tag} accepts, so nothing is cached.
+   */
+  public String version(String tag) {
+    try {
+      String version = stringRedisTemplate.execute(VERSION_SCRIPT, List.of(VERSIONS_KEY), tag);
+      return version == null ? UNAVAILABLE_VERSION : version;
+    } catch (Exception e) {
+      log.warn("Failed to read cache tag version. Tag: {}. Error: {}", tag, e.getMessage(), e);
+      return UNAVAILABLE_VERSION;
+    }
+  }
+
+  /** Whether no write evicted {@code tag} since {@code version} was read. */
+  public boolean isCurrent(String tag, String version) {
+    return !UNAVAILABLE_VERSION.equals(version) && version.equals(version(tag));
+  }
+
+  /**
+   * Adds {@code key} of {@code cacheName}, cached for {@code ttl}, to the set of {@code tag} and
+   * drops the members that expired since. Returns {@code false}, tagging nothing, when the tag is
+   * no longer at {@code version} or Redis failed; the entry must then not be cached.
+   */
+  public boolean tag(String cacheName, String key, String tag, Duration ttl, String version) {
+    try {
+      Long members =
+          stringRedisTemplate.execute(
+              TAG_SCRIPT,
+              List.of(VERSIONS_KEY, TAG_PREFIX + tag),
+              cacheName + MEMBER_SEPARATOR + key,
+              String.valueOf(ttl.toMillis()),
+              tag,
+              version);
+      return members != null && members >= 0;
+    } catch (Exception e) {
+      log.warn(
+          "Failed to tag cache entry. Key: {}, Cache Name: {}, Tag: {}. Error: {}",
+          key,
+          cacheName,
+          tag,
+          e.getMessage(),
+          e);
+      return false;
+    }
+  }
+
+  /**
+   * Moves every tag to a new version, for writes that retire all lists at once instead of popping
+   * their tags.
+   */
+  public void retireAll() {
+    try {
+      stringRedisTemplate.opsForHash().increment(VERSIONS_KEY, ALL_TAGS_FIELD, 1);
+    } catch (Exception e) {
+      log.warn("Failed to retire cache tag versions. Error: {}", e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Deletes the sets of {@code tags} and returns their unexpired members grouped by cache name.
+   * Reading and deleting a set and bumping its version is one script, so an entry tagged meanwhile
+   * either lands in a new set, kept for the next write, or is refused.
+   */
+  @SuppressWarnings("unchecked")
+  public Map<String, List<String>> pop(Collection<String> tags) {
+    Map<String, List<String>> keysByCacheName = new LinkedHashMap<>();
+    if (tags.isEmpty()) {
+      return keysByCacheName;
+    }
+    List<String> members;
+    try {
+      List<String> keys = new ArrayList<>();
+      keys.add(VERSIONS_KEY);
+      tags.forEach(tag -> keys.add(TAG_PREFIX + tag));
+      members = stringRedisTemplate.execute(POP_SCRIPT, keys, tags.toArray());
+    } catch (Exception e) {
+      log.warn("Failed to pop {} cache tags. Error: {}", tags.size(), e.getMessage(), e);
+      return keysByCacheName;
+    }
+    if (members == null) {
+      return keysByCacheName;
+    }
+    for (String member : new LinkedHashSet<>(members)) {
+      int separator = member.indexOf(MEMBER_SEPARATOR);
+      keysByCacheName
+          .computeIfAbsent(member.substring(0, separator), cacheName -> new ArrayList<>())
+          .add(member.substring(separator + 1));
+    }
+    log.debug("Popped {} tagged keys for {} tags", members.size(), tags.size());
+    return keysByCacheName;
+  }
+}
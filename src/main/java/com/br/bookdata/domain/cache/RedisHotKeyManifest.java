@@ -0,0 +1,114 @@
+package com.br.bookdata.domain.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.LongStream;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fleet-wide request popularity kept in Redis sorted sets. Every node adds its sampled hits to the
+ * set of the current time bucket, trimmed to the most requested members, so a starting node can
+ * read what the running fleet considers hot.
+ *
+ * <p>Buckets expire once they leave the window of the last {@code buckets} buckets and the hot set
+ * is the sum of the buckets in the window, so keys that stopped being requested fall out of it and
+ * a newly hot key competes with the others from its first bucket on.
+ */
+@Component
+@Log4j2
+public class RedisHotKeyManifest {
+  private static final Duration MERGED_TTL = Duration.ofMinutes(1);
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final String key;
+  private final int maxSize;
+  private final long bucketMillis;
+  private final int buckets;
+
+  public RedisHotKeyManifest(
+      StringRedisTemplate stringRedisTemplate,
+      @Value("${bookdata.warmup.manifest.key:bookdata:hot-keys}") String key,
+      @Value("${bookdata.warmup.manifest.max-size:10000}") int maxSize,
+      @Value("${bookdata.warmup.manifest.bucket-duration:1h}") Duration bucketDuration,
+      @Value("${bookdata.warmup.manifest.buckets:24}") int buckets) {
+    if (bucketDuration.toMillis() <= 0 || buckets <= 0) {
+      throw new IllegalArgumentException(
+          "bookdata.warmup.manifest.bucket-duration and buckets must be positive");
+    }
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.key = key;
+    this.maxSize = maxSize;
+    this.bucketMillis = bucketDuration.toMillis();
+    this.buckets = buckets;
+  }
+
+  public void incrementAll(Map<String, Long> hits) {
+    if (hits.isEmpty()) {
+      return;
+    }
+    String bucketKey = bucketKey(currentBucket());
+    try {
+      stringRedisTemplate.executePipelined(
+          new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+              RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+              ZSetOperations<String, String> zSet = redis.opsForZSet();
+              hits.forEach((member, count) -> zSet.incrementScore(bucketKey, member, count));
+              zSet.removeRange(bucketKey, 0, -maxSize - 1L);
+              redis.expire(bucketKey, Duration.ofMillis(bucketMillis * buckets));
+              return null;
+            }
+          });
+      log.debug("Recorded {} hot keys. Key: {}", hits.size(), bucketKey);
+    } catch (Exception e) {
+      log.warn("Failed to record hot keys. Key: {}. Error: {}", bucketKey, e.getMessage(), e);
+    }
+  }
+
+  public List<String> top(int limit) {
+    long current = currentBucket();
+    List<String> bucketKeys =
+        LongStream.range(0, buckets).mapToObj(age -> bucketKey(current - age)).toList();
+    // Unique per call, so nodes starting together don't read each other's half-built merge.
+    String mergedKey = key + ":merged:" + UUID.randomUUID();
+    try {
+      ZSetOperations<String, String> zSet = stringRedisTemplate.opsForZSet();
+      zSet.unionAndStore(bucketKeys.get(0), bucketKeys.subList(1, bucketKeys.size()), mergedKey);
+      stringRedisTemplate.expire(mergedKey, MERGED_TTL);
+      Set<String> members = zSet.reverseRange(mergedKey, 0, limit - 1L);
+      return members == null ? List.of() : List.copyOf(members);
+    } catch (Exception e) {
+      log.warn("Failed to read hot keys. Key: {}. Error: {}", key, e.getMessage(), e);
+      return List.of();
+    } finally {
+      delete(mergedKey);
+    }
+  }
+
+  private void delete(String mergedKey) {
+    try {
+      stringRedisTemplate.delete(mergedKey);
+    } catch (Exception e) {
+      log.debug("Failed to delete merged hot keys. Key: {}", mergedKey);
+    }
+  }
+
+  private long currentBucket() {
+    return System.currentTimeMillis() / bucketMillis;
+  }
+
+  private String bucketKey(long bucket) {
+    return key + ":" + bucket;
+  }
+}
@@ -0,0 +1,162 @@
+package com.br.bookdata.domain.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cluster-wide stampede protection for cache misses. The first node to miss a key takes a short
+ * Redis lease (SET NX PX) and runs the loader; the others serve a stale copy when one exists, or
+ * poll the cache for the leader's value until the wait budget runs out and then load themselves.
+ *
+ * <p>Leaders delete their lease whether the loader returns or throws, and waiting nodes retry
+ * SET NX on every poll: when a leader fails, e.g. for a book that doesn't exist, the next waiting
+ * node takes a fresh lease and loads, while the others keep waiting on it instead of all loading.
+ */
+@Component
+@Log4j2
+public class RedisMissLease {
+  private static final String LEASE_PREFIX = "bookdata:lease:";
+  private static final RedisScript<Long> RELEASE_SCRIPT =
+      new DefaultRedisScript<>(
+          "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) "
+              + "else return 0 end",
+          Long.class);
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final MeterRegistry meterRegistry;
+  private final Timer waitTimer;
+  private final boolean enabled;
+  private final Duration leaseTtl;
+  private final Duration maxWait;
+  private final Duration pollInterval;
+
+  public RedisMissLease(
+      StringRedisTemplate stringRedisTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${bookdata.cache.lease.enabled:false}") boolean enabled,
+      @Value("${bookdata.cache.lease.ttl:5s}") Duration leaseTtl,
+      @Value("${bookdata.cache.lease.max-wait:2s}") Duration maxWait,
+      @Value("${bookdata.cache.lease.poll-interval:50ms}") Duration pollInterval) {
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.meterRegistry = meterRegistry;
+    this.enabled = enabled;
+    this.leaseTtl = leaseTtl;
+    this.maxWait = maxWait;
+    this.pollInterval = pollInterval;
+    this.waitTimer =
+        Timer.builder("bookdata.cache.lease.wait")
+            .description("Time spent by nodes waiting on another node's lease")
+            .register(meterRegistry);
+  }
+
+  public <T> T load(
+      String key,
+      Supplier<Optional<T>> cacheLookup,
+      Supplier<Optional<T>> staleLookup,
+      Supplier<T> loader) {
+    if (!enabled) {
+      return loader.get();
+    }
+
+    String leaseKey = LEASE_PREFIX + key;
+    String token = UUID.randomUUID().toString();
+    Boolean acquired;
+    try {
+      acquired = stringRedisTemplate.opsForValue().setIfAbsent(leaseKey, token, leaseTtl);
+    } catch (Exception e) {
+      log.warn("Could not take miss lease. Key: {}. Error: {}", key, e.getMessage(), e);
+      record("unavailable");
+      return loader.get();
+    }
+
+    if (Boolean.TRUE.equals(acquired)) {
+      record("acquired");
+      return loadAsLeader(leaseKey, token, loader);
+    }
+
+    Optional<T> stale = staleLookup.get();
+    if (stale.isPresent()) {
+      record("stale");
+      return stale.get();
+    }
+
+    return awaitLeader(key, leaseKey, token, cacheLookup, loader);
+  }
+
+  private <T> T loadAsLeader(String leaseKey, String token, Supplier<T> loader) {
+    try {
+      return loader.get();
+    } finally {
+      release(leaseKey, token);
+    }
+  }
+
+  private <T> T awaitLeader(
+      String key,
+      String leaseKey,
+      String token,
+      Supplier<Optional<T>> cacheLookup,
+      Supplier<T> loader) {
+    long start = System.nanoTime();
+    long deadline = start + maxWait.toNanos();
+    boolean reacquired = false;
+    try {
+      while (!reacquired && System.nanoTime() < deadline) {
+        Thread.sleep(pollInterval.toMillis());
+        Optional<T> value = cacheLookup.get();
+        if (value.isPresent()) {
+          record("value_found");
+          return value.get();
+        }
+        reacquired = reacquire(leaseKey, token);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for miss lease", e);
+    } finally {
+      waitTimer.record(Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    if (reacquired) {
+      record("reacquired");
+      return loadAsLeader(leaseKey, token, loader);
+    }
+    log.warn("Lease holder did not populate the cache within {}. Key: {}", maxWait, key);
+    record("timeout");
+    return loader.get();
+  }
+
+  /** Takes the lease once its holder deleted it, after loading or failing to. */
+  private boolean reacquire(String leaseKey, String token) {
+    try {
+      return Boolean.TRUE.equals(
+          stringRedisTemplate.opsForValue().setIfAbsent(leaseKey, token, leaseTtl));
+    } catch (Exception e) {
+      log.warn("Could not retake miss lease. Key: {}. Error: {}", leaseKey, e.getMessage(), e);
+      return false;
+    }
+  }
+
+  private void release(String leaseKey, String token) {
+    try {
+      stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(leaseKey), token);
+    } catch (Exception e) {
+      log.warn("Could not release miss lease. Key: {}. Error: {}", leaseKey, e.getMessage(), e);
+    }
+  }
+
+  private void record(String outcome) {
+    meterRegistry.counter("bookdata.cache.lease.outcomes", "outcome", outcome).increment();
+  }
+}
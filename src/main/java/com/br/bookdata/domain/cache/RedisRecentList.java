@@ -0,0 +1,61 @@
+package com.br.bookdata.domain.cache;
+
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded most-recent-first list kept in a Redis list. A push removes the members, prepends them
+ * and trims the list in one script, so concurrent pushes from any node never lose each other's
+ * update.
+ */
+@Component
+@Log4j2
+public class RedisRecentList {
+  private static final RedisScript<Long> PUSH_SCRIPT =
+      new DefaultRedisScript<>(
+          "for i = 2, #ARGV do "
+              + "redis.call('lrem', KEYS[1], 0, ARGV[i]) "
+              + "redis.call('lpush', KEYS[1], ARGV[i]) "
+              + "end "
+              + "redis.call('ltrim', KEYS[1], 0, tonumber(ARGV[1]) - 1) "
+              + "return redis.call('llen', KEYS[1])",
+          Long.class);
+
+  private final StringRedisTemplate stringRedisTemplate;
+
+  public RedisRecentList(StringRedisTemplate stringRedisTemplate) {
+    this.stringRedisTemplate = stringRedisTemplate;
+  }
+
+  public void push(String key, String member, int capacity) {
+    pushAll(key, List.of(member), capacity);
+  }
+
+  /** Pushes the members in order, so the last one ends up first in the list. */
+  public void pushAll(String key, List<String> members, int capacity) {
+    if (members.isEmpty()) {
+      return;
+    }
+    Object[] args = new Object[members.size() + 1];
+    args[0] = String.valueOf(capacity);
+    for (int i = 0; i < members.size(); i++) {
+      args[i + 1] = members.get(i);
+    }
+    stringRedisTemplate.execute(PUSH_SCRIPT, List.of(key), args);
+    log.debug("Pushed {} members to recent list. Key: {}", members.size(), key);
+  }
+
+  public List<String> range(String key, int capacity) {
+    try {
+      List<String> members = stringRedisTemplate.opsForList().range(key, 0, capacity - 1L);
+      return members == null ? List.of() : members;
+    } catch (Exception e) {
+      log.warn("Failed to read recent list. Key: {}. Error: {}", key, e.getMessage(), e);
+      return List.of();
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package com.br.bookdata.domain.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Probabilistic early expiration (XFetch). An entry that carries its expiry and the time it took
+ * to load is rebuilt in the background with a probability that grows as expiry approaches and as
+ * the load gets more expensive, so hot entries are replaced before they ever expire.
+ */
+@Component
+@Log4j2
+public class RefreshAhead {
+  private final boolean enabled;
+  private final double beta;
+  private final double ttlJitter;
+  private final ThreadPoolExecutor executor;
+  private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+  private final Counter scheduledCounter;
+  private final Counter rejectedCounter;
+
+  public RefreshAhead(
+      MeterRegistry meterRegistry,
+      @Value("${bookdata.cache.refresh-ahead.enabled:true}") boolean enabled,
+      @Value("${bookdata.cache.refresh-ahead.beta:1.0}") double beta,
+      @Value("${bookdata.cache.refresh-ahead.ttl-jitter:0.1}") double ttlJitter,
+      @Value("${bookdata.cache.refresh-ahead.threads:2}") int threads,
+      @Value("${bookdata.cache.refresh-ahead.queue-capacity:100}") int queueCapacity) {
+    this.enabled = enabled;
+    this.beta = beta;
+    this.ttlJitter = ttlJitter;
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+              Thread thread = new Thread(runnable, "refresh-ahead");
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.scheduledCounter =
+        Counter.builder("bookdata.cache.refresh.ahead.scheduled")
+            .description("Entries scheduled for an early background refresh")
+            .register(meterRegistry);
+    this.rejectedCounter =
+        Counter.builder("bookdata.cache.refresh.ahead.rejected")
+            .description("Early refreshes dropped because the refresh queue was full")
+            .register(meterRegistry);
+  }
+
+  public Duration jitter(Duration ttl) {
+    if (ttlJitter <= 0) {
+      return ttl;
+    }
+    double factor = 1 + ThreadLocalRandom.current().nextDouble(-ttlJitter, ttlJitter);
+    return Duration.ofMillis(Math.round(ttl.toMillis() * factor));
+  }
+
+  public boolean shouldRefresh(long expiresAtMillis, long loadCostMillis) {
+    if (!enabled || expiresAtMillis <= 0) {
+      return false;
+    }
+    double random = 1 - ThreadLocalRandom.current().nextDouble();
+    double earlyBy = loadCostMillis * beta * -Math.log(random);
+    return System.currentTimeMillis() + earlyBy >= expiresAtMillis;
+  }
+
+  public void refreshAsync(String key, Runnable refresh) {
+    if (!refreshing.add(key)) {
+      return;
+    }
+    try {
+      executor.execute(
+          () -> {
+            try {
+              refresh.run();
+            } catch (Exception e) {
+              log.warn("Early refresh failed. Key: {}. Error: {}", key, e.getMessage(), e);
+            } finally {
+              refreshing.remove(key);
+            }
+          });
+      scheduledCounter.increment();
+      log.debug("Scheduled early refresh. Key: {}", key);
+    } catch (RejectedExecutionException e) {
+      refreshing.remove(key);
+      rejectedCounter.increment();
+      log.debug("Refresh queue full, skipping early refresh. Key: {}", key);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
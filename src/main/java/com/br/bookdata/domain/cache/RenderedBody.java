@@ -0,0 +1,14 @@
+package com.br.bookdata.domain.cache;
+
+import org.springframework.util.DigestUtils;
+
+/**
+ * The final bytes of a JSON response, kept gzipped when {@code gzipped} is set. {@code etag} is the
+ * unquoted hash of the uncompressed JSON, computed once when the response is rendered.
+ */
+public record RenderedBody(byte[] body, boolean gzipped, String etag) {
+
+  public static String etagOf(byte[] json) {
+    return DigestUtils.md5DigestAsHex(json);
+  }
+}
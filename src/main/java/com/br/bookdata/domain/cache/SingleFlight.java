@@ -0,0 +1,97 @@
+package com.br.bookdata.domain.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalesces concurrent cache misses for the same key inside this JVM: the first caller runs the
+ * loader and every caller arriving while it is in flight waits for that same result. A waiter that
+ * exceeds the timeout stops waiting and runs the loader itself.
+ */
+@Component
+@Log4j2
+public class SingleFlight {
+  private final ConcurrentMap<String, Flight<?>> flights = new ConcurrentHashMap<>();
+  private final Duration timeout;
+  private final Counter flightsCounter;
+  private final Counter timeoutsCounter;
+  private final DistributionSummary absorbedSummary;
+
+  public SingleFlight(
+      MeterRegistry meterRegistry,
+      @Value("${bookdata.cache.single-flight.timeout:5s}") Duration timeout) {
+    this.timeout = timeout;
+    this.flightsCounter =
+        Counter.builder("bookdata.cache.single.flight.loads")
+            .description("Loads executed by a single-flight leader")
+            .register(meterRegistry);
+    this.timeoutsCounter =
+        Counter.builder("bookdata.cache.single.flight.timeouts")
+            .description("Callers that gave up waiting for an in-flight load")
+            .register(meterRegistry);
+    this.absorbedSummary =
+        DistributionSummary.builder("bookdata.cache.single.flight.absorbed")
+            .description("Callers served by each load without hitting the repository")
+            .register(meterRegistry);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T execute(String key, Supplier<T> loader) {
+    Flight<T> flight = new Flight<>();
+    Flight<?> inFlight = flights.putIfAbsent(key, flight);
+    if (inFlight != null) {
+      return await((Flight<T>) inFlight, key, loader);
+    }
+
+    try {
+      T result = loader.get();
+      flight.result.complete(result);
+      return result;
+    } catch (RuntimeException e) {
+      flight.result.completeExceptionally(e);
+      throw e;
+    } finally {
+      flights.remove(key, flight);
+      flightsCounter.increment();
+      absorbedSummary.record(flight.followers.get());
+    }
+  }
+
+  private <T> T await(Flight<T> flight, String key, Supplier<T> loader) {
+    flight.followers.incrementAndGet();
+    log.debug("Joining in-flight load. Key: {}", key);
+    try {
+      return flight.result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      timeoutsCounter.increment();
+      log.warn("Timed out after {} waiting for in-flight load. Key: {}", timeout, key);
+      return loader.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for in-flight load", e);
+    }
+  }
+
+  private static final class Flight<T> {
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private final AtomicInteger followers = new AtomicInteger();
+  }
+}
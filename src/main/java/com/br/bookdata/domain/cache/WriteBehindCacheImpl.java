@@ -0,0 +1,371 @@
+package com.br.bookdata.domain.cache;
+
+import com.br.bookdata.domain.cache.contract.ICache;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Takes cache writes off the request path. Puts go to a bounded in-memory buffer keyed by cache
+ * key, so a key written again before the flush only keeps its latest value, and a background worker
+ * hands the buffer to Redis as pipelined multi-puts of at most the batch size. Reads look at the
+ * buffer first so this node never misses a value it has just written. When the buffer is full a new
+ * key is either written through synchronously or dropped. With write-behind disabled every call
+ * goes straight to the delegate, and so does every write made after {@link #shutdown}.
+ *
+ * <p>A removal, or a write-through, of a key in the batch being flushed waits for that flush, so
+ * the batch can't write the old value back over it. {@link #afterWrites} actions run once the
+ * flushes carrying the writes made before them are done.
+ */
+@Service("writeBehindCacheImpl")
+@Log4j2
+public class WriteBehindCacheImpl implements ICache {
+
+  public enum Overflow {
+    WRITE_THROUGH,
+    DROP
+  }
+
+  private final ICache delegate;
+  private final boolean enabled;
+  private final int capacity;
+  private final int batchSize;
+  private final Duration flushInterval;
+  private final Overflow overflow;
+  private final Map<String, PendingWrite<?>> pending = new LinkedHashMap<>();
+  private final Set<String> inFlight = new HashSet<>();
+  private final List<AfterWrite> afterNextFlush = new ArrayList<>();
+  private final List<Runnable> afterCurrentFlush = new ArrayList<>();
+  private final Thread worker;
+  private final Counter mergedCounter;
+  private final Counter overflowCounter;
+  private final DistributionSummary flushSizeSummary;
+  private final Timer flushTimer;
+  private volatile boolean running = true;
+  private long sequence;
+
+  public WriteBehindCacheImpl(
+      @Qualifier("redisCacheImpl") ICache delegate,
+      MeterRegistry meterRegistry,
+      @Value("${bookdata.cache.write-behind.enabled:false}") boolean enabled,
+      @Value("${bookdata.cache.write-behind.capacity:10000}") int capacity,
+      @Value("${bookdata.cache.write-behind.batch-size:200}") int batchSize,
+      @Value("${bookdata.cache.write-behind.flush-interval:50ms}") Duration flushInterval,
+      @Value("${bookdata.cache.write-behind.overflow:WRITE_THROUGH}") Overflow overflow) {
+    this.delegate = delegate;
+    this.enabled = enabled;
+    this.capacity = capacity;
+    this.batchSize = batchSize;
+    this.flushInterval = flushInterval;
+    this.overflow = overflow;
+    Gauge.builder("bookdata.cache.write.behind.pending", this, WriteBehindCacheImpl::pendingSize)
+        .description("Cache writes waiting to be flushed to Redis")
+        .register(meterRegistry);
+    this.mergedCounter =
+        Counter.builder("bookdata.cache.write.behind.merged")
+            .description("Writes that replaced a pending write of the same key")
+            .register(meterRegistry);
+    this.overflowCounter =
+        Counter.builder("bookdata.cache.write.behind.overflow")
+            .description("Writes that found the buffer full")
+            .tag("policy", overflow.name().toLowerCase())
+            .register(meterRegistry);
+    this.flushSizeSummary =
+        DistributionSummary.builder("bookdata.cache.write.behind.flush.size")
+            .description("Writes sent to Redis per flush")
+            .register(meterRegistry);
+    this.flushTimer =
+        Timer.builder("bookdata.cache.write.behind.flush")
+            .description("Time spent sending a flush to Redis")
+            .register(meterRegistry);
+    this.worker = new Thread(this::flushLoop, "cache-write-behind");
+    this.worker.setDaemon(true);
+    if (enabled) {
+      this.worker.start();
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> Optional<T> getFromCache(
+      String key, TypeReference<T> typeReference, String cacheName) {
+    if (enabled) {
+      PendingWrite<?> write = pendingWrite(cacheName + ":" + key);
+      if (write != null) {
+        return Optional.of((T) write.value());
+      }
+    }
+    return delegate.getFromCache(key, typeReference, cacheName);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> Map<String, T> multiGet(
+      List<String> keys, TypeReference<T> typeReference, String cacheName) {
+    if (!enabled) {
+      return delegate.multiGet(keys, typeReference, cacheName);
+    }
+    Map<String, T> found = new LinkedHashMap<>();
+    List<String> remoteKeys = new ArrayList<>();
+    for (String key : keys) {
+      PendingWrite<?> write = pendingWrite(cacheName + ":" + key);
+      if (write != null) {
+        found.put(key, (T) write.value());
+      } else {
+        remoteKeys.add(key);
+      }
+    }
+    if (!remoteKeys.isEmpty()) {
+      found.putAll(delegate.multiGet(remoteKeys, typeReference, cacheName));
+    }
+    return found;
+  }
+
+  @Override
+  public <T> void putToCache(String key, T value, String cacheName, Duration duration) {
+    if (!enabled || !enqueue(new PendingWrite<>(cacheName, key, value, duration))) {
+      delegate.putToCache(key, value, cacheName, duration);
+    }
+  }
+
+  @Override
+  public <T> void multiPut(Map<String, CacheEntry<T>> entries, String cacheName) {
+    if (!enabled) {
+      delegate.multiPut(entries, cacheName);
+      return;
+    }
+    Map<String, CacheEntry<T>> rejected = new LinkedHashMap<>();
+    entries.forEach(
+        (key, entry) -> {
+          if (!enqueue(new PendingWrite<>(cacheName, key, entry.value(), entry.ttl()))) {
+            rejected.put(key, entry);
+          }
+        });
+    if (!rejected.isEmpty()) {
+      delegate.multiPut(rejected, cacheName);
+    }
+  }
+
+  @Override
+  public void removeCache(String key, String cacheName) {
+    if (enabled) {
+      String prefixedKey = cacheName + ":" + key;
+      synchronized (pending) {
+        pending.remove(prefixedKey);
+        awaitFlushed(List.of(prefixedKey));
+      }
+    }
+    delegate.removeCache(key, cacheName);
+  }
+
+  @Override
+  public void multiRemove(List<String> keys, String cacheName) {
+    if (enabled) {
+      List<String> prefixedKeys = keys.stream().map(key -> cacheName + ":" + key).toList();
+      synchronized (pending) {
+        prefixedKeys.forEach(pending::remove);
+        awaitFlushed(prefixedKeys);
+      }
+    }
+    delegate.multiRemove(keys, cacheName);
+  }
+
+  @Override
+  public void afterWrites(Runnable action) {
+    if (enabled) {
+      synchronized (pending) {
+        if (running && !pending.isEmpty()) {
+          afterNextFlush.add(new AfterWrite(sequence, action));
+          return;
+        }
+        if (!inFlight.isEmpty()) {
+          afterCurrentFlush.add(action);
+          return;
+        }
+      }
+    }
+    action.run();
+  }
+
+  @PreDestroy
+  public void shutdown() throws InterruptedException {
+    running = false;
+    synchronized (pending) {
+      pending.notifyAll();
+    }
+    if (worker.isAlive()) {
+      worker.join(Duration.ofSeconds(5).toMillis());
+    }
+  }
+
+  /** Returns true when the write is buffered, false when the caller has to write it through. */
+  private boolean enqueue(PendingWrite<?> write) {
+    String prefixedKey = write.cacheName() + ":" + write.key();
+    synchronized (pending) {
+      if (!running) {
+        return false;
+      }
+      if (pending.remove(prefixedKey) != null) {
+        mergedCounter.increment();
+      } else if (pending.size() >= capacity) {
+        overflowCounter.increment();
+        log.debug("Write-behind buffer full ({}). Key: {}", overflow, write.key());
+        if (overflow == Overflow.DROP) {
+          return true;
+        }
+        awaitFlushed(List.of(prefixedKey));
+        return false;
+      }
+      pending.put(prefixedKey, write.withSequence(++sequence));
+      if (pending.size() >= batchSize) {
+        pending.notifyAll();
+      }
+      return true;
+    }
+  }
+
+  /** Waits, holding the buffer lock, until no key of {@code prefixedKeys} is being flushed. */
+  private void awaitFlushed(Collection<String> prefixedKeys) {
+    try {
+      while (prefixedKeys.stream().anyMatch(inFlight::contains)) {
+        pending.wait();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private PendingWrite<?> pendingWrite(String prefixedKey) {
+    synchronized (pending) {
+      return pending.get(prefixedKey);
+    }
+  }
+
+  private int pendingSize() {
+    synchronized (pending) {
+      return pending.size();
+    }
+  }
+
+  private boolean hasPendingWork() {
+    synchronized (pending) {
+      return !pending.isEmpty() || !afterNextFlush.isEmpty();
+    }
+  }
+
+  private void flushLoop() {
+    while (running || hasPendingWork()) {
+      List<PendingWrite<?>> batch = new ArrayList<>();
+      try {
+        synchronized (pending) {
+          if (running && pending.size() < batchSize) {
+            pending.wait(flushInterval.toMillis());
+          }
+          Iterator<Map.Entry<String, PendingWrite<?>>> entries = pending.entrySet().iterator();
+          while (batch.size() < batchSize && entries.hasNext()) {
+            Map.Entry<String, PendingWrite<?>> entry = entries.next();
+            batch.add(entry.getValue());
+            inFlight.add(entry.getKey());
+            entries.remove();
+          }
+          releaseAfterWrites();
+        }
+        try {
+          flush(batch);
+        } finally {
+          completeFlush();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Exception e) {
+        log.warn(
+            "Write-behind flush of {} writes failed. Error: {}", batch.size(), e.getMessage(), e);
+      }
+    }
+  }
+
+  /**
+   * Moves to the current flush the after-write actions whose writes all left the buffer. The buffer
+   * keeps writes in sequence order, since a merged write is re-inserted at the end, so its head is
+   * the oldest write still waiting.
+   */
+  private void releaseAfterWrites() {
+    long oldestPending =
+        pending.isEmpty() ? Long.MAX_VALUE : pending.values().iterator().next().sequence();
+    Iterator<AfterWrite> actions = afterNextFlush.iterator();
+    while (actions.hasNext()) {
+      AfterWrite afterWrite = actions.next();
+      if (afterWrite.sequence() >= oldestPending) {
+        return;
+      }
+      afterCurrentFlush.add(afterWrite.action());
+      actions.remove();
+    }
+  }
+
+  private void completeFlush() {
+    List<Runnable> actions;
+    synchronized (pending) {
+      inFlight.clear();
+      actions = new ArrayList<>(afterCurrentFlush);
+      afterCurrentFlush.clear();
+      pending.notifyAll();
+    }
+    for (Runnable action : actions) {
+      try {
+        action.run();
+      } catch (Exception e) {
+        log.warn("Action after write-behind flush failed. Error: {}", e.getMessage(), e);
+      }
+    }
+  }
+
+  private void flush(List<PendingWrite<?>> batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    Map<String, Map<String, CacheEntry<Object>>> byCacheName = new LinkedHashMap<>();
+    batch.forEach(
+        write ->
+            byCacheName
+                .computeIfAbsent(write.cacheName(), name -> new LinkedHashMap<>())
+                .put(write.key(), new CacheEntry<Object>(write.value(), write.ttl())));
+    flushTimer.record(
+        () -> byCacheName.forEach((cacheName, entries) -> delegate.multiPut(entries, cacheName)));
+    flushSizeSummary.record(batch.size());
+    log.debug("Flushed {} buffered writes", batch.size());
+  }
+
+  private record PendingWrite<T>(
+      String cacheName, String key, T value, Duration ttl, long sequence) {
+    PendingWrite(String cacheName, String key, T value, Duration ttl) {
+      this(cacheName, key, value, ttl, 0);
+    }
+
+    PendingWrite<T> withSequence(long sequence) {
+      return new PendingWrite<>(cacheName, key, value, ttl, sequence);
+    }
+  }
+
+  /** An after-write action and the sequence of the last write buffered before it. */
+  private record AfterWrite(long sequence, Runnable action) {}
+}
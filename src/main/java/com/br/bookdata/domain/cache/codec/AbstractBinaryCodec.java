@@ -0,0 +1,130 @@
+package com.br.bookdata.domain.cache.codec;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.br.bookdata.domain.cache.codec.contract.IValueCodec;
+import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.model.BookSummary;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Base class for the compact binary cache formats.
+ *
+ * <p>Every payload starts with a two byte header: {@link #MAGIC}, used to tell binary entries
+ * apart from legacy JSON ones, followed by the format version the body was written with. Readers
+ * receive that version so a codec can keep decoding older entries after its format moves forward.
+ */
+public abstract class AbstractBinaryCodec<T> implements IValueCodec<T> {
+  public static final byte MAGIC = (byte) 0xB7;
+  private static final int NULL_LENGTH = -1;
+
+  protected abstract byte version();
+
+  protected abstract void writeBody(DataOutputStream out, T value) throws IOException;
+
+  protected abstract T readBody(DataInputStream in, byte version) throws IOException;
+
+  @Override
+  public byte[] encode(T value) {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeByte(MAGIC);
+      out.writeByte(version());
+      writeBody(out, value);
+      out.flush();
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public T decode(byte[] bytes) {
+    if (bytes.length < 2 || bytes[0] != MAGIC) {
+      throw new IllegalArgumentException("Payload is not in the binary cache format");
+    }
+    byte payloadVersion = bytes[1];
+    if (payloadVersion > version()) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Unsupported binary cache format version %s, latest known is %s",
+              payloadVersion, version()));
+    }
+    try {
+      DataInputStream in =
+          new DataInputStream(new ByteArrayInputStream(bytes, 2, bytes.length - 2));
+      return readBody(in, payloadVersion);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  protected static void writeBook(DataOutputStream out, Book book) throws IOException {
+    writeNullableLong(out, book.getId());
+    writeString(out, book.getTitle());
+    writeString(out, book.getGenre());
+    writeString(out, book.getAuthor());
+    writeString(out, book.getDescription());
+  }
+
+  protected static Book readBook(DataInputStream in) throws IOException {
+    return Book.builder()
+        .id(readNullableLong(in))
+        .title(readString(in))
+        .genre(readString(in))
+        .author(readString(in))
+        .description(readString(in))
+        .build();
+  }
+
+  protected static void writeSummary(DataOutputStream out, BookSummary book) throws IOException {
+    writeNullableLong(out, book.id());
+    writeString(out, book.title());
+    writeString(out, book.genre());
+    writeString(out, book.author());
+  }
+
+  protected static BookSummary readSummary(DataInputStream in) throws IOException {
+    Long id = readNullableLong(in);
+    String title = readString(in);
+    String genre = readString(in);
+    return new BookSummary(id, title, readString(in), genre);
+  }
+
+  protected static void writeNullableLong(DataOutputStream out, Long value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeLong(value);
+    }
+  }
+
+  protected static Long readNullableLong(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readLong() : null;
+  }
+
+  protected static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(NULL_LENGTH);
+      return;
+    }
+    byte[] encoded = value.getBytes(UTF_8);
+    out.writeInt(encoded.length);
+    out.write(encoded);
+  }
+
+  protected static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length == NULL_LENGTH) {
+      return null;
+    }
+    byte[] encoded = new byte[length];
+    in.readFully(encoded);
+    return new String(encoded, UTF_8);
+  }
+}
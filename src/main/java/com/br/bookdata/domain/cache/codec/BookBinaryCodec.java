@@ -0,0 +1,25 @@
+package com.br.bookdata.domain.cache.codec;
+
+import com.br.bookdata.domain.model.Book;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+public class BookBinaryCodec extends AbstractBinaryCodec<Book> {
+  private static final byte VERSION = 1;
+
+  @Override
+  protected byte version() {
+    return VERSION;
+  }
+
+  @Override
+  protected void writeBody(DataOutputStream out, Book value) throws IOException {
+    writeBook(out, value);
+  }
+
+  @Override
+  protected Book readBody(DataInputStream in, byte version) throws IOException {
+    return readBook(in);
+  }
+}
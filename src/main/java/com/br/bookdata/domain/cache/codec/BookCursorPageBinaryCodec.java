@@ -0,0 +1,40 @@
+package com.br.bookdata.domain.cache.codec;
+
+import com.br.bookdata.domain.model.BookSummary;
+import com.br.bookdata.domain.utils.CursorPage;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookCursorPageBinaryCodec extends AbstractBinaryCodec<CursorPage<BookSummary>> {
+  private static final byte VERSION = 1;
+
+  @Override
+  protected byte version() {
+    return VERSION;
+  }
+
+  @Override
+  protected void writeBody(DataOutputStream out, CursorPage<BookSummary> value) throws IOException {
+    out.writeInt(value.getSize());
+    writeString(out, value.getNext());
+    out.writeInt(value.getContent().size());
+    for (BookSummary book : value.getContent()) {
+      writeSummary(out, book);
+    }
+  }
+
+  @Override
+  protected CursorPage<BookSummary> readBody(DataInputStream in, byte version) throws IOException {
+    int size = in.readInt();
+    String next = readString(in);
+    int contentSize = in.readInt();
+    List<BookSummary> content = new ArrayList<>(contentSize);
+    for (int i = 0; i < contentSize; i++) {
+      content.add(readSummary(in));
+    }
+    return new CursorPage<>(content, size, next);
+  }
+}
@@ -0,0 +1,63 @@
+package com.br.bookdata.domain.cache.codec;
+
+import com.br.bookdata.domain.model.BookSummary;
+import com.br.bookdata.domain.service.enums.TotalsMode;
+import com.br.bookdata.domain.utils.CustomPage;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookPageBinaryCodec extends AbstractBinaryCodec<CustomPage<BookSummary>> {
+  private static final byte VERSION = 1;
+
+  @Override
+  protected byte version() {
+    return VERSION;
+  }
+
+  @Override
+  protected void writeBody(DataOutputStream out, CustomPage<BookSummary> value) throws IOException {
+    out.writeInt(value.getTotalPages());
+    out.writeLong(value.getTotalElements());
+    out.writeBoolean(value.isLast());
+    out.writeBoolean(value.isFirst());
+    out.writeInt(value.getSize());
+    out.writeInt(value.getNumber());
+    out.writeInt(value.getNumberOfElements());
+    out.writeBoolean(value.isEmpty());
+    out.writeLong(value.getCachedAt());
+    out.writeLong(value.getLoadCostMillis());
+    out.writeLong(value.getExpiresAt());
+    writeString(out, value.getTotalsMode().name());
+    out.writeInt(value.getContent().size());
+    for (BookSummary book : value.getContent()) {
+      writeSummary(out, book);
+    }
+  }
+
+  @Override
+  protected CustomPage<BookSummary> readBody(DataInputStream in, byte version) throws IOException {
+    CustomPage<BookSummary> page = new CustomPage<>();
+    page.setTotalPages(in.readInt());
+    page.setTotalElements(in.readLong());
+    page.setLast(in.readBoolean());
+    page.setFirst(in.readBoolean());
+    page.setSize(in.readInt());
+    page.setNumber(in.readInt());
+    page.setNumberOfElements(in.readInt());
+    page.setEmpty(in.readBoolean());
+    page.setCachedAt(in.readLong());
+    page.setLoadCostMillis(in.readLong());
+    page.setExpiresAt(in.readLong());
+    page.setTotalsMode(TotalsMode.valueOf(readString(in)));
+    int contentSize = in.readInt();
+    List<BookSummary> content = new ArrayList<>(contentSize);
+    for (int i = 0; i < contentSize; i++) {
+      content.add(readSummary(in));
+    }
+    page.setContent(content);
+    return page;
+  }
+}
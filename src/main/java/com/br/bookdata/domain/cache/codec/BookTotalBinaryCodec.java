@@ -0,0 +1,28 @@
+package com.br.bookdata.domain.cache.codec;
+
+import com.br.bookdata.domain.utils.CachedTotal;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+public class BookTotalBinaryCodec extends AbstractBinaryCodec<CachedTotal> {
+  private static final byte VERSION = 1;
+
+  @Override
+  protected byte version() {
+    return VERSION;
+  }
+
+  @Override
+  protected void writeBody(DataOutputStream out, CachedTotal value) throws IOException {
+    out.writeLong(value.getTotal());
+    out.writeLong(value.getCachedAt());
+    out.writeLong(value.getLoadCostMillis());
+    out.writeLong(value.getExpiresAt());
+  }
+
+  @Override
+  protected CachedTotal readBody(DataInputStream in, byte version) throws IOException {
+    return new CachedTotal(in.readLong(), in.readLong(), in.readLong(), in.readLong());
+  }
+}
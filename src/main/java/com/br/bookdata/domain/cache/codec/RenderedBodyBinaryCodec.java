@@ -0,0 +1,32 @@
+package com.br.bookdata.domain.cache.codec;
+
+import com.br.bookdata.domain.cache.RenderedBody;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+public class RenderedBodyBinaryCodec extends AbstractBinaryCodec<RenderedBody> {
+  private static final byte VERSION = 1;
+
+  @Override
+  protected byte version() {
+    return VERSION;
+  }
+
+  @Override
+  protected void writeBody(DataOutputStream out, RenderedBody value) throws IOException {
+    out.writeBoolean(value.gzipped());
+    writeString(out, value.etag());
+    out.writeInt(value.body().length);
+    out.write(value.body());
+  }
+
+  @Override
+  protected RenderedBody readBody(DataInputStream in, byte version) throws IOException {
+    boolean gzipped = in.readBoolean();
+    String etag = readString(in);
+    byte[] body = new byte[in.readInt()];
+    in.readFully(body);
+    return new RenderedBody(body, gzipped, etag);
+  }
+}
@@ -0,0 +1,62 @@
+package com.br.bookdata.domain.cache.codec;
+
+import com.br.bookdata.domain.cache.codec.contract.IValueCodec;
+import com.br.bookdata.domain.service.enums.BookCacheKeyType;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resolves the codec of a cache region from the key being read or written. Regions are the key
+ * families of {@link BookCacheKeyType#familyOf}; keys of families without a codec fall back to
+ * plain JSON.
+ */
+public class ValueCodecRegistry {
+  private final Map<BookCacheKeyType, IValueCodec<?>> codecsByFamily =
+      new EnumMap<>(BookCacheKeyType.class);
+  private final ObjectMapper objectMapper;
+
+  public ValueCodecRegistry(
+      Map<BookCacheKeyType, IValueCodec<?>> codecsByFamily, ObjectMapper objectMapper) {
+    this.codecsByFamily.putAll(codecsByFamily);
+    this.objectMapper = objectMapper;
+  }
+
+  @SuppressWarnings("unchecked")
+  public byte[] encode(String key, Object value) {
+    return findCodec(key)
+        .map(codec -> ((IValueCodec<Object>) codec).encode(value))
+        .orElseGet(() -> writeJson(value));
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T decode(String key, byte[] bytes, TypeReference<T> typeReference) {
+    return findCodec(key)
+        .map(codec -> (T) codec.decode(bytes))
+        .orElseGet(() -> readJson(bytes, typeReference));
+  }
+
+  private Optional<IValueCodec<?>> findCodec(String key) {
+    return BookCacheKeyType.familyOf(key).map(codecsByFamily::get);
+  }
+
+  private byte[] writeJson(Object value) {
+    try {
+      return objectMapper.writeValueAsBytes(value);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private <T> T readJson(byte[] bytes, TypeReference<T> typeReference) {
+    try {
+      return objectMapper.readValue(bytes, typeReference);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
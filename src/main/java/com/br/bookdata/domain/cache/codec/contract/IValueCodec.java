@@ -0,0 +1,7 @@
+package com.br.bookdata.domain.cache.codec.contract;
+
+public interface IValueCodec<T> {
+  byte[] encode(T value);
+
+  T decode(byte[] bytes);
+}
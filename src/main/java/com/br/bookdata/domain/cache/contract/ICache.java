@@ -1,13 +1,38 @@
 package com.br.bookdata.domain.cache.contract;
 
+import com.br.bookdata.domain.cache.CacheEntry;
 import com.fasterxml.jackson.core.type.TypeReference;
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface ICache {
   <T> Optional<T> getFromCache(String key, TypeReference<T> typeReference, String cacheName);
 
+  <T> Map<String, T> multiGet(
+      List<String> keys, TypeReference<T> typeReference, String cacheName);
+
   <T> void putToCache(String key, T value, String cacheName, Duration duration);
 
-  void removeCache(String key);
+  <T> void multiPut(Map<String, CacheEntry<T>> entries, String cacheName);
+
+  default <T> void multiPut(Map<String, T> values, String cacheName, Duration duration) {
+    Map<String, CacheEntry<T>> entries = new LinkedHashMap<>();
+    values.forEach((key, value) -> entries.put(key, new CacheEntry<>(value, duration)));
+    multiPut(entries, cacheName);
+  }
+
+  void removeCache(String key, String cacheName);
+
+  void multiRemove(List<String> keys, String cacheName);
+
+  /**
+   * Runs {@code action} once every write made so far has reached the backing store. Caches that
+   * write synchronously run it right away.
+   */
+  default void afterWrites(Runnable action) {
+    action.run();
+  }
 }
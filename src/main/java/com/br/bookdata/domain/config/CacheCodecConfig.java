@@ -0,0 +1,36 @@
+package com.br.bookdata.domain.config;
+
+import static com.br.bookdata.domain.service.enums.BookCacheKeyType.*;
+
+import com.br.bookdata.domain.cache.codec.BookBinaryCodec;
+import com.br.bookdata.domain.cache.codec.BookCursorPageBinaryCodec;
+import com.br.bookdata.domain.cache.codec.BookPageBinaryCodec;
+import com.br.bookdata.domain.cache.codec.BookTotalBinaryCodec;
+import com.br.bookdata.domain.cache.codec.RenderedBodyBinaryCodec;
+import com.br.bookdata.domain.cache.codec.ValueCodecRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheCodecConfig {
+
+  @Bean
+  public ValueCodecRegistry valueCodecRegistry(ObjectMapper objectMapper) {
+    BookPageBinaryCodec pageCodec = new BookPageBinaryCodec();
+    BookCursorPageBinaryCodec cursorCodec = new BookCursorPageBinaryCodec();
+    return new ValueCodecRegistry(
+        Map.of(
+            BOOK_ID_KEY, new BookBinaryCodec(),
+            BOOK_PAGED_KEY, pageCodec,
+            BOOK_PAGED_GENRE_KEY, pageCodec,
+            BOOK_PAGED_AUTHOR_KEY, pageCodec,
+            BOOK_CURSOR_KEY, cursorCodec,
+            BOOK_CURSOR_GENRE_KEY, cursorCodec,
+            BOOK_CURSOR_AUTHOR_KEY, cursorCodec,
+            BOOK_TOTAL_KEY, new BookTotalBinaryCodec(),
+            RESPONSE_KEY, new RenderedBodyBinaryCodec()),
+        objectMapper);
+  }
+}
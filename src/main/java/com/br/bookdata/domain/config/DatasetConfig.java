@@ -0,0 +1,16 @@
+package com.br.bookdata.domain.config;
+
+import com.br.bookdata.domain.dataset.BookDatasetGenerator;
+import com.br.bookdata.domain.dataset.DatasetSpec;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class DatasetConfig {
+
+  @Bean
+  public BookDatasetGenerator bookDatasetGenerator(Environment environment) {
+    return new BookDatasetGenerator(DatasetSpec.from(environment));
+  }
+}
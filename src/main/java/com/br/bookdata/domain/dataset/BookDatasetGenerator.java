@@ -0,0 +1,138 @@
+package com.br.bookdata.domain.dataset;
+
+import com.br.bookdata.domain.model.Book;
+import com.github.javafaker.Faker;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Builds a reproducible, skewed book catalog. Genres and authors are fixed pools picked by Zipf
+ * rank, and description lengths follow a log-normal number of sentences. Rows are produced in
+ * blocks: every block reseeds its thread's Faker from the dataset seed and the block index, so
+ * blocks can be generated in parallel and still come out identical, and they are handed to the
+ * sink in order with only a few blocks in memory at a time.
+ */
+public class BookDatasetGenerator {
+  private final DatasetSpec spec;
+  private final List<String> genres;
+  private final List<String> authors;
+  private final ZipfSampler genreSampler;
+  private final ZipfSampler authorSampler;
+  private final ThreadLocal<SeededFaker> fakers = ThreadLocal.withInitial(SeededFaker::new);
+
+  public BookDatasetGenerator(DatasetSpec spec) {
+    this.spec = spec;
+    SeededFaker pools = new SeededFaker();
+    pools.reseed(spec.seed());
+    this.genres = pool(spec.genres(), () -> pools.faker.book().genre());
+    this.authors = pool(spec.authors(), () -> pools.faker.book().author());
+    this.genreSampler = new ZipfSampler(genres.size(), spec.genreSkew());
+    this.authorSampler = new ZipfSampler(authors.size(), spec.authorSkew());
+  }
+
+  /** Generates {@code rows} books and returns how many were handed to the sink. */
+  public long generate(long rows, Consumer<List<Book>> sink) {
+    long blocks = (rows + spec.blockSize() - 1) / spec.blockSize();
+    int window = Math.max(1, spec.threads()) * 2;
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.max(1, spec.threads()),
+            runnable -> {
+              Thread thread = new Thread(runnable, "dataset-generator");
+              thread.setDaemon(true);
+              return thread;
+            });
+    try {
+      Deque<Future<List<Book>>> inFlight = new ArrayDeque<>();
+      long nextBlock = 0;
+      long generated = 0;
+      while (generated < rows) {
+        while (nextBlock < blocks && inFlight.size() < window) {
+          long block = nextBlock++;
+          int size = (int) Math.min(spec.blockSize(), rows - block * spec.blockSize());
+          inFlight.add(executor.submit(() -> generateBlock(block, size)));
+        }
+        List<Book> books = inFlight.removeFirst().get();
+        sink.accept(books);
+        generated += books.size();
+      }
+      return generated;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while generating the dataset", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Dataset block generation failed", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  List<Book> generateBlock(long block, int size) {
+    SeededFaker seeded = fakers.get();
+    seeded.reseed(blockSeed(block));
+    Faker faker = seeded.faker;
+    List<Book> books = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      books.add(
+          Book.builder()
+              .title(faker.book().title())
+              .author(authors.get(authorSampler.sample(seeded.random)))
+              .genre(genres.get(genreSampler.sample(seeded.random)))
+              .description(description(seeded))
+              .build());
+    }
+    return books;
+  }
+
+  private String description(SeededFaker seeded) {
+    double gaussian = seeded.random.nextGaussian();
+    long sentences =
+        Math.round(Math.exp(Math.log(spec.medianSentences()) + spec.sentenceSigma() * gaussian));
+    String text = String.join(" ", seeded.faker.lorem().sentences((int) Math.max(1, sentences)));
+    return text.length() > spec.maxDescriptionLength()
+        ? text.substring(0, spec.maxDescriptionLength())
+        : text;
+  }
+
+  private long blockSeed(long block) {
+    // SplitMix64 finalizer, so neighbouring blocks get unrelated seeds.
+    long z = spec.seed() + (block + 1) * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  private static List<String> pool(int size, Supplier<String> generator) {
+    Set<String> values = new LinkedHashSet<>();
+    int attempts = size * 20;
+    while (values.size() < size && attempts-- > 0) {
+      values.add(generator.get());
+    }
+    // Faker's vocabulary can be smaller than the requested pool, so number the leftovers.
+    List<String> base = List.copyOf(values);
+    for (int i = 0; values.size() < size; i++) {
+      values.add(base.get(i % base.size()) + " " + (i / base.size() + 2));
+    }
+    return List.copyOf(values);
+  }
+
+  private static final class SeededFaker {
+    private final Random random = new Random();
+    private final Faker faker = new Faker(random);
+
+    private void reseed(long seed) {
+      random.setSeed(seed);
+    }
+  }
+}
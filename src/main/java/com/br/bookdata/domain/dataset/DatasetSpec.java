@@ -0,0 +1,35 @@
+package com.br.bookdata.domain.dataset;
+
+import org.springframework.core.env.PropertyResolver;
+
+/**
+ * Shape of the synthetic catalog. The same spec and seed always produce the same books in the same
+ * order, whatever the number of threads.
+ */
+public record DatasetSpec(
+    long seed,
+    int threads,
+    int blockSize,
+    int genres,
+    double genreSkew,
+    int authors,
+    double authorSkew,
+    double medianSentences,
+    double sentenceSigma,
+    int maxDescriptionLength) {
+
+  public static DatasetSpec from(PropertyResolver properties) {
+    return new DatasetSpec(
+        properties.getProperty("bookdata.dataset.seed", Long.class, 42L),
+        properties.getProperty(
+            "bookdata.dataset.threads", Integer.class, Runtime.getRuntime().availableProcessors()),
+        properties.getProperty("bookdata.dataset.block-size", Integer.class, 1000),
+        properties.getProperty("bookdata.dataset.genres", Integer.class, 30),
+        properties.getProperty("bookdata.dataset.genre-skew", Double.class, 1.1),
+        properties.getProperty("bookdata.dataset.authors", Integer.class, 5000),
+        properties.getProperty("bookdata.dataset.author-skew", Double.class, 0.9),
+        properties.getProperty("bookdata.dataset.description.median-sentences", Double.class, 4.0),
+        properties.getProperty("bookdata.dataset.description.sigma", Double.class, 0.6),
+        properties.getProperty("bookdata.dataset.description.max-length", Integer.class, 2000));
+  }
+}
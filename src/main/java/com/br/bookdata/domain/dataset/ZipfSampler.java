@@ -0,0 +1,34 @@
+package com.br.bookdata.domain.dataset;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draws ranks from a Zipf distribution: rank r (1-based) is picked with probability proportional
+ * to 1 / r^skew. A skew of 0 is uniform; around 1 the top few ranks take most of the draws.
+ */
+public class ZipfSampler {
+  private final double[] cumulative;
+
+  public ZipfSampler(int size, double skew) {
+    if (size < 1) {
+      throw new IllegalArgumentException("Zipf size must be at least 1");
+    }
+    this.cumulative = new double[size];
+    double sum = 0;
+    for (int rank = 1; rank <= size; rank++) {
+      sum += 1 / Math.pow(rank, skew);
+      cumulative[rank - 1] = sum;
+    }
+    for (int i = 0; i < size; i++) {
+      cumulative[i] /= sum;
+    }
+  }
+
+  /** Returns a zero-based index, 0 being the most popular rank. */
+  public int sample(Random random) {
+    int index = Arrays.binarySearch(cumulative, random.nextDouble());
+    int position = index >= 0 ? index : -index - 1;
+    return Math.min(position, cumulative.length - 1);
+  }
+}
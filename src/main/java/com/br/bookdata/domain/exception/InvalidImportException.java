@@ -0,0 +1,7 @@
+package com.br.bookdata.domain.exception;
+
+public class InvalidImportException extends RuntimeException {
+  public InvalidImportException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,82 @@
+package com.br.bookdata.domain.ingest;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Command line form of the import endpoint. Started with the {@value #PROFILE} profile and {@code
+ * --bookdata.import.file=<path>} ({@code -} reads standard input), the application imports the
+ * feed, logs the report and exits with 0, 1 when a write failed or 2 when records were rejected.
+ * The exit code is handed to {@link org.springframework.boot.SpringApplication#exit} by the main
+ * class. Run through {@code ./gradlew importBooks}.
+ */
+@Component
+@Profile(BookImportRunner.PROFILE)
+@Order(0)
+@Log4j2
+public class BookImportRunner implements CommandLineRunner, ExitCodeGenerator {
+  public static final String PROFILE = "import";
+
+  private static final String STANDARD_INPUT = "-";
+  private static final int FAILED_EXIT_CODE = 1;
+  private static final int REJECTS_EXIT_CODE = 2;
+
+  private final BookImporter importer;
+  private final String file;
+  private final String format;
+  private int exitCode;
+
+  public BookImportRunner(
+      BookImporter importer,
+      @Value("${bookdata.import.file}") String file,
+      @Value("${bookdata.import.format:}") String format) {
+    this.importer = importer;
+    this.file = file;
+    this.format = format;
+  }
+
+  @Override
+  public void run(String... args) throws Exception {
+    ImportFormat importFormat =
+        format.isBlank()
+            ? ImportFormat.fromFileName(file)
+            : ImportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+    boolean standardInput = STANDARD_INPUT.equals(file);
+    log.info("Importing {} as {}", standardInput ? "standard input" : file, importFormat);
+
+    ImportReport report;
+    try (InputStream in = standardInput ? System.in : Files.newInputStream(Path.of(file))) {
+      report = importer.importBooks(importFormat, in);
+    }
+    report
+        .rejects()
+        .forEach(reject -> log.warn("Rejected line {}: {}", reject.line(), reject.reason()));
+    if (report.rejected() > report.rejects().size()) {
+      log.warn("{} more rejected records not listed", report.rejected() - report.rejects().size());
+    }
+
+    if (report.error() != null) {
+      log.error(
+          "Import stopped by {}; lines after {} were not written",
+          report.error(),
+          report.lastCommittedLine());
+      exitCode = FAILED_EXIT_CODE;
+    } else {
+      exitCode = report.rejected() > 0 ? REJECTS_EXIT_CODE : 0;
+    }
+  }
+
+  @Override
+  public int getExitCode() {
+    return exitCode;
+  }
+}
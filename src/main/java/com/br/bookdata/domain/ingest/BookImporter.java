@@ -0,0 +1,255 @@
+package com.br.bookdata.domain.ingest;
+
+import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.repository.BookBulkInsertRepository;
+import com.br.bookdata.domain.service.contract.IBookCacheService;
+import com.br.bookdata.domain.utils.LookupKey;
+import com.br.bookdata.domain.utils.Throughput;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Loads a catalog feed into the book table. The caller's thread parses and validates records into
+ * batches and hands them to one writer thread through a bounded queue. When the database falls
+ * behind the queue fills up and the caller blocks, so it stops reading the feed and the sender is
+ * slowed down instead of batches piling up in memory.
+ *
+ * <p>Each written batch evicts the cached copies of its ids right away. Lists, cursor pages and
+ * totals tagged with the genres and authors the feed touched, before and after the upsert, are
+ * evicted once the feed ends.
+ *
+ * <p>A failed write stops the import without rolling back the batches already written. The report
+ * then carries the error and the last line up to which every record was written or rejected, so the
+ * caller can send the rest of the feed again. Books with an id are upserted, so sending lines again
+ * is harmless for them; books without one would be created twice.
+ */
+@Service
+@Log4j2
+public class BookImporter {
+  private static final long OFFER_TIMEOUT_MILLIS = 100;
+  private static final int MAX_NAME_LENGTH = 255;
+  private static final int MAX_DESCRIPTION_LENGTH = 2000;
+  private static final ImportBatch END_OF_FEED = new ImportBatch(List.of(), 0);
+
+  private final BookBulkInsertRepository repository;
+  private final IBookCacheService<Book, Long> bookCacheService;
+  private final ObjectMapper objectMapper;
+  private final int batchSize;
+  private final int queueCapacity;
+  private final int maxReportedRejects;
+
+  public BookImporter(
+      BookBulkInsertRepository repository,
+      @Qualifier("bookCacheServiceImpl") IBookCacheService<Book, Long> bookCacheService,
+      ObjectMapper objectMapper,
+      @Value("${bookdata.import.batch-size:1000}") int batchSize,
+      @Value("${bookdata.import.queue-capacity:4}") int queueCapacity,
+      @Value("${bookdata.import.max-reported-rejects:100}") int maxReportedRejects) {
+    this.repository = repository;
+    this.bookCacheService = bookCacheService;
+    this.objectMapper = objectMapper;
+    this.batchSize = batchSize;
+    this.queueCapacity = queueCapacity;
+    this.maxReportedRejects = maxReportedRejects;
+  }
+
+  public ImportReport importBooks(ImportFormat format, InputStream in) throws IOException {
+    long start = System.nanoTime();
+    BlockingQueue<ImportBatch> queue = new ArrayBlockingQueue<>(queueCapacity);
+    AtomicLong imported = new AtomicLong();
+    AtomicLong committedLine = new AtomicLong();
+    Set<String> genreKeys = ConcurrentHashMap.newKeySet();
+    Set<String> authorKeys = ConcurrentHashMap.newKeySet();
+    ExecutorService executor =
+        Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "book-import-writer"));
+    Future<?> writer =
+        executor.submit(
+            () -> {
+              drain(queue, imported, committedLine, genreKeys, authorKeys);
+              return null;
+            });
+
+    long received = 0;
+    long rejected = 0;
+    long lastLine = 0;
+    String error = null;
+    List<ImportReject> rejects = new ArrayList<>();
+    try (BookRecordReader reader = BookRecordReader.of(format, in, objectMapper)) {
+      List<Book> batch = new ArrayList<>(batchSize);
+      Set<Long> batchIds = new HashSet<>();
+      long batchLine = 0;
+      long lastProgress = start;
+      ImportRecord record;
+      while ((record = reader.next()) != null) {
+        received++;
+        lastLine = record.line();
+        String error = record.isRejected() ? record.error() : validate(record.book());
+        if (error != null) {
+          rejected++;
+          if (rejects.size() < maxReportedRejects) {
+            rejects.add(new ImportReject(record.line(), error));
+          }
+          continue;
+        }
+        Book book = record.book();
+        // An upsert cannot touch the same row twice, so a repeated id starts a new batch.
+        boolean repeatedId = book.getId() != null && batchIds.contains(book.getId());
+        if (batch.size() == batchSize || repeatedId) {
+          put(queue, new ImportBatch(batch, batchLine), writer);
+          batch = new ArrayList<>(batchSize);
+          batchIds.clear();
+        }
+        batch.add(book);
+        batchLine = record.line();
+        if (book.getId() != null) {
+          batchIds.add(book.getId());
+        }
+
+        long now = System.nanoTime();
+        if (now - lastProgress >= Throughput.PROGRESS_INTERVAL_NANOS) {
+          log.info(
+              "Imported {} of {} books received, {} rejected ({} rows/s)",
+              imported.get(),
+              received,
+              rejected,
+              Throughput.rowsPerSecond(imported.get(), now - start));
+          lastProgress = now;
+        }
+      }
+      if (!batch.isEmpty()) {
+        put(queue, new ImportBatch(batch, batchLine), writer);
+      }
+      put(queue, END_OF_FEED, writer);
+      writer.get();
+      committedLine.set(lastLine);
+    } catch (ExecutionException e) {
+      error = String.valueOf(e.getCause());
+      log.error(
+          "Import failed after {} books, written up to line {}",
+          imported.get(),
+          committedLine.get(),
+          e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Import interrupted after " + imported.get() + " books", e);
+    } finally {
+      executor.shutdownNow();
+      finish(executor, imported.get(), genreKeys, authorKeys);
+    }
+
+    long elapsed = System.nanoTime() - start;
+    ImportReport report =
+        new ImportReport(
+            received,
+            imported.get(),
+            rejected,
+            TimeUnit.NANOSECONDS.toMillis(elapsed),
+            Throughput.rowsPerSecond(imported.get(), elapsed),
+            committedLine.get(),
+            error,
+            rejects);
+    log.info(
+        "Imported {} of {} books, {} rejected, in {} ms ({} rows/s)",
+        report.imported(),
+        report.received(),
+        report.rejected(),
+        report.elapsedMillis(),
+        report.rowsPerSecond());
+    return report;
+  }
+
+  private void drain(
+      BlockingQueue<ImportBatch> queue,
+      AtomicLong imported,
+      AtomicLong committedLine,
+      Set<String> genreKeys,
+      Set<String> authorKeys)
+      throws InterruptedException {
+    ImportBatch importBatch;
+    while ((importBatch = queue.take()) != END_OF_FEED) {
+      List<Book> batch = importBatch.books();
+      List<Long> ids = batch.stream().map(Book::getId).filter(Objects::nonNull).toList();
+      // Books that move to another genre or author leave stale lists behind under the old ones.
+      for (Book stored : repository.findLookupKeys(ids)) {
+        Optional.ofNullable(stored.getGenreKey()).ifPresent(genreKeys::add);
+        Optional.ofNullable(stored.getAuthorKey()).ifPresent(authorKeys::add);
+      }
+      // Books created meanwhile draw their ids from the sequence, so it has to be past the feed's
+      // before they are written.
+      ids.stream().mapToLong(Long::longValue).max().ifPresent(repository::advanceIdSequence);
+      repository.upsertAll(batch);
+      for (Book book : batch) {
+        genreKeys.add(LookupKey.of(book.getGenre()));
+        authorKeys.add(LookupKey.of(book.getAuthor()));
+      }
+      bookCacheService.evictBooks(ids, Set.of(), Set.of());
+      imported.addAndGet(batch.size());
+      committedLine.set(importBatch.lastLine());
+    }
+  }
+
+  /** Runs even when the import fails, so the rows already written are not hidden by the cache. */
+  private void finish(
+      ExecutorService executor, long imported, Set<String> genreKeys, Set<String> authorKeys) {
+    try {
+      executor.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (imported == 0) {
+      return;
+    }
+    bookCacheService.evictBooks(List.of(), genreKeys, authorKeys);
+  }
+
+  private static void put(BlockingQueue<ImportBatch> queue, ImportBatch batch, Future<?> writer)
+      throws InterruptedException, ExecutionException {
+    while (!queue.offer(batch, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+      if (writer.isDone()) {
+        writer.get();
+        throw new IllegalStateException("Import writer stopped before the feed ended");
+      }
+    }
+  }
+
+  static String validate(Book book) {
+    for (String[] field :
+        new String[][] {
+          {"title", book.getTitle()}, {"author", book.getAuthor()}, {"genre", book.getGenre()}
+        }) {
+      if (field[1] == null || field[1].isBlank()) {
+        return field[0] + " is required";
+      }
+      if (field[1].length() > MAX_NAME_LENGTH) {
+        return String.format("%s is longer than %s characters", field[0], MAX_NAME_LENGTH);
+      }
+    }
+    if (book.getDescription() != null && book.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+      return String.format("description is longer than %s characters", MAX_DESCRIPTION_LENGTH);
+    }
+    return null;
+  }
+
+  /** A batch of books and the feed line of its last one. */
+  private record ImportBatch(List<Book> books, long lastLine) {}
+}
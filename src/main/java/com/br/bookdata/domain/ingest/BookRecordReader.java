@@ -0,0 +1,47 @@
+package com.br.bookdata.domain.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads an import feed one record at a time, so only the current record is held in memory
+ * whatever the size of the feed. A record that cannot be parsed comes back rejected and reading
+ * goes on with the next one.
+ */
+public abstract class BookRecordReader implements Closeable {
+  protected final BufferedReader reader;
+
+  protected BookRecordReader(InputStream in) {
+    this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+  }
+
+  public static BookRecordReader of(ImportFormat format, InputStream in, ObjectMapper mapper) {
+    return format == ImportFormat.CSV
+        ? new CsvBookRecordReader(in)
+        : new NdjsonBookRecordReader(in, mapper);
+  }
+
+  /** Returns the next record, or {@code null} once the feed is exhausted. */
+  public abstract ImportRecord next() throws IOException;
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  protected static Long parseId(String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    long id = Long.parseLong(value.trim());
+    if (id <= 0) {
+      throw new NumberFormatException("id must be positive");
+    }
+    return id;
+  }
+}
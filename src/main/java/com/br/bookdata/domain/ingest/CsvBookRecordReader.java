@@ -0,0 +1,142 @@
+package com.br.bookdata.domain.ingest;
+
+import com.br.bookdata.domain.exception.InvalidImportException;
+import com.br.bookdata.domain.model.Book;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * RFC 4180 CSV with a header row naming the columns. {@code title}, {@code author} and {@code
+ * genre} are required, {@code id} and {@code description} optional, and other columns are
+ * ignored. Quoted fields may hold commas, doubled quotes and line breaks.
+ */
+class CsvBookRecordReader extends BookRecordReader {
+  private static final int END_OF_STREAM = -1;
+
+  private Map<String, Integer> columns;
+  private int width;
+  private long line = 1;
+  private boolean unterminatedQuote;
+
+  CsvBookRecordReader(InputStream in) {
+    super(in);
+  }
+
+  @Override
+  public ImportRecord next() throws IOException {
+    if (columns == null) {
+      columns = readHeader();
+    }
+    List<String> fields;
+    long start;
+    do {
+      start = line;
+      fields = readRow();
+    } while (fields != null && fields.size() == 1 && fields.get(0).isBlank());
+    if (fields == null) {
+      return null;
+    }
+    if (unterminatedQuote) {
+      return ImportRecord.rejected(start, "Quoted field is never closed");
+    }
+    if (fields.size() != width) {
+      return ImportRecord.rejected(
+          start, String.format("Expected %s columns, found %s", width, fields.size()));
+    }
+    try {
+      return ImportRecord.parsed(
+          start,
+          Book.builder()
+              .id(parseId(field(fields, "id")))
+              .title(field(fields, "title"))
+              .author(field(fields, "author"))
+              .genre(field(fields, "genre"))
+              .description(field(fields, "description"))
+              .build());
+    } catch (NumberFormatException e) {
+      return ImportRecord.rejected(start, "Invalid id: " + e.getMessage());
+    }
+  }
+
+  private Map<String, Integer> readHeader() throws IOException {
+    List<String> header = readRow();
+    if (header == null) {
+      throw new InvalidImportException("CSV feed is empty; a header row is required");
+    }
+    Map<String, Integer> indexes = new HashMap<>();
+    for (int i = 0; i < header.size(); i++) {
+      indexes.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+    }
+    for (String required : List.of("title", "author", "genre")) {
+      if (!indexes.containsKey(required)) {
+        throw new InvalidImportException(
+            String.format("CSV header: '%s' has no %s column", String.join(",", header), required));
+      }
+    }
+    width = header.size();
+    return indexes;
+  }
+
+  private String field(List<String> fields, String column) {
+    Integer index = columns.get(column);
+    if (index == null) {
+      return null;
+    }
+    String value = fields.get(index);
+    return value.isEmpty() ? null : value;
+  }
+
+  /** Reads one record, which may span several lines, or returns null at the end of the feed. */
+  private List<String> readRow() throws IOException {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    boolean read = false;
+    unterminatedQuote = false;
+    while (true) {
+      int next = reader.read();
+      if (next == END_OF_STREAM) {
+        if (!read) {
+          return null;
+        }
+        unterminatedQuote = quoted;
+        fields.add(field.toString());
+        return fields;
+      }
+      read = true;
+      char c = (char) next;
+      if (quoted) {
+        if (c == '"') {
+          reader.mark(1);
+          if (reader.read() == '"') {
+            field.append('"');
+          } else {
+            reader.reset();
+            quoted = false;
+          }
+        } else {
+          if (c == '\n') {
+            line++;
+          }
+          field.append(c);
+        }
+      } else if (c == '"' && field.isEmpty()) {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '\n') {
+        line++;
+        fields.add(field.toString());
+        return fields;
+      } else if (c != '\r') {
+        field.append(c);
+      }
+    }
+  }
+}
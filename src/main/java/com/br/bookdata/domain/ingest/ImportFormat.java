@@ -0,0 +1,13 @@
+package com.br.bookdata.domain.ingest;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+  NDJSON,
+  CSV;
+
+  /** Picks the format from a file name, reading anything that is not {@code .csv} as NDJSON. */
+  public static ImportFormat fromFileName(String fileName) {
+    return fileName.toLowerCase(Locale.ROOT).endsWith(".csv") ? CSV : NDJSON;
+  }
+}
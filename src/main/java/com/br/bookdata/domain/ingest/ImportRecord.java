@@ -0,0 +1,22 @@
+package com.br.bookdata.domain.ingest;
+
+import com.br.bookdata.domain.model.Book;
+
+/**
+ * One record of an import feed: the parsed book, or the reason it could not be parsed. {@code line}
+ * is the line the record starts on.
+ */
+public record ImportRecord(long line, Book book, String error) {
+
+  static ImportRecord parsed(long line, Book book) {
+    return new ImportRecord(line, book, null);
+  }
+
+  static ImportRecord rejected(long line, String error) {
+    return new ImportRecord(line, null, error);
+  }
+
+  public boolean isRejected() {
+    return error != null;
+  }
+}
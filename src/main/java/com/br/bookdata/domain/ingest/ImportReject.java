@@ -0,0 +1,3 @@
+package com.br.bookdata.domain.ingest;
+
+public record ImportReject(long line, String reason) {}
@@ -0,0 +1,18 @@
+package com.br.bookdata.domain.ingest;
+
+import java.util.List;
+
+/**
+ * Outcome of an import. {@code rejects} lists the first rejected records only; {@code rejected}
+ * counts all of them. {@code error} is null unless a write failed, in which case every record up to
+ * {@code lastCommittedLine} was written or rejected and the ones after it were not written.
+ */
+public record ImportReport(
+    long received,
+    long imported,
+    long rejected,
+    long elapsedMillis,
+    long rowsPerSecond,
+    long lastCommittedLine,
+    String error,
+    List<ImportReject> rejects) {}
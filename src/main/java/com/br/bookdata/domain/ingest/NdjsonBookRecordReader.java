@@ -0,0 +1,55 @@
+package com.br.bookdata.domain.ingest;
+
+import com.br.bookdata.domain.model.Book;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+
+/** One JSON object per line, with the fields of a book; unknown fields are ignored. */
+class NdjsonBookRecordReader extends BookRecordReader {
+  private final ObjectMapper mapper;
+  private long line;
+
+  NdjsonBookRecordReader(InputStream in, ObjectMapper mapper) {
+    super(in);
+    this.mapper = mapper;
+  }
+
+  @Override
+  public ImportRecord next() throws IOException {
+    String text;
+    do {
+      text = reader.readLine();
+      line++;
+    } while (text != null && text.isBlank());
+    if (text == null) {
+      return null;
+    }
+    try {
+      JsonNode node = mapper.readTree(text);
+      if (!node.isObject()) {
+        return ImportRecord.rejected(line, "Record is not a JSON object");
+      }
+      return ImportRecord.parsed(
+          line,
+          Book.builder()
+              .id(parseId(text(node, "id")))
+              .title(text(node, "title"))
+              .author(text(node, "author"))
+              .genre(text(node, "genre"))
+              .description(text(node, "description"))
+              .build());
+    } catch (JsonProcessingException e) {
+      return ImportRecord.rejected(line, "Malformed JSON: " + e.getOriginalMessage());
+    } catch (NumberFormatException e) {
+      return ImportRecord.rejected(line, "Invalid id: " + e.getMessage());
+    }
+  }
+
+  private static String text(JsonNode node, String field) {
+    JsonNode value = node.get(field);
+    return value == null || value.isNull() ? null : value.asText();
+  }
+}
@@ -1,5 +1,6 @@
 package com.br.bookdata.domain.model;
 
+import com.br.bookdata.domain.utils.LookupKey;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,8 +11,8 @@ import lombok.NoArgsConstructor;
 @Table(
     name = "book",
     indexes = {
-      @Index(name = "idx_genre", columnList = "genre"),
-      @Index(name = "idx_author", columnList = "author")
+      @Index(name = "idx_genre_key", columnList = "genre_key, id"),
+      @Index(name = "idx_author_key", columnList = "author_key, id")
     })
 @Data
 @Builder
@@ -19,7 +20,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class Book {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_id_seq")
+  @SequenceGenerator(name = "book_id_seq", sequenceName = "book_id_seq", allocationSize = 1)
   private Long id;
 
   private String title;
@@ -28,4 +30,17 @@ public class Book {
 
   @Column(length = 2000)
   private String description;
+
+  @Column(name = "genre_key")
+  private String genreKey;
+
+  @Column(name = "author_key")
+  private String authorKey;
+
+  @PrePersist
+  @PreUpdate
+  void normalizeLookupKeys() {
+    this.genreKey = LookupKey.of(this.genre);
+    this.authorKey = LookupKey.of(this.author);
+  }
 }
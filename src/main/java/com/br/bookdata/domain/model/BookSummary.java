@@ -0,0 +1,10 @@
+package com.br.bookdata.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * The columns list endpoints show. List queries project straight into it, so neither the database
+ * nor the page caches ever carry a book's description.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record BookSummary(Long id, String title, String author, String genre) {}
@@ -0,0 +1,168 @@
+package com.br.bookdata.domain.observer;
+
+import com.br.bookdata.domain.observer.contract.IObserver;
+import com.br.bookdata.domain.observer.contract.ISubject;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Subject that takes events off the caller's thread. Events go to a bounded queue and a single
+ * dispatcher thread hands them to the observers in batches. When the queue is full the event is
+ * either dropped right away or the publisher blocks for at most the configured timeout first.
+ *
+ * <p>The dispatcher is started by {@link #start} once the bean, and the observers its subclass
+ * adds, are fully built; events published before that wait in the queue.
+ */
+@Log4j2
+public abstract class AsyncEventBus<T> implements ISubject<T> {
+  private static final long POLL_INTERVAL_MILLIS = 100;
+
+  public enum Backpressure {
+    DROP,
+    BLOCK
+  }
+
+  private final List<IObserver<T>> observers = new CopyOnWriteArrayList<>();
+  private final BlockingQueue<Event<T>> queue;
+  private final int batchSize;
+  private final Backpressure backpressure;
+  private final Duration blockTimeout;
+  private final Thread dispatcher;
+  private final Counter droppedCounter;
+  private final Timer lagTimer;
+  private final DistributionSummary batchSummary;
+  private volatile boolean running = true;
+
+  protected AsyncEventBus(
+      String name,
+      MeterRegistry meterRegistry,
+      int capacity,
+      int batchSize,
+      Backpressure backpressure,
+      Duration blockTimeout) {
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.batchSize = batchSize;
+    this.backpressure = backpressure;
+    this.blockTimeout = blockTimeout;
+    Gauge.builder("bookdata.events.queue.depth", queue, BlockingQueue::size)
+        .description("Events waiting to be dispatched")
+        .tag("bus", name)
+        .register(meterRegistry);
+    this.droppedCounter =
+        Counter.builder("bookdata.events.dropped")
+            .description("Events dropped because the queue was full")
+            .tag("bus", name)
+            .register(meterRegistry);
+    this.lagTimer =
+        Timer.builder("bookdata.events.lag")
+            .description("Time between publishing an event and delivering it")
+            .tag("bus", name)
+            .register(meterRegistry);
+    this.batchSummary =
+        DistributionSummary.builder("bookdata.events.batch.size")
+            .description("Events delivered to the observers per batch")
+            .tag("bus", name)
+            .register(meterRegistry);
+    this.dispatcher = new Thread(this::dispatchLoop, name + "-dispatcher");
+    this.dispatcher.setDaemon(true);
+  }
+
+  @PostConstruct
+  public void start() {
+    dispatcher.start();
+  }
+
+  @Override
+  public void addObserver(IObserver<T> observer) {
+    observers.add(observer);
+  }
+
+  @Override
+  public void removeObserver(IObserver<T> observer) {
+    observers.remove(observer);
+  }
+
+  @Override
+  public void notifyObservers(T eventData) {
+    Event<T> event = new Event<>(eventData, System.nanoTime());
+    boolean accepted =
+        switch (backpressure) {
+          case DROP -> queue.offer(event);
+          case BLOCK -> offerWithin(event, blockTimeout);
+        };
+    if (!accepted) {
+      droppedCounter.increment();
+      log.debug("Event queue full, dropping event: {}", eventData);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() throws InterruptedException {
+    running = false;
+    dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+  }
+
+  private boolean offerWithin(Event<T> event, Duration timeout) {
+    try {
+      return queue.offer(event, timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private void dispatchLoop() {
+    List<Event<T>> batch = new ArrayList<>(batchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        Event<T> first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        deliver(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void deliver(List<Event<T>> batch) {
+    long now = System.nanoTime();
+    batch.forEach(event -> lagTimer.record(now - event.publishedAt(), TimeUnit.NANOSECONDS));
+    batchSummary.record(batch.size());
+
+    List<T> events = batch.stream().map(Event::payload).toList();
+    for (IObserver<T> observer : observers) {
+      try {
+        observer.updateAll(events);
+      } catch (Exception e) {
+        log.error(
+            "Observer {} failed on a batch of {} events. Error: {}",
+            observer.getClass().getSimpleName(),
+            events.size(),
+            e.getMessage(),
+            e);
+      }
+    }
+  }
+
+  private record Event<T>(T payload, long publishedAt) {}
+}
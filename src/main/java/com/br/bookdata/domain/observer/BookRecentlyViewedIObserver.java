@@ -3,6 +3,7 @@ package com.br.bookdata.domain.observer;
 import com.br.bookdata.domain.model.Book;
 import com.br.bookdata.domain.observer.contract.IObserver;
 import com.br.bookdata.domain.service.contract.IBookCacheService;
+import java.util.List;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
@@ -33,4 +34,10 @@ public class BookRecentlyViewedIObserver implements IObserver<Book> {
           e);
     }
   }
+
+  @Override
+  public void updateAll(List<Book> books) {
+    log.debug("Received batch of {} viewed books", books.size());
+    bookCacheService.updateRecentlyViewed(books);
+  }
 }
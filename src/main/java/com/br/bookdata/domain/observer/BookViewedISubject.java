@@ -1,34 +1,25 @@
 package com.br.bookdata.domain.observer;
 
 import com.br.bookdata.domain.model.Book;
-import com.br.bookdata.domain.observer.contract.IObserver;
-import com.br.bookdata.domain.observer.contract.ISubject;
-import java.util.ArrayList;
-import java.util.List;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
 @Component("bookViewedISubject")
-public class BookViewedISubject implements ISubject<Book> {
-  private final List<IObserver<Book>> iObservers = new ArrayList<>();
+public class BookViewedISubject extends AsyncEventBus<Book> {
 
-  public BookViewedISubject(ApplicationContext applicationContext) {
-    this.iObservers.add(
+  public BookViewedISubject(
+      ApplicationContext applicationContext,
+      MeterRegistry meterRegistry,
+      @Value("${bookdata.events.book-viewed.queue-capacity:10000}") int capacity,
+      @Value("${bookdata.events.book-viewed.batch-size:100}") int batchSize,
+      @Value("${bookdata.events.book-viewed.backpressure:DROP}") Backpressure backpressure,
+      @Value("${bookdata.events.book-viewed.block-timeout:50ms}") Duration blockTimeout) {
+    super("book-viewed", meterRegistry, capacity, batchSize, backpressure, blockTimeout);
+    addObserver(
         applicationContext.getBean(
             "bookRecentlyViewedIObserver", BookRecentlyViewedIObserver.class));
   }
-
-  public void addObserver(IObserver<Book> observer) {
-    iObservers.add(observer);
-  }
-
-  public void removeObserver(IObserver<Book> observer) {
-    iObservers.remove(observer);
-  }
-
-  public void notifyObservers(Book book) {
-    for (IObserver<Book> observer : iObservers) {
-      observer.update(book);
-    }
-  }
 }
@@ -0,0 +1,34 @@
+package com.br.bookdata.domain.observer;
+
+import com.br.bookdata.domain.cache.RedisHotKeyManifest;
+import com.br.bookdata.domain.observer.contract.IObserver;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+@Log4j2
+@Component("hotKeyIObserver")
+public class HotKeyIObserver implements IObserver<String> {
+
+  private final RedisHotKeyManifest manifest;
+
+  public HotKeyIObserver(RedisHotKeyManifest manifest) {
+    this.manifest = manifest;
+  }
+
+  @Override
+  public void update(String member) {
+    updateAll(List.of(member));
+  }
+
+  @Override
+  public void updateAll(List<String> members) {
+    log.debug("Received batch of {} hot key hits", members.size());
+    Map<String, Long> hits =
+        members.stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    manifest.incrementAll(hits);
+  }
+}
@@ -0,0 +1,32 @@
+package com.br.bookdata.domain.observer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+/** Samples requests for the hot-key manifest; only a fraction of the hits is ever published. */
+@Component("hotKeyISubject")
+public class HotKeyISubject extends AsyncEventBus<String> {
+  private final double sampleRate;
+
+  public HotKeyISubject(
+      ApplicationContext applicationContext,
+      MeterRegistry meterRegistry,
+      @Value("${bookdata.warmup.record.sample-rate:0.05}") double sampleRate,
+      @Value("${bookdata.events.hot-keys.queue-capacity:10000}") int capacity,
+      @Value("${bookdata.events.hot-keys.batch-size:500}") int batchSize) {
+    super("hot-keys", meterRegistry, capacity, batchSize, Backpressure.DROP, Duration.ZERO);
+    this.sampleRate = sampleRate;
+    addObserver(applicationContext.getBean("hotKeyIObserver", HotKeyIObserver.class));
+  }
+
+  @Override
+  public void notifyObservers(String member) {
+    if (ThreadLocalRandom.current().nextDouble() < sampleRate) {
+      super.notifyObservers(member);
+    }
+  }
+}
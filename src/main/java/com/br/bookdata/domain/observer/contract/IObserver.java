@@ -1,5 +1,11 @@
 package com.br.bookdata.domain.observer.contract;
 
+import java.util.List;
+
 public interface IObserver<T> {
   void update(T object);
+
+  default void updateAll(List<T> objects) {
+    objects.forEach(this::update);
+  }
 }
@@ -0,0 +1,170 @@
+package com.br.bookdata.domain.repository;
+
+import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.utils.LookupKey;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Plain JDBC batch inserts for seeding and imports, bypassing the persistence context so nothing is
+ * kept in memory after a batch is sent. Ids come from the book sequence inside the statement
+ * itself, and with reWriteBatchedInserts the driver sends each batch as multi-row INSERTs.
+ */
+@Repository
+public class BookBulkInsertRepository {
+  private static final String INSERT_SQL =
+      "INSERT INTO book (id, title, author, genre, description, genre_key, author_key)"
+          + " VALUES (nextval('book_id_seq'), ?, ?, ?, ?, ?, ?)";
+  private static final String UPSERT_SQL =
+      "INSERT INTO book (id, title, author, genre, description, genre_key, author_key)"
+          + " VALUES (COALESCE(?, nextval('book_id_seq')), ?, ?, ?, ?, ?, ?)"
+          + " ON CONFLICT (id) DO UPDATE SET title = EXCLUDED.title, author = EXCLUDED.author,"
+          + " genre = EXCLUDED.genre, description = EXCLUDED.description,"
+          + " genre_key = EXCLUDED.genre_key, author_key = EXCLUDED.author_key";
+  private static final String LOOKUP_KEYS_SQL =
+      "SELECT id, genre_key, author_key FROM book WHERE id = ANY(?)";
+  // Each branch is an index probe on the lookup key columns, so once every row has its keys the
+  // check costs nothing on later starts.
+  private static final String MISSING_LOOKUP_KEYS_SQL =
+      "SELECT EXISTS (SELECT 1 FROM book WHERE genre_key IS NULL AND genre IS NOT NULL)"
+          + " OR EXISTS (SELECT 1 FROM book WHERE author_key IS NULL AND author IS NOT NULL)";
+  private static final String MISSING_LOOKUP_KEYS_PAGE_SQL =
+      "SELECT id, genre, author FROM book WHERE id > ?"
+          + " AND ((genre_key IS NULL AND genre IS NOT NULL)"
+          + " OR (author_key IS NULL AND author IS NOT NULL))"
+          + " ORDER BY id LIMIT ?";
+  private static final String UPDATE_LOOKUP_KEYS_SQL =
+      "UPDATE book SET genre_key = ?, author_key = ? WHERE id = ?";
+  private static final int BACKFILL_BATCH_SIZE = 1000;
+  private static final String MAX_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM book";
+  // Only ever moves forward: a sequence already past the id, e.g. one other nodes have drawn from
+  // since, is left alone.
+  private static final String ADVANCE_SEQUENCE_SQL =
+      "SELECT setval('book_id_seq', ?) FROM book_id_seq"
+          + " WHERE last_value < ? OR (last_value = ? AND NOT is_called)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public BookBulkInsertRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public void insertAll(List<Book> books) {
+    jdbcTemplate.batchUpdate(
+        INSERT_SQL,
+        books,
+        books.size(),
+        (statement, book) -> {
+          statement.setString(1, book.getTitle());
+          statement.setString(2, book.getAuthor());
+          statement.setString(3, book.getGenre());
+          statement.setString(4, book.getDescription());
+          statement.setString(5, LookupKey.of(book.getGenre()));
+          statement.setString(6, LookupKey.of(book.getAuthor()));
+        });
+  }
+
+  /**
+   * Inserts books without an id and overwrites the rows of those with one. A batch must not repeat
+   * an id, as a multi-row upsert cannot touch the same row twice.
+   */
+  public void upsertAll(List<Book> books) {
+    jdbcTemplate.batchUpdate(
+        UPSERT_SQL,
+        books,
+        books.size(),
+        (statement, book) -> {
+          statement.setObject(1, book.getId(), Types.BIGINT);
+          statement.setString(2, book.getTitle());
+          statement.setString(3, book.getAuthor());
+          statement.setString(4, book.getGenre());
+          statement.setString(5, book.getDescription());
+          statement.setString(6, LookupKey.of(book.getGenre()));
+          statement.setString(7, LookupKey.of(book.getAuthor()));
+        });
+  }
+
+  /** Current genre and author keys of the stored books among {@code ids}, with only those set. */
+  public List<Book> findLookupKeys(Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    return jdbcTemplate.query(
+        connection -> {
+          PreparedStatement statement = connection.prepareStatement(LOOKUP_KEYS_SQL);
+          statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+          return statement;
+        },
+        (resultSet, row) ->
+            Book.builder()
+                .id(resultSet.getLong("id"))
+                .genreKey(resultSet.getString("genre_key"))
+                .authorKey(resultSet.getString("author_key"))
+                .build());
+  }
+
+  /**
+   * Fills the lookup keys of rows written before the key columns existed, which no genre or author
+   * lookup would find otherwise. Keys are computed by {@link LookupKey#of} rather than SQL {@code
+   * lower()}, whose result depends on the database collation for non-ASCII text, and written in
+   * batches walked by id. When no row misses a key this is one indexed check.
+   */
+  public int backfillLookupKeys() {
+    if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(MISSING_LOOKUP_KEYS_SQL, Boolean.class))) {
+      return 0;
+    }
+    int backfilled = 0;
+    long afterId = 0;
+    List<Book> batch;
+    do {
+      batch =
+          jdbcTemplate.query(
+              MISSING_LOOKUP_KEYS_PAGE_SQL,
+              (resultSet, row) ->
+                  Book.builder()
+                      .id(resultSet.getLong("id"))
+                      .genre(resultSet.getString("genre"))
+                      .author(resultSet.getString("author"))
+                      .build(),
+              afterId,
+              BACKFILL_BATCH_SIZE);
+      if (batch.isEmpty()) {
+        break;
+      }
+      jdbcTemplate.batchUpdate(
+          UPDATE_LOOKUP_KEYS_SQL,
+          batch,
+          batch.size(),
+          (statement, book) -> {
+            statement.setString(1, LookupKey.of(book.getGenre()));
+            statement.setString(2, LookupKey.of(book.getAuthor()));
+            statement.setLong(3, book.getId());
+          });
+      backfilled += batch.size();
+      afterId = batch.get(batch.size() - 1).getId();
+    } while (batch.size() == BACKFILL_BATCH_SIZE);
+    return backfilled;
+  }
+
+  /** Moves the book sequence past the largest stored id. */
+  public void syncIdSequence() {
+    Long maxId = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+    if (maxId != null && maxId > 0) {
+      advanceIdSequence(maxId);
+    }
+  }
+
+  /** Makes sure the next id drawn from the book sequence is greater than {@code id}. */
+  public void advanceIdSequence(long id) {
+    jdbcTemplate.queryForList(ADVANCE_SEQUENCE_SQL, Long.class, id, id, id);
+  }
+
+  /** Refreshes the planner statistics that approximate totals are read from. */
+  public void analyze() {
+    jdbcTemplate.execute("ANALYZE book");
+  }
+}
@@ -0,0 +1,75 @@
+package com.br.bookdata.domain.repository;
+
+import com.br.bookdata.domain.model.Book;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Forward-only reads of the whole catalog for exports. The Postgres driver only fetches rows in
+ * {@code fetch-size} chunks through a server-side cursor when autocommit is off, hence the
+ * read-only transaction; otherwise it would buffer the full result set before the first row.
+ */
+@Repository
+public class BookExportRepository {
+  private static final String SELECT_SQL =
+      "SELECT id, title, author, genre, description FROM book";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int fetchSize;
+
+  public BookExportRepository(
+      JdbcTemplate jdbcTemplate, @Value("${bookdata.export.fetch-size:1000}") int fetchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.fetchSize = fetchSize;
+  }
+
+  /** Hands each matching book to {@code sink} in id order and returns how many there were. */
+  @Transactional(readOnly = true)
+  public long streamBooks(String genreKey, String authorKey, Consumer<Book> sink) {
+    List<String> filters = new ArrayList<>(2);
+    List<Object> args = new ArrayList<>(2);
+    if (genreKey != null) {
+      filters.add("genre_key = ?");
+      args.add(genreKey);
+    }
+    if (authorKey != null) {
+      filters.add("author_key = ?");
+      args.add(authorKey);
+    }
+    String sql =
+        SELECT_SQL
+            + (filters.isEmpty() ? "" : " WHERE " + String.join(" AND ", filters))
+            + " ORDER BY id";
+
+    long[] rows = {0};
+    jdbcTemplate.query(
+        connection -> {
+          var statement =
+              connection.prepareStatement(
+                  sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+          statement.setFetchSize(fetchSize);
+          for (int i = 0; i < args.size(); i++) {
+            statement.setObject(i + 1, args.get(i));
+          }
+          return statement;
+        },
+        resultSet -> {
+          sink.accept(
+              Book.builder()
+                  .id(resultSet.getLong("id"))
+                  .title(resultSet.getString("title"))
+                  .author(resultSet.getString("author"))
+                  .genre(resultSet.getString("genre"))
+                  .description(resultSet.getString("description"))
+                  .build());
+          rows[0]++;
+        });
+    return rows[0];
+  }
+}
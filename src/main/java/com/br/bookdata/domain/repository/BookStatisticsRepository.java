@@ -0,0 +1,59 @@
+package com.br.bookdata.domain.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Row estimates read from the Postgres statistics collected by ANALYZE, so approximate totals never
+ * scan the book table. Every method returns -1 while the table has not been analyzed yet, and the
+ * column estimates also while the column has no statistics. The table is the {@code book} the
+ * search path resolves to, so a {@code book} table in another schema is never read.
+ */
+@Repository
+public class BookStatisticsRepository {
+  private static final String TABLE_ESTIMATE_SQL =
+      "SELECT reltuples::bigint FROM pg_class WHERE oid = 'book'::regclass";
+
+  // Frequency of the value in the column's most common values when it is there; otherwise the
+  // remaining frequency spread evenly over the other distinct values, as the planner does.
+  private static final String COLUMN_ESTIMATE_SQL =
+      """
+      SELECT CASE WHEN c.reltuples < 0 OR s.attname IS NULL THEN -1
+             ELSE ROUND(c.reltuples * COALESCE(
+        (SELECT SUM(m.freq)
+           FROM unnest(s.most_common_vals::text::text[], s.most_common_freqs) AS m(val, freq)
+          WHERE m.val = ?),
+        (1 - COALESCE((SELECT SUM(f) FROM unnest(s.most_common_freqs) AS f), 0))
+          / GREATEST(
+              CASE WHEN s.n_distinct < 0 THEN -s.n_distinct * c.reltuples ELSE s.n_distinct END
+                - COALESCE(array_length(s.most_common_freqs, 1), 0),
+              1)))::bigint END
+        FROM pg_class c
+        LEFT JOIN pg_stats s
+          ON s.schemaname = current_schema() AND s.tablename = c.relname AND s.attname = ?
+       WHERE c.oid = 'book'::regclass
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public BookStatisticsRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public long estimateAll() {
+    return estimate(TABLE_ESTIMATE_SQL);
+  }
+
+  public long estimateByGenre(String genreKey) {
+    return estimate(COLUMN_ESTIMATE_SQL, genreKey, "genre_key");
+  }
+
+  public long estimateByAuthor(String authorKey) {
+    return estimate(COLUMN_ESTIMATE_SQL, authorKey, "author_key");
+  }
+
+  private long estimate(String sql, Object... args) {
+    Long estimate = jdbcTemplate.queryForObject(sql, Long.class, args);
+    return estimate == null ? -1 : estimate;
+  }
+}
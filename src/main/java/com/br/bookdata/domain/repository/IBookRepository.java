@@ -1,17 +1,45 @@
 package com.br.bookdata.domain.repository;
 
 import com.br.bookdata.domain.model.Book;
-import org.springframework.data.domain.Page;
+import com.br.bookdata.domain.model.BookSummary;
+import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface IBookRepository extends JpaRepository<Book, Long> {
-  Page<Book> findByGenreIgnoreCase(String genre, Pageable pageable);
+  /** List queries select only the summary columns, never the description. */
+  String SUMMARY =
+      "SELECT new com.br.bookdata.domain.model.BookSummary(b.id, b.title, b.author, b.genre)";
 
-  Page<Book> findByAuthorIgnoreCase(String author, Pageable pageable);
+  @Query(SUMMARY + " FROM Book b")
+  Slice<BookSummary> findAllBooks(Pageable pageable);
+
+  @Query(SUMMARY + " FROM Book b WHERE b.genreKey = :genreKey")
+  Slice<BookSummary> findByGenreKey(@Param("genreKey") String genreKey, Pageable pageable);
+
+  @Query(SUMMARY + " FROM Book b WHERE b.authorKey = :authorKey")
+  Slice<BookSummary> findByAuthorKey(@Param("authorKey") String authorKey, Pageable pageable);
+
+  long countByGenreKey(String genreKey);
+
+  long countByAuthorKey(String authorKey);
+
+  @Query(SUMMARY + " FROM Book b WHERE b.id > :afterId ORDER BY b.id")
+  List<BookSummary> findByIdGreaterThanOrderByIdAsc(@Param("afterId") Long afterId, Limit limit);
+
+  @Query(SUMMARY + " FROM Book b WHERE b.genreKey = :genreKey AND b.id > :afterId ORDER BY b.id")
+  List<BookSummary> findByGenreKeyAndIdGreaterThanOrderByIdAsc(
+      @Param("genreKey") String genreKey, @Param("afterId") Long afterId, Limit limit);
+
+  @Query(SUMMARY + " FROM Book b WHERE b.authorKey = :authorKey AND b.id > :afterId ORDER BY b.id")
+  List<BookSummary> findByAuthorKeyAndIdGreaterThanOrderByIdAsc(
+      @Param("authorKey") String authorKey, @Param("afterId") Long afterId, Limit limit);
 
   @Query(value = "SELECT COUNT(id) > 0 FROM book", nativeQuery = true)
   boolean thereAreRecords();
@@ -2,93 +2,421 @@ package com.br.bookdata.domain.service;
 
 import static com.br.bookdata.domain.service.enums.BookCacheKeyType.*;
 
+import com.br.bookdata.domain.cache.CacheEntry;
+import com.br.bookdata.domain.cache.RedisCacheGenerations;
+import com.br.bookdata.domain.cache.RedisCacheTags;
+import com.br.bookdata.domain.cache.RedisRecentList;
+import com.br.bookdata.domain.cache.RefreshAhead;
 import com.br.bookdata.domain.cache.contract.ICache;
 import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.model.BookSummary;
 import com.br.bookdata.domain.service.contract.IBookCacheService;
 import com.br.bookdata.domain.service.enums.BookCacheKeyType;
+import com.br.bookdata.domain.service.enums.TotalsMode;
+import com.br.bookdata.domain.service.enums.TotalsScope;
+import com.br.bookdata.domain.utils.CachedTotal;
+import com.br.bookdata.domain.utils.CursorPage;
 import com.br.bookdata.domain.utils.CustomPage;
+import com.br.bookdata.domain.utils.LookupKey;
 import com.fasterxml.jackson.core.type.TypeReference;
 import java.time.Duration;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service("bookCacheServiceImpl")
 @Log4j2
 public class BookCacheServiceImpl implements IBookCacheService<Book, Long> {
+  public static final String RESPONSE_CACHE_NAME = "rendered-responses";
   private static final String CACHE_NAME = "3a1c7646-c96c-424f-b90f-10181e536ff2-books";
   private static final Duration DEFAULT_CACHE_DURATION = Duration.ofHours(1);
   private static final Duration SHORT_CACHE_DURATION = Duration.ofMinutes(10);
+  private static final Duration STALE_CACHE_DURATION = Duration.ofHours(6);
+  private static final String STALE_KEY_SUFFIX = ":stale";
+  private static final String ALL_TAG = "all";
+  private static final String GENRE_TAG_PREFIX = "genre:";
+  private static final String AUTHOR_TAG_PREFIX = "author:";
+  private static final String RECENTLY_VIEWED_LIST_KEY =
+      CACHE_NAME + ":" + RECENTLY_VIEWED_KEY.getValue();
+  private static final int RECENTLY_VIEWED_LIMIT = 10;
+  private static final String GENERATION_PREFIX = "v";
+  private static final String GENERATION_SEPARATOR = ":";
+  private static final List<BookCacheKeyType> LIST_FAMILIES =
+      List.of(
+          BOOK_PAGED_KEY,
+          BOOK_PAGED_GENRE_KEY,
+          BOOK_PAGED_AUTHOR_KEY,
+          BOOK_CURSOR_KEY,
+          BOOK_CURSOR_GENRE_KEY,
+          BOOK_CURSOR_AUTHOR_KEY,
+          BOOK_TOTAL_KEY);
+  private static final Set<BookCacheKeyType> VERSIONED_FAMILIES =
+      Stream.concat(Stream.of(BOOK_ID_KEY), LIST_FAMILIES.stream())
+          .collect(Collectors.toUnmodifiableSet());
   private final ICache cache;
+  private final RefreshAhead refreshAhead;
+  private final RedisRecentList recentList;
+  private final RedisCacheTags cacheTags;
+  private final RedisCacheGenerations generations;
 
-  public BookCacheServiceImpl(@Qualifier("redisCacheImpl") ICache cache) {
+  @Value("${bookdata.cache.stale-copy.enabled:false}")
+  private boolean staleCopyEnabled;
+
+  @Value("${bookdata.cache.generations.bulk-eviction-threshold:100}")
+  private int bulkEvictionThreshold;
+
+  public BookCacheServiceImpl(
+      @Qualifier("nearCacheImpl") ICache cache,
+      RefreshAhead refreshAhead,
+      RedisRecentList recentList,
+      RedisCacheTags cacheTags,
+      RedisCacheGenerations generations) {
     this.cache = cache;
+    this.refreshAhead = refreshAhead;
+    this.recentList = recentList;
+    this.cacheTags = cacheTags;
+    this.generations = generations;
   }
 
   @Override
-  public Optional<CustomPage<Book>> getAllBooks(int page, int size) {
+  public Optional<CustomPage<BookSummary>> getAllBooks(int page, int size) {
     String cacheKey = mountKeyByPaged(BOOK_PAGED_KEY, page, size, "");
-    return cache.getFromCache(cacheKey, new TypeReference<CustomPage<Book>>() {}, CACHE_NAME);
+    return versioned(cacheKey)
+        .flatMap(
+            key ->
+                cache.getFromCache(
+                    key, new TypeReference<CustomPage<BookSummary>>() {}, CACHE_NAME));
   }
 
   @Override
-  public Optional<CustomPage<Book>> getBooksByGenre(String genre, int page, int size) {
+  public Optional<CustomPage<BookSummary>> getBooksByGenre(String genre, int page, int size) {
     String cacheKey = mountKeyByPaged(BOOK_PAGED_GENRE_KEY, page, size, genre);
-    return cache.getFromCache(cacheKey, new TypeReference<CustomPage<Book>>() {}, CACHE_NAME);
+    return versioned(cacheKey)
+        .flatMap(
+            key ->
+                cache.getFromCache(
+                    key, new TypeReference<CustomPage<BookSummary>>() {}, CACHE_NAME));
   }
 
   @Override
-  public Optional<CustomPage<Book>> getBooksByAuthor(String author, int page, int size) {
+  public Optional<CustomPage<BookSummary>> getBooksByAuthor(String author, int page, int size) {
     String cacheKey = mountKeyByPaged(BOOK_PAGED_AUTHOR_KEY, page, size, author);
-    return cache.getFromCache(cacheKey, new TypeReference<CustomPage<Book>>() {}, CACHE_NAME);
+    return versioned(cacheKey)
+        .flatMap(
+            key ->
+                cache.getFromCache(
+                    key, new TypeReference<CustomPage<BookSummary>>() {}, CACHE_NAME));
   }
 
   @Override
   public Optional<Book> getBookById(Long id) {
     String cacheKey = mountKeyById(BOOK_ID_KEY, id);
-    return cache.getFromCache(cacheKey, new TypeReference<Book>() {}, CACHE_NAME);
+    return versioned(cacheKey)
+        .flatMap(key -> cache.getFromCache(key, new TypeReference<Book>() {}, CACHE_NAME));
   }
 
   @Override
-  public List<Book> updateRecentlyViewed(Book book) {
-    String cacheKey = BookCacheKeyType.RECENTLY_VIEWED_KEY.getValue();
+  public Optional<Book> getStaleBook(String cacheKey) {
+    if (!staleCopyEnabled) {
+      return Optional.empty();
+    }
+    return versioned(cacheKey)
+        .flatMap(
+            key ->
+                cache.getFromCache(
+                    key + STALE_KEY_SUFFIX, new TypeReference<Book>() {}, CACHE_NAME));
+  }
 
-    List<Book> cachedBooks =
-        cache
-            .getFromCache(cacheKey, new TypeReference<List<Book>>() {}, CACHE_NAME)
-            .orElse(new ArrayList<>());
+  @Override
+  public Optional<CustomPage<BookSummary>> getStalePage(String cacheKey) {
+    if (!staleCopyEnabled) {
+      return Optional.empty();
+    }
+    return versioned(cacheKey)
+        .flatMap(
+            key ->
+                cache.getFromCache(
+                    key + STALE_KEY_SUFFIX,
+                    new TypeReference<CustomPage<BookSummary>>() {},
+                    CACHE_NAME));
+  }
 
-    cachedBooks.removeIf(b -> b.getId().equals(book.getId()));
-    cachedBooks.add(0, book);
+  @Override
+  public Optional<CursorPage<BookSummary>> getCursorPage(String cacheKey) {
+    return versioned(cacheKey)
+        .flatMap(
+            key ->
+                cache.getFromCache(
+                    key, new TypeReference<CursorPage<BookSummary>>() {}, CACHE_NAME));
+  }
 
-    if (cachedBooks.size() > 10) {
-      cachedBooks.remove(cachedBooks.size() - 1);
-    }
+  @Override
+  public Optional<CachedTotal> getTotal(String cacheKey) {
+    return versioned(cacheKey)
+        .flatMap(key -> cache.getFromCache(key, new TypeReference<CachedTotal>() {}, CACHE_NAME));
+  }
 
-    cache.putToCache(cacheKey, cachedBooks, CACHE_NAME, null);
+  @Override
+  public void updateRecentlyViewed(Book book) {
+    updateRecentlyViewed(List.of(book));
+  }
 
-    return cachedBooks;
+  @Override
+  public void updateRecentlyViewed(List<Book> books) {
+    List<String> ids = books.stream().map(book -> String.valueOf(book.getId())).toList();
+    recentList.pushAll(RECENTLY_VIEWED_LIST_KEY, ids, RECENTLY_VIEWED_LIMIT);
   }
 
   @Override
-  public List<Book> getRecentlyViewed() {
-    String cacheKey = BookCacheKeyType.RECENTLY_VIEWED_KEY.getValue();
-    return cache
-        .getFromCache(cacheKey, new TypeReference<List<Book>>() {}, CACHE_NAME)
-        .orElse(new ArrayList<>());
+  public List<Long> getRecentlyViewedIds() {
+    return recentList.range(RECENTLY_VIEWED_LIST_KEY, RECENTLY_VIEWED_LIMIT).stream()
+        .map(Long::valueOf)
+        .toList();
+  }
+
+  @Override
+  public Map<Long, Book> getBooksByIds(Collection<Long> ids) {
+    List<String> cacheKeys =
+        ids.stream()
+            .map(id -> versioned(mountKeyById(BOOK_ID_KEY, id)))
+            .flatMap(Optional::stream)
+            .toList();
+    Map<Long, Book> books = new LinkedHashMap<>();
+    if (cacheKeys.isEmpty()) {
+      return books;
+    }
+    cache
+        .multiGet(cacheKeys, new TypeReference<Book>() {}, CACHE_NAME)
+        .values()
+        .forEach(book -> books.put(book.getId(), book));
+    return books;
   }
 
   @Override
   public void putCache(Book book, String cacheKey) {
-    cache.putToCache(cacheKey, book, CACHE_NAME, DEFAULT_CACHE_DURATION);
+    versioned(cacheKey)
+        .ifPresent(
+            key -> {
+              cache.putToCache(key, book, CACHE_NAME, DEFAULT_CACHE_DURATION);
+              putStaleCopy(key, book);
+            });
+  }
+
+  @Override
+  public void putBooks(Collection<Book> books) {
+    Map<String, CacheEntry<Book>> entries = new LinkedHashMap<>();
+    books.forEach(
+        book ->
+            versioned(mountKeyById(BOOK_ID_KEY, book.getId()))
+                .ifPresent(
+                    key ->
+                        entries.put(
+                            key,
+                            new CacheEntry<>(book, refreshAhead.jitter(DEFAULT_CACHE_DURATION)))));
+    if (entries.isEmpty()) {
+      return;
+    }
+    cache.multiPut(entries, CACHE_NAME);
+    if (staleCopyEnabled) {
+      Map<String, Book> staleEntries = new LinkedHashMap<>();
+      entries.forEach((key, entry) -> staleEntries.put(key + STALE_KEY_SUFFIX, entry.value()));
+      cache.multiPut(staleEntries, CACHE_NAME, STALE_CACHE_DURATION);
+    }
+  }
+
+  @Override
+  public String tagVersion(String tag) {
+    return cacheTags.version(tag);
   }
 
   @Override
-  public void putCache(CustomPage<Book> books, String cacheKey) {
-    cache.putToCache(cacheKey, books, CACHE_NAME, SHORT_CACHE_DURATION);
+  public void putCache(
+      CustomPage<BookSummary> books, String cacheKey, String tag, String tagVersion) {
+    Duration duration = refreshAhead.jitter(SHORT_CACHE_DURATION);
+    long now = System.currentTimeMillis();
+    books.setCachedAt(now);
+    books.setExpiresAt(now + duration.toMillis());
+    // The stale copy is tagged like the page, so the writes that evict the page drop it too.
+    versioned(cacheKey)
+        .filter(key -> putTagged(key, books, duration, tag, tagVersion) && staleCopyEnabled)
+        .ifPresent(
+            key -> putTagged(key + STALE_KEY_SUFFIX, books, STALE_CACHE_DURATION, tag, tagVersion));
+  }
+
+  @Override
+  public void putCache(
+      CursorPage<BookSummary> books, String cacheKey, String tag, String tagVersion) {
+    Duration duration = refreshAhead.jitter(SHORT_CACHE_DURATION);
+    versioned(cacheKey).ifPresent(key -> putTagged(key, books, duration, tag, tagVersion));
+  }
+
+  @Override
+  public void putCache(CachedTotal total, String cacheKey, String tag, String tagVersion) {
+    Duration duration = refreshAhead.jitter(SHORT_CACHE_DURATION);
+    long now = System.currentTimeMillis();
+    total.setCachedAt(now);
+    total.setExpiresAt(now + duration.toMillis());
+    versioned(cacheKey).ifPresent(key -> putTagged(key, total, duration, tag, tagVersion));
+  }
+
+  /**
+   * Tags {@code key} before writing it, so no pop can find the value untagged, and only when no
+   * write evicted {@code tag} since {@code tagVersion}. A write that evicts it between the tag and
+   * the value is caught by checking the version again, and the value is dropped.
+   */
+  private <T> boolean putTagged(
+      String key, T value, Duration duration, String tag, String tagVersion) {
+    if (!cacheTags.tag(CACHE_NAME, key, tag, duration, tagVersion)) {
+      log.debug("Skipped caching an entry loaded before a write. Key: {}, Tag: {}", key, tag);
+      return false;
+    }
+    cache.putToCache(key, value, CACHE_NAME, duration);
+    if (!cacheTags.isCurrent(tag, tagVersion)) {
+      cache.removeCache(key, CACHE_NAME);
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public void evictBooks(Collection<Long> ids, Set<String> genreKeys, Set<String> authorKeys) {
+    if (!ids.isEmpty() && generations.current(BOOK_ID_KEY.name()).isEmpty()) {
+      // Without the generation the keys can't be named, so the whole family is retired instead.
+      retire(List.of(BOOK_ID_KEY));
+    } else if (!ids.isEmpty()) {
+      List<String> keys = ids.stream().map(id -> mountKeyById(BOOK_ID_KEY, id)).toList();
+      List<String> bookKeys = keys.stream().map(this::versioned).flatMap(Optional::stream).toList();
+      cache.multiRemove(
+          staleCopyEnabled
+              ? Stream.concat(
+                      bookKeys.stream(), bookKeys.stream().map(key -> key + STALE_KEY_SUFFIX))
+                  .toList()
+              : bookKeys,
+          CACHE_NAME);
+      cache.multiRemove(
+          keys.stream()
+              .map(key -> versioned(RESPONSE_KEY.getValue() + key))
+              .flatMap(Optional::stream)
+              .toList(),
+          RESPONSE_CACHE_NAME);
+    }
+    if (genreKeys.isEmpty() && authorKeys.isEmpty()) {
+      return;
+    }
+    // Popping the tags of a large feed would block Redis; a new generation retires every list.
+    int lookupKeys = genreKeys.size() + authorKeys.size();
+    if (bulkEvictionThreshold > 0 && lookupKeys > bulkEvictionThreshold) {
+      retire(LIST_FAMILIES);
+      log.info(
+          "Evicted {} ids and retired the list families for {} genres and {} authors",
+          ids.size(),
+          genreKeys.size(),
+          authorKeys.size());
+      return;
+    }
+    Set<String> tags = new LinkedHashSet<>();
+    tags.add(ALL_TAG);
+    genreKeys.forEach(genreKey -> tags.add(GENRE_TAG_PREFIX + genreKey));
+    authorKeys.forEach(authorKey -> tags.add(AUTHOR_TAG_PREFIX + authorKey));
+    long[] evicted = {0};
+    cacheTags
+        .pop(tags)
+        .forEach(
+            (cacheName, keys) -> {
+              cache.multiRemove(keys, cacheName);
+              evicted[0] += keys.size();
+            });
+    log.info(
+        "Evicted {} ids and {} tagged entries for {} genres and {} authors",
+        ids.size(),
+        evicted[0],
+        genreKeys.size(),
+        authorKeys.size());
+  }
+
+  @Override
+  public void retire(Collection<BookCacheKeyType> families) {
+    // Tag versions move first, so a list loaded before the retirement can't be cached under the
+    // new generation.
+    cacheTags.retireAll();
+    generations.bump(families.stream().map(BookCacheKeyType::name).toList());
+  }
+
+  private Optional<String> versioned(String cacheKey) {
+    return versionedKey(cacheKey, generations);
+  }
+
+  /**
+   * The key {@code key} is stored under: its family prefix, then the family's generation when it
+   * was ever bumped, then the rest of the key. Rendered responses share the generation of the key
+   * they render, and keys outside the versioned families are returned as is. Empty while the
+   * generation is unknown, in which case callers bypass the cache.
+   */
+  public static Optional<String> versionedKey(String key, RedisCacheGenerations generations) {
+    if (key.startsWith(RESPONSE_KEY.getValue())) {
+      return versionedKey(key.substring(RESPONSE_KEY.getValue().length()), generations)
+          .map(versioned -> RESPONSE_KEY.getValue() + versioned);
+    }
+    Optional<BookCacheKeyType> family =
+        BookCacheKeyType.familyOf(key).filter(VERSIONED_FAMILIES::contains);
+    if (family.isEmpty()) {
+      return Optional.of(key);
+    }
+    OptionalLong generation = generations.current(family.get().name());
+    if (generation.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        generation.getAsLong() == 0
+            ? key
+            : family.get().getValue()
+                + GENERATION_PREFIX
+                + generation.getAsLong()
+                + GENERATION_SEPARATOR
+                + key.substring(family.get().getValue().length()));
+  }
+
+  /**
+   * The tag whose writes can change the lists of {@code type} filtered by {@code filter}: the
+   * lookup key of the genre or author, which writes evict by, or {@code all} for unfiltered lists.
+   */
+  public static String tagOf(BookCacheKeyType type, String filter) {
+    return switch (type) {
+      case BOOK_PAGED_GENRE_KEY, BOOK_CURSOR_GENRE_KEY -> filterTag(GENRE_TAG_PREFIX, filter);
+      case BOOK_PAGED_AUTHOR_KEY, BOOK_CURSOR_AUTHOR_KEY -> filterTag(AUTHOR_TAG_PREFIX, filter);
+      default -> ALL_TAG;
+    };
+  }
+
+  /** The tag of the totals of {@code scope} filtered by {@code filter}, as for lists. */
+  public static String tagOf(TotalsScope scope, String filter) {
+    return switch (scope) {
+      case GENRE -> filterTag(GENRE_TAG_PREFIX, filter);
+      case AUTHOR -> filterTag(AUTHOR_TAG_PREFIX, filter);
+      case ALL -> ALL_TAG;
+    };
+  }
+
+  /** Keys of a blank filter are built without it, so they are tagged {@code all}. */
+  private static String filterTag(String tagPrefix, String filter) {
+    return filter == null || filter.isBlank() ? ALL_TAG : tagPrefix + LookupKey.of(filter);
+  }
+
+  private <T> void putStaleCopy(String cacheKey, T value) {
+    if (staleCopyEnabled) {
+      cache.putToCache(cacheKey + STALE_KEY_SUFFIX, value, CACHE_NAME, STALE_CACHE_DURATION);
+    }
   }
 
   public static String mountKeyByPaged(
@@ -104,6 +432,23 @@ public class BookCacheServiceImpl implements IBookCacheService<Book, Long> {
     return mountKeyByPaged(key, page, size, "");
   }
 
+  public static String mountKeyByCursor(
+      BookCacheKeyType key, long afterId, int size, String optionalFilter) {
+    return Optional.ofNullable(optionalFilter)
+        .filter(filter -> !filter.isBlank())
+        .map(String::toUpperCase)
+        .map(filter -> key.getValue() + afterId + "-" + size + "-" + filter)
+        .orElse(key.getValue() + afterId + "-" + size);
+  }
+
+  public static String mountKeyByTotal(TotalsMode mode, TotalsScope scope, String filter) {
+    String key = BOOK_TOTAL_KEY.getValue() + mode.name().toLowerCase() + "-" + scope.getValue();
+    return Optional.ofNullable(filter)
+        .filter(value -> !value.isBlank())
+        .map(value -> key + "-" + value.toUpperCase())
+        .orElse(key);
+  }
+
   public static String mountKeyById(BookCacheKeyType key, Object id) {
     return key.getValue() + id;
   }
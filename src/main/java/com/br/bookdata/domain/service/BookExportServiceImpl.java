@@ -0,0 +1,45 @@
+package com.br.bookdata.domain.service;
+
+import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.repository.BookExportRepository;
+import com.br.bookdata.domain.service.contract.IBookExportService;
+import com.br.bookdata.domain.utils.LookupKey;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+
+/**
+ * Streams the catalog straight from the database to the caller. Exports never read or fill the
+ * cache: a full scan would only evict the entries the read endpoints rely on.
+ */
+@Service("bookExportServiceImpl")
+@Log4j2
+public class BookExportServiceImpl implements IBookExportService<Book> {
+  private final BookExportRepository exportRepository;
+
+  public BookExportServiceImpl(BookExportRepository exportRepository) {
+    this.exportRepository = exportRepository;
+  }
+
+  @Override
+  public long exportBooks(String genre, String author, Consumer<Book> sink) {
+    long start = System.nanoTime();
+    long rows = exportRepository.streamBooks(lookupKey(genre), lookupKey(author), sink);
+    log.info(
+        "Exported {} books (genre: {}, author: {}) in {} ms",
+        rows,
+        genre,
+        author,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    return rows;
+  }
+
+  private static String lookupKey(String filter) {
+    return Optional.ofNullable(filter)
+        .filter(value -> !value.isBlank())
+        .map(LookupKey::of)
+        .orElse(null);
+  }
+}
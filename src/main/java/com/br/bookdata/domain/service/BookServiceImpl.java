@@ -1,19 +1,41 @@
 package com.br.bookdata.domain.service;
 
+import static com.br.bookdata.domain.service.BookCacheServiceImpl.mountKeyByCursor;
 import static com.br.bookdata.domain.service.BookCacheServiceImpl.mountKeyById;
 import static com.br.bookdata.domain.service.BookCacheServiceImpl.mountKeyByPaged;
+import static com.br.bookdata.domain.service.BookCacheServiceImpl.tagOf;
 
+import com.br.bookdata.domain.cache.RedisMissLease;
+import com.br.bookdata.domain.cache.RefreshAhead;
+import com.br.bookdata.domain.cache.SingleFlight;
 import com.br.bookdata.domain.exception.BookNotFoundException;
 import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.model.BookSummary;
 import com.br.bookdata.domain.observer.contract.ISubject;
 import com.br.bookdata.domain.repository.IBookRepository;
 import com.br.bookdata.domain.service.contract.IBookCacheService;
 import com.br.bookdata.domain.service.contract.IBookService;
+import com.br.bookdata.domain.service.contract.IBookTotalsService;
 import com.br.bookdata.domain.service.enums.BookCacheKeyType;
+import com.br.bookdata.domain.service.enums.TotalsScope;
+import com.br.bookdata.domain.timing.StageTimings;
+import com.br.bookdata.domain.utils.CursorPage;
+import com.br.bookdata.domain.utils.CursorToken;
 import com.br.bookdata.domain.utils.CustomPage;
+import com.br.bookdata.domain.utils.LookupKey;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
@@ -23,88 +45,307 @@ public class BookServiceImpl implements IBookService<Book, Long> {
   private final IBookRepository repository;
   private final IBookCacheService<Book, Long> bookCacheService;
   private final ISubject<Book> bookObserver;
+  private final SingleFlight singleFlight;
+  private final RedisMissLease missLease;
+  private final RefreshAhead refreshAhead;
+  private final IBookTotalsService totalsService;
+  private final StageTimings timings;
 
   public BookServiceImpl(
       IBookRepository repository,
       @Qualifier("bookCacheServiceImpl") IBookCacheService<Book, Long> bookCacheService,
-      @Qualifier("bookViewedISubject") ISubject<Book> bookObserver) {
+      @Qualifier("bookViewedISubject") ISubject<Book> bookObserver,
+      SingleFlight singleFlight,
+      RedisMissLease missLease,
+      RefreshAhead refreshAhead,
+      @Qualifier("bookTotalsServiceImpl") IBookTotalsService totalsService,
+      StageTimings timings) {
     this.repository = repository;
     this.bookCacheService = bookCacheService;
     this.bookObserver = bookObserver;
+    this.singleFlight = singleFlight;
+    this.missLease = missLease;
+    this.refreshAhead = refreshAhead;
+    this.totalsService = totalsService;
+    this.timings = timings;
   }
 
   @Override
-  public CustomPage<Book> getAllBooks(int page, int size) {
+  public CustomPage<BookSummary> getAllBooks(int page, int size) {
     String cacheKey = mountKeyByPaged(BookCacheKeyType.BOOK_PAGED_KEY, page, size);
+    String tag = tagOf(BookCacheKeyType.BOOK_PAGED_KEY, null);
+    Supplier<CustomPage<BookSummary>> query =
+        () ->
+            totalsService.toPage(
+                repository.findAllBooks(toPageable(page, size)), TotalsScope.ALL, null);
     return bookCacheService
         .getAllBooks(page, size)
+        .map(cached -> refreshIfExpiring(cacheKey, tag, cached, query))
         .orElseGet(
-            () -> {
-              var books = repository.findAll(toPageable(page, size));
-              var customPage = new CustomPage<>(books);
-              bookCacheService.putCache(customPage, cacheKey);
-              return customPage;
-            });
+            () -> loadPage(cacheKey, tag, () -> bookCacheService.getAllBooks(page, size), query));
   }
 
   @Override
-  public CustomPage<Book> getBooksByGenre(String genre, int page, int size) {
+  public CustomPage<BookSummary> getBooksByGenre(String genre, int page, int size) {
+    String cacheKey = mountKeyByPaged(BookCacheKeyType.BOOK_PAGED_GENRE_KEY, page, size, genre);
+    String tag = tagOf(BookCacheKeyType.BOOK_PAGED_GENRE_KEY, genre);
+    Supplier<CustomPage<BookSummary>> query =
+        () ->
+            totalsService.toPage(
+                repository.findByGenreKey(LookupKey.of(genre), toPageable(page, size)),
+                TotalsScope.GENRE,
+                genre);
     return bookCacheService
         .getBooksByGenre(genre, page, size)
+        .map(cached -> refreshIfExpiring(cacheKey, tag, cached, query))
         .orElseGet(
-            () -> {
-              var booksByGenre = repository.findByGenreIgnoreCase(genre, toPageable(page, size));
-              var customPage = new CustomPage<>(booksByGenre);
-              bookCacheService.putCache(
-                  new CustomPage<>(booksByGenre),
-                  mountKeyByPaged(BookCacheKeyType.BOOK_PAGED_GENRE_KEY, page, size, genre));
-              return customPage;
-            });
+            () ->
+                loadPage(
+                    cacheKey,
+                    tag,
+                    () -> bookCacheService.getBooksByGenre(genre, page, size),
+                    query));
   }
 
   @Override
-  public CustomPage<Book> getBooksByAuthor(String author, int page, int size) {
+  public CustomPage<BookSummary> getBooksByAuthor(String author, int page, int size) {
+    String cacheKey =
+        mountKeyByPaged(BookCacheKeyType.BOOK_PAGED_AUTHOR_KEY, page, size, author);
+    String tag = tagOf(BookCacheKeyType.BOOK_PAGED_AUTHOR_KEY, author);
+    Supplier<CustomPage<BookSummary>> query =
+        () ->
+            totalsService.toPage(
+                repository.findByAuthorKey(LookupKey.of(author), toPageable(page, size)),
+                TotalsScope.AUTHOR,
+                author);
     return bookCacheService
         .getBooksByAuthor(author, page, size)
+        .map(cached -> refreshIfExpiring(cacheKey, tag, cached, query))
         .orElseGet(
-            () -> {
-              var booksByAuthor = repository.findByAuthorIgnoreCase(author, toPageable(page, size));
-              var customPage = new CustomPage<>(booksByAuthor);
-              bookCacheService.putCache(
-                  customPage,
-                  mountKeyByPaged(BookCacheKeyType.BOOK_PAGED_AUTHOR_KEY, page, size, author));
-              return customPage;
-            });
+            () ->
+                loadPage(
+                    cacheKey,
+                    tag,
+                    () -> bookCacheService.getBooksByAuthor(author, page, size),
+                    query));
+  }
+
+  @Override
+  public CursorPage<BookSummary> getAllBooksByCursor(String cursor, int size) {
+    long afterId = CursorToken.decode(cursor);
+    String cacheKey = mountKeyByCursor(BookCacheKeyType.BOOK_CURSOR_KEY, afterId, size, "");
+    return loadCursorPage(
+        cacheKey,
+        tagOf(BookCacheKeyType.BOOK_CURSOR_KEY, null),
+        size,
+        () -> repository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size + 1)));
+  }
+
+  @Override
+  public CursorPage<BookSummary> getBooksByGenreByCursor(String genre, String cursor, int size) {
+    long afterId = CursorToken.decode(cursor);
+    String cacheKey =
+        mountKeyByCursor(BookCacheKeyType.BOOK_CURSOR_GENRE_KEY, afterId, size, genre);
+    return loadCursorPage(
+        cacheKey,
+        tagOf(BookCacheKeyType.BOOK_CURSOR_GENRE_KEY, genre),
+        size,
+        () ->
+            repository.findByGenreKeyAndIdGreaterThanOrderByIdAsc(
+                LookupKey.of(genre), afterId, Limit.of(size + 1)));
+  }
+
+  @Override
+  public CursorPage<BookSummary> getBooksByAuthorByCursor(String author, String cursor, int size) {
+    long afterId = CursorToken.decode(cursor);
+    String cacheKey =
+        mountKeyByCursor(BookCacheKeyType.BOOK_CURSOR_AUTHOR_KEY, afterId, size, author);
+    return loadCursorPage(
+        cacheKey,
+        tagOf(BookCacheKeyType.BOOK_CURSOR_AUTHOR_KEY, author),
+        size,
+        () ->
+            repository.findByAuthorKeyAndIdGreaterThanOrderByIdAsc(
+                LookupKey.of(author), afterId, Limit.of(size + 1)));
   }
 
   @Override
   public List<Book> getRecentlyViewed() {
-    return bookCacheService.getRecentlyViewed();
+    List<Long> ids = bookCacheService.getRecentlyViewedIds();
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+
+    Map<Long, Book> books = resolveBooks(ids);
+    return ids.stream().map(books::get).filter(Objects::nonNull).toList();
+  }
+
+  @Override
+  public List<Optional<Book>> getBooksByIds(List<Long> ids) {
+    Map<Long, Book> books = resolveBooks(ids.stream().distinct().toList());
+    return ids.stream().map(id -> Optional.ofNullable(books.get(id))).toList();
   }
 
   @Override
   public Book getBookById(Long id) {
+    String cacheKey = mountKeyById(BookCacheKeyType.BOOK_ID_KEY, id);
     var book =
         bookCacheService
             .getBookById(id)
             .orElseGet(
                 () ->
-                    repository
-                        .findById(id)
-                        .map(
-                            bookEntity -> {
-                              bookCacheService.putCache(
-                                  bookEntity, mountKeyById(BookCacheKeyType.BOOK_ID_KEY, id));
-                              return bookEntity;
-                            })
-                        .orElseThrow(
-                            () ->
-                                new BookNotFoundException(
-                                    String.format("Book id: %s not found", id))));
+                    singleFlight.execute(
+                        cacheKey,
+                        () ->
+                            missLease.load(
+                                cacheKey,
+                                () -> bookCacheService.getBookById(id),
+                                () -> bookCacheService.getStaleBook(cacheKey),
+                                () -> loadBook(id, cacheKey))));
     bookObserver.notifyObservers(book);
     return book;
   }
 
+  @Override
+  public void recordView(Long id) {
+    // Observers of views only read the id.
+    bookObserver.notifyObservers(Book.builder().id(id).build());
+  }
+
+  /**
+   * Writes commit before the cache is touched: the book is written through to its id key and the
+   * lists tagged with its genre, its author or {@code all} are evicted.
+   */
+  @Override
+  public Book createBook(Book book) {
+    book.setId(null);
+    Book saved = repository.save(book);
+    writeThrough(saved, lookupKeys(saved.getGenre()), lookupKeys(saved.getAuthor()));
+    log.info("Created book. Id: {}", saved.getId());
+    return saved;
+  }
+
+  /** Also evicts the lists of the genre and author the book leaves. */
+  @Override
+  public Book updateBook(Long id, Book book) {
+    Book stored = findStoredBook(id);
+    Set<String> genreKeys = lookupKeys(stored.getGenre(), book.getGenre());
+    Set<String> authorKeys = lookupKeys(stored.getAuthor(), book.getAuthor());
+    stored.setTitle(book.getTitle());
+    stored.setAuthor(book.getAuthor());
+    stored.setGenre(book.getGenre());
+    stored.setDescription(book.getDescription());
+    Book saved = repository.save(stored);
+    writeThrough(saved, genreKeys, authorKeys);
+    log.info("Updated book. Id: {}", id);
+    return saved;
+  }
+
+  @Override
+  public void deleteBook(Long id) {
+    Book stored = findStoredBook(id);
+    repository.delete(stored);
+    bookCacheService.evictBooks(
+        List.of(id), lookupKeys(stored.getGenre()), lookupKeys(stored.getAuthor()));
+    log.info("Deleted book. Id: {}", id);
+  }
+
+  private Book findStoredBook(Long id) {
+    return timings
+        .time("repository", () -> repository.findById(id))
+        .orElseThrow(
+            () -> new BookNotFoundException(String.format("Book id: %s not found", id)));
+  }
+
+  private void writeThrough(Book book, Set<String> genreKeys, Set<String> authorKeys) {
+    bookCacheService.evictBooks(List.of(book.getId()), genreKeys, authorKeys);
+    bookCacheService.putCache(book, mountKeyById(BookCacheKeyType.BOOK_ID_KEY, book.getId()));
+  }
+
+  private static Set<String> lookupKeys(String... values) {
+    return Stream.of(values)
+        .filter(Objects::nonNull)
+        .map(LookupKey::of)
+        .collect(Collectors.toSet());
+  }
+
+  private Map<Long, Book> resolveBooks(List<Long> ids) {
+    Map<Long, Book> books = new HashMap<>(bookCacheService.getBooksByIds(ids));
+    List<Long> missingIds = ids.stream().filter(id -> !books.containsKey(id)).toList();
+    if (!missingIds.isEmpty()) {
+      log.debug("Loading {} of {} books from the database", missingIds.size(), ids.size());
+      List<Book> loaded = timings.time("repository", () -> repository.findAllById(missingIds));
+      loaded.forEach(book -> books.put(book.getId(), book));
+      bookCacheService.putBooks(loaded);
+    }
+    return books;
+  }
+
+  private Book loadBook(Long id, String cacheKey) {
+    Book bookEntity = findStoredBook(id);
+    bookCacheService.putCache(bookEntity, cacheKey);
+    return bookEntity;
+  }
+
+  private CustomPage<BookSummary> loadPage(
+      String cacheKey,
+      String tag,
+      Supplier<Optional<CustomPage<BookSummary>>> cacheLookup,
+      Supplier<CustomPage<BookSummary>> query) {
+    return singleFlight.execute(
+        cacheKey,
+        () ->
+            missLease.load(
+                cacheKey,
+                cacheLookup,
+                () -> bookCacheService.getStalePage(cacheKey),
+                () -> queryAndCache(cacheKey, tag, query)));
+  }
+
+  private CustomPage<BookSummary> refreshIfExpiring(
+      String cacheKey,
+      String tag,
+      CustomPage<BookSummary> cached,
+      Supplier<CustomPage<BookSummary>> query) {
+    if (refreshAhead.shouldRefresh(cached.getExpiresAt(), cached.getLoadCostMillis())) {
+      refreshAhead.refreshAsync(
+          cacheKey,
+          () -> singleFlight.execute(cacheKey, () -> queryAndCache(cacheKey, tag, query)));
+    }
+    return cached;
+  }
+
+  private CustomPage<BookSummary> queryAndCache(
+      String cacheKey, String tag, Supplier<CustomPage<BookSummary>> query) {
+    String tagVersion = bookCacheService.tagVersion(tag);
+    long start = System.nanoTime();
+    var customPage = timings.time("repository", query);
+    customPage.setLoadCostMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    bookCacheService.putCache(customPage, cacheKey, tag, tagVersion);
+    return customPage;
+  }
+
+  private CursorPage<BookSummary> loadCursorPage(
+      String cacheKey, String tag, int size, Supplier<List<BookSummary>> seekQuery) {
+    return bookCacheService
+        .getCursorPage(cacheKey)
+        .orElseGet(
+            () ->
+                singleFlight.execute(
+                    cacheKey,
+                    () -> {
+                      String tagVersion = bookCacheService.tagVersion(tag);
+                      List<BookSummary> books = timings.time("repository", seekQuery);
+                      boolean hasNext = books.size() > size;
+                      List<BookSummary> content = hasNext ? books.subList(0, size) : books;
+                      String next =
+                          hasNext ? CursorToken.encode(content.get(size - 1).id()) : null;
+                      var cursorPage = new CursorPage<>(List.copyOf(content), size, next);
+                      bookCacheService.putCache(cursorPage, cacheKey, tag, tagVersion);
+                      return cursorPage;
+                    }));
+  }
+
   private PageRequest toPageable(int page, int size) {
     return PageRequest.of(page, size);
   }
@@ -0,0 +1,126 @@
+package com.br.bookdata.domain.service;
+
+import static com.br.bookdata.domain.service.BookCacheServiceImpl.mountKeyByTotal;
+import static com.br.bookdata.domain.service.BookCacheServiceImpl.tagOf;
+
+import com.br.bookdata.domain.cache.RefreshAhead;
+import com.br.bookdata.domain.cache.SingleFlight;
+import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.repository.BookStatisticsRepository;
+import com.br.bookdata.domain.repository.IBookRepository;
+import com.br.bookdata.domain.service.contract.IBookCacheService;
+import com.br.bookdata.domain.service.contract.IBookTotalsService;
+import com.br.bookdata.domain.service.enums.TotalsMode;
+import com.br.bookdata.domain.service.enums.TotalsScope;
+import com.br.bookdata.domain.utils.CachedTotal;
+import com.br.bookdata.domain.utils.CustomPage;
+import com.br.bookdata.domain.utils.LookupKey;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+/**
+ * Fills the totals of a page read as a count-free slice. Each endpoint scope picks its mode: exact
+ * counts are cached per filter and refreshed ahead of expiry, approximate counts come from the
+ * Postgres statistics, and NONE skips totals entirely, so a page miss is a single range query.
+ */
+@Service("bookTotalsServiceImpl")
+@Log4j2
+public class BookTotalsServiceImpl implements IBookTotalsService {
+  private final IBookRepository repository;
+  private final BookStatisticsRepository statisticsRepository;
+  private final IBookCacheService<Book, Long> bookCacheService;
+  private final SingleFlight singleFlight;
+  private final RefreshAhead refreshAhead;
+  private final Map<TotalsScope, TotalsMode> modes;
+
+  public BookTotalsServiceImpl(
+      IBookRepository repository,
+      BookStatisticsRepository statisticsRepository,
+      @Qualifier("bookCacheServiceImpl") IBookCacheService<Book, Long> bookCacheService,
+      SingleFlight singleFlight,
+      RefreshAhead refreshAhead,
+      @Value("${bookdata.totals.mode.all:EXACT}") TotalsMode allMode,
+      @Value("${bookdata.totals.mode.genre:EXACT}") TotalsMode genreMode,
+      @Value("${bookdata.totals.mode.author:EXACT}") TotalsMode authorMode) {
+    this.repository = repository;
+    this.statisticsRepository = statisticsRepository;
+    this.bookCacheService = bookCacheService;
+    this.singleFlight = singleFlight;
+    this.refreshAhead = refreshAhead;
+    this.modes =
+        Map.of(
+            TotalsScope.ALL, allMode,
+            TotalsScope.GENRE, genreMode,
+            TotalsScope.AUTHOR, authorMode);
+  }
+
+  @Override
+  public <T> CustomPage<T> toPage(Slice<T> slice, TotalsScope scope, String filter) {
+    TotalsMode mode = modes.get(scope);
+    if (mode == TotalsMode.NONE || (slice.isFirst() && slice.isLast())) {
+      // A single page already knows its total, no need to look it up.
+      return new CustomPage<>(slice, mode, slice.getNumberOfElements());
+    }
+    return new CustomPage<>(slice, mode, getTotal(mode, scope, filter));
+  }
+
+  private long getTotal(TotalsMode mode, TotalsScope scope, String filter) {
+    String cacheKey = mountKeyByTotal(mode, scope, filter);
+    Runnable reload =
+        () -> singleFlight.execute(cacheKey, () -> loadTotal(cacheKey, mode, scope, filter));
+    return bookCacheService
+        .getTotal(cacheKey)
+        .map(
+            cached -> {
+              if (refreshAhead.shouldRefresh(cached.getExpiresAt(), cached.getLoadCostMillis())) {
+                refreshAhead.refreshAsync(cacheKey, reload);
+              }
+              return cached;
+            })
+        .orElseGet(
+            () -> singleFlight.execute(cacheKey, () -> loadTotal(cacheKey, mode, scope, filter)))
+        .getTotal();
+  }
+
+  private CachedTotal loadTotal(
+      String cacheKey, TotalsMode mode, TotalsScope scope, String filter) {
+    String tag = tagOf(scope, filter);
+    String tagVersion = bookCacheService.tagVersion(tag);
+    long start = System.nanoTime();
+    long total = mode == TotalsMode.APPROXIMATE ? estimate(scope, filter) : -1;
+    if (total < 0) {
+      total = count(scope, filter);
+    }
+    var cachedTotal =
+        new CachedTotal(total, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    bookCacheService.putCache(cachedTotal, cacheKey, tag, tagVersion);
+    log.debug("Loaded {} total. Key: {}. Total: {}", mode, cacheKey, total);
+    return cachedTotal;
+  }
+
+  private long estimate(TotalsScope scope, String filter) {
+    long estimate =
+        switch (scope) {
+          case ALL -> statisticsRepository.estimateAll();
+          case GENRE -> statisticsRepository.estimateByGenre(LookupKey.of(filter));
+          case AUTHOR -> statisticsRepository.estimateByAuthor(LookupKey.of(filter));
+        };
+    if (estimate < 0) {
+      log.debug("No {} statistics for the book table yet, falling back to an exact count", scope);
+    }
+    return estimate;
+  }
+
+  private long count(TotalsScope scope, String filter) {
+    return switch (scope) {
+      case ALL -> repository.count();
+      case GENRE -> repository.countByGenreKey(LookupKey.of(filter));
+      case AUTHOR -> repository.countByAuthorKey(LookupKey.of(filter));
+    };
+  }
+}
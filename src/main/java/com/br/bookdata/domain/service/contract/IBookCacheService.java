@@ -1,23 +1,67 @@
 package com.br.bookdata.domain.service.contract;
 
+import com.br.bookdata.domain.model.BookSummary;
+import com.br.bookdata.domain.service.enums.BookCacheKeyType;
+import com.br.bookdata.domain.utils.CachedTotal;
+import com.br.bookdata.domain.utils.CursorPage;
 import com.br.bookdata.domain.utils.CustomPage;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public interface IBookCacheService<S, ID> {
-  Optional<CustomPage<S>> getAllBooks(int page, int size);
+  Optional<CustomPage<BookSummary>> getAllBooks(int page, int size);
 
-  Optional<CustomPage<S>> getBooksByGenre(String genre, int page, int size);
+  Optional<CustomPage<BookSummary>> getBooksByGenre(String genre, int page, int size);
 
-  Optional<CustomPage<S>> getBooksByAuthor(String author, int page, int size);
+  Optional<CustomPage<BookSummary>> getBooksByAuthor(String author, int page, int size);
 
   Optional<S> getBookById(ID id);
 
-  List<S> updateRecentlyViewed(S object);
+  Optional<S> getStaleBook(String cacheKey);
 
-  List<S> getRecentlyViewed();
+  Optional<CustomPage<BookSummary>> getStalePage(String cacheKey);
+
+  Optional<CursorPage<BookSummary>> getCursorPage(String cacheKey);
+
+  Optional<CachedTotal> getTotal(String cacheKey);
+
+  void updateRecentlyViewed(S object);
+
+  void updateRecentlyViewed(List<S> objects);
+
+  List<ID> getRecentlyViewedIds();
+
+  Map<ID, S> getBooksByIds(Collection<ID> ids);
 
   void putCache(S object, String cacheKey);
 
-  void putCache(CustomPage<S> object, String cacheKey);
+  void putBooks(Collection<S> objects);
+
+  /** The version of {@code tag} a list loaded from now on is cached with, read before loading. */
+  String tagVersion(String tag);
+
+  /**
+   * Caches a list under {@code cacheKey} and adds it to {@code tag}, which writes evict by. Nothing
+   * is cached when a write evicted {@code tag} since {@code tagVersion} was read.
+   */
+  void putCache(CustomPage<BookSummary> object, String cacheKey, String tag, String tagVersion);
+
+  void putCache(CursorPage<BookSummary> object, String cacheKey, String tag, String tagVersion);
+
+  void putCache(CachedTotal total, String cacheKey, String tag, String tagVersion);
+
+  /**
+   * Drops the cached copies of {@code ids} and every list, cursor page and total that can hold a
+   * book of {@code genreKeys} or {@code authorKeys}, including their rendered responses.
+   */
+  void evictBooks(Collection<ID> ids, Set<String> genreKeys, Set<String> authorKeys);
+
+  /**
+   * Moves {@code families} to a new generation, which retires all of their entries, and their
+   * rendered responses, without touching them.
+   */
+  void retire(Collection<BookCacheKeyType> families);
 }
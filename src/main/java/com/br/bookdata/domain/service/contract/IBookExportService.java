@@ -0,0 +1,7 @@
+package com.br.bookdata.domain.service.contract;
+
+import java.util.function.Consumer;
+
+public interface IBookExportService<S> {
+  long exportBooks(String genre, String author, Consumer<S> sink);
+}
@@ -1,16 +1,35 @@
 package com.br.bookdata.domain.service.contract;
 
+import com.br.bookdata.domain.model.BookSummary;
+import com.br.bookdata.domain.utils.CursorPage;
 import com.br.bookdata.domain.utils.CustomPage;
 import java.util.List;
+import java.util.Optional;
 
 public interface IBookService<S, ID> {
-  CustomPage<S> getAllBooks(int page, int size);
+  CustomPage<BookSummary> getAllBooks(int page, int size);
 
-  CustomPage<S> getBooksByGenre(String genre, int page, int size);
+  CustomPage<BookSummary> getBooksByGenre(String genre, int page, int size);
 
-  CustomPage<S> getBooksByAuthor(String author, int page, int size);
+  CustomPage<BookSummary> getBooksByAuthor(String author, int page, int size);
+
+  CursorPage<BookSummary> getAllBooksByCursor(String cursor, int size);
+
+  CursorPage<BookSummary> getBooksByGenreByCursor(String genre, String cursor, int size);
+
+  CursorPage<BookSummary> getBooksByAuthorByCursor(String author, String cursor, int size);
 
   List<S> getRecentlyViewed();
 
   S getBookById(ID id);
+
+  void recordView(ID id);
+
+  List<Optional<S>> getBooksByIds(List<ID> ids);
+
+  S createBook(S book);
+
+  S updateBook(ID id, S book);
+
+  void deleteBook(ID id);
 }
@@ -0,0 +1,9 @@
+package com.br.bookdata.domain.service.contract;
+
+import com.br.bookdata.domain.service.enums.TotalsScope;
+import com.br.bookdata.domain.utils.CustomPage;
+import org.springframework.data.domain.Slice;
+
+public interface IBookTotalsService {
+  <T> CustomPage<T> toPage(Slice<T> slice, TotalsScope scope, String filter);
+}
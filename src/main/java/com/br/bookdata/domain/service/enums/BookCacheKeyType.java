@@ -1,5 +1,9 @@
 package com.br.bookdata.domain.service.enums;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
@@ -10,7 +14,28 @@ public enum BookCacheKeyType {
   BOOK_PAGED_KEY("books-page-size-"),
   BOOK_PAGED_GENRE_KEY("books-page-size-genre-"),
   BOOK_PAGED_AUTHOR_KEY("books-page-size-genre-author-"),
-  RECENTLY_VIEWED_KEY("recentlyViewedBooks");
+  BOOK_CURSOR_KEY("books-cursor-"),
+  BOOK_CURSOR_GENRE_KEY("books-cursor-genre-"),
+  BOOK_CURSOR_AUTHOR_KEY("books-cursor-author-"),
+  BOOK_TOTAL_KEY("books-total-"),
+  RECENTLY_VIEWED_KEY("recently-viewed-ids"),
+  RESPONSE_KEY("response-");
+
+  // Some prefixes extend others, so the longest ones are matched first.
+  private static final List<BookCacheKeyType> BY_PREFIX_LENGTH =
+      Arrays.stream(values())
+          .sorted(
+              Comparator.comparingInt((BookCacheKeyType type) -> type.getValue().length())
+                  .reversed())
+          .toList();
 
   private final String value;
+
+  /**
+   * The family of {@code key}, the one with the longest prefix it starts with. Rendered responses
+   * are {@link #RESPONSE_KEY}; callers that group them with the key they render strip it first.
+   */
+  public static Optional<BookCacheKeyType> familyOf(String key) {
+    return BY_PREFIX_LENGTH.stream().filter(type -> key.startsWith(type.getValue())).findFirst();
+  }
 }
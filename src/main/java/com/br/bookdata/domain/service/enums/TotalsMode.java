@@ -0,0 +1,11 @@
+package com.br.bookdata.domain.service.enums;
+
+/** How the totals of a paged response are obtained. */
+public enum TotalsMode {
+  /** Exact COUNT per filter, cached and refreshed in the background. */
+  EXACT,
+  /** Row estimate taken from the Postgres planner statistics. */
+  APPROXIMATE,
+  /** No totals at all: the page is read as a Slice and only knows whether a next page exists. */
+  NONE
+}
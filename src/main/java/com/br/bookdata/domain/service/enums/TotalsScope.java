@@ -0,0 +1,14 @@
+package com.br.bookdata.domain.service.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum TotalsScope {
+  ALL("all"),
+  GENRE("genre"),
+  AUTHOR("author");
+
+  private final String value;
+}
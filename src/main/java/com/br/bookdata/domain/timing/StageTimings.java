@@ -0,0 +1,125 @@
+package com.br.bookdata.domain.timing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Request-scoped timing of the stages a request goes through, such as Redis, decoding or the
+ * repository. A request starts a {@link Recording} on its thread and every stage closed on that
+ * thread adds its time to it and to the {@code bookdata.request.stage} timer of the stage.
+ *
+ * <p>Disabled, or on threads without a recording such as refresh-ahead and write-behind workers,
+ * {@link #start} returns a shared no-op stage after a field read, so instrumented code pays a few
+ * nanoseconds per stage.
+ */
+@Component
+public class StageTimings {
+  private static final Stage NO_OP = () -> {};
+
+  private final MeterRegistry meterRegistry;
+  private final boolean enabled;
+  private final ThreadLocal<Recording> recordings = new ThreadLocal<>();
+  private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+  public StageTimings(
+      MeterRegistry meterRegistry, @Value("${bookdata.timing.enabled:false}") boolean enabled) {
+    this.meterRegistry = meterRegistry;
+    this.enabled = enabled;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** Starts recording the stages of the calling thread until {@link #end()}. */
+  public Recording begin() {
+    Recording recording = new Recording(System.nanoTime());
+    recordings.set(recording);
+    return recording;
+  }
+
+  public void end() {
+    recordings.remove();
+  }
+
+  /** Starts timing {@code name}; the time is taken when the returned stage is closed. */
+  public Stage start(String name) {
+    if (!enabled) {
+      return NO_OP;
+    }
+    Recording recording = recordings.get();
+    if (recording == null) {
+      return NO_OP;
+    }
+    long start = System.nanoTime();
+    return () -> {
+      long nanos = System.nanoTime() - start;
+      recording.add(name, nanos);
+      timers
+          .computeIfAbsent(
+              name,
+              stage ->
+                  Timer.builder("bookdata.request.stage")
+                      .description("Time spent by requests in each stage")
+                      .tag("stage", stage)
+                      .register(meterRegistry))
+          .record(nanos, TimeUnit.NANOSECONDS);
+    };
+  }
+
+  public <T> T time(String name, Supplier<T> supplier) {
+    try (Stage stage = start(name)) {
+      return supplier.get();
+    }
+  }
+
+  /** A running stage. Closing it twice records it twice. */
+  @FunctionalInterface
+  public interface Stage extends AutoCloseable {
+    @Override
+    void close();
+  }
+
+  /** The stage times of one request, summed per stage name in the order stages first ended. */
+  public static final class Recording {
+    private final long startNanos;
+    private final Map<String, Long> nanosByStage = new LinkedHashMap<>();
+
+    private Recording(long startNanos) {
+      this.startNanos = startNanos;
+    }
+
+    private void add(String stage, long nanos) {
+      nanosByStage.merge(stage, nanos, Long::sum);
+    }
+
+    /**
+     * The {@code Server-Timing} value of the stages so far plus {@code total}, the time since the
+     * recording began, in milliseconds.
+     */
+    public String serverTiming() {
+      StringBuilder header = new StringBuilder();
+      nanosByStage.forEach((stage, nanos) -> appendMetric(header, stage, nanos));
+      appendMetric(header, "total", System.nanoTime() - startNanos);
+      return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String stage, long nanos) {
+      if (!header.isEmpty()) {
+        header.append(", ");
+      }
+      header
+          .append(stage)
+          .append(";dur=")
+          .append(String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0));
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.br.bookdata.domain.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedTotal {
+  private long total;
+  private long cachedAt;
+  private long loadCostMillis;
+  private long expiresAt;
+
+  public CachedTotal(long total, long loadCostMillis) {
+    this.total = total;
+    this.loadCostMillis = loadCostMillis;
+  }
+}
@@ -0,0 +1,26 @@
+package com.br.bookdata.domain.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+  private List<T> content = new ArrayList<>();
+  private int size;
+  private String next;
+
+  public boolean isEmpty() {
+    return this.content.isEmpty();
+  }
+
+  public <U> CursorPage<U> map(Function<? super T, ? extends U> converter) {
+    List<U> newContent = this.content.stream().<U>map(converter).toList();
+    return new CursorPage<>(newContent, this.size, this.next);
+  }
+}
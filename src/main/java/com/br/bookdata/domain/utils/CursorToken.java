@@ -0,0 +1,40 @@
+package com.br.bookdata.domain.utils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.br.bookdata.domain.exception.InvalidCursorException;
+import java.util.Base64;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Opaque keyset pagination token. It encodes the sort key and the last value seen on the previous
+ * page, so the next page is a seek on an index instead of an OFFSET scan.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CursorToken {
+  private static final String SORT_KEY = "id";
+  private static final String SEPARATOR = ":";
+
+  public static String encode(long lastId) {
+    String raw = SORT_KEY + SEPARATOR + lastId;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(UTF_8));
+  }
+
+  public static long decode(String cursor) {
+    if (Optional.ofNullable(cursor).filter(value -> !value.isBlank()).isEmpty()) {
+      return 0L;
+    }
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), UTF_8);
+      String[] parts = raw.split(SEPARATOR);
+      if (parts.length != 2 || !SORT_KEY.equals(parts[0])) {
+        throw new InvalidCursorException(String.format("Cursor: '%s' is invalid", cursor));
+      }
+      return Long.parseLong(parts[1]);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidCursorException(String.format("Cursor: '%s' is invalid", cursor));
+    }
+  }
+}
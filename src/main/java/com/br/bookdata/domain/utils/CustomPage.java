@@ -1,5 +1,7 @@
 package com.br.bookdata.domain.utils;
 
+import com.br.bookdata.domain.service.enums.TotalsMode;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
@@ -8,6 +10,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 @Data
 @NoArgsConstructor
@@ -22,6 +25,10 @@ public class CustomPage<T> {
   private int number;
   private int numberOfElements;
   private boolean empty;
+  private TotalsMode totalsMode = TotalsMode.EXACT;
+  @JsonIgnore private long cachedAt;
+  @JsonIgnore private long loadCostMillis;
+  @JsonIgnore private long expiresAt;
 
   public CustomPage(Page<T> page) {
     super();
@@ -36,6 +43,35 @@ public class CustomPage<T> {
     this.content = page.getContent();
   }
 
+  /**
+   * Builds a page from a count-free slice. Unknown totals ({@link TotalsMode#NONE}) are reported as
+   * -1; estimated totals are raised to what the slice itself proves exists.
+   */
+  public CustomPage(Slice<T> slice, TotalsMode totalsMode, long total) {
+    super();
+    this.last = slice.isLast();
+    this.first = slice.isFirst();
+    this.size = slice.getSize();
+    this.number = slice.getNumber();
+    this.numberOfElements = slice.getNumberOfElements();
+    this.empty = slice.isEmpty();
+    this.content = slice.getContent();
+    this.totalsMode = totalsMode;
+    if (totalsMode == TotalsMode.NONE) {
+      this.totalElements = -1;
+      this.totalPages = -1;
+      return;
+    }
+    long seen = (long) this.number * this.size + this.numberOfElements;
+    if (!this.last) {
+      this.totalElements = Math.max(total, seen + 1);
+    } else {
+      this.totalElements = this.numberOfElements > 0 ? seen : Math.max(total, 0);
+    }
+    this.totalPages =
+        this.size == 0 ? 1 : (int) Math.ceil((double) this.totalElements / (double) this.size);
+  }
+
   public boolean isEmpty() {
     return this.content.isEmpty();
   }
@@ -57,6 +93,7 @@ public class CustomPage<T> {
     newPage.setNumber(this.number);
     newPage.setNumberOfElements(this.numberOfElements);
     newPage.setEmpty(this.empty);
+    newPage.setTotalsMode(this.totalsMode);
 
     return newPage;
   }
@@ -0,0 +1,18 @@
+package com.br.bookdata.domain.utils;
+
+import java.util.Locale;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Case-normalized form of the values books are filtered by. It is stored next to the original
+ * column and every lookup compares against it, so a plain b-tree index serves case-insensitive
+ * filters instead of an {@code upper(column) = upper(?)} predicate no index can use.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class LookupKey {
+
+  public static String of(String value) {
+    return value == null ? null : value.toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,16 @@
+package com.br.bookdata.domain.utils;
+
+import java.util.concurrent.TimeUnit;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/** Progress reporting shared by the jobs that write the catalog in batches. */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Throughput {
+  /** How often long-running loads log their progress. */
+  public static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+  public static long rowsPerSecond(long rows, long elapsedNanos) {
+    return elapsedNanos == 0 ? rows : rows * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+  }
+}
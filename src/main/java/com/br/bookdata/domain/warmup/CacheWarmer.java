@@ -0,0 +1,177 @@
+package com.br.bookdata.domain.warmup;
+
+import com.br.bookdata.domain.cache.RedisHotKeyManifest;
+import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.service.contract.IBookService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the hottest requests of the running fleet into the cache before this node takes traffic.
+ * Runners finish before Spring Boot marks the application ready, and this indicator keeps the
+ * readiness group OUT_OF_SERVICE while the warm-up is in progress. Book ids are loaded in bulk,
+ * pages one by one, on a bounded pool and within a time budget.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@Log4j2
+public class CacheWarmer implements ApplicationRunner, HealthIndicator {
+
+  public enum State {
+    PENDING,
+    WARMING,
+    DONE,
+    DISABLED
+  }
+
+  private final RedisHotKeyManifest manifest;
+  private final IBookService<Book, Long> bookService;
+  private final boolean enabled;
+  private final int topKeys;
+  private final int threads;
+  private final int idBatchSize;
+  private final Duration maxDuration;
+  private final AtomicInteger completed = new AtomicInteger();
+  private final AtomicInteger failed = new AtomicInteger();
+  private volatile int total;
+  private volatile State state = State.PENDING;
+
+  public CacheWarmer(
+      RedisHotKeyManifest manifest,
+      @Qualifier("bookServiceImpl") IBookService<Book, Long> bookService,
+      @Value("${bookdata.warmup.enabled:true}") boolean enabled,
+      @Value("${bookdata.warmup.top-keys:500}") int topKeys,
+      @Value("${bookdata.warmup.threads:4}") int threads,
+      @Value("${bookdata.warmup.id-batch-size:200}") int idBatchSize,
+      @Value("${bookdata.warmup.max-duration:60s}") Duration maxDuration) {
+    this.manifest = manifest;
+    this.bookService = bookService;
+    this.enabled = enabled;
+    this.topKeys = topKeys;
+    this.threads = threads;
+    this.idBatchSize = idBatchSize;
+    this.maxDuration = maxDuration;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    warmUp();
+  }
+
+  public void warmUp() {
+    if (!enabled) {
+      state = State.DISABLED;
+      return;
+    }
+    state = State.WARMING;
+    long start = System.nanoTime();
+    List<HotKey> hotKeys =
+        manifest.top(topKeys).stream().map(HotKey::parse).flatMap(Optional::stream).toList();
+    List<Callable<Void>> tasks = tasks(hotKeys);
+    total = tasks.size();
+    log.info("Warming cache with {} hot keys in {} tasks", hotKeys.size(), total);
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            threads,
+            runnable -> {
+              Thread thread = new Thread(runnable, "cache-warmer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    try {
+      List<Future<Void>> futures =
+          executor.invokeAll(tasks, maxDuration.toMillis(), TimeUnit.MILLISECONDS);
+      long unfinished = futures.stream().filter(Future::isCancelled).count();
+      if (unfinished > 0) {
+        log.warn("Cache warm-up hit its {} budget with {} tasks left", maxDuration, unfinished);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      executor.shutdownNow();
+      state = State.DONE;
+      log.info(
+          "Cache warm-up finished in {} ms: {} of {} tasks completed, {} failed",
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+          completed.get(),
+          total,
+          failed.get());
+    }
+  }
+
+  @Override
+  public Health health() {
+    Health.Builder builder =
+        state == State.DONE || state == State.DISABLED ? Health.up() : Health.outOfService();
+    return builder
+        .withDetail("state", state)
+        .withDetail("completed", completed.get())
+        .withDetail("failed", failed.get())
+        .withDetail("total", total)
+        .build();
+  }
+
+  private List<Callable<Void>> tasks(List<HotKey> hotKeys) {
+    List<Callable<Void>> pages = new ArrayList<>();
+    List<Long> ids = new ArrayList<>();
+    for (HotKey hotKey : hotKeys) {
+      switch (hotKey.kind()) {
+        case ID -> ids.add(hotKey.id());
+        case ALL -> pages.add(task(() -> bookService.getAllBooks(hotKey.page(), hotKey.size())));
+        case GENRE ->
+            pages.add(
+                task(
+                    () ->
+                        bookService.getBooksByGenre(
+                            hotKey.filter(), hotKey.page(), hotKey.size())));
+        case AUTHOR ->
+            pages.add(
+                task(
+                    () ->
+                        bookService.getBooksByAuthor(
+                            hotKey.filter(), hotKey.page(), hotKey.size())));
+      }
+    }
+    // Single books are the bulk of the traffic and load in batches, so they go first.
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (int from = 0; from < ids.size(); from += idBatchSize) {
+      List<Long> chunk = List.copyOf(ids.subList(from, Math.min(from + idBatchSize, ids.size())));
+      tasks.add(task(() -> bookService.getBooksByIds(chunk)));
+    }
+    tasks.addAll(pages);
+    return tasks;
+  }
+
+  private Callable<Void> task(Runnable warm) {
+    return () -> {
+      try {
+        warm.run();
+      } catch (Exception e) {
+        failed.incrementAndGet();
+        log.warn("Cache warm-up task failed. Error: {}", e.getMessage());
+      } finally {
+        completed.incrementAndGet();
+      }
+      return null;
+    };
+  }
+}
@@ -0,0 +1,52 @@
+package com.br.bookdata.domain.warmup;
+
+import com.br.bookdata.domain.utils.LookupKey;
+import java.util.Optional;
+
+/**
+ * A request worth warming, stored in the hot-key manifest as a compact member such as {@code id|42}
+ * or {@code genre|0|10|fiction}. The filter goes last so it may contain the separator itself.
+ */
+public record HotKey(Kind kind, long id, int page, int size, String filter) {
+  private static final String SEPARATOR = "|";
+
+  public enum Kind {
+    ID,
+    ALL,
+    GENRE,
+    AUTHOR
+  }
+
+  public static HotKey byId(long id) {
+    return new HotKey(Kind.ID, id, 0, 0, null);
+  }
+
+  public static HotKey page(Kind kind, int page, int size, String filter) {
+    return new HotKey(kind, 0, page, size, kind == Kind.ALL ? null : LookupKey.of(filter));
+  }
+
+  public String member() {
+    String prefix = kind.name().toLowerCase() + SEPARATOR;
+    return switch (kind) {
+      case ID -> prefix + id;
+      case ALL -> prefix + page + SEPARATOR + size;
+      case GENRE, AUTHOR -> prefix + page + SEPARATOR + size + SEPARATOR + filter;
+    };
+  }
+
+  public static Optional<HotKey> parse(String member) {
+    try {
+      String[] parts = member.split("\\|", 4);
+      Kind kind = Kind.valueOf(parts[0].toUpperCase());
+      return Optional.of(
+          switch (kind) {
+            case ID -> byId(Long.parseLong(parts[1]));
+            case ALL -> page(kind, Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), null);
+            case GENRE, AUTHOR ->
+                page(kind, Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), parts[3]);
+          });
+    } catch (RuntimeException e) {
+      return Optional.empty();
+    }
+  }
+}
@@ -1,27 +1,59 @@
 package com.br.bookdata.api.controller;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.br.bookdata.api.dtos.BookBasicDTO;
+import com.br.bookdata.api.dtos.BookBatchItemDTO;
 import com.br.bookdata.api.dtos.BookDTO;
+import com.br.bookdata.api.dtos.BookRequestDTO;
 import com.br.bookdata.api.exception.ResourceExceptionHandler;
 import com.br.bookdata.api.facade.BookFacade;
+import com.br.bookdata.api.response.RenderedResponseCache;
+import com.br.bookdata.domain.cache.RedisCacheGenerations;
+import com.br.bookdata.domain.cache.RedisCacheTags;
+import com.br.bookdata.domain.cache.RenderedBody;
+import com.br.bookdata.domain.cache.contract.ICache;
 import com.br.bookdata.domain.exception.BookNotFoundException;
+import com.br.bookdata.domain.exception.InvalidImportException;
+import com.br.bookdata.domain.ingest.ImportFormat;
+import com.br.bookdata.domain.ingest.ImportReject;
+import com.br.bookdata.domain.ingest.ImportReport;
+import com.br.bookdata.domain.timing.StageTimings;
+import com.br.bookdata.domain.utils.CursorPage;
+import com.br.bookdata.domain.utils.CursorToken;
 import com.br.bookdata.domain.utils.CustomPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
@@ -31,7 +63,11 @@ class BookControllerTest {
 
   @Mock private BookFacade bookFacade;
 
-  @InjectMocks private BookController bookController;
+  @Mock private ICache cache;
+
+  @Mock private RedisCacheTags cacheTags;
+
+  @Mock private RedisCacheGenerations generations;
 
   private MockMvc mockMvc;
 
@@ -41,10 +77,8 @@ class BookControllerTest {
 
   @BeforeEach
   void setUp() {
-    mockMvc =
-        MockMvcBuilders.standaloneSetup(bookController)
-            .setControllerAdvice(new ResourceExceptionHandler())
-            .build();
+    lenient().when(generations.current(anyString())).thenReturn(OptionalLong.of(0));
+    mockMvc = mockMvc(false);
     bookDTO = new BookBasicDTO(1L, "Book title", "Paulo", "Adventure");
     page = new CustomPage<>();
     page.setContent(List.of(bookDTO));
@@ -114,6 +148,65 @@ class BookControllerTest {
         .andExpect(jsonPath("$.content[0].author").value(bookDTO.author()));
   }
 
+  @Test
+  @DisplayName("Test to retrieve books by cursor successfully")
+  void testGetAllBooksByCursor() throws Exception {
+    when(bookFacade.getAllBooksByCursor(isNull(), anyInt()))
+        .thenReturn(new CursorPage<>(List.of(bookDTO), 10, "next-token"));
+
+    mockMvc
+        .perform(get("/books/cursor"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content[0].id").value(1))
+        .andExpect(jsonPath("$.next").value("next-token"));
+  }
+
+  @Test
+  @DisplayName("Test to retrieve books by genre and author by cursor")
+  void testGetBooksByGenreAndAuthorByCursor() throws Exception {
+    String token = CursorToken.encode(5L);
+    when(bookFacade.getBooksByGenreByCursor(eq("Adventure"), eq(token), anyInt()))
+        .thenReturn(new CursorPage<>(List.of(bookDTO), 10, null));
+    when(bookFacade.getBooksByAuthorByCursor(eq("Paulo"), eq(token), anyInt()))
+        .thenReturn(new CursorPage<>());
+
+    mockMvc
+        .perform(get("/books/genre/{genre}/cursor", "Adventure").param("cursor", token))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content[0].genre").value(bookDTO.genre()));
+    mockMvc
+        .perform(get("/books/author/{author}/cursor", "Paulo").param("cursor", token))
+        .andExpect(status().isNoContent());
+  }
+
+  @Test
+  @DisplayName("Test to retrieve books by IDs with not found markers")
+  void testGetBooksByIds() throws Exception {
+    var book = new BookDTO(1L, "Book title", "Paulo", "Adventure", "Description");
+    when(bookFacade.getBooksByIds(List.of(1L, 2L)))
+        .thenReturn(
+            List.of(new BookBatchItemDTO(1L, true, book), new BookBatchItemDTO(2L, false, null)));
+
+    mockMvc
+        .perform(get("/books/batch").param("ids", "1,2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(1))
+        .andExpect(jsonPath("$[0].found").value(true))
+        .andExpect(jsonPath("$[0].book.title").value(book.title()))
+        .andExpect(jsonPath("$[1].id").value(2))
+        .andExpect(jsonPath("$[1].found").value(false))
+        .andExpect(jsonPath("$[1].book").isEmpty());
+  }
+
+  @Test
+  @DisplayName("Test to handle InvalidCursorException")
+  void testInvalidCursorException() throws Exception {
+    mockMvc
+        .perform(get("/books/cursor").param("cursor", "bad"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.msg").value("Cursor: 'bad' is invalid"));
+  }
+
   @Test
   @DisplayName("Test to retrieve recently viewed books when empty")
   void testGetRecentlyViewedIsEmpty() throws Exception {
@@ -175,4 +268,205 @@ class BookControllerTest {
         .andExpect(status().isInternalServerError())
         .andExpect(jsonPath("$.status").value(HttpStatus.INTERNAL_SERVER_ERROR.value()));
   }
+
+  @Test
+  @DisplayName("Test to answer a book from the rendered response cache")
+  void testGetBookByIdFromRenderedCache() throws Exception {
+    byte[] json = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+    when(cache.getFromCache(eq("response-book-id-1"), any(), any()))
+        .thenReturn(Optional.of(new RenderedBody(json, false, "abc")));
+
+    mockMvc(true)
+        .perform(get("/books/{id}", 1L))
+        .andExpect(status().isOk())
+        .andExpect(content().bytes(json))
+        .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""));
+
+    verify(bookFacade).recordBookRead(1L);
+    verify(bookFacade, never()).getBookById(any());
+  }
+
+  @Test
+  @DisplayName("Test to answer 304 when If-None-Match holds the cached ETag")
+  void testGetBooksByGenreNotModified() throws Exception {
+    byte[] json = "{}".getBytes(StandardCharsets.UTF_8);
+    when(cache.getFromCache(eq("response-books-page-size-genre-0-10-ADVENTURE"), any(), any()))
+        .thenReturn(Optional.of(new RenderedBody(json, false, "abc")));
+
+    mockMvc(true)
+        .perform(
+            get("/books/genre/{genre}", "Adventure").header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().exists(HttpHeaders.CACHE_CONTROL));
+
+    verify(bookFacade, never()).getBooksByGenre(any(), anyInt(), anyInt());
+  }
+
+  @Test
+  @DisplayName("Test to export books as CSV")
+  void testExportBooksAsCsv() throws Exception {
+    var book = new BookDTO(1L, "Book title", "Paulo", "Adventure", "Description");
+    when(bookFacade.exportBooks(eq("Adventure"), isNull(), any()))
+        .thenAnswer(
+            invocation -> {
+              Consumer<BookDTO> sink = invocation.getArgument(2);
+              sink.accept(book);
+              return 1L;
+            });
+
+    mockMvc
+        .perform(get("/books/export").param("format", "CSV").param("genre", "Adventure"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith("text/csv"))
+        .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("books.csv")))
+        .andExpect(
+            content()
+                .string(
+                    "id,title,author,genre,description\n"
+                        + "1,\"Book title\",\"Paulo\",\"Adventure\",\"Description\"\n"));
+  }
+
+  @Test
+  @DisplayName("Test to reject an unknown export format")
+  void testExportBooksUnknownFormat() throws Exception {
+    mockMvc.perform(get("/books/export").param("format", "xml")).andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Test to import books from a CSV feed")
+  void testImportBooksFromCsv() throws Exception {
+    when(bookFacade.importBooks(eq(ImportFormat.CSV), any()))
+        .thenReturn(
+            new ImportReport(
+                2, 1, 1, 5, 200, 3, null, List.of(new ImportReject(3, "title is required"))));
+
+    mockMvc
+        .perform(
+            post("/books/import")
+                .contentType("text/csv")
+                .content("title,author,genre\nBook,Paulo,Adventure\n,Paulo,Adventure\n"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported").value(1))
+        .andExpect(jsonPath("$.rejected").value(1))
+        .andExpect(jsonPath("$.rejects[0].line").value(3))
+        .andExpect(jsonPath("$.rejects[0].reason").value("title is required"));
+  }
+
+  @Test
+  @DisplayName("Test to report the last line written when an import fails")
+  void testImportBooksFailedWrite() throws Exception {
+    when(bookFacade.importBooks(eq(ImportFormat.NDJSON), any()))
+        .thenReturn(new ImportReport(2, 1, 0, 5, 200, 1, "connection refused", List.of()));
+
+    mockMvc
+        .perform(
+            post("/books/import")
+                .contentType("application/x-ndjson")
+                .content("{\"title\":\"A\",\"author\":\"Ann\",\"genre\":\"Fiction\"}\n"))
+        .andExpect(status().isInternalServerError())
+        .andExpect(jsonPath("$.imported").value(1))
+        .andExpect(jsonPath("$.lastCommittedLine").value(1))
+        .andExpect(jsonPath("$.error").value("connection refused"));
+  }
+
+  @Test
+  @DisplayName("Test to reject a CSV feed without the required columns")
+  void testImportBooksInvalidHeader() throws Exception {
+    when(bookFacade.importBooks(eq(ImportFormat.CSV), any()))
+        .thenThrow(new InvalidImportException("CSV header misses the genre column"));
+
+    mockMvc
+        .perform(post("/books/import").contentType("text/csv").content("title,author\n"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Test to create a book")
+  void testCreateBook() throws Exception {
+    var request = new BookRequestDTO("Book title", "Paulo", "Adventure", "Description");
+    when(bookFacade.createBook(request))
+        .thenReturn(new BookDTO(7L, "Book title", "Paulo", "Adventure", "Description"));
+
+    mockMvc
+        .perform(
+            post("/books")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(request)))
+        .andExpect(status().isCreated())
+        .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/books/7"))
+        .andExpect(jsonPath("$.id").value(7));
+  }
+
+  @Test
+  @DisplayName("Test to reject a book without its required fields")
+  void testCreateBookInvalid() throws Exception {
+    mockMvc
+        .perform(
+            post("/books")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\" \",\"author\":\"Paulo\"}"))
+        .andExpect(status().isBadRequest());
+
+    verify(bookFacade, never()).createBook(any());
+  }
+
+  @Test
+  @DisplayName("Test to update a book")
+  void testUpdateBook() throws Exception {
+    var request = new BookRequestDTO("New title", "Paulo", "Adventure", null);
+    when(bookFacade.updateBook(1L, request))
+        .thenReturn(new BookDTO(1L, "New title", "Paulo", "Adventure", null));
+
+    mockMvc
+        .perform(
+            put("/books/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.title").value("New title"));
+  }
+
+  @Test
+  @DisplayName("Test to update a book that does not exist")
+  void testUpdateBookNotFound() throws Exception {
+    when(bookFacade.updateBook(eq(9L), any()))
+        .thenThrow(new BookNotFoundException("Book id: 9 not found"));
+
+    mockMvc
+        .perform(
+            put("/books/9")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"A\",\"author\":\"B\",\"genre\":\"C\"}"))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @DisplayName("Test to delete a book")
+  void testDeleteBook() throws Exception {
+    mockMvc.perform(delete("/books/1")).andExpect(status().isNoContent());
+
+    verify(bookFacade).deleteBook(1L);
+  }
+
+  private MockMvc mockMvc(boolean responseCacheEnabled) {
+    var responseCache =
+        new RenderedResponseCache(
+            cache,
+            cacheTags,
+            generations,
+            new StageTimings(new SimpleMeterRegistry(), false),
+            new ObjectMapper(),
+            responseCacheEnabled,
+            Duration.ofSeconds(60),
+            true,
+            1024,
+            Duration.ofSeconds(30),
+            Duration.ofSeconds(60),
+            Duration.ofSeconds(60),
+            Duration.ofSeconds(300));
+    return MockMvcBuilders.standaloneSetup(
+            new BookController(bookFacade, responseCache, new ObjectMapper()))
+        .setControllerAdvice(new ResourceExceptionHandler())
+        .build();
+  }
 }
@@ -1,9 +1,11 @@
 package com.br.bookdata.api.dtos.mapper;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import com.br.bookdata.api.dtos.BookBasicDTO;
 import com.br.bookdata.api.dtos.BookDTO;
+import com.br.bookdata.api.dtos.BookRequestDTO;
 import com.br.bookdata.domain.model.Book;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,7 +16,14 @@ class BookMapperTest {
 
   @BeforeEach
   void setUp() {
-    book = new Book(1L, "Book Title", "Paulo", "Adventure", "Description");
+    book =
+        Book.builder()
+            .id(1L)
+            .title("Book Title")
+            .author("Paulo")
+            .genre("Adventure")
+            .description("Description")
+            .build();
   }
 
   @Test
@@ -37,4 +46,16 @@ class BookMapperTest {
     assertEquals(book.getAuthor(), bookDTO.author());
     assertEquals(book.getGenre(), bookDTO.genre());
   }
+
+  @Test
+  void testToEntity() {
+    Book entity =
+        BookMapper.toEntity(new BookRequestDTO("Book Title", "Paulo", "Adventure", "Description"));
+
+    assertNull(entity.getId());
+    assertEquals(book.getTitle(), entity.getTitle());
+    assertEquals(book.getAuthor(), entity.getAuthor());
+    assertEquals(book.getGenre(), entity.getGenre());
+    assertEquals(book.getDescription(), entity.getDescription());
+  }
 }
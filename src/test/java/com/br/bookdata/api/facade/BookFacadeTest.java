@@ -4,18 +4,37 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import com.br.bookdata.api.dtos.BookBasicDTO;
+import com.br.bookdata.api.dtos.BookBatchItemDTO;
 import com.br.bookdata.api.dtos.BookDTO;
+import com.br.bookdata.api.dtos.BookRequestDTO;
 import com.br.bookdata.api.dtos.mapper.BookMapper;
+import com.br.bookdata.domain.ingest.BookImporter;
+import com.br.bookdata.domain.ingest.ImportFormat;
+import com.br.bookdata.domain.ingest.ImportReport;
 import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.model.BookSummary;
+import com.br.bookdata.domain.observer.contract.ISubject;
+import com.br.bookdata.domain.service.contract.IBookExportService;
 import com.br.bookdata.domain.service.contract.IBookService;
+import com.br.bookdata.domain.timing.StageTimings;
+import com.br.bookdata.domain.utils.CursorPage;
 import com.br.bookdata.domain.utils.CustomPage;
+import com.br.bookdata.domain.warmup.HotKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,12 +42,20 @@ class BookFacadeTest {
 
   @Mock private IBookService<Book, Long> bookService;
 
+  @Mock private IBookExportService<Book> exportService;
+
+  @Mock private BookImporter importer;
+
+  @Mock private ISubject<String> hotKeys;
+
+  @Spy private StageTimings timings = new StageTimings(new SimpleMeterRegistry(), false);
+
   @InjectMocks private BookFacade bookFacade;
 
   private Book book;
   private BookDTO bookDTO;
   private BookBasicDTO bookBasicDTO;
-  private CustomPage<Book> page;
+  private CustomPage<BookSummary> page;
 
   @BeforeEach
   void setUp() {
@@ -43,7 +70,7 @@ class BookFacadeTest {
     bookDTO = BookMapper.toDTO(book);
     bookBasicDTO = BookMapper.toBasicDTO(book);
     page = new CustomPage<>();
-    page.setContent(List.of(book));
+    page.setContent(List.of(new BookSummary(1L, "Title", "Test Author", "Fiction")));
   }
 
   @Test
@@ -57,6 +84,7 @@ class BookFacadeTest {
     assertEquals(bookBasicDTO, result.getContent().get(0));
 
     verify(bookService, times(1)).getAllBooks(0, 10);
+    verify(hotKeys).notifyObservers("all|0|10");
   }
 
   @Test
@@ -70,6 +98,7 @@ class BookFacadeTest {
     assertEquals(bookBasicDTO, result.getContent().get(0));
 
     verify(bookService, times(1)).getBooksByGenre("Genre", 0, 10);
+    verify(hotKeys).notifyObservers("genre|0|10|genre");
   }
 
   @Test
@@ -83,6 +112,36 @@ class BookFacadeTest {
     assertEquals(bookBasicDTO, result.getContent().get(0));
 
     verify(bookService, times(1)).getBooksByAuthor("Author", 0, 10);
+    verify(hotKeys).notifyObservers("author|0|10|author");
+  }
+
+  @Test
+  void shouldGetBooksByCursor() {
+    CursorPage<BookSummary> cursorPage = new CursorPage<>(page.getContent(), 10, "next");
+    when(bookService.getAllBooksByCursor(null, 10)).thenReturn(cursorPage);
+    when(bookService.getBooksByGenreByCursor("Genre", "next", 10)).thenReturn(cursorPage);
+    when(bookService.getBooksByAuthorByCursor("Author", "next", 10)).thenReturn(cursorPage);
+
+    CursorPage<BookBasicDTO> all = bookFacade.getAllBooksByCursor(null, 10);
+    CursorPage<BookBasicDTO> byGenre = bookFacade.getBooksByGenreByCursor("Genre", "next", 10);
+    CursorPage<BookBasicDTO> byAuthor = bookFacade.getBooksByAuthorByCursor("Author", "next", 10);
+
+    assertEquals(List.of(bookBasicDTO), all.getContent());
+    assertEquals("next", all.getNext());
+    assertEquals(List.of(bookBasicDTO), byGenre.getContent());
+    assertEquals(List.of(bookBasicDTO), byAuthor.getContent());
+  }
+
+  @Test
+  void shouldGetBooksByIdsInRequestOrder() {
+    when(bookService.getBooksByIds(List.of(1L, 7L)))
+        .thenReturn(List.of(Optional.of(book), Optional.empty()));
+
+    List<BookBatchItemDTO> result = bookFacade.getBooksByIds(List.of(1L, 7L));
+
+    assertEquals(
+        List.of(new BookBatchItemDTO(1L, true, bookDTO), new BookBatchItemDTO(7L, false, null)),
+        result);
   }
 
   @Test
@@ -110,5 +169,81 @@ class BookFacadeTest {
     assertEquals(bookDTO, result);
 
     verify(bookService, times(1)).getBookById(1L);
+    verify(hotKeys).notifyObservers("id|1");
+  }
+
+  @Test
+  void shouldRecordBookRead() {
+    bookFacade.recordBookRead(1L);
+
+    verify(hotKeys).notifyObservers("id|1");
+    verify(bookService).recordView(1L);
+  }
+
+  @Test
+  void shouldRecordPageRead() {
+    bookFacade.recordPageRead(HotKey.Kind.GENRE, 0, 10, "Fiction");
+
+    verify(hotKeys).notifyObservers("genre|0|10|fiction");
+    verifyNoInteractions(bookService);
+  }
+
+  @Test
+  void shouldExportBooksAsDTOs() {
+    when(exportService.exportBooks(eq("Fiction"), isNull(), any()))
+        .thenAnswer(
+            invocation -> {
+              Consumer<Book> sink = invocation.getArgument(2);
+              sink.accept(book);
+              return 1L;
+            });
+    List<BookDTO> exported = new ArrayList<>();
+
+    long rows = bookFacade.exportBooks("Fiction", null, exported::add);
+
+    assertEquals(1L, rows);
+    assertEquals(List.of(bookDTO), exported);
+    verifyNoInteractions(bookService, hotKeys);
+  }
+
+  @Test
+  void shouldImportBooks() throws IOException {
+    InputStream in = new ByteArrayInputStream(new byte[0]);
+    ImportReport report = new ImportReport(0, 0, 0, 0, 0, 0, null, List.of());
+    when(importer.importBooks(ImportFormat.CSV, in)).thenReturn(report);
+
+    assertSame(report, bookFacade.importBooks(ImportFormat.CSV, in));
+    verifyNoInteractions(bookService, hotKeys);
+  }
+
+  @Test
+  void shouldCreateBook() {
+    var request = new BookRequestDTO("Title", "Test Author", "Fiction", "Description");
+    when(bookService.createBook(
+            Book.builder()
+                .title("Title")
+                .author("Test Author")
+                .genre("Fiction")
+                .description("Description")
+                .build()))
+        .thenReturn(book);
+
+    assertEquals(bookDTO, bookFacade.createBook(request));
+  }
+
+  @Test
+  void shouldUpdateBook() {
+    var request = new BookRequestDTO("Title", "Test Author", "Fiction", null);
+    when(bookService.updateBook(eq(1L), any(Book.class))).thenReturn(book);
+
+    assertEquals(bookDTO, bookFacade.updateBook(1L, request));
+  }
+
+  @Test
+  void shouldDeleteBook() {
+    bookFacade.deleteBook(1L);
+
+    verify(bookService).deleteBook(1L);
+    verifyNoInteractions(hotKeys);
   }
 }
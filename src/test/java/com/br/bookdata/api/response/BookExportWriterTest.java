@@ -0,0 +1,58 @@
+package com.br.bookdata.api.response;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.br.bookdata.api.dtos.BookDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BookExportWriterTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  @DisplayName("Should write one JSON object per line")
+  void shouldWriteNdjson() throws IOException {
+    String output =
+        export(
+            ExportFormat.NDJSON,
+            new BookDTO(1L, "Dune", "Frank Herbert", "Sci-Fi", "Spice"),
+            new BookDTO(2L, "Emma", "Jane Austen", "Romance", null));
+
+    String[] lines = output.split("\n", -1);
+    assertEquals(3, lines.length);
+    assertEquals("", lines[2]);
+    assertEquals(1L, objectMapper.readTree(lines[0]).get("id").asLong());
+    assertEquals("Emma", objectMapper.readTree(lines[1]).get("title").asText());
+  }
+
+  @Test
+  @DisplayName("Should write a CSV header and quote every text column")
+  void shouldWriteCsv() throws IOException {
+    String output =
+        export(
+            ExportFormat.CSV,
+            new BookDTO(1L, "Say \"hi\", world", "Ann", "Drama", "Line one\nline two"),
+            new BookDTO(2L, "Emma", "Jane Austen", "Romance", null));
+
+    assertEquals(
+        BookExportWriter.CSV_HEADER
+            + "\n1,\"Say \"\"hi\"\", world\",\"Ann\",\"Drama\",\"Line one\nline two\"\n"
+            + "2,\"Emma\",\"Jane Austen\",\"Romance\",\n",
+        output);
+  }
+
+  private String export(ExportFormat format, BookDTO... books) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (BookExportWriter writer = new BookExportWriter(format, out, objectMapper)) {
+      for (BookDTO book : books) {
+        writer.write(book);
+      }
+    }
+    return out.toString(StandardCharsets.UTF_8);
+  }
+}
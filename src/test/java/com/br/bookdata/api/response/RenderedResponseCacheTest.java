@@ -0,0 +1,353 @@
+package com.br.bookdata.api.response;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.br.bookdata.api.response.RenderedResponseCache.Profile;
+import com.br.bookdata.domain.cache.RedisCacheGenerations;
+import com.br.bookdata.domain.cache.RedisCacheTags;
+import com.br.bookdata.domain.cache.RenderedBody;
+import com.br.bookdata.domain.cache.contract.ICache;
+import com.br.bookdata.domain.service.BookCacheServiceImpl;
+import com.br.bookdata.domain.timing.StageTimings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@ExtendWith(MockitoExtension.class)
+class RenderedResponseCacheTest {
+
+  private static final Duration TTL = Duration.ofSeconds(60);
+  private static final byte[] JSON = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+  @Mock private ICache cache;
+
+  @Mock private RedisCacheTags cacheTags;
+
+  @Mock private RedisCacheGenerations generations;
+
+  private MockHttpServletRequest request;
+  private MockHttpServletResponse response;
+  private AtomicInteger hits;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(generations.current(anyString())).thenReturn(OptionalLong.of(0));
+    request = new MockHttpServletRequest();
+    response = new MockHttpServletResponse();
+    hits = new AtomicInteger();
+  }
+
+  @Test
+  @DisplayName("Should still write the ETag and Cache-Control when the cache is disabled")
+  void shouldWriteEtagWhenDisabled() throws IOException {
+    ResponseEntity<Map<String, Integer>> result =
+        responseCache(false, 1)
+            .render(
+                "book-id-1", Profile.DETAIL, request, response, hits::incrementAndGet, this::ok);
+
+    assertNull(result);
+    assertEquals("\"" + RenderedBody.etagOf(JSON) + "\"", response.getHeader(HttpHeaders.ETAG));
+    assertEquals(
+        "max-age=60, must-revalidate, public, s-maxage=300",
+        response.getHeader(HttpHeaders.CACHE_CONTROL));
+    assertEquals("{\"id\":1}", response.getContentAsString());
+    assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    verifyNoInteractions(cache, cacheTags);
+  }
+
+  @Test
+  @DisplayName("Should answer 304 when the cache is disabled and If-None-Match matches")
+  void shouldAnswerNotModifiedWhenDisabled() {
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + RenderedBody.etagOf(JSON) + "\"");
+
+    responseCache(false, 1024)
+        .render("book-id-1", Profile.DETAIL, request, response, () -> {}, this::ok);
+
+    assertEquals(304, response.getStatus());
+    assertEquals(0, response.getContentAsByteArray().length);
+    verifyNoInteractions(cache);
+  }
+
+  @Test
+  @DisplayName("Should bypass the cache while the generation of the key is unknown")
+  void shouldBypassCacheWhenGenerationUnknown() throws IOException {
+    when(generations.current("BOOK_ID_KEY")).thenReturn(OptionalLong.empty());
+
+    responseCache(true, 1024)
+        .render("book-id-1", Profile.DETAIL, request, response, hits::incrementAndGet, this::ok);
+
+    assertEquals("\"" + RenderedBody.etagOf(JSON) + "\"", response.getHeader(HttpHeaders.ETAG));
+    assertEquals("{\"id\":1}", response.getContentAsString());
+    assertEquals(0, hits.get());
+    verifyNoInteractions(cache, cacheTags);
+  }
+
+  @Test
+  @DisplayName("Should render, store and write the body with its ETag on a miss")
+  void shouldStoreAndWriteOnMiss() throws IOException {
+    when(cache.getFromCache(eq("response-book-id-1"), any(), any())).thenReturn(Optional.empty());
+
+    ResponseEntity<Map<String, Integer>> result =
+        responseCache(true, 1024)
+            .render(
+                "book-id-1", Profile.DETAIL, request, response, hits::incrementAndGet, this::ok);
+
+    ArgumentCaptor<RenderedBody> stored = ArgumentCaptor.forClass(RenderedBody.class);
+    verify(cache).putToCache(eq("response-book-id-1"), stored.capture(), any(), eq(TTL));
+    assertNull(result);
+    assertFalse(stored.getValue().gzipped());
+    assertEquals(RenderedBody.etagOf(JSON), stored.getValue().etag());
+    assertEquals("\"" + RenderedBody.etagOf(JSON) + "\"", response.getHeader(HttpHeaders.ETAG));
+    assertEquals("{\"id\":1}", response.getContentAsString());
+    assertEquals("application/json", response.getContentType());
+    assertEquals(0, hits.get());
+    verifyNoInteractions(cacheTags);
+  }
+
+  @Test
+  @DisplayName("Should add stored list responses to the tag they are rendered with")
+  void shouldTagListResponses() {
+    when(cache.getFromCache(any(), any(), any())).thenReturn(Optional.empty());
+    when(cacheTags.version("genre:fiction")).thenReturn("2:0");
+    when(cacheTags.tag(any(), any(), any(), any(), eq("2:0"))).thenReturn(true);
+    when(cacheTags.isCurrent("genre:fiction", "2:0")).thenReturn(true);
+
+    responseCache(true, 1024)
+        .render(
+            "books-page-size-genre-0-10-FICTION",
+            "genre:fiction",
+            Profile.LIST,
+            request,
+            response,
+            hits::incrementAndGet,
+            this::ok);
+
+    InOrder inOrder = inOrder(cacheTags, cache);
+    inOrder
+        .verify(cacheTags)
+        .tag(
+            BookCacheServiceImpl.RESPONSE_CACHE_NAME,
+            "response-books-page-size-genre-0-10-FICTION",
+            "genre:fiction",
+            TTL,
+            "2:0");
+    inOrder
+        .verify(cache)
+        .putToCache(
+            eq("response-books-page-size-genre-0-10-FICTION"),
+            any(RenderedBody.class),
+            eq(BookCacheServiceImpl.RESPONSE_CACHE_NAME),
+            eq(TTL));
+    verify(cache, never()).removeCache(any(), any());
+  }
+
+  @Test
+  @DisplayName("Should not store a list response when a write evicted its tag meanwhile")
+  void shouldSkipResponseOfEvictedTag() {
+    when(cache.getFromCache(any(), any(), any())).thenReturn(Optional.empty());
+    when(cacheTags.version("genre:fiction")).thenReturn("2:0");
+
+    responseCache(true, 1024)
+        .render(
+            "books-page-size-genre-0-10-FICTION",
+            "genre:fiction",
+            Profile.LIST,
+            request,
+            response,
+            hits::incrementAndGet,
+            this::ok);
+
+    verify(cache, never()).putToCache(any(), any(), any(), any());
+    assertEquals("{\"id\":1}", response.getContentAsString());
+  }
+
+  @Test
+  @DisplayName("Should store responses under the generation of the family they render")
+  void shouldVersionResponseKeys() {
+    when(generations.current("BOOK_PAGED_GENRE_KEY")).thenReturn(OptionalLong.of(3));
+    when(cacheTags.version("genre:fiction")).thenReturn("2:0");
+    when(cacheTags.tag(any(), any(), any(), any(), eq("2:0"))).thenReturn(true);
+    when(cacheTags.isCurrent("genre:fiction", "2:0")).thenReturn(true);
+    when(cache.getFromCache(eq("response-books-page-size-genre-v3:0-10-FICTION"), any(), any()))
+        .thenReturn(Optional.empty());
+
+    responseCache(true, 1024)
+        .render(
+            "books-page-size-genre-0-10-FICTION",
+            "genre:fiction",
+            Profile.LIST,
+            request,
+            response,
+            hits::incrementAndGet,
+            this::ok);
+
+    verify(cache)
+        .putToCache(
+            eq("response-books-page-size-genre-v3:0-10-FICTION"),
+            any(RenderedBody.class),
+            eq(BookCacheServiceImpl.RESPONSE_CACHE_NAME),
+            eq(TTL));
+    verify(cacheTags)
+        .tag(
+            BookCacheServiceImpl.RESPONSE_CACHE_NAME,
+            "response-books-page-size-genre-v3:0-10-FICTION",
+            "genre:fiction",
+            TTL,
+            "2:0");
+  }
+
+  @Test
+  @DisplayName("Should gzip bodies above the threshold and send them compressed when accepted")
+  void shouldGzipLargeBodies() throws IOException {
+    when(cache.getFromCache(any(), any(), any())).thenReturn(Optional.empty());
+    request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+
+    responseCache(true, 1)
+        .render("book-id-1", Profile.DETAIL, request, response, () -> {}, this::ok);
+
+    assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+    assertEquals(
+        "\"" + RenderedBody.etagOf(JSON) + "-gzip\"", response.getHeader(HttpHeaders.ETAG));
+    assertEquals("{\"id\":1}", gunzip(response.getContentAsByteArray()));
+  }
+
+  @Test
+  @DisplayName("Should send gzipped cache entries uncompressed to clients without gzip")
+  void shouldGunzipForClientsWithoutGzip() throws IOException {
+    when(cache.getFromCache(any(), any(), any())).thenReturn(Optional.empty());
+
+    responseCache(true, 1)
+        .render("book-id-1", Profile.DETAIL, request, response, () -> {}, this::ok);
+
+    assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    assertEquals("{\"id\":1}", response.getContentAsString());
+  }
+
+  @Test
+  @DisplayName("Should write cached bytes and run the hit callback without calling the handler")
+  void shouldWriteCachedBytesOnHit() throws IOException {
+    when(cache.getFromCache(eq("response-books-0-10"), any(), any()))
+        .thenReturn(Optional.of(new RenderedBody(JSON, false, RenderedBody.etagOf(JSON))));
+
+    ResponseEntity<Object> result =
+        responseCache(true, 1024)
+            .render(
+                "books-0-10",
+                Profile.LIST,
+                request,
+                response,
+                hits::incrementAndGet,
+                () -> fail("handler should not run on a hit"));
+
+    assertNull(result);
+    assertEquals(1, hits.get());
+    assertArrayEquals(JSON, response.getContentAsByteArray());
+    assertEquals(
+        "max-age=30, must-revalidate, public, s-maxage=60",
+        response.getHeader(HttpHeaders.CACHE_CONTROL));
+    verify(cache, never()).putToCache(any(), any(), any(), any(Duration.class));
+  }
+
+  @Test
+  @DisplayName("Should answer 304 without a body when If-None-Match holds the cached ETag")
+  void shouldAnswerNotModified() {
+    when(cache.getFromCache(any(), any(), any()))
+        .thenReturn(Optional.of(new RenderedBody(new byte[] {1}, true, "abc")));
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc-gzip\"");
+    request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+    responseCache(true, 1024)
+        .render("book-id-1", Profile.DETAIL, request, response, () -> {}, this::ok);
+
+    assertEquals(304, response.getStatus());
+    assertEquals("\"abc-gzip\"", response.getHeader(HttpHeaders.ETAG));
+    assertEquals(0, response.getContentLength());
+    assertEquals(0, response.getContentAsByteArray().length);
+  }
+
+  @Test
+  @DisplayName("Should not cache responses other than 200 with a body")
+  void shouldNotCacheNoContent() {
+    when(cache.getFromCache(any(), any(), any())).thenReturn(Optional.empty());
+    ResponseEntity<Object> noContent = ResponseEntity.noContent().build();
+
+    ResponseEntity<Object> result =
+        responseCache(true, 1024)
+            .render("books-0-10", Profile.LIST, request, response, () -> {}, () -> noContent);
+
+    assertSame(noContent, result);
+    assertNull(response.getHeader(HttpHeaders.CACHE_CONTROL));
+    verify(cache, never()).putToCache(any(), any(), any(), any(Duration.class));
+  }
+
+  @Test
+  @DisplayName("Should compare If-None-Match weakly across both encodings of an entry")
+  void shouldMatchEtags() {
+    assertTrue(RenderedResponseCache.matches("\"abc\"", "abc"));
+    assertTrue(RenderedResponseCache.matches("\"x\", W/\"abc-gzip\"", "abc"));
+    assertTrue(RenderedResponseCache.matches("*", "abc"));
+    assertFalse(RenderedResponseCache.matches("\"abcd\"", "abc"));
+    assertFalse(RenderedResponseCache.matches(null, "abc"));
+  }
+
+  @Test
+  @DisplayName("Should honour q=0 when reading Accept-Encoding")
+  void shouldParseAcceptEncoding() {
+    assertTrue(RenderedResponseCache.acceptsGzip("gzip"));
+    assertTrue(RenderedResponseCache.acceptsGzip("br, GZIP;q=0.8"));
+    assertFalse(RenderedResponseCache.acceptsGzip("gzip;q=0"));
+    assertFalse(RenderedResponseCache.acceptsGzip("deflate"));
+    assertFalse(RenderedResponseCache.acceptsGzip(null));
+  }
+
+  private RenderedResponseCache responseCache(boolean enabled, int gzipMinSize) {
+    return new RenderedResponseCache(
+        cache,
+        cacheTags,
+        generations,
+        new StageTimings(new SimpleMeterRegistry(), false),
+        new ObjectMapper(),
+        enabled,
+        TTL,
+        true,
+        gzipMinSize,
+        Duration.ofSeconds(30),
+        Duration.ofSeconds(60),
+        Duration.ofSeconds(60),
+        Duration.ofSeconds(300));
+  }
+
+  private ResponseEntity<Map<String, Integer>> ok() {
+    return ResponseEntity.ok(Map.of("id", 1));
+  }
+
+  private static String gunzip(byte[] body) throws IOException {
+    try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+}
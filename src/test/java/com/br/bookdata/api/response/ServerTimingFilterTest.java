@@ -0,0 +1,74 @@
+package com.br.bookdata.api.response;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.br.bookdata.domain.timing.StageTimings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ServerTimingFilterTest {
+
+  private MockHttpServletRequest request;
+  private MockHttpServletResponse response;
+
+  @BeforeEach
+  void setUp() {
+    request = new MockHttpServletRequest("GET", "/books/genre/fantasy");
+    response = new MockHttpServletResponse();
+  }
+
+  @Test
+  @DisplayName("Should send the stages finished before the body in a Server-Timing header")
+  void shouldSendServerTimingBeforeBody() throws ServletException, IOException {
+    StageTimings timings = new StageTimings(new SimpleMeterRegistry(), true);
+    FilterChain chain =
+        (servletRequest, servletResponse) -> {
+          timings.time("repository", () -> null);
+          servletResponse.getWriter().write("{}");
+          timings.time("late", () -> null);
+        };
+
+    new ServerTimingFilter(timings, true).doFilter(request, response, chain);
+
+    String serverTiming = response.getHeader(ServerTimingFilter.SERVER_TIMING);
+    assertNotNull(serverTiming);
+    assertTrue(serverTiming.startsWith("repository;dur="), serverTiming);
+    assertTrue(serverTiming.contains("total;dur="), serverTiming);
+    assertFalse(serverTiming.contains("late"), serverTiming);
+    assertEquals("{}", response.getContentAsString());
+  }
+
+  @Test
+  @DisplayName("Should send the header on responses without a body")
+  void shouldSendServerTimingWithoutBody() throws ServletException, IOException {
+    StageTimings timings = new StageTimings(new SimpleMeterRegistry(), true);
+
+    new ServerTimingFilter(timings, true)
+        .doFilter(request, response, (servletRequest, servletResponse) -> {});
+
+    assertTrue(response.getHeader(ServerTimingFilter.SERVER_TIMING).startsWith("total;dur="));
+  }
+
+  @Test
+  @DisplayName("Should leave the response alone when the header or the timings are disabled")
+  void shouldSkipWhenDisabled() throws ServletException, IOException {
+    FilterChain chain =
+        (servletRequest, servletResponse) -> servletResponse.getWriter().write("{}");
+
+    new ServerTimingFilter(new StageTimings(new SimpleMeterRegistry(), true), false)
+        .doFilter(request, response, chain);
+    MockHttpServletResponse disabledResponse = new MockHttpServletResponse();
+    new ServerTimingFilter(new StageTimings(new SimpleMeterRegistry(), false), true)
+        .doFilter(request, disabledResponse, chain);
+
+    assertNull(response.getHeader(ServerTimingFilter.SERVER_TIMING));
+    assertNull(disabledResponse.getHeader(ServerTimingFilter.SERVER_TIMING));
+  }
+}
@@ -0,0 +1,23 @@
+package com.br.bookdata.domain.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CacheMetricsTest {
+
+  @Test
+  @DisplayName("Should tag keys with the longest family prefix they start with")
+  void shouldResolveKeyFamilies() {
+    assertEquals("BOOK_ID_KEY", CacheMetrics.familyOf("book-id-42"));
+    assertEquals("BOOK_PAGED_KEY", CacheMetrics.familyOf("books-page-size-v3:0-10"));
+    assertEquals("BOOK_PAGED_GENRE_KEY", CacheMetrics.familyOf("books-page-size-genre-0-10-X"));
+    assertEquals(
+        "BOOK_PAGED_AUTHOR_KEY", CacheMetrics.familyOf("books-page-size-genre-author-0-10-Y"));
+    assertEquals(
+        "BOOK_CURSOR_GENRE_KEY", CacheMetrics.familyOf("response-books-cursor-genre-0-10-X"));
+    assertEquals("BOOK_TOTAL_KEY", CacheMetrics.familyOf("books-total-exact-all"));
+    assertEquals("OTHER", CacheMetrics.familyOf("unknown"));
+  }
+}
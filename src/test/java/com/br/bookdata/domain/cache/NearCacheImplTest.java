@@ -0,0 +1,308 @@
+package com.br.bookdata.domain.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.br.bookdata.domain.cache.codec.ValueCodecRegistry;
+import com.br.bookdata.domain.cache.contract.ICache;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@ExtendWith(MockitoExtension.class)
+class NearCacheImplTest {
+  private static final String CHANNEL = "near-cache-channel";
+
+  @Mock private ICache remoteCache;
+  @Mock private StringRedisTemplate stringRedisTemplate;
+  @Mock private RedisMessageListenerContainer listenerContainer;
+
+  private SimpleMeterRegistry meterRegistry;
+  private NearCacheImpl nearCache;
+
+  private String cacheKey;
+  private String cacheName;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    lenient()
+        .doAnswer(invocation -> runAction(invocation.getArgument(0)))
+        .when(remoteCache)
+        .afterWrites(any());
+    nearCache =
+        new NearCacheImpl(
+            remoteCache,
+            stringRedisTemplate,
+            listenerContainer,
+            new CacheMetrics(meterRegistry),
+            new ValueCodecRegistry(Map.of(), new ObjectMapper()),
+            100,
+            Duration.ofMinutes(1),
+            CHANNEL);
+    cacheKey = "book-cache-key";
+    cacheName = "book-cache";
+  }
+
+  @Test
+  @DisplayName("Should subscribe to the invalidation channel")
+  void shouldSubscribeToInvalidationChannel() {
+    verify(listenerContainer).addMessageListener(eq(nearCache), any(ChannelTopic.class));
+  }
+
+  @Test
+  @DisplayName("Should serve repeated reads from the local cache")
+  void shouldServeRepeatedReadsFromLocalCache() {
+    when(remoteCache.getFromCache(eq(cacheKey), any(TypeReference.class), eq(cacheName)))
+        .thenReturn(Optional.of("value"));
+
+    Optional<String> first =
+        nearCache.getFromCache(cacheKey, new TypeReference<String>() {}, cacheName);
+    Optional<String> second =
+        nearCache.getFromCache(cacheKey, new TypeReference<String>() {}, cacheName);
+
+    assertEquals(Optional.of("value"), first);
+    assertEquals(Optional.of("value"), second);
+    verify(remoteCache, times(1)).getFromCache(eq(cacheKey), any(TypeReference.class), any());
+    assertEquals(
+        1,
+        meterRegistry
+            .get("bookdata.cache.gets")
+            .tags("cache", cacheName, "layer", "near", "result", "hit")
+            .counter()
+            .count());
+  }
+
+  @Test
+  @DisplayName("Should hand every reader its own copy of a local entry")
+  void shouldNotShareLocalInstances() {
+    List<String> written = new ArrayList<>(List.of("first"));
+    TypeReference<List<String>> type = new TypeReference<>() {};
+
+    nearCache.putToCache(cacheKey, written, cacheName, null);
+    written.add("changed by the writer");
+    List<String> first = nearCache.getFromCache(cacheKey, type, cacheName).orElseThrow();
+    first.add("changed by a reader");
+    List<String> second = nearCache.getFromCache(cacheKey, type, cacheName).orElseThrow();
+
+    assertEquals(List.of("first"), second);
+    assertNotSame(first, second);
+    verify(remoteCache, never()).getFromCache(any(), any(TypeReference.class), any());
+  }
+
+  @Test
+  @DisplayName("Should count local misses of single and batched reads")
+  void shouldRecordLocalMisses() {
+    when(remoteCache.getFromCache(eq(cacheKey), any(TypeReference.class), eq(cacheName)))
+        .thenReturn(Optional.empty());
+    when(remoteCache.multiGet(eq(List.of("b")), any(TypeReference.class), eq(cacheName)))
+        .thenReturn(Map.of());
+    nearCache.putToCache("a", "local", cacheName, null);
+
+    nearCache.getFromCache(cacheKey, new TypeReference<String>() {}, cacheName);
+    nearCache.multiGet(List.of("a", "b"), new TypeReference<String>() {}, cacheName);
+
+    assertEquals(1, nearGets("hit"));
+    assertEquals(2, nearGets("miss"));
+  }
+
+  @Test
+  @DisplayName("Should return empty and not cache locally on remote miss")
+  void shouldReturnEmptyOnRemoteMiss() {
+    when(remoteCache.getFromCache(eq(cacheKey), any(TypeReference.class), eq(cacheName)))
+        .thenReturn(Optional.empty());
+
+    nearCache.getFromCache(cacheKey, new TypeReference<String>() {}, cacheName);
+    Optional<String> result =
+        nearCache.getFromCache(cacheKey, new TypeReference<String>() {}, cacheName);
+
+    assertFalse(result.isPresent());
+    verify(remoteCache, times(2)).getFromCache(eq(cacheKey), any(TypeReference.class), any());
+  }
+
+  @Test
+  @DisplayName("Should write through to remote cache and publish invalidation")
+  void shouldWriteThroughAndPublishInvalidation() {
+    Duration duration = Duration.ofMinutes(10);
+
+    nearCache.putToCache(cacheKey, "value", cacheName, duration);
+    Optional<String> result =
+        nearCache.getFromCache(cacheKey, new TypeReference<String>() {}, cacheName);
+
+    assertEquals(Optional.of("value"), result);
+    verify(remoteCache).putToCache(cacheKey, "value", cacheName, duration);
+    verify(remoteCache, never()).getFromCache(any(), any(TypeReference.class), any());
+    ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+    verify(stringRedisTemplate).convertAndSend(eq(CHANNEL), message.capture());
+    assertTrue(message.getValue().endsWith("|" + cacheName + ":" + cacheKey));
+  }
+
+  @Test
+  @DisplayName("Should drop local entry when another node invalidates it")
+  void shouldDropLocalEntryOnRemoteInvalidation() {
+    String prefixedKey = cacheName + ":" + cacheKey;
+    nearCache.putToCache(cacheKey, "value", cacheName, null);
+
+    nearCache.onMessage(message("other-node|" + prefixedKey), null);
+    when(remoteCache.getFromCache(eq(cacheKey), any(TypeReference.class), eq(cacheName)))
+        .thenReturn(Optional.of("fresh"));
+
+    Optional<String> result =
+        nearCache.getFromCache(cacheKey, new TypeReference<String>() {}, cacheName);
+
+    assertEquals(Optional.of("fresh"), result);
+  }
+
+  @Test
+  @DisplayName("Should ignore its own invalidation messages")
+  void shouldIgnoreOwnInvalidationMessages() {
+    ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+    nearCache.putToCache(cacheKey, "value", cacheName, null);
+    verify(stringRedisTemplate).convertAndSend(eq(CHANNEL), message.capture());
+
+    nearCache.onMessage(message(message.getValue()), null);
+    nearCache.onMessage(message("malformed"), null);
+    Optional<String> result =
+        nearCache.getFromCache(cacheKey, new TypeReference<String>() {}, cacheName);
+
+    assertEquals(Optional.of("value"), result);
+    verify(remoteCache, never()).getFromCache(any(), any(TypeReference.class), any());
+  }
+
+  @Test
+  @DisplayName("Should remove from both tiers and keep working when publish fails")
+  void shouldRemoveFromBothTiers() {
+    doThrow(RuntimeException.class).when(stringRedisTemplate).convertAndSend(anyString(), any());
+
+    nearCache.putToCache(cacheKey, "value", cacheName, Duration.ofMinutes(1));
+    nearCache.removeCache(cacheKey, cacheName);
+    nearCache.getFromCache(cacheKey, new TypeReference<String>() {}, cacheName);
+
+    verify(remoteCache).removeCache(cacheKey, cacheName);
+    verify(remoteCache).getFromCache(eq(cacheKey), any(TypeReference.class), eq(cacheName));
+    verify(stringRedisTemplate, times(2))
+        .convertAndSend(eq(CHANNEL), contains("|" + cacheName + ":" + cacheKey));
+  }
+
+  @Test
+  @DisplayName("Should publish the invalidation of a put only once the remote write is done")
+  void shouldPublishPutInvalidationAfterRemoteWrite() {
+    reset(remoteCache);
+
+    nearCache.putToCache(cacheKey, "value", cacheName, null);
+
+    ArgumentCaptor<Runnable> action = ArgumentCaptor.forClass(Runnable.class);
+    verify(remoteCache).afterWrites(action.capture());
+    verifyNoInteractions(stringRedisTemplate);
+    action.getValue().run();
+    verify(stringRedisTemplate).convertAndSend(eq(CHANNEL), endsWith(cacheName + ":" + cacheKey));
+  }
+
+  private double nearGets(String result) {
+    return meterRegistry
+        .get("bookdata.cache.gets")
+        .tags("cache", cacheName, "layer", "near", "result", result)
+        .counter()
+        .count();
+  }
+
+  private static Object runAction(Runnable action) {
+    action.run();
+    return null;
+  }
+
+  private static DefaultMessage message(String body) {
+    return new DefaultMessage(CHANNEL.getBytes(UTF_8), body.getBytes(UTF_8));
+  }
+
+  @Test
+  @DisplayName("Should only ask the remote cache for keys missing locally")
+  void shouldMultiGetRemoteOnlyForLocalMisses() {
+    nearCache.putToCache("a", "local", cacheName, null);
+    when(remoteCache.multiGet(eq(List.of("b", "c")), any(TypeReference.class), eq(cacheName)))
+        .thenReturn(Map.of("b", "remote"));
+
+    Map<String, String> first =
+        nearCache.multiGet(List.of("a", "b", "c"), new TypeReference<String>() {}, cacheName);
+    Map<String, String> second =
+        nearCache.multiGet(List.of("a", "b"), new TypeReference<String>() {}, cacheName);
+
+    assertEquals(Map.of("a", "local", "b", "remote"), first);
+    assertEquals(Map.of("a", "local", "b", "remote"), second);
+    verify(remoteCache, times(1)).multiGet(anyList(), any(TypeReference.class), anyString());
+  }
+
+  @Test
+  @DisplayName("Should multi-put remotely, fill the local tier and publish one invalidation")
+  void shouldMultiPutBothTiers() {
+    ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+    Map<String, String> entries = new LinkedHashMap<>();
+    entries.put("a", "first");
+    entries.put("b", "second");
+
+    nearCache.multiPut(entries, cacheName, Duration.ofMinutes(1));
+    nearCache.multiPut(Map.of(), cacheName, Duration.ofMinutes(1));
+
+    verify(remoteCache, times(1))
+        .multiPut(
+            Map.of(
+                "a", new CacheEntry<>("first", Duration.ofMinutes(1)),
+                "b", new CacheEntry<>("second", Duration.ofMinutes(1))),
+            cacheName);
+    verify(stringRedisTemplate, times(1)).convertAndSend(eq(CHANNEL), message.capture());
+    assertTrue(message.getValue().endsWith("|" + cacheName + ":a\n" + cacheName + ":b"));
+    assertEquals(
+        Map.of("a", "first", "b", "second"),
+        nearCache.multiGet(List.of("a", "b"), new TypeReference<String>() {}, cacheName));
+  }
+
+  @Test
+  @DisplayName("Should drop every local entry named in a batched invalidation")
+  void shouldInvalidateEveryKeyOfBatchedMessage() {
+    nearCache.multiPut(Map.of("a", "first", "b", "second"), cacheName, null);
+
+    nearCache.onMessage(
+        message("other-node|" + cacheName + ":a\n" + cacheName + ":b"), null);
+    when(remoteCache.multiGet(eq(List.of("a", "b")), any(TypeReference.class), eq(cacheName)))
+        .thenReturn(Map.of());
+
+    assertTrue(
+        nearCache.multiGet(List.of("a", "b"), new TypeReference<String>() {}, cacheName).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should multi-remove from both tiers and publish one invalidation")
+  void shouldMultiRemoveFromBothTiers() {
+    ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+    nearCache.multiPut(Map.of("a", "first"), cacheName, null);
+    when(remoteCache.multiGet(eq(List.of("a")), any(TypeReference.class), eq(cacheName)))
+        .thenReturn(Map.of());
+
+    nearCache.multiRemove(List.of("a", "b"), cacheName);
+    nearCache.multiRemove(List.of(), cacheName);
+
+    verify(remoteCache, times(1)).multiRemove(List.of("a", "b"), cacheName);
+    verify(stringRedisTemplate, times(2)).convertAndSend(eq(CHANNEL), message.capture());
+    assertTrue(message.getValue().endsWith("|" + cacheName + ":a\n" + cacheName + ":b"));
+    assertTrue(
+        nearCache.multiGet(List.of("a"), new TypeReference<String>() {}, cacheName).isEmpty());
+  }
+}
@@ -0,0 +1,126 @@
+package com.br.bookdata.domain.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+@ExtendWith(MockitoExtension.class)
+class RedisCacheGenerationsTest {
+
+  @Mock private StringRedisTemplate stringRedisTemplate;
+
+  @Mock private HashOperations<String, Object, Object> hashOperations;
+
+  @Test
+  @DisplayName("Should load the generations once and serve them locally until the refresh")
+  void shouldServeLocalCopyUntilRefresh() {
+    when(stringRedisTemplate.opsForHash()).thenReturn(hashOperations);
+    when(hashOperations.entries("bookdata:generations"))
+        .thenReturn(Map.of("BOOK_PAGED_KEY", "3"));
+    RedisCacheGenerations generations =
+        new RedisCacheGenerations(stringRedisTemplate, Duration.ofHours(1));
+
+    assertEquals(OptionalLong.of(3), generations.current("BOOK_PAGED_KEY"));
+    assertEquals(OptionalLong.of(0), generations.current("BOOK_ID_KEY"));
+    verify(hashOperations, times(1)).entries("bookdata:generations");
+  }
+
+  @Test
+  @DisplayName("Should bump every family in one script and apply the result right away")
+  @SuppressWarnings("unchecked")
+  void shouldApplyBumpLocally() {
+    when(stringRedisTemplate.opsForHash()).thenReturn(hashOperations);
+    when(hashOperations.entries("bookdata:generations"))
+        .thenReturn(Map.of("BOOK_PAGED_KEY", "1"));
+    when(stringRedisTemplate.execute(
+            any(RedisScript.class),
+            eq(List.of("bookdata:generations")),
+            eq("BOOK_PAGED_KEY"),
+            eq("BOOK_TOTAL_KEY")))
+        .thenReturn(List.of(2L, 1L));
+    RedisCacheGenerations generations =
+        new RedisCacheGenerations(stringRedisTemplate, Duration.ZERO);
+
+    assertEquals(OptionalLong.of(1), generations.current("BOOK_PAGED_KEY"));
+    generations.bump(List.of("BOOK_PAGED_KEY", "BOOK_TOTAL_KEY"));
+
+    assertEquals(OptionalLong.of(2), generations.current("BOOK_PAGED_KEY"));
+    assertEquals(OptionalLong.of(1), generations.current("BOOK_TOTAL_KEY"));
+    verify(hashOperations, never()).increment(any(), any(), anyLong());
+  }
+
+  @Test
+  @DisplayName("Should report generations as unknown until a load succeeds")
+  void shouldBeUnknownUntilLoaded() {
+    when(stringRedisTemplate.opsForHash()).thenReturn(hashOperations);
+    when(hashOperations.entries("bookdata:generations"))
+        .thenThrow(RedisConnectionFailureException.class)
+        .thenReturn(Map.of("BOOK_ID_KEY", "4"));
+    RedisCacheGenerations generations =
+        new RedisCacheGenerations(stringRedisTemplate, Duration.ZERO);
+
+    assertEquals(OptionalLong.empty(), generations.current("BOOK_ID_KEY"));
+    assertEquals(OptionalLong.of(4), generations.current("BOOK_ID_KEY"));
+  }
+
+  @Test
+  @DisplayName("Should not retry a failed first load before the refresh interval")
+  void shouldThrottleFailedLoads() {
+    when(stringRedisTemplate.opsForHash()).thenReturn(hashOperations);
+    when(hashOperations.entries("bookdata:generations"))
+        .thenThrow(RedisConnectionFailureException.class);
+    RedisCacheGenerations generations =
+        new RedisCacheGenerations(stringRedisTemplate, Duration.ofHours(1));
+
+    assertEquals(OptionalLong.empty(), generations.current("BOOK_ID_KEY"));
+    assertEquals(OptionalLong.empty(), generations.current("BOOK_ID_KEY"));
+    verify(hashOperations, times(1)).entries("bookdata:generations");
+  }
+
+  @Test
+  @DisplayName("Should keep serving the last generations when a refresh fails")
+  void shouldKeepGenerationsOnFailure() {
+    when(stringRedisTemplate.opsForHash()).thenReturn(hashOperations);
+    when(hashOperations.entries("bookdata:generations"))
+        .thenReturn(Map.of("BOOK_TOTAL_KEY", "4"))
+        .thenThrow(RedisConnectionFailureException.class);
+    RedisCacheGenerations generations =
+        new RedisCacheGenerations(stringRedisTemplate, Duration.ZERO);
+
+    assertEquals(OptionalLong.of(4), generations.current("BOOK_TOTAL_KEY"));
+    assertEquals(OptionalLong.of(4), generations.current("BOOK_TOTAL_KEY"));
+    assertEquals(OptionalLong.of(0), generations.current("BOOK_ID_KEY"));
+  }
+
+  @Test
+  @DisplayName("Should leave the generations untouched when the bump fails")
+  @SuppressWarnings("unchecked")
+  void shouldIgnoreFailedBump() {
+    when(stringRedisTemplate.opsForHash()).thenReturn(hashOperations);
+    when(hashOperations.entries("bookdata:generations")).thenReturn(Map.of());
+    when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+        .thenThrow(RedisConnectionFailureException.class);
+    RedisCacheGenerations generations =
+        new RedisCacheGenerations(stringRedisTemplate, Duration.ofHours(1));
+
+    generations.bump(List.of("BOOK_ID_KEY"));
+    generations.bump(List.of());
+
+    assertEquals(OptionalLong.of(0), generations.current("BOOK_ID_KEY"));
+  }
+}
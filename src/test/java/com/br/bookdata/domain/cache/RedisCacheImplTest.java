@@ -3,9 +3,15 @@ package com.br.bookdata.domain.cache;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.br.bookdata.domain.cache.codec.ValueCodecRegistry;
+import com.br.bookdata.domain.timing.StageTimings;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,19 +20,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.ValueOperations;
 
 @ExtendWith(MockitoExtension.class)
 class RedisCacheImplTest {
 
-  @InjectMocks private RedisCacheImpl redisCache;
+  private RedisCacheImpl redisCache;
 
-  @Mock private RedisTemplate<String, Object> redisTemplate;
-  @Mock private ValueOperations<String, Object> valueOperations;
+  @Mock private RedisTemplate<String, byte[]> redisTemplate;
+  @Mock private ValueOperations<String, byte[]> valueOperations;
 
-  @Mock private ObjectMapper objectMapper;
+  @Mock private ValueCodecRegistry codecRegistry;
 
+  private SimpleMeterRegistry meterRegistry;
   private String cacheKey;
   private String cacheName;
 
@@ -34,6 +43,28 @@ class RedisCacheImplTest {
   void setUp() {
     cacheKey = "book-cache-key";
     cacheName = "book-cache";
+    meterRegistry = new SimpleMeterRegistry();
+    redisCache =
+        new RedisCacheImpl(
+            redisTemplate,
+            codecRegistry,
+            new CacheMetrics(meterRegistry),
+            new StageTimings(meterRegistry, false),
+            2);
+  }
+
+  @Test
+  @DisplayName("Should reject a chunk size that is not positive")
+  void shouldRejectNonPositiveChunkSize() {
+    CacheMetrics metrics = new CacheMetrics(meterRegistry);
+    StageTimings timings = new StageTimings(meterRegistry, false);
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new RedisCacheImpl(redisTemplate, codecRegistry, metrics, timings, 0));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new RedisCacheImpl(redisTemplate, codecRegistry, metrics, timings, -1));
   }
 
   @Test
@@ -41,9 +72,11 @@ class RedisCacheImplTest {
   void shouldGetFromCacheOnHit() {
     String prefixedKey = cacheName + ":" + cacheKey;
     Object value = new Object();
+    byte[] payload = new byte[] {1, 2, 3};
     when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-    when(valueOperations.get(prefixedKey)).thenReturn(value);
-    when(objectMapper.convertValue(any(), any(TypeReference.class))).thenReturn(value);
+    when(valueOperations.get(prefixedKey)).thenReturn(payload);
+    when(codecRegistry.decode(eq(cacheKey), eq(payload), any(TypeReference.class)))
+        .thenReturn(value);
 
     Optional<Object> result =
         redisCache.getFromCache(cacheKey, new TypeReference<Object>() {}, cacheName);
@@ -54,6 +87,39 @@ class RedisCacheImplTest {
     verify(valueOperations, times(1)).get(prefixedKey);
   }
 
+  @Test
+  @DisplayName("Should tag each key family of a mixed batch with its own gets and latency")
+  void shouldRecordMixedBatchMetricsByFamily() {
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.multiGet(List.of(cacheName + ":book-id-1", cacheName + ":book-id-2")))
+        .thenReturn(Arrays.asList(new byte[] {1}, new byte[] {2}));
+    when(valueOperations.multiGet(List.of(cacheName + ":books-page-size-0-10")))
+        .thenReturn(Arrays.asList((byte[]) null));
+    when(codecRegistry.decode(anyString(), any(), any(TypeReference.class))).thenReturn("book");
+    when(codecRegistry.encode(anyString(), any())).thenReturn(new byte[] {1});
+
+    redisCache.multiGet(
+        List.of("book-id-1", "books-page-size-0-10", "book-id-2"),
+        new TypeReference<Object>() {},
+        cacheName);
+    redisCache.multiPut(
+        Map.of("book-id-1", "book", "books-page-size-0-10", "page"), cacheName, null);
+
+    assertEquals(2, gets("BOOK_ID_KEY", "hit"));
+    assertEquals(1, gets("BOOK_PAGED_KEY", "miss"));
+    for (String family : List.of("BOOK_ID_KEY", "BOOK_PAGED_KEY")) {
+      for (String operation : List.of("multi_get", "multi_put")) {
+        assertEquals(
+            1,
+            meterRegistry
+                .get("bookdata.cache.latency")
+                .tags("family", family, "operation", operation)
+                .timer()
+                .count());
+      }
+    }
+  }
+
   @Test
   @DisplayName("Should return empty on cache miss")
   void shouldReturnEmptyOnCacheMiss() {
@@ -70,6 +136,46 @@ class RedisCacheImplTest {
     verify(valueOperations, times(1)).get(prefixedKey);
   }
 
+  @Test
+  @DisplayName("Should count hits and misses and record latency and payload size by key family")
+  void shouldRecordCacheMetrics() {
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.get(cacheName + ":book-id-v2:1")).thenReturn(new byte[] {1, 2, 3});
+    when(valueOperations.multiGet(List.of(cacheName + ":book-id-2", cacheName + ":book-id-3")))
+        .thenReturn(Arrays.asList(new byte[] {1}, null));
+    when(codecRegistry.decode(anyString(), any(), any(TypeReference.class))).thenReturn("book");
+
+    redisCache.getFromCache("book-id-v2:1", new TypeReference<Object>() {}, cacheName);
+    redisCache.getFromCache("books-page-size-0-10", new TypeReference<Object>() {}, cacheName);
+    redisCache.multiGet(
+        List.of("book-id-2", "book-id-3"), new TypeReference<Object>() {}, cacheName);
+
+    assertEquals(2, gets("BOOK_ID_KEY", "hit"));
+    assertEquals(1, gets("BOOK_ID_KEY", "miss"));
+    assertEquals(1, gets("BOOK_PAGED_KEY", "miss"));
+    assertEquals(
+        1,
+        meterRegistry
+            .get("bookdata.cache.latency")
+            .tags("cache", cacheName, "family", "BOOK_PAGED_KEY", "operation", "get")
+            .timer()
+            .count());
+    assertEquals(
+        1,
+        meterRegistry
+            .get("bookdata.cache.latency")
+            .tags("family", "BOOK_ID_KEY", "operation", "multi_get")
+            .timer()
+            .count());
+    assertEquals(
+        4,
+        meterRegistry
+            .get("bookdata.cache.payload.size")
+            .tags("family", "BOOK_ID_KEY", "operation", "get")
+            .summary()
+            .totalAmount());
+  }
+
   @Test
   @DisplayName("Should return empty on Redis connection failure")
   void shouldReturnEmptyOnRedisConnectionFailure() {
@@ -102,31 +208,56 @@ class RedisCacheImplTest {
     verify(valueOperations, times(1)).get(prefixedKey);
   }
 
+  @Test
+  @DisplayName("Should count, drop and miss an entry that cannot be decoded")
+  void shouldReturnEmptyOnDecodeFailure() {
+    String prefixedKey = cacheName + ":" + cacheKey;
+    byte[] payload = new byte[] {1, 2, 3};
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.get(prefixedKey)).thenReturn(payload);
+    when(codecRegistry.decode(eq(cacheKey), eq(payload), any(TypeReference.class)))
+        .thenThrow(IllegalArgumentException.class);
+
+    Optional<Object> result =
+        redisCache.getFromCache(cacheKey, new TypeReference<Object>() {}, cacheName);
+
+    assertFalse(result.isPresent());
+    verify(redisTemplate).delete(List.of(prefixedKey));
+    assertEquals(1.0, meterRegistry.get("bookdata.cache.decode.failures").counter().count());
+    assertEquals(
+        1.0,
+        meterRegistry.get("bookdata.cache.gets").tag("result", "miss").counter().count());
+  }
+
   @Test
   @DisplayName("Should store data in cache with expiration")
   void shouldPutToCacheWithExpiration() {
     Object value = new Object();
+    byte[] payload = new byte[] {1, 2, 3};
     Duration expiration = Duration.ofHours(1);
     String prefixedKey = cacheName + ":" + cacheKey;
 
     when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(codecRegistry.encode(cacheKey, value)).thenReturn(payload);
 
     redisCache.putToCache(cacheKey, value, cacheName, expiration);
 
-    verify(valueOperations, times(1)).set(prefixedKey, value, expiration);
+    verify(valueOperations, times(1)).set(prefixedKey, payload, expiration);
   }
 
   @Test
   @DisplayName("Should store data in cache without expiration")
   void shouldPutToCacheWithoutExpiration() {
     Object value = new Object();
+    byte[] payload = new byte[] {1, 2, 3};
     String prefixedKey = cacheName + ":" + cacheKey;
 
     when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(codecRegistry.encode(cacheKey, value)).thenReturn(payload);
 
     redisCache.putToCache(cacheKey, value, cacheName, null);
 
-    verify(valueOperations, times(1)).set(prefixedKey, value);
+    verify(valueOperations, times(1)).set(prefixedKey, payload);
   }
 
   @Test
@@ -183,8 +314,184 @@ class RedisCacheImplTest {
   @Test
   @DisplayName("Should remove data from cache")
   void shouldRemoveFromCache() {
-    redisCache.removeCache(cacheKey);
+    redisCache.removeCache(cacheKey, cacheName);
+
+    verify(redisTemplate, times(1)).delete(cacheName + ":" + cacheKey);
+  }
+
+  @Test
+  @DisplayName("Should swallow failures of a remove")
+  void shouldSwallowRemoveFailure() {
+    when(redisTemplate.delete(anyString())).thenThrow(RedisConnectionFailureException.class);
+
+    assertDoesNotThrow(() -> redisCache.removeCache(cacheKey, cacheName));
+  }
+
+  @Test
+  @DisplayName("Should resolve several keys with a single MGET and skip the misses")
+  void shouldMultiGet() {
+    Object value = new Object();
+    byte[] payload = new byte[] {1, 2, 3};
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.multiGet(List.of(cacheName + ":a", cacheName + ":b")))
+        .thenReturn(Arrays.asList(payload, null));
+    when(codecRegistry.decode(eq("a"), eq(payload), any(TypeReference.class))).thenReturn(value);
+
+    Map<String, Object> result =
+        redisCache.multiGet(List.of("a", "b"), new TypeReference<Object>() {}, cacheName);
+
+    assertEquals(Map.of("a", value), result);
+    verify(valueOperations, never()).get(anyString());
+  }
+
+  @Test
+  @DisplayName("Should return no entries when the multi-get fails or has no keys")
+  void shouldReturnEmptyOnMultiGetFailure() {
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.multiGet(anyList())).thenThrow(RedisConnectionFailureException.class);
+
+    assertTrue(
+        redisCache.multiGet(List.of("a"), new TypeReference<Object>() {}, cacheName).isEmpty());
+    assertTrue(
+        redisCache.multiGet(List.of(), new TypeReference<Object>() {}, cacheName).isEmpty());
+    verify(valueOperations, times(1)).multiGet(anyList());
+  }
+
+  @Test
+  @DisplayName("Should write every entry of a multi-put in one pipeline")
+  @SuppressWarnings("unchecked")
+  void shouldMultiPutInOnePipeline() {
+    byte[] first = new byte[] {1};
+    byte[] second = new byte[] {2};
+    Map<String, Object> entries = new LinkedHashMap<>();
+    entries.put("a", "first");
+    entries.put("b", "second");
+    when(codecRegistry.encode("a", "first")).thenReturn(first);
+    when(codecRegistry.encode("b", "second")).thenReturn(second);
+    when(codecRegistry.encode("c", "third")).thenReturn(new byte[] {3});
+    RedisOperations<String, byte[]> operations = mock(RedisOperations.class);
+    when(operations.opsForValue()).thenReturn(valueOperations);
+    when(redisTemplate.executePipelined(any(SessionCallback.class)))
+        .thenAnswer(
+            invocation -> {
+              invocation.<SessionCallback<Object>>getArgument(0).execute(operations);
+              return List.of();
+            });
+
+    redisCache.multiPut(entries, cacheName, Duration.ofMinutes(5));
+    redisCache.multiPut(Map.of("c", "third"), cacheName, null);
+    redisCache.multiPut(Map.of(), cacheName, null);
+
+    verify(valueOperations).set(cacheName + ":a", first, Duration.ofMinutes(5));
+    verify(valueOperations).set(cacheName + ":b", second, Duration.ofMinutes(5));
+    verify(valueOperations).set(eq(cacheName + ":c"), any());
+    verify(redisTemplate, times(2)).executePipelined(any(SessionCallback.class));
+  }
+
+  @Test
+  @DisplayName("Should swallow failures of a multi-put")
+  void shouldSwallowMultiPutFailure() {
+    when(codecRegistry.encode("a", "first")).thenReturn(new byte[] {1});
+    when(redisTemplate.executePipelined(any(SessionCallback.class)))
+        .thenThrow(RedisConnectionFailureException.class);
+
+    assertDoesNotThrow(() -> redisCache.multiPut(Map.of("a", "first"), cacheName, null));
+  }
+
+  @Test
+  @DisplayName("Should split a multi-get in chunks and keep the request order")
+  void shouldMultiGetInChunks() {
+    byte[] first = new byte[] {1};
+    byte[] third = new byte[] {3};
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.multiGet(List.of(cacheName + ":a", cacheName + ":b")))
+        .thenReturn(Arrays.asList(first, null));
+    when(valueOperations.multiGet(List.of(cacheName + ":c"))).thenReturn(List.of(third));
+    when(codecRegistry.decode(eq("a"), eq(first), any(TypeReference.class))).thenReturn("A");
+    when(codecRegistry.decode(eq("c"), eq(third), any(TypeReference.class))).thenReturn("C");
+
+    Map<String, String> result =
+        redisCache.multiGet(List.of("a", "b", "c"), new TypeReference<String>() {}, cacheName);
+
+    assertEquals(List.of("a", "c"), List.copyOf(result.keySet()));
+    verify(valueOperations, times(2)).multiGet(anyList());
+  }
+
+  @Test
+  @DisplayName("Should drop undecodable entries of a multi-get and keep reading the other chunks")
+  void shouldSkipUndecodableEntriesOfMultiGet() {
+    byte[] first = new byte[] {1};
+    byte[] second = new byte[] {2};
+    byte[] third = new byte[] {3};
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.multiGet(List.of(cacheName + ":a", cacheName + ":b")))
+        .thenReturn(List.of(first, second));
+    when(valueOperations.multiGet(List.of(cacheName + ":c"))).thenReturn(List.of(third));
+    when(codecRegistry.decode(eq("a"), eq(first), any(TypeReference.class)))
+        .thenThrow(IllegalArgumentException.class);
+    when(codecRegistry.decode(eq("b"), eq(second), any(TypeReference.class))).thenReturn("B");
+    when(codecRegistry.decode(eq("c"), eq(third), any(TypeReference.class))).thenReturn("C");
+
+    Map<String, String> result =
+        redisCache.multiGet(List.of("a", "b", "c"), new TypeReference<String>() {}, cacheName);
+
+    assertEquals(Map.of("b", "B", "c", "C"), result);
+    verify(redisTemplate).delete(List.of(cacheName + ":a"));
+    assertEquals(1.0, meterRegistry.get("bookdata.cache.decode.failures").counter().count());
+  }
+
+  @Test
+  @DisplayName("Should keep each entry's own TTL and open one pipeline per chunk")
+  @SuppressWarnings("unchecked")
+  void shouldMultiPutWithPerEntryTtlInChunks() {
+    Map<String, CacheEntry<String>> entries = new LinkedHashMap<>();
+    entries.put("a", new CacheEntry<>("first", Duration.ofMinutes(1)));
+    entries.put("b", new CacheEntry<>("second", Duration.ofMinutes(2)));
+    entries.put("c", new CacheEntry<>("third", null));
+    when(codecRegistry.encode(anyString(), any())).thenReturn(new byte[] {1});
+    RedisOperations<String, byte[]> operations = mock(RedisOperations.class);
+    when(operations.opsForValue()).thenReturn(valueOperations);
+    when(redisTemplate.executePipelined(any(SessionCallback.class)))
+        .thenAnswer(
+            invocation -> {
+              invocation.<SessionCallback<Object>>getArgument(0).execute(operations);
+              return List.of();
+            });
+
+    redisCache.multiPut(entries, cacheName);
+
+    verify(valueOperations).set(eq(cacheName + ":a"), any(), eq(Duration.ofMinutes(1)));
+    verify(valueOperations).set(eq(cacheName + ":b"), any(), eq(Duration.ofMinutes(2)));
+    verify(valueOperations).set(eq(cacheName + ":c"), any());
+    verify(redisTemplate, times(2)).executePipelined(any(SessionCallback.class));
+  }
+
+  @Test
+  @DisplayName("Should delete prefixed keys with one DEL per chunk")
+  void shouldMultiRemoveInChunks() {
+    when(redisTemplate.delete(anyCollection())).thenReturn(2L, 1L);
+
+    redisCache.multiRemove(List.of("a", "b", "c"), cacheName);
+    redisCache.multiRemove(List.of(), cacheName);
+
+    verify(redisTemplate).delete(List.of(cacheName + ":a", cacheName + ":b"));
+    verify(redisTemplate).delete(List.of(cacheName + ":c"));
+    verify(redisTemplate, times(2)).delete(anyCollection());
+  }
+
+  @Test
+  @DisplayName("Should swallow failures of a multi-remove")
+  void shouldSwallowMultiRemoveFailure() {
+    when(redisTemplate.delete(anyCollection())).thenThrow(RedisConnectionFailureException.class);
+
+    assertDoesNotThrow(() -> redisCache.multiRemove(List.of("a"), cacheName));
+  }
 
-    verify(redisTemplate, times(1)).delete(cacheKey);
+  private double gets(String family, String result) {
+    return meterRegistry
+        .get("bookdata.cache.gets")
+        .tags("cache", cacheName, "family", family, "layer", "redis", "result", result)
+        .counter()
+        .count();
   }
 }
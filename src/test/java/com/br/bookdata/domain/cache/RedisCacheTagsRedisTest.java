@@ -0,0 +1,124 @@
+package com.br.bookdata.domain.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Runs the tag scripts against a real redis-server. Skipped unless one answers on
+ * SPRING_DATA_REDIS_HOST / SPRING_DATA_REDIS_PORT (localhost:6379 by default).
+ */
+@DisplayName("RedisCacheTags against a local redis-server")
+class RedisCacheTagsRedisTest {
+
+  private LettuceConnectionFactory connectionFactory;
+  private StringRedisTemplate stringRedisTemplate;
+  private RedisCacheTags cacheTags;
+  private String genreTag;
+  private String authorTag;
+
+  @BeforeEach
+  void setUp() {
+    String host = System.getenv().getOrDefault("SPRING_DATA_REDIS_HOST", "localhost");
+    int port = Integer.parseInt(System.getenv().getOrDefault("SPRING_DATA_REDIS_PORT", "6379"));
+    connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+    connectionFactory.afterPropertiesSet();
+    connectionFactory.start();
+    try (RedisConnection connection = connectionFactory.getConnection()) {
+      connection.ping();
+    } catch (Exception e) {
+      Assumptions.abort("No redis-server reachable at " + host + ":" + port);
+    }
+    stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    cacheTags = new RedisCacheTags(stringRedisTemplate);
+    genreTag = "genre:tags-test-" + UUID.randomUUID();
+    authorTag = "author:tags-test-" + UUID.randomUUID();
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (stringRedisTemplate != null) {
+      stringRedisTemplate.delete(List.of("bookdata:tag:" + genreTag, "bookdata:tag:" + authorTag));
+      stringRedisTemplate.opsForHash().delete("bookdata:tag-versions", genreTag, authorTag);
+    }
+    connectionFactory.destroy();
+  }
+
+  @Test
+  @DisplayName("Should refuse to tag with a version read before the tag was popped")
+  void shouldRefuseVersionReadBeforePop() {
+    String version = cacheTags.version(genreTag);
+    assertTrue(cacheTags.isCurrent(genreTag, version));
+
+    cacheTags.pop(List.of(genreTag));
+
+    assertFalse(cacheTags.isCurrent(genreTag, version));
+    assertFalse(
+        cacheTags.tag(
+            "books", "books-page-size-genre-0-10-X", genreTag, Duration.ofMinutes(1), version));
+    assertTrue(cacheTags.pop(List.of(genreTag)).isEmpty());
+    assertTrue(
+        cacheTags.tag(
+            "books",
+            "books-page-size-genre-0-10-X",
+            genreTag,
+            Duration.ofMinutes(1),
+            cacheTags.version(genreTag)));
+  }
+
+  @Test
+  @DisplayName("Should expire tag sets with their longest-lived member and pop them only once")
+  void shouldPopTaggedKeysOnce() {
+    tag("books", "books-page-size-genre-0-10-X", genreTag, Duration.ofSeconds(30));
+    tag("books", "books-page-size-genre-1-10-X", genreTag, Duration.ofMinutes(1));
+    tag(
+        "rendered-responses",
+        "response-books-page-size-genre-0-10-X",
+        genreTag,
+        Duration.ofSeconds(30));
+    tag("books", "books-page-size-genre-author-0-10-Y", authorTag, Duration.ofMinutes(1));
+
+    Long expiry = stringRedisTemplate.getExpire("bookdata:tag:" + genreTag);
+    Map<String, List<String>> popped = cacheTags.pop(List.of(genreTag));
+
+    assertTrue(expiry != null && expiry > 30 && expiry <= 60);
+    assertEquals(2, popped.get("books").size());
+    assertTrue(popped.get("books").contains("books-page-size-genre-1-10-X"));
+    assertEquals(
+        List.of("response-books-page-size-genre-0-10-X"), popped.get("rendered-responses"));
+    assertTrue(cacheTags.pop(List.of(genreTag)).isEmpty());
+    assertEquals(
+        Map.of("books", List.of("books-page-size-genre-author-0-10-Y")),
+        cacheTags.pop(List.of(authorTag)));
+  }
+
+  @Test
+  @DisplayName("Should drop expired members when tagging so sets kept alive stay bounded")
+  void shouldPruneExpiredMembers() throws InterruptedException {
+    tag("books", "books-cursor-1-10", genreTag, Duration.ofMillis(50));
+    tag("books", "books-cursor-2-10", genreTag, Duration.ofMinutes(1));
+    Thread.sleep(100);
+    tag("books", "books-cursor-3-10", genreTag, Duration.ofMinutes(1));
+
+    assertEquals(2L, stringRedisTemplate.opsForZSet().zCard("bookdata:tag:" + genreTag));
+    assertEquals(
+        Map.of("books", List.of("books-cursor-2-10", "books-cursor-3-10")),
+        cacheTags.pop(List.of(genreTag)));
+  }
+
+  private void tag(String cacheName, String key, String tag, Duration ttl) {
+    assertTrue(cacheTags.tag(cacheName, key, tag, ttl, cacheTags.version(tag)));
+  }
+}
@@ -0,0 +1,141 @@
+package com.br.bookdata.domain.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+@ExtendWith(MockitoExtension.class)
+class RedisCacheTagsTest {
+
+  @Mock private StringRedisTemplate stringRedisTemplate;
+
+  private RedisCacheTags cacheTags;
+
+  @BeforeEach
+  void setUp() {
+    cacheTags = new RedisCacheTags(stringRedisTemplate);
+  }
+
+  @Test
+  @DisplayName("Should add the prefixed key to the tag set in one script checking the version")
+  @SuppressWarnings("unchecked")
+  void shouldTagWithScript() {
+    when(stringRedisTemplate.execute(
+            any(RedisScript.class),
+            eq(List.of("bookdata:tag-versions", "bookdata:tag:genre:fiction")),
+            eq("books:books-page-size-genre-0-10-FICTION"),
+            eq("600000"),
+            eq("genre:fiction"),
+            any()))
+        .thenReturn(1L, -1L);
+
+    assertTrue(
+        cacheTags.tag(
+            "books",
+            "books-page-size-genre-0-10-FICTION",
+            "genre:fiction",
+            Duration.ofMinutes(10),
+            "1:0"));
+    assertFalse(
+        cacheTags.tag(
+            "books",
+            "books-page-size-genre-0-10-FICTION",
+            "genre:fiction",
+            Duration.ofMinutes(10),
+            "0:0"));
+  }
+
+  @Test
+  @DisplayName("Should keep serving, without tagging, when a tag cannot be written")
+  @SuppressWarnings("unchecked")
+  void shouldSwallowTagFailure() {
+    when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+        .thenThrow(RedisConnectionFailureException.class);
+
+    assertFalse(
+        cacheTags.tag("books", "books-page-size-0-10", "all", Duration.ofMinutes(10), "0:0"));
+  }
+
+  @Test
+  @DisplayName("Should read tag versions and never accept one read while Redis failed")
+  @SuppressWarnings("unchecked")
+  void shouldReadVersions() {
+    when(stringRedisTemplate.execute(
+            any(RedisScript.class), eq(List.of("bookdata:tag-versions")), eq("all")))
+        .thenReturn("2:1")
+        .thenReturn("2:1")
+        .thenThrow(RedisConnectionFailureException.class);
+
+    assertEquals("2:1", cacheTags.version("all"));
+    assertTrue(cacheTags.isCurrent("all", "2:1"));
+    assertEquals("-", cacheTags.version("all"));
+    assertFalse(cacheTags.isCurrent("all", "-"));
+  }
+
+  @Test
+  @DisplayName("Should move every tag to a new version when all lists are retired")
+  @SuppressWarnings("unchecked")
+  void shouldRetireAllTagVersions() {
+    HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+    when(stringRedisTemplate.opsForHash()).thenReturn(hashOperations);
+
+    cacheTags.retireAll();
+
+    verify(hashOperations).increment("bookdata:tag-versions", "*", 1);
+  }
+
+  @Test
+  @DisplayName("Should pop the tag sets in one script and group their members by cache name")
+  @SuppressWarnings("unchecked")
+  void shouldPopMembersByCacheName() {
+    when(stringRedisTemplate.execute(
+            any(RedisScript.class),
+            eq(
+                List.of(
+                    "bookdata:tag-versions", "bookdata:tag:all", "bookdata:tag:genre:fiction")),
+            eq("all"),
+            eq("genre:fiction")))
+        .thenReturn(
+            List.of(
+                "books:books-page-size-0-10",
+                "rendered-responses:response-books-page-size-0-10",
+                "books:books-total-exact-genre-FICTION",
+                "books:books-page-size-0-10"));
+
+    Map<String, List<String>> keys = cacheTags.pop(List.of("all", "genre:fiction"));
+
+    assertEquals(
+        Map.of(
+            "books",
+            List.of("books-page-size-0-10", "books-total-exact-genre-FICTION"),
+            "rendered-responses",
+            List.of("response-books-page-size-0-10")),
+        keys);
+  }
+
+  @Test
+  @DisplayName("Should return nothing for no tags or when Redis fails")
+  @SuppressWarnings("unchecked")
+  void shouldReturnNothingOnFailure() {
+    when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+        .thenThrow(RedisConnectionFailureException.class);
+
+    assertTrue(cacheTags.pop(List.of()).isEmpty());
+    assertTrue(cacheTags.pop(List.of("all")).isEmpty());
+    verify(stringRedisTemplate, times(1))
+        .execute(any(RedisScript.class), anyList(), any(Object[].class));
+  }
+}
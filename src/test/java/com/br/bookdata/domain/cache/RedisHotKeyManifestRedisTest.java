@@ -0,0 +1,75 @@
+package com.br.bookdata.domain.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Runs the time-bucketed manifest against a real redis-server. Skipped unless one answers on
+ * SPRING_DATA_REDIS_HOST / SPRING_DATA_REDIS_PORT (localhost:6379 by default).
+ */
+@DisplayName("RedisHotKeyManifest against a local redis-server")
+class RedisHotKeyManifestRedisTest {
+  private static final Duration BUCKET = Duration.ofMillis(300);
+
+  private LettuceConnectionFactory connectionFactory;
+  private StringRedisTemplate stringRedisTemplate;
+  private String key;
+
+  @BeforeEach
+  void setUp() {
+    String host = System.getenv().getOrDefault("SPRING_DATA_REDIS_HOST", "localhost");
+    int port = Integer.parseInt(System.getenv().getOrDefault("SPRING_DATA_REDIS_PORT", "6379"));
+    connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+    connectionFactory.afterPropertiesSet();
+    connectionFactory.start();
+    try (RedisConnection connection = connectionFactory.getConnection()) {
+      connection.ping();
+    } catch (Exception e) {
+      Assumptions.abort("No redis-server reachable at " + host + ":" + port);
+    }
+    stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    key = "hot-keys-test-" + UUID.randomUUID();
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (stringRedisTemplate != null) {
+      stringRedisTemplate.delete(stringRedisTemplate.keys(key + ":*"));
+    }
+    connectionFactory.destroy();
+  }
+
+  @Test
+  @DisplayName("Should let a newly hot key displace one that stopped being requested")
+  void shouldDisplaceStaleHotKey() throws InterruptedException {
+    RedisHotKeyManifest manifest = new RedisHotKeyManifest(stringRedisTemplate, key, 1, BUCKET, 2);
+    awaitNextBucket();
+
+    manifest.incrementAll(Map.of("id|1", 1000L));
+    awaitNextBucket();
+    manifest.incrementAll(Map.of("id|2", 5L));
+
+    assertEquals(List.of("id|1", "id|2"), manifest.top(2));
+    awaitNextBucket();
+    manifest.incrementAll(Map.of("id|2", 5L));
+    assertEquals(List.of("id|2"), manifest.top(2));
+  }
+
+  private static void awaitNextBucket() throws InterruptedException {
+    long bucketMillis = BUCKET.toMillis();
+    Thread.sleep(bucketMillis - System.currentTimeMillis() % bucketMillis + 20);
+  }
+}
@@ -0,0 +1,100 @@
+package com.br.bookdata.domain.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+@ExtendWith(MockitoExtension.class)
+class RedisHotKeyManifestTest {
+  private static final String KEY = "bookdata:hot-keys";
+
+  @Mock private StringRedisTemplate stringRedisTemplate;
+  @Mock private RedisOperations<String, String> operations;
+  @Mock private ZSetOperations<String, String> zSetOperations;
+
+  private RedisHotKeyManifest manifest;
+
+  @BeforeEach
+  void setUp() {
+    manifest = new RedisHotKeyManifest(stringRedisTemplate, KEY, 100, Duration.ofHours(1), 3);
+  }
+
+  @Test
+  @DisplayName("Should add the hits to the current bucket, trim it and expire it in one pipeline")
+  @SuppressWarnings("unchecked")
+  void shouldIncrementAndTrim() {
+    String bucketKey = KEY + ":" + System.currentTimeMillis() / Duration.ofHours(1).toMillis();
+    when(operations.opsForZSet()).thenReturn(zSetOperations);
+    when(stringRedisTemplate.executePipelined(any(SessionCallback.class)))
+        .thenAnswer(
+            invocation -> {
+              invocation.getArgument(0, SessionCallback.class).execute(operations);
+              return List.of();
+            });
+
+    manifest.incrementAll(Map.of("id|1", 3L));
+
+    verify(zSetOperations).incrementScore(bucketKey, "id|1", 3L);
+    verify(zSetOperations).removeRange(bucketKey, 0, -101L);
+    verify(operations).expire(bucketKey, Duration.ofHours(3));
+  }
+
+  @Test
+  @DisplayName("Should skip Redis for no hits and swallow Redis failures")
+  @SuppressWarnings("unchecked")
+  void shouldIgnoreEmptyHitsAndFailures() {
+    manifest.incrementAll(Map.of());
+    verifyNoInteractions(stringRedisTemplate);
+
+    when(stringRedisTemplate.executePipelined(any(SessionCallback.class)))
+        .thenThrow(RedisConnectionFailureException.class);
+
+    assertDoesNotThrow(() -> manifest.incrementAll(Map.of("id|1", 1L)));
+  }
+
+  @Test
+  @DisplayName("Should merge the buckets of the window and read the hottest members first")
+  void shouldReadTop() {
+    long bucket = System.currentTimeMillis() / Duration.ofHours(1).toMillis();
+    ArgumentCaptor<String> mergedKey = ArgumentCaptor.forClass(String.class);
+    when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+    when(zSetOperations.reverseRange(startsWith(KEY + ":merged:"), eq(0L), eq(1L)))
+        .thenReturn(new LinkedHashSet<>(List.of("id|7", "all|0|10")));
+
+    assertEquals(List.of("id|7", "all|0|10"), manifest.top(2));
+    verify(zSetOperations)
+        .unionAndStore(
+            eq(KEY + ":" + bucket),
+            eq(List.of(KEY + ":" + (bucket - 1), KEY + ":" + (bucket - 2))),
+            mergedKey.capture());
+    verify(stringRedisTemplate).delete(mergedKey.getValue());
+  }
+
+  @Test
+  @DisplayName("Should return no members when the set is missing or Redis fails")
+  void shouldReturnEmptyTopOnFailure() {
+    when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+    when(zSetOperations.reverseRange(anyString(), eq(0L), eq(1L))).thenReturn(null);
+    when(zSetOperations.reverseRange(anyString(), eq(0L), eq(2L)))
+        .thenThrow(RedisConnectionFailureException.class);
+
+    assertTrue(manifest.top(2).isEmpty());
+    assertTrue(manifest.top(3).isEmpty());
+  }
+}
@@ -0,0 +1,151 @@
+package com.br.bookdata.domain.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Runs the lease against a real redis-server. Skipped unless one answers on SPRING_DATA_REDIS_HOST
+ * / SPRING_DATA_REDIS_PORT (localhost:6379 by default), e.g. the one from docker-compose.
+ */
+@DisplayName("RedisMissLease against a local redis-server")
+class RedisMissLeaseRedisTest {
+
+  private LettuceConnectionFactory connectionFactory;
+  private StringRedisTemplate stringRedisTemplate;
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    String host = System.getenv().getOrDefault("SPRING_DATA_REDIS_HOST", "localhost");
+    int port = Integer.parseInt(System.getenv().getOrDefault("SPRING_DATA_REDIS_PORT", "6379"));
+    connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+    connectionFactory.afterPropertiesSet();
+    connectionFactory.start();
+    try (RedisConnection connection = connectionFactory.getConnection()) {
+      connection.ping();
+    } catch (Exception e) {
+      Assumptions.abort("No redis-server reachable at " + host + ":" + port);
+    }
+    stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    executor = Executors.newFixedThreadPool(2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+    connectionFactory.destroy();
+  }
+
+  @Test
+  @DisplayName("Should let only one node load while the other waits for its value")
+  void shouldLetOnlyOneNodeLoad() throws Exception {
+    String key = "lease-test-" + UUID.randomUUID();
+    RedisMissLease firstNode = lease();
+    RedisMissLease secondNode = lease();
+    AtomicReference<String> cache = new AtomicReference<>();
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch leaderLoading = new CountDownLatch(1);
+
+    Future<String> leader =
+        executor.submit(
+            () ->
+                firstNode.load(
+                    key,
+                    () -> Optional.ofNullable(cache.get()),
+                    Optional::empty,
+                    () -> {
+                      loads.incrementAndGet();
+                      leaderLoading.countDown();
+                      sleep(200);
+                      cache.set("value");
+                      return "value";
+                    }));
+    assertTrue(leaderLoading.await(5, TimeUnit.SECONDS));
+
+    String follower =
+        secondNode.load(
+            key,
+            () -> Optional.ofNullable(cache.get()),
+            Optional::empty,
+            () -> {
+              loads.incrementAndGet();
+              return "follower";
+            });
+
+    assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+    assertEquals("value", follower);
+    assertEquals(1, loads.get());
+    assertFalse(stringRedisTemplate.hasKey("bookdata:lease:" + key));
+  }
+
+  @Test
+  @DisplayName("Should stop waiting once the lease holder's loader fails")
+  void shouldStopWaitingWhenLeaderFails() throws Exception {
+    String key = "lease-test-" + UUID.randomUUID();
+    RedisMissLease firstNode = lease();
+    RedisMissLease secondNode = lease();
+    CountDownLatch leaderLoading = new CountDownLatch(1);
+
+    Future<String> leader =
+        executor.submit(
+            () ->
+                firstNode.<String>load(
+                    key,
+                    Optional::empty,
+                    Optional::empty,
+                    () -> {
+                      leaderLoading.countDown();
+                      sleep(100);
+                      throw new IllegalStateException("not found");
+                    }));
+    assertTrue(leaderLoading.await(5, TimeUnit.SECONDS));
+
+    long start = System.nanoTime();
+    String follower = secondNode.load(key, Optional::empty, Optional::empty, () -> "follower");
+
+    assertEquals("follower", follower);
+    assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(1)) < 0);
+    assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+  }
+
+  private RedisMissLease lease() {
+    return new RedisMissLease(
+        stringRedisTemplate,
+        new SimpleMeterRegistry(),
+        true,
+        Duration.ofSeconds(5),
+        Duration.ofSeconds(2),
+        Duration.ofMillis(20));
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
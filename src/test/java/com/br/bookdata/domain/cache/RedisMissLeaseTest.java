@@ -0,0 +1,186 @@
+package com.br.bookdata.domain.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+@ExtendWith(MockitoExtension.class)
+class RedisMissLeaseTest {
+  private static final String KEY = "book-id-1";
+  private static final String LEASE_KEY = "bookdata:lease:" + KEY;
+
+  @Mock private StringRedisTemplate stringRedisTemplate;
+  @Mock private ValueOperations<String, String> valueOperations;
+
+  private SimpleMeterRegistry meterRegistry;
+  private RedisMissLease missLease;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    missLease = lease(true);
+  }
+
+  @Test
+  @DisplayName("Should load directly when leases are disabled")
+  void shouldLoadDirectlyWhenDisabled() {
+    RedisMissLease disabled = lease(false);
+
+    String result = disabled.load(KEY, Optional::empty, Optional::empty, () -> "loaded");
+
+    assertEquals("loaded", result);
+    verifyNoInteractions(stringRedisTemplate);
+  }
+
+  @Test
+  @DisplayName("Should load and release the lease when it is acquired")
+  void shouldLoadWhenLeaseAcquired() {
+    when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(eq(LEASE_KEY), anyString(), any(Duration.class)))
+        .thenReturn(true);
+
+    String result = missLease.load(KEY, Optional::empty, Optional::empty, () -> "loaded");
+
+    assertEquals("loaded", result);
+    verify(stringRedisTemplate).execute(any(RedisScript.class), anyList(), anyString());
+    assertEquals(1.0, outcomes("acquired"));
+  }
+
+  @Test
+  @DisplayName("Should serve the stale copy when another node holds the lease")
+  void shouldServeStaleCopy() {
+    when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(eq(LEASE_KEY), anyString(), any(Duration.class)))
+        .thenReturn(false);
+
+    String result =
+        missLease.load(KEY, Optional::empty, () -> Optional.of("stale"), () -> "loaded");
+
+    assertEquals("stale", result);
+    assertEquals(1.0, outcomes("stale"));
+  }
+
+  @Test
+  @DisplayName("Should poll the cache until the lease holder populates it")
+  void shouldPollUntilValueIsPresent() {
+    AtomicInteger polls = new AtomicInteger();
+    when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(eq(LEASE_KEY), anyString(), any(Duration.class)))
+        .thenReturn(false);
+
+    String result =
+        missLease.load(
+            KEY,
+            () -> polls.incrementAndGet() < 3 ? Optional.<String>empty() : Optional.of("cached"),
+            Optional::empty,
+            () -> "loaded");
+
+    assertEquals("cached", result);
+    assertEquals(3, polls.get());
+    assertEquals(1.0, outcomes("value_found"));
+    assertEquals(1, meterRegistry.get("bookdata.cache.lease.wait").timer().count());
+  }
+
+  @Test
+  @DisplayName("Should load on its own when the wait budget runs out")
+  void shouldLoadAfterWaitTimeout() {
+    when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(eq(LEASE_KEY), anyString(), any(Duration.class)))
+        .thenReturn(false);
+
+    String result = missLease.load(KEY, Optional::empty, Optional::empty, () -> "loaded");
+
+    assertEquals("loaded", result);
+    assertEquals(1.0, outcomes("timeout"));
+  }
+
+  @Test
+  @DisplayName("Should release the lease when the loader throws")
+  void shouldReleaseLeaseWhenLoaderThrows() {
+    when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(eq(LEASE_KEY), anyString(), any(Duration.class)))
+        .thenReturn(true);
+
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            missLease.load(
+                KEY,
+                Optional::empty,
+                Optional::empty,
+                () -> {
+                  throw new IllegalStateException("not found");
+                }));
+
+    verify(stringRedisTemplate).execute(any(RedisScript.class), anyList(), anyString());
+  }
+
+  @Test
+  @DisplayName("Should take a fresh lease and load once the lease holder released it")
+  void shouldReacquireReleasedLease() {
+    AtomicInteger polls = new AtomicInteger();
+    when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(eq(LEASE_KEY), anyString(), any(Duration.class)))
+        .thenReturn(false, false, true);
+
+    String result =
+        missLease.load(
+            KEY,
+            () -> {
+              polls.incrementAndGet();
+              return Optional.empty();
+            },
+            Optional::empty,
+            () -> "loaded");
+
+    assertEquals("loaded", result);
+    assertEquals(2, polls.get());
+    assertEquals(1.0, outcomes("reacquired"));
+    verify(stringRedisTemplate).execute(any(RedisScript.class), anyList(), anyString());
+  }
+
+  @Test
+  @DisplayName("Should load on its own when Redis is unavailable")
+  void shouldLoadWhenRedisUnavailable() {
+    when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(eq(LEASE_KEY), anyString(), any(Duration.class)))
+        .thenThrow(RedisConnectionFailureException.class);
+
+    String result = missLease.load(KEY, Optional::empty, Optional::empty, () -> "loaded");
+
+    assertEquals("loaded", result);
+    assertEquals(1.0, outcomes("unavailable"));
+  }
+
+  private RedisMissLease lease(boolean enabled) {
+    return new RedisMissLease(
+        stringRedisTemplate,
+        meterRegistry,
+        enabled,
+        Duration.ofSeconds(5),
+        Duration.ofMillis(200),
+        Duration.ofMillis(10));
+  }
+
+  private double outcomes(String outcome) {
+    return meterRegistry
+        .get("bookdata.cache.lease.outcomes")
+        .tag("outcome", outcome)
+        .counter()
+        .count();
+  }
+}
@@ -0,0 +1,98 @@
+package com.br.bookdata.domain.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Runs the push script against a real redis-server. Skipped unless one answers on
+ * SPRING_DATA_REDIS_HOST / SPRING_DATA_REDIS_PORT (localhost:6379 by default).
+ */
+@DisplayName("RedisRecentList against a local redis-server")
+class RedisRecentListRedisTest {
+
+  private LettuceConnectionFactory connectionFactory;
+  private StringRedisTemplate stringRedisTemplate;
+  private RedisRecentList recentList;
+  private String key;
+
+  @BeforeEach
+  void setUp() {
+    String host = System.getenv().getOrDefault("SPRING_DATA_REDIS_HOST", "localhost");
+    int port = Integer.parseInt(System.getenv().getOrDefault("SPRING_DATA_REDIS_PORT", "6379"));
+    connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+    connectionFactory.afterPropertiesSet();
+    connectionFactory.start();
+    try (RedisConnection connection = connectionFactory.getConnection()) {
+      connection.ping();
+    } catch (Exception e) {
+      Assumptions.abort("No redis-server reachable at " + host + ":" + port);
+    }
+    stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    recentList = new RedisRecentList(stringRedisTemplate);
+    key = "recent-list-test-" + UUID.randomUUID();
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (stringRedisTemplate != null) {
+      stringRedisTemplate.delete(key);
+    }
+    connectionFactory.destroy();
+  }
+
+  @Test
+  @DisplayName("Should move repeated members to the front and keep only the capacity")
+  void shouldDeduplicateAndTrim() {
+    for (String member : List.of("1", "2", "3", "1", "4")) {
+      recentList.push(key, member, 3);
+    }
+
+    assertEquals(List.of("4", "1", "3"), recentList.range(key, 3));
+  }
+
+  @Test
+  @DisplayName("Should push a batch in order so the last member ends up first")
+  void shouldPushBatchInOrder() {
+    recentList.push(key, "1", 3);
+
+    recentList.pushAll(key, List.of("2", "1", "3", "4"), 3);
+
+    assertEquals(List.of("4", "3", "1"), recentList.range(key, 3));
+  }
+
+  @Test
+  @DisplayName("Should not lose concurrent pushes")
+  void shouldKeepConcurrentPushes() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> pushes = new ArrayList<>();
+      for (int i = 0; i < 50; i++) {
+        String member = String.valueOf(i);
+        pushes.add(executor.submit(() -> recentList.push(key, member, 100)));
+      }
+      for (Future<?> push : pushes) {
+        push.get(5, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(50, recentList.range(key, 100).size());
+  }
+}
@@ -0,0 +1,60 @@
+package com.br.bookdata.domain.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+@ExtendWith(MockitoExtension.class)
+class RedisRecentListTest {
+
+  @Mock private StringRedisTemplate stringRedisTemplate;
+  @Mock private ListOperations<String, String> listOperations;
+
+  @InjectMocks private RedisRecentList recentList;
+
+  @Test
+  @DisplayName("Should push the capacity and members in a single script call")
+  @SuppressWarnings("unchecked")
+  void shouldPushWithScript() {
+    recentList.push("recent", "7", 10);
+    recentList.pushAll("recent", List.of("1", "2"), 10);
+    recentList.pushAll("recent", List.of(), 10);
+
+    verify(stringRedisTemplate)
+        .execute(any(RedisScript.class), eq(List.of("recent")), eq("10"), eq("7"));
+    verify(stringRedisTemplate)
+        .execute(any(RedisScript.class), eq(List.of("recent")), eq("10"), eq("1"), eq("2"));
+    verifyNoMoreInteractions(stringRedisTemplate);
+  }
+
+  @Test
+  @DisplayName("Should read the list up to its capacity")
+  void shouldReadRange() {
+    when(stringRedisTemplate.opsForList()).thenReturn(listOperations);
+    when(listOperations.range("recent", 0, 9)).thenReturn(List.of("7", "3"));
+
+    assertEquals(List.of("7", "3"), recentList.range("recent", 10));
+  }
+
+  @Test
+  @DisplayName("Should return an empty list when the list is missing or Redis fails")
+  void shouldReturnEmptyRangeOnFailure() {
+    when(stringRedisTemplate.opsForList()).thenReturn(listOperations);
+    when(listOperations.range("missing", 0, 9)).thenReturn(null);
+    when(listOperations.range("broken", 0, 9)).thenThrow(RedisConnectionFailureException.class);
+
+    assertTrue(recentList.range("missing", 10).isEmpty());
+    assertTrue(recentList.range("broken", 10).isEmpty());
+  }
+}
@@ -0,0 +1,119 @@
+package com.br.bookdata.domain.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RefreshAheadTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private RefreshAhead refreshAhead;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    refreshAhead = new RefreshAhead(meterRegistry, true, 1.0, 0.1, 1, 1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    refreshAhead.shutdown();
+  }
+
+  @Test
+  @DisplayName("Should keep jittered TTLs within the configured spread")
+  void shouldJitterTtl() {
+    Duration ttl = Duration.ofMinutes(10);
+
+    for (int i = 0; i < 100; i++) {
+      Duration jittered = refreshAhead.jitter(ttl);
+      assertTrue(jittered.compareTo(Duration.ofMinutes(9)) >= 0);
+      assertTrue(jittered.compareTo(Duration.ofMinutes(11)) <= 0);
+    }
+    RefreshAhead withoutJitter = new RefreshAhead(meterRegistry, true, 1.0, 0, 1, 1);
+    assertEquals(ttl, withoutJitter.jitter(ttl));
+    withoutJitter.shutdown();
+  }
+
+  @Test
+  @DisplayName("Should never refresh entries without expiry or when disabled")
+  void shouldNotRefreshWithoutMetadata() {
+    RefreshAhead disabled = new RefreshAhead(meterRegistry, false, 1.0, 0.1, 1, 1);
+
+    assertFalse(refreshAhead.shouldRefresh(0, 1000));
+    assertFalse(disabled.shouldRefresh(System.currentTimeMillis() - 1, 1000));
+    disabled.shutdown();
+  }
+
+  @Test
+  @DisplayName("Should refresh expired entries and keep fresh cheap entries")
+  void shouldDecideByExpiryAndLoadCost() {
+    long now = System.currentTimeMillis();
+
+    assertTrue(refreshAhead.shouldRefresh(now - 1, 0));
+    assertFalse(refreshAhead.shouldRefresh(now + Duration.ofMinutes(10).toMillis(), 1));
+  }
+
+  @Test
+  @DisplayName("Should run a single background refresh per key at a time")
+  void shouldRefreshInBackgroundOncePerKey() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch finished = new CountDownLatch(1);
+    AtomicInteger refreshes = new AtomicInteger();
+
+    refreshAhead.refreshAsync(
+        "key",
+        () -> {
+          refreshes.incrementAndGet();
+          started.countDown();
+          await(release);
+          finished.countDown();
+        });
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    refreshAhead.refreshAsync("key", refreshes::incrementAndGet);
+    release.countDown();
+
+    assertTrue(finished.await(5, TimeUnit.SECONDS));
+    assertEquals(1, refreshes.get());
+    assertEquals(
+        1.0, meterRegistry.get("bookdata.cache.refresh.ahead.scheduled").counter().count());
+  }
+
+  @Test
+  @DisplayName("Should drop refreshes when the queue is full")
+  void shouldDropRefreshWhenQueueIsFull() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    refreshAhead.refreshAsync(
+        "running",
+        () -> {
+          started.countDown();
+          await(release);
+        });
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    refreshAhead.refreshAsync("queued", () -> {});
+    refreshAhead.refreshAsync("rejected", () -> {});
+    release.countDown();
+
+    assertEquals(
+        1.0, meterRegistry.get("bookdata.cache.refresh.ahead.rejected").counter().count());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
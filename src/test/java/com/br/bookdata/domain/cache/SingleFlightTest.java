@@ -0,0 +1,164 @@
+package com.br.bookdata.domain.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private ThreadPoolExecutor executor;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(4);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("Should run the loader once for concurrent callers of the same key")
+  void shouldCoalesceConcurrentLoads() throws Exception {
+    SingleFlight singleFlight = new SingleFlight(meterRegistry, Duration.ofSeconds(5));
+    CountDownLatch leaderStarted = new CountDownLatch(1);
+    CountDownLatch releaseLeader = new CountDownLatch(1);
+    AtomicInteger loads = new AtomicInteger();
+
+    Future<String> leader =
+        executor.submit(
+            () ->
+                singleFlight.execute(
+                    "key",
+                    () -> {
+                      loads.incrementAndGet();
+                      leaderStarted.countDown();
+                      await(releaseLeader);
+                      return "value";
+                    }));
+    assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+    List<Future<String>> followers = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      followers.add(
+          executor.submit(
+              () ->
+                  singleFlight.execute(
+                      "key",
+                      () -> {
+                        loads.incrementAndGet();
+                        return "other";
+                      })));
+    }
+    waitForFollowers(3);
+    releaseLeader.countDown();
+
+    assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+    for (Future<String> follower : followers) {
+      assertEquals("value", follower.get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(1, loads.get());
+    assertEquals(1.0, meterRegistry.get("bookdata.cache.single.flight.loads").counter().count());
+    assertEquals(
+        3.0,
+        meterRegistry.get("bookdata.cache.single.flight.absorbed").summary().totalAmount());
+  }
+
+  @Test
+  @DisplayName("Should run a new load once the previous flight has finished")
+  void shouldStartNewFlightAfterCompletion() {
+    SingleFlight singleFlight = new SingleFlight(meterRegistry, Duration.ofSeconds(5));
+
+    assertEquals("first", singleFlight.execute("key", () -> "first"));
+    assertEquals("second", singleFlight.execute("key", () -> "second"));
+  }
+
+  @Test
+  @DisplayName("Should propagate the loader failure to the leader and waiting callers")
+  void shouldPropagateFailure() throws Exception {
+    SingleFlight singleFlight = new SingleFlight(meterRegistry, Duration.ofSeconds(5));
+    CountDownLatch leaderStarted = new CountDownLatch(1);
+    CountDownLatch releaseLeader = new CountDownLatch(1);
+
+    Future<String> leader =
+        executor.submit(
+            () ->
+                singleFlight.execute(
+                    "key",
+                    () -> {
+                      leaderStarted.countDown();
+                      await(releaseLeader);
+                      throw new IllegalArgumentException("not found");
+                    }));
+    assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+    Future<String> follower = executor.submit(() -> singleFlight.execute("key", () -> "other"));
+    waitForFollowers(1);
+    releaseLeader.countDown();
+
+    Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+    Exception followerError =
+        assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+    assertInstanceOf(IllegalArgumentException.class, leaderError.getCause());
+    assertInstanceOf(IllegalArgumentException.class, followerError.getCause());
+  }
+
+  @Test
+  @DisplayName("Should load on its own when the in-flight load exceeds the timeout")
+  void shouldLoadAloneAfterTimeout() throws Exception {
+    SingleFlight singleFlight = new SingleFlight(meterRegistry, Duration.ofMillis(50));
+    CountDownLatch leaderStarted = new CountDownLatch(1);
+    CountDownLatch releaseLeader = new CountDownLatch(1);
+
+    Future<String> leader =
+        executor.submit(
+            () ->
+                singleFlight.execute(
+                    "key",
+                    () -> {
+                      leaderStarted.countDown();
+                      await(releaseLeader);
+                      return "slow";
+                    }));
+    assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+    assertEquals("fast", singleFlight.execute("key", () -> "fast"));
+    assertEquals(
+        1.0, meterRegistry.get("bookdata.cache.single.flight.timeouts").counter().count());
+
+    releaseLeader.countDown();
+    assertEquals("slow", leader.get(5, TimeUnit.SECONDS));
+  }
+
+  private void waitForFollowers(int expected) throws InterruptedException {
+    // Followers register before blocking, so give them a moment to join the flight.
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (executor.getActiveCount() < expected + 1 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    Thread.sleep(50);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,282 @@
+package com.br.bookdata.domain.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.br.bookdata.domain.cache.WriteBehindCacheImpl.Overflow;
+import com.br.bookdata.domain.cache.contract.ICache;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindCacheImplTest {
+  private static final String CACHE_NAME = "books";
+  private static final Duration TTL = Duration.ofMinutes(10);
+
+  @Mock private ICache delegate;
+
+  private SimpleMeterRegistry meterRegistry;
+  private WriteBehindCacheImpl cache;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    cache.shutdown();
+  }
+
+  @Test
+  @DisplayName("Should call the delegate directly when write-behind is disabled")
+  void shouldPassThroughWhenDisabled() {
+    cache = writeBehind(false, 10, 10, Overflow.WRITE_THROUGH);
+    TypeReference<String> type = new TypeReference<>() {};
+
+    cache.putToCache("a", "value", CACHE_NAME, TTL);
+    cache.multiPut(Map.of("b", new CacheEntry<>("value", TTL)), CACHE_NAME);
+    cache.getFromCache("a", type, CACHE_NAME);
+    cache.multiGet(List.of("a"), type, CACHE_NAME);
+    cache.removeCache("a", CACHE_NAME);
+    cache.multiRemove(List.of("b"), CACHE_NAME);
+
+    verify(delegate).putToCache("a", "value", CACHE_NAME, TTL);
+    verify(delegate).multiPut(Map.of("b", new CacheEntry<>("value", TTL)), CACHE_NAME);
+    verify(delegate).getFromCache("a", type, CACHE_NAME);
+    verify(delegate).multiGet(List.of("a"), type, CACHE_NAME);
+    verify(delegate).removeCache("a", CACHE_NAME);
+    verify(delegate).multiRemove(List.of("b"), CACHE_NAME);
+  }
+
+  @Test
+  @DisplayName("Should return from put without touching Redis and flush in one multi-put")
+  void shouldBufferAndFlushInBatch() {
+    cache = writeBehind(true, 10, 2, Overflow.WRITE_THROUGH);
+
+    cache.putToCache("a", "first", CACHE_NAME, TTL);
+    verifyNoInteractions(delegate);
+    cache.putToCache("b", "second", CACHE_NAME, null);
+
+    verify(delegate, timeout(1000))
+        .multiPut(
+            Map.of("a", new CacheEntry<>("first", TTL), "b", new CacheEntry<>("second", null)),
+            CACHE_NAME);
+    verify(delegate, never()).putToCache(anyString(), any(), anyString(), any());
+    assertEquals(
+        2.0, meterRegistry.get("bookdata.cache.write.behind.flush.size").summary().totalAmount());
+  }
+
+  @Test
+  @DisplayName("Should flush at most a batch of writes at a time")
+  void shouldCapFlushAtBatchSize() throws InterruptedException {
+    cache = writeBehind(true, 10, 2, Overflow.WRITE_THROUGH);
+    Map<String, CacheEntry<String>> entries = new LinkedHashMap<>();
+    entries.put("a", new CacheEntry<>("first", TTL));
+    entries.put("b", new CacheEntry<>("second", TTL));
+    entries.put("c", new CacheEntry<>("third", TTL));
+
+    cache.multiPut(entries, CACHE_NAME);
+    cache.shutdown();
+
+    verify(delegate)
+        .multiPut(
+            Map.of("a", new CacheEntry<>("first", TTL), "b", new CacheEntry<>("second", TTL)),
+            CACHE_NAME);
+    verify(delegate).multiPut(Map.of("c", new CacheEntry<>("third", TTL)), CACHE_NAME);
+    assertEquals(2.0, meterRegistry.get("bookdata.cache.write.behind.flush.size").summary().max());
+  }
+
+  @Test
+  @DisplayName("Should write through once shut down")
+  void shouldWriteThroughAfterShutdown() throws InterruptedException {
+    cache = writeBehind(true, 10, 10, Overflow.WRITE_THROUGH);
+    cache.shutdown();
+
+    cache.putToCache("a", "first", CACHE_NAME, TTL);
+    cache.multiPut(Map.of("b", new CacheEntry<>("second", TTL)), CACHE_NAME);
+
+    verify(delegate).putToCache("a", "first", CACHE_NAME, TTL);
+    verify(delegate).multiPut(Map.of("b", new CacheEntry<>("second", TTL)), CACHE_NAME);
+  }
+
+  @Test
+  @DisplayName("Should keep only the latest value of a key written twice before the flush")
+  void shouldMergeDuplicateKeys() throws InterruptedException {
+    cache = writeBehind(true, 10, 10, Overflow.WRITE_THROUGH);
+
+    cache.putToCache("a", "old", CACHE_NAME, TTL);
+    cache.putToCache("a", "new", CACHE_NAME, TTL);
+    cache.shutdown();
+
+    verify(delegate).multiPut(Map.of("a", new CacheEntry<>("new", TTL)), CACHE_NAME);
+    assertEquals(1.0, meterRegistry.get("bookdata.cache.write.behind.merged").counter().count());
+  }
+
+  @Test
+  @DisplayName("Should serve pending writes to reads before they reach Redis")
+  void shouldReadPendingWrites() {
+    cache = writeBehind(true, 10, 10, Overflow.WRITE_THROUGH);
+    TypeReference<String> type = new TypeReference<>() {};
+    when(delegate.multiGet(List.of("b"), type, CACHE_NAME)).thenReturn(Map.of("b", "remote"));
+
+    cache.multiPut(Map.of("a", new CacheEntry<>("pending", TTL)), CACHE_NAME);
+
+    assertEquals(Optional.of("pending"), cache.getFromCache("a", type, CACHE_NAME));
+    assertEquals(
+        Map.of("a", "pending", "b", "remote"), cache.multiGet(List.of("a", "b"), type, CACHE_NAME));
+    verify(delegate, never()).getFromCache(anyString(), any(TypeReference.class), anyString());
+  }
+
+  @Test
+  @DisplayName("Should write through new keys when the buffer is full")
+  void shouldWriteThroughOnOverflow() {
+    cache = writeBehind(true, 1, 10, Overflow.WRITE_THROUGH);
+
+    cache.putToCache("a", "first", CACHE_NAME, TTL);
+    cache.putToCache("b", "second", CACHE_NAME, TTL);
+    cache.multiPut(Map.of("c", new CacheEntry<>("third", TTL)), CACHE_NAME);
+
+    verify(delegate).putToCache("b", "second", CACHE_NAME, TTL);
+    verify(delegate).multiPut(Map.of("c", new CacheEntry<>("third", TTL)), CACHE_NAME);
+    assertEquals(
+        2.0,
+        meterRegistry
+            .get("bookdata.cache.write.behind.overflow")
+            .tag("policy", "write_through")
+            .counter()
+            .count());
+  }
+
+  @Test
+  @DisplayName("Should drop new keys when the buffer is full and the policy is DROP")
+  void shouldDropOnOverflow() throws InterruptedException {
+    cache = writeBehind(true, 1, 10, Overflow.DROP);
+
+    cache.putToCache("a", "first", CACHE_NAME, TTL);
+    cache.putToCache("b", "second", CACHE_NAME, TTL);
+    cache.shutdown();
+
+    verify(delegate).multiPut(Map.of("a", new CacheEntry<>("first", TTL)), CACHE_NAME);
+    verify(delegate, never()).putToCache(anyString(), any(), anyString(), any());
+    assertEquals(
+        1.0,
+        meterRegistry
+            .get("bookdata.cache.write.behind.overflow")
+            .tag("policy", "drop")
+            .counter()
+            .count());
+  }
+
+  @Test
+  @DisplayName("Should discard pending writes of removed keys")
+  void shouldDiscardPendingWritesOnRemove() throws InterruptedException {
+    cache = writeBehind(true, 10, 10, Overflow.WRITE_THROUGH);
+
+    cache.putToCache("a", "first", CACHE_NAME, TTL);
+    cache.putToCache("b", "second", CACHE_NAME, TTL);
+    cache.putToCache("c", "third", CACHE_NAME, TTL);
+    cache.removeCache("a", CACHE_NAME);
+    cache.multiRemove(List.of("b"), CACHE_NAME);
+    cache.shutdown();
+
+    verify(delegate).removeCache("a", CACHE_NAME);
+    verify(delegate).multiRemove(List.of("b"), CACHE_NAME);
+    verify(delegate).multiPut(Map.of("c", new CacheEntry<>("third", TTL)), CACHE_NAME);
+  }
+
+  @Test
+  @DisplayName("Should hold a removal of a key being flushed until the flush is done")
+  void shouldRemoveAfterInFlightFlush() throws Exception {
+    cache = writeBehind(true, 10, 1, Overflow.WRITE_THROUGH);
+    CountDownLatch flushStarted = new CountDownLatch(1);
+    CountDownLatch releaseFlush = new CountDownLatch(1);
+    doAnswer(
+            invocation -> {
+              flushStarted.countDown();
+              releaseFlush.await(5, TimeUnit.SECONDS);
+              return null;
+            })
+        .when(delegate)
+        .multiPut(anyMap(), anyString());
+
+    cache.putToCache("a", "old", CACHE_NAME, TTL);
+    assertTrue(flushStarted.await(5, TimeUnit.SECONDS));
+    CompletableFuture<Void> removal =
+        CompletableFuture.runAsync(() -> cache.removeCache("a", CACHE_NAME));
+
+    assertThrows(TimeoutException.class, () -> removal.get(100, TimeUnit.MILLISECONDS));
+    verify(delegate, never()).removeCache(anyString(), anyString());
+    releaseFlush.countDown();
+    removal.get(5, TimeUnit.SECONDS);
+    InOrder order = inOrder(delegate);
+    order.verify(delegate).multiPut(Map.of("a", new CacheEntry<>("old", TTL)), CACHE_NAME);
+    order.verify(delegate).removeCache("a", CACHE_NAME);
+  }
+
+  @Test
+  @DisplayName("Should run after-write actions once the pending writes are flushed")
+  void shouldRunAfterWritesActionsAfterFlush() throws InterruptedException {
+    cache = writeBehind(true, 10, 10, Overflow.WRITE_THROUGH);
+    AtomicBoolean flushed = new AtomicBoolean();
+    AtomicBoolean ranRightAway = new AtomicBoolean();
+    AtomicBoolean ranAfterFlush = new AtomicBoolean();
+    doAnswer(
+            invocation -> {
+              flushed.set(true);
+              return null;
+            })
+        .when(delegate)
+        .multiPut(anyMap(), anyString());
+
+    cache.afterWrites(() -> ranRightAway.set(true));
+    cache.putToCache("a", "first", CACHE_NAME, TTL);
+    cache.afterWrites(() -> ranAfterFlush.set(flushed.get()));
+
+    assertTrue(ranRightAway.get());
+    assertFalse(ranAfterFlush.get());
+    cache.shutdown();
+    assertTrue(ranAfterFlush.get());
+  }
+
+  @Test
+  @DisplayName("Should keep flushing after a failed flush")
+  void shouldSurviveFlushFailure() {
+    cache = writeBehind(true, 10, 1, Overflow.WRITE_THROUGH);
+    doThrow(new IllegalStateException("boom"))
+        .doNothing()
+        .when(delegate)
+        .multiPut(anyMap(), anyString());
+
+    cache.putToCache("a", "first", CACHE_NAME, TTL);
+    verify(delegate, timeout(1000).times(1)).multiPut(anyMap(), anyString());
+    cache.putToCache("b", "second", CACHE_NAME, TTL);
+
+    verify(delegate, timeout(1000))
+        .multiPut(Map.of("b", new CacheEntry<>("second", TTL)), CACHE_NAME);
+  }
+
+  private WriteBehindCacheImpl writeBehind(
+      boolean enabled, int capacity, int batchSize, Overflow overflow) {
+    return new WriteBehindCacheImpl(
+        delegate, meterRegistry, enabled, capacity, batchSize, Duration.ofSeconds(5), overflow);
+  }
+}
@@ -0,0 +1,63 @@
+package com.br.bookdata.domain.cache.codec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.br.bookdata.domain.model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BookBinaryCodecTest {
+
+  private BookBinaryCodec codec;
+
+  private Book book;
+
+  @BeforeEach
+  void setUp() {
+    codec = new BookBinaryCodec();
+    book =
+        Book.builder()
+            .id(1L)
+            .title("Test Book")
+            .author("Test Author")
+            .genre("Ficção")
+            .description("A test book description")
+            .build();
+  }
+
+  @Test
+  @DisplayName("Should round trip a book through the binary format")
+  void shouldRoundTripBook() {
+    byte[] bytes = codec.encode(book);
+
+    assertEquals(AbstractBinaryCodec.MAGIC, bytes[0]);
+    assertEquals(book, codec.decode(bytes));
+  }
+
+  @Test
+  @DisplayName("Should keep null fields when round tripping")
+  void shouldRoundTripNullFields() {
+    Book emptyBook = Book.builder().build();
+
+    assertEquals(emptyBook, codec.decode(codec.encode(emptyBook)));
+  }
+
+  @Test
+  @DisplayName("Should reject payloads that are not in the binary format")
+  void shouldRejectLegacyPayload() {
+    byte[] json = "{\"id\":1}".getBytes();
+
+    assertThrows(IllegalArgumentException.class, () -> codec.decode(json));
+    assertThrows(IllegalArgumentException.class, () -> codec.decode(new byte[0]));
+  }
+
+  @Test
+  @DisplayName("Should reject payloads written by a newer format version")
+  void shouldRejectNewerVersion() {
+    byte[] bytes = codec.encode(book);
+    bytes[1] = (byte) (bytes[1] + 1);
+
+    assertThrows(IllegalArgumentException.class, () -> codec.decode(bytes));
+  }
+}
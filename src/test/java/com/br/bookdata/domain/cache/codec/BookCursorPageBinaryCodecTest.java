@@ -0,0 +1,34 @@
+package com.br.bookdata.domain.cache.codec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.br.bookdata.domain.model.BookSummary;
+import com.br.bookdata.domain.utils.CursorPage;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BookCursorPageBinaryCodecTest {
+
+  private final BookCursorPageBinaryCodec codec = new BookCursorPageBinaryCodec();
+
+  @Test
+  @DisplayName("Should round trip a cursor page with its next token")
+  void shouldRoundTripCursorPage() {
+    CursorPage<BookSummary> page =
+        new CursorPage<>(List.of(new BookSummary(7L, "Title", "Author", "Genre")), 1, "next-token");
+
+    assertEquals(page, codec.decode(codec.encode(page)));
+  }
+
+  @Test
+  @DisplayName("Should round trip the last cursor page without next token")
+  void shouldRoundTripLastCursorPage() {
+    CursorPage<BookSummary> page = new CursorPage<>(List.of(), 10, null);
+
+    CursorPage<BookSummary> result = codec.decode(codec.encode(page));
+
+    assertNull(result.getNext());
+    assertTrue(result.isEmpty());
+  }
+}
@@ -0,0 +1,73 @@
+package com.br.bookdata.domain.cache.codec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.model.BookSummary;
+import com.br.bookdata.domain.service.enums.TotalsMode;
+import com.br.bookdata.domain.utils.CustomPage;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+class BookPageBinaryCodecTest {
+
+  private final BookPageBinaryCodec codec = new BookPageBinaryCodec();
+
+  @Test
+  @DisplayName("Should round trip a page of book summaries with its metadata")
+  void shouldRoundTripPage() {
+    BookSummary book = new BookSummary(1L, "Test Book", "Test Author", "Fiction");
+    CustomPage<BookSummary> page =
+        new CustomPage<>(new PageImpl<>(List.of(book), PageRequest.of(1, 1), 3));
+
+    CustomPage<BookSummary> result = codec.decode(codec.encode(page));
+
+    assertEquals(page.getContent(), result.getContent());
+    assertEquals(3, result.getTotalPages());
+    assertEquals(3, result.getTotalElements());
+    assertEquals(1, result.getNumber());
+    assertEquals(1, result.getSize());
+    assertEquals(1, result.getNumberOfElements());
+    assertFalse(result.isFirst());
+    assertFalse(result.isLast());
+    assertFalse(result.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should round trip an empty page")
+  void shouldRoundTripEmptyPage() {
+    CustomPage<BookSummary> result = codec.decode(codec.encode(new CustomPage<>()));
+
+    assertTrue(result.isEmpty());
+    assertEquals(0, result.getTotalElements());
+  }
+
+  @Test
+  @DisplayName("Should round trip the refresh metadata of a page")
+  void shouldRoundTripRefreshMetadata() {
+    CustomPage<BookSummary> page = new CustomPage<>();
+    page.setCachedAt(1_000L);
+    page.setLoadCostMillis(25L);
+    page.setExpiresAt(601_000L);
+
+    CustomPage<BookSummary> result = codec.decode(codec.encode(page));
+
+    assertEquals(1_000L, result.getCachedAt());
+    assertEquals(25L, result.getLoadCostMillis());
+    assertEquals(601_000L, result.getExpiresAt());
+  }
+
+  @Test
+  @DisplayName("Should round trip how the totals of a page were obtained")
+  void shouldRoundTripTotalsMode() {
+    CustomPage<BookSummary> page = new CustomPage<>();
+    page.setTotalsMode(TotalsMode.APPROXIMATE);
+
+    CustomPage<BookSummary> result = codec.decode(codec.encode(page));
+
+    assertEquals(TotalsMode.APPROXIMATE, result.getTotalsMode());
+  }
+}
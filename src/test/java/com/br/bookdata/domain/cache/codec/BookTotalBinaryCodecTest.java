@@ -0,0 +1,20 @@
+package com.br.bookdata.domain.cache.codec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.br.bookdata.domain.utils.CachedTotal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BookTotalBinaryCodecTest {
+
+  private final BookTotalBinaryCodec codec = new BookTotalBinaryCodec();
+
+  @Test
+  @DisplayName("Should round trip a cached total with its refresh metadata")
+  void shouldRoundTripCachedTotal() {
+    CachedTotal total = new CachedTotal(1_500_000L, 1_000L, 120L, 601_000L);
+
+    assertEquals(total, codec.decode(codec.encode(total)));
+  }
+}
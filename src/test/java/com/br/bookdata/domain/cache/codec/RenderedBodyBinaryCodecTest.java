@@ -0,0 +1,36 @@
+package com.br.bookdata.domain.cache.codec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.br.bookdata.domain.cache.RenderedBody;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RenderedBodyBinaryCodecTest {
+
+  private static final byte[] JSON = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+  private final RenderedBodyBinaryCodec codec = new RenderedBodyBinaryCodec();
+
+  @Test
+  @DisplayName("Should round trip rendered bytes, the gzip flag and the ETag")
+  void shouldRoundTripRenderedBody() {
+    byte[] bytes = codec.encode(new RenderedBody(JSON, true, "abc"));
+    RenderedBody decoded = codec.decode(bytes);
+
+    assertEquals(AbstractBinaryCodec.MAGIC, bytes[0]);
+    assertArrayEquals(JSON, decoded.body());
+    assertTrue(decoded.gzipped());
+    assertEquals("abc", decoded.etag());
+  }
+
+  @Test
+  @DisplayName("Should round trip an empty body")
+  void shouldRoundTripEmptyBody() {
+    RenderedBody decoded = codec.decode(codec.encode(new RenderedBody(new byte[0], false, "e")));
+
+    assertEquals(0, decoded.body().length);
+    assertFalse(decoded.gzipped());
+  }
+}
@@ -0,0 +1,72 @@
+package com.br.bookdata.domain.cache.codec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.model.BookSummary;
+import com.br.bookdata.domain.service.enums.BookCacheKeyType;
+import com.br.bookdata.domain.utils.CursorPage;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ValueCodecRegistryTest {
+
+  private ValueCodecRegistry registry;
+
+  private Book book;
+
+  @BeforeEach
+  void setUp() {
+    registry =
+        new ValueCodecRegistry(
+            Map.of(
+                BookCacheKeyType.BOOK_ID_KEY, new BookBinaryCodec(),
+                BookCacheKeyType.BOOK_CURSOR_GENRE_KEY, new BookCursorPageBinaryCodec()),
+            new ObjectMapper());
+    book = Book.builder().id(1L).title("Test Book").build();
+  }
+
+  @Test
+  @DisplayName("Should pick the codec registered for the family of the key")
+  void shouldUseFamilyCodec() {
+    byte[] bytes = registry.encode("book-id-1", book);
+
+    assertEquals(AbstractBinaryCodec.MAGIC, bytes[0]);
+    assertEquals(book, registry.decode("book-id-1", bytes, new TypeReference<Book>() {}));
+    CursorPage<BookSummary> page =
+        new CursorPage<>(List.of(new BookSummary(1L, "Test Book", null, null)), 1, null);
+    byte[] pageBytes = registry.encode("books-cursor-genre-fantasy-10", page);
+    assertEquals(AbstractBinaryCodec.MAGIC, pageBytes[0]);
+    assertEquals(
+        page,
+        registry.decode(
+            "books-cursor-genre-fantasy-10",
+            pageBytes,
+            new TypeReference<CursorPage<BookSummary>>() {}));
+  }
+
+  @Test
+  @DisplayName("Should fall back to JSON for keys outside every region")
+  void shouldFallBackToJson() {
+    byte[] bytes = registry.encode("other-key", book);
+
+    assertEquals('{', bytes[0]);
+    assertEquals(book, registry.decode("other-key", bytes, new TypeReference<Book>() {}));
+  }
+
+  @Test
+  @DisplayName("Should fail when a JSON payload cannot be read")
+  void shouldFailOnInvalidJson() {
+    byte[] bytes = new byte[] {1, 2, 3};
+
+    assertThrows(
+        UncheckedIOException.class,
+        () -> registry.decode("other-key", bytes, new TypeReference<Book>() {}));
+  }
+}
@@ -0,0 +1,96 @@
+package com.br.bookdata.domain.dataset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.br.bookdata.domain.model.Book;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BookDatasetGeneratorTest {
+
+  @Test
+  @DisplayName("Should generate the same books in the same order for any number of threads")
+  void shouldBeDeterministicAcrossThreads() {
+    List<Book> sequential = generate(spec(42, 1), 250);
+    List<Book> parallel = generate(spec(42, 4), 250);
+
+    assertEquals(250, sequential.size());
+    assertEquals(sequential, parallel);
+  }
+
+  @Test
+  @DisplayName("Should generate a different catalog for a different seed")
+  void shouldDependOnSeed() {
+    assertNotEquals(generate(spec(42, 2), 50), generate(spec(7, 2), 50));
+  }
+
+  @Test
+  @DisplayName("Should skew genres and authors towards the most popular ranks")
+  void shouldSkewGenresAndAuthors() {
+    List<Book> books = generate(spec(42, 4), 5000);
+
+    Map<String, Long> byGenre = countBy(books, Book::getGenre);
+    Map<String, Long> byAuthor = countBy(books, Book::getAuthor);
+    long topGenre = byGenre.values().stream().mapToLong(Long::longValue).max().orElseThrow();
+    long topAuthor = byAuthor.values().stream().mapToLong(Long::longValue).max().orElseThrow();
+
+    assertTrue(byGenre.size() <= 10);
+    assertTrue(topGenre > 5000 / 10 * 2, "top genre should take well over a uniform share");
+    assertTrue(topAuthor > 5000 / 200 * 5, "top author should take well over a uniform share");
+  }
+
+  @Test
+  @DisplayName("Should vary description lengths and cap them at the column size")
+  void shouldBoundDescriptions() {
+    List<Book> books = generate(spec(42, 2), 500);
+
+    assertTrue(books.stream().allMatch(book -> book.getDescription().length() <= 400));
+    assertTrue(
+        books.stream().map(book -> book.getDescription().length()).distinct().count() > 50);
+    assertTrue(books.stream().allMatch(book -> book.getId() == null));
+  }
+
+  @Test
+  @DisplayName("Should number genres beyond the vocabulary of the faker")
+  void shouldFillLargePools() {
+    DatasetSpec spec = new DatasetSpec(42, 2, 100, 500, 0.0, 10, 1.0, 4, 0.6, 2000);
+
+    long genres = countBy(generate(spec, 2000), Book::getGenre).size();
+
+    assertTrue(genres > 100);
+  }
+
+  @Test
+  @DisplayName("Should surface failures of the sink")
+  void shouldPropagateSinkFailure() {
+    BookDatasetGenerator generator = new BookDatasetGenerator(spec(42, 2));
+
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            generator.generate(
+                10,
+                books -> {
+                  throw new IllegalStateException("sink failed");
+                }));
+  }
+
+  private static DatasetSpec spec(long seed, int threads) {
+    return new DatasetSpec(seed, threads, 64, 10, 1.1, 200, 0.9, 4, 0.6, 400);
+  }
+
+  private static List<Book> generate(DatasetSpec spec, long rows) {
+    List<Book> books = new ArrayList<>();
+    new BookDatasetGenerator(spec).generate(rows, books::addAll);
+    return books;
+  }
+
+  private static Map<String, Long> countBy(List<Book> books, Function<Book, String> key) {
+    return books.stream().collect(Collectors.groupingBy(key, Collectors.counting()));
+  }
+}
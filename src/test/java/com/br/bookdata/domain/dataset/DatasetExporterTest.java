@@ -0,0 +1,50 @@
+package com.br.bookdata.domain.dataset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DatasetExporterTest {
+
+  @TempDir private Path directory;
+
+  @Test
+  @DisplayName("Should write a numbered CSV that is identical on every run")
+  void shouldWriteReproducibleCsv() throws Exception {
+    DatasetSpec spec = new DatasetSpec(42, 2, 16, 5, 1.0, 20, 1.0, 3, 0.5, 300);
+    Path first = directory.resolve("nested/first.csv");
+    Path second = directory.resolve("second.csv");
+
+    long written = DatasetExporter.export(new BookDatasetGenerator(spec), 40, first);
+    DatasetExporter.export(new BookDatasetGenerator(spec), 40, second);
+
+    List<String> lines = Files.readAllLines(first);
+    assertEquals(40, written);
+    assertEquals(41, lines.size());
+    assertEquals(DatasetExporter.HEADER, lines.get(0));
+    assertTrue(lines.get(1).startsWith("1,\""));
+    assertTrue(lines.get(40).startsWith("40,\""));
+    assertEquals(lines, Files.readAllLines(second));
+  }
+
+  @Test
+  @DisplayName("Should reject a call without rows and output file")
+  void shouldRejectMissingArguments() {
+    assertThrows(IllegalArgumentException.class, () -> DatasetExporter.main(new String[] {}));
+  }
+
+  @Test
+  @DisplayName("Should write the requested rows from the command line")
+  void shouldRunFromCommandLine() throws Exception {
+    Path output = directory.resolve("books.csv");
+
+    DatasetExporter.main(new String[] {"3", output.toString()});
+
+    assertEquals(4, Files.readAllLines(output).size());
+  }
+}
@@ -0,0 +1,61 @@
+package com.br.bookdata.domain.dataset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ZipfSamplerTest {
+
+  @Test
+  @DisplayName("Should favour the first ranks according to the skew")
+  void shouldSkewTowardsFirstRanks() {
+    ZipfSampler sampler = new ZipfSampler(10, 1.0);
+    Random random = new Random(7);
+    int[] counts = new int[10];
+
+    for (int i = 0; i < 100_000; i++) {
+      counts[sampler.sample(random)]++;
+    }
+
+    // With skew 1 over 10 ranks the first rank takes about 34% and the last about 3.4%.
+    assertEquals(0.34, counts[0] / 100_000.0, 0.01);
+    assertEquals(0.034, counts[9] / 100_000.0, 0.005);
+    assertTrue(counts[0] > counts[1] && counts[1] > counts[4]);
+  }
+
+  @Test
+  @DisplayName("Should be uniform when the skew is zero")
+  void shouldBeUniformWithoutSkew() {
+    ZipfSampler sampler = new ZipfSampler(4, 0);
+    Random random = new Random(7);
+    int[] counts = new int[4];
+
+    for (int i = 0; i < 40_000; i++) {
+      counts[sampler.sample(random)]++;
+    }
+
+    for (int count : counts) {
+      assertEquals(10_000, count, 500);
+    }
+  }
+
+  @Test
+  @DisplayName("Should return the same ranks for the same seed")
+  void shouldBeDeterministic() {
+    ZipfSampler sampler = new ZipfSampler(100, 1.2);
+    Random first = new Random(42);
+    Random second = new Random(42);
+
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(sampler.sample(first), sampler.sample(second));
+    }
+  }
+
+  @Test
+  @DisplayName("Should reject an empty distribution")
+  void shouldRejectEmptyDistribution() {
+    assertThrows(IllegalArgumentException.class, () -> new ZipfSampler(0, 1.0));
+  }
+}
@@ -0,0 +1,66 @@
+package com.br.bookdata.domain.ingest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportRunnerTest {
+
+  @Mock private BookImporter importer;
+
+  @TempDir private Path directory;
+
+  @Test
+  @DisplayName("Should exit with 0 when every record was imported")
+  void shouldExitWithZeroOnCleanImport() throws Exception {
+    when(importer.importBooks(eq(ImportFormat.NDJSON), any()))
+        .thenReturn(new ImportReport(2, 2, 0, 5, 400, 2, null, List.of()));
+
+    BookImportRunner runner = runner("books.ndjson", "");
+    runner.run();
+
+    assertEquals(0, runner.getExitCode());
+  }
+
+  @Test
+  @DisplayName("Should exit with 2 when records were rejected, using the configured format")
+  void shouldExitWithTwoOnRejects() throws Exception {
+    when(importer.importBooks(eq(ImportFormat.CSV), any()))
+        .thenReturn(
+            new ImportReport(
+                3, 1, 2, 5, 200, 4, null, List.of(new ImportReject(3, "title is required"))));
+
+    BookImportRunner runner = runner("books.txt", "csv");
+    runner.run();
+
+    assertEquals(2, runner.getExitCode());
+  }
+
+  @Test
+  @DisplayName("Should exit with 1 when a write failed")
+  void shouldExitWithOneOnFailure() throws Exception {
+    when(importer.importBooks(eq(ImportFormat.NDJSON), any()))
+        .thenReturn(new ImportReport(2, 1, 0, 5, 200, 1, "connection refused", List.of()));
+
+    BookImportRunner runner = runner("books.ndjson", "");
+    runner.run();
+
+    assertEquals(1, runner.getExitCode());
+  }
+
+  private BookImportRunner runner(String fileName, String format) throws Exception {
+    Path file = Files.writeString(directory.resolve(fileName), "");
+    return new BookImportRunner(importer, file.toString(), format);
+  }
+}
@@ -0,0 +1,131 @@
+package com.br.bookdata.domain.ingest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.repository.BookBulkInsertRepository;
+import com.br.bookdata.domain.service.contract.IBookCacheService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Runs the importer against a real PostgreSQL, in a throwaway schema. Skipped unless one answers on
+ * SPRING_DATASOURCE_URL (the docker-compose database by default).
+ */
+@DisplayName("BookImporter against a local PostgreSQL")
+class BookImporterPostgresTest {
+
+  private JdbcTemplate jdbcTemplate;
+  private String schema;
+
+  @BeforeEach
+  void setUp() {
+    String url =
+        System.getenv()
+            .getOrDefault(
+                "SPRING_DATASOURCE_URL", "jdbc:postgresql://localhost:5432/bookstore_db");
+    String username = System.getenv().getOrDefault("SPRING_DATASOURCE_USERNAME", "user");
+    String password = System.getenv().getOrDefault("SPRING_DATASOURCE_PASSWORD", "password");
+    schema = "import_test_" + UUID.randomUUID().toString().replace("-", "");
+    try {
+      new JdbcTemplate(new DriverManagerDataSource(url, username, password))
+          .execute("CREATE SCHEMA " + schema);
+    } catch (Exception e) {
+      Assumptions.abort("No PostgreSQL reachable at " + url);
+    }
+    jdbcTemplate =
+        new JdbcTemplate(
+            new DriverManagerDataSource(
+                url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema,
+                username,
+                password));
+    jdbcTemplate.execute("CREATE SEQUENCE book_id_seq");
+    jdbcTemplate.execute(
+        "CREATE TABLE book (id bigint PRIMARY KEY, title varchar(255), author varchar(255),"
+            + " genre varchar(255), description varchar(2000), genre_key varchar(255),"
+            + " author_key varchar(255))");
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (jdbcTemplate != null) {
+      jdbcTemplate.execute("DROP SCHEMA " + schema + " CASCADE");
+    }
+  }
+
+  @Test
+  @DisplayName("Should keep books created during an import clear of the feed's ids")
+  void shouldKeepCreatedBooksClearOfFeedIds() throws Exception {
+    @SuppressWarnings("unchecked")
+    IBookCacheService<Book, Long> bookCacheService = mock(IBookCacheService.class);
+    List<Long> createdIds = new ArrayList<>();
+    // Each written batch is followed by a create, as POST /books would do meanwhile.
+    doAnswer(
+            invocation -> {
+              if (!invocation.<Collection<Long>>getArgument(0).isEmpty()) {
+                createdIds.add(create("Created " + createdIds.size()));
+              }
+              return null;
+            })
+        .when(bookCacheService)
+        .evictBooks(any(), any(), any());
+    BookImporter importer =
+        new BookImporter(
+            new BookBulkInsertRepository(jdbcTemplate),
+            bookCacheService,
+            new ObjectMapper(),
+            2,
+            2,
+            100);
+
+    ImportReport report =
+        importer.importBooks(
+            ImportFormat.NDJSON,
+            new ByteArrayInputStream(
+                String.join(
+                        "\n",
+                        "{\"id\":1,\"title\":\"A\",\"author\":\"Ann\",\"genre\":\"Fiction\"}",
+                        "{\"id\":2,\"title\":\"B\",\"author\":\"Bob\",\"genre\":\"Poetry\"}",
+                        "{\"id\":5,\"title\":\"C\",\"author\":\"Cid\",\"genre\":\"Drama\"}",
+                        "{\"title\":\"D\",\"author\":\"Dan\",\"genre\":\"Drama\"}")
+                    .getBytes(StandardCharsets.UTF_8)));
+
+    assertEquals(4, report.imported());
+    assertEquals(2, createdIds.size());
+    assertTrue(createdIds.get(0) > 2, "created id " + createdIds.get(0));
+    assertTrue(createdIds.get(1) > 5, "created id " + createdIds.get(1));
+    for (int i = 0; i < createdIds.size(); i++) {
+      assertEquals(
+          "Created " + i,
+          jdbcTemplate.queryForObject(
+              "SELECT title FROM book WHERE id = ?", String.class, createdIds.get(i)));
+    }
+    assertEquals(6, jdbcTemplate.queryForObject("SELECT count(*) FROM book", Integer.class));
+    verify(bookCacheService)
+        .evictBooks(
+            List.of(), Set.of("fiction", "poetry", "drama"), Set.of("ann", "bob", "cid", "dan"));
+  }
+
+  private long create(String title) {
+    return jdbcTemplate.queryForObject(
+        "INSERT INTO book (id, title, author, genre) VALUES (nextval('book_id_seq'), ?, 'X', 'Y')"
+            + " RETURNING id",
+        Long.class,
+        title);
+  }
+}
@@ -0,0 +1,137 @@
+package com.br.bookdata.domain.ingest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.repository.BookBulkInsertRepository;
+import com.br.bookdata.domain.service.contract.IBookCacheService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BookImporterTest {
+
+  @Mock private BookBulkInsertRepository repository;
+
+  @Mock private IBookCacheService<Book, Long> bookCacheService;
+
+  @Test
+  @DisplayName("Should write batches, split repeated ids and evict old and new lookup keys")
+  void shouldImportInBatches() throws IOException {
+    Book stored = Book.builder().id(1L).genreKey("romance").authorKey("cara").build();
+    when(repository.findLookupKeys(List.of(1L))).thenReturn(List.of(stored));
+
+    ImportReport report =
+        importer(2, 100)
+            .importBooks(
+                ImportFormat.NDJSON,
+                feed(
+                    "{\"id\":1,\"title\":\"A\",\"author\":\"Ann\",\"genre\":\"Fiction\"}",
+                    "{\"id\":1,\"title\":\"A2\",\"author\":\"Ann\",\"genre\":\"Drama\"}",
+                    "{\"title\":\"B\",\"author\":\"Bob\",\"genre\":\"Poetry\"}",
+                    "{\"id\":4,\"title\":\" \",\"author\":\"Bob\",\"genre\":\"Poetry\"}"));
+
+    assertEquals(4, report.received());
+    assertEquals(3, report.imported());
+    assertEquals(1, report.rejected());
+    assertEquals(List.of(new ImportReject(4, "title is required")), report.rejects());
+    assertEquals(4, report.lastCommittedLine());
+    assertNull(report.error());
+
+    ArgumentCaptor<List<Book>> batches = ArgumentCaptor.forClass(List.class);
+    verify(repository, times(2)).upsertAll(batches.capture());
+    assertEquals(1, batches.getAllValues().get(0).size());
+    assertEquals(
+        List.of("A2", "B"),
+        batches.getAllValues().get(1).stream().map(Book::getTitle).toList());
+    verify(bookCacheService, times(2)).evictBooks(List.of(1L), Set.of(), Set.of());
+    InOrder order = inOrder(repository);
+    order.verify(repository).advanceIdSequence(1L);
+    order.verify(repository).upsertAll(batches.getAllValues().get(0));
+    order.verify(repository).advanceIdSequence(1L);
+    order.verify(repository).upsertAll(batches.getAllValues().get(1));
+    verify(bookCacheService)
+        .evictBooks(
+            List.of(),
+            Set.of("romance", "fiction", "drama", "poetry"),
+            Set.of("cara", "ann", "bob"));
+  }
+
+  @Test
+  @DisplayName("Should count every reject but report only the first ones")
+  void shouldCapReportedRejects() throws IOException {
+    ImportReport report =
+        importer(10, 1)
+            .importBooks(
+                ImportFormat.CSV,
+                feed("title,author,genre", ",Ann,Fiction", "Emma,,Romance", "Dune,Herbert,"));
+
+    assertEquals(0, report.imported());
+    assertEquals(3, report.rejected());
+    assertEquals(List.of(new ImportReject(2, "title is required")), report.rejects());
+    verifyNoInteractions(repository, bookCacheService);
+  }
+
+  @Test
+  @DisplayName("Should stop at a failed write and report the last line written")
+  void shouldReportLastCommittedLineWhenWriterFails() throws IOException {
+    doNothing()
+        .doThrow(new IllegalStateException("connection refused"))
+        .when(repository)
+        .upsertAll(any());
+
+    ImportReport report =
+        importer(1, 100)
+            .importBooks(
+                ImportFormat.NDJSON,
+                feed(
+                    "{\"title\":\"A\",\"author\":\"Ann\",\"genre\":\"Fiction\"}",
+                    "{\"title\":\"B\",\"author\":\"Bob\",\"genre\":\"Poetry\"}",
+                    "{\"title\":\"C\",\"author\":\"Cid\",\"genre\":\"Drama\"}"));
+
+    assertEquals(1, report.imported());
+    assertEquals(1, report.lastCommittedLine());
+    assertTrue(report.error().contains("connection refused"), report.error());
+    verify(repository, never()).advanceIdSequence(anyLong());
+    verify(bookCacheService).evictBooks(List.of(), Set.of("fiction"), Set.of("ann"));
+  }
+
+  @Test
+  @DisplayName("Should validate required fields and column lengths")
+  void shouldValidateBooks() {
+    Book.BookBuilder valid = Book.builder().title("Dune").author("Herbert").genre("Sci-Fi");
+
+    assertNull(BookImporter.validate(valid.build()));
+    assertEquals("genre is required", BookImporter.validate(valid.genre(null).build()));
+    assertEquals(
+        "author is longer than 255 characters",
+        BookImporter.validate(valid.genre("Sci-Fi").author("a".repeat(256)).build()));
+    assertEquals(
+        "description is longer than 2000 characters",
+        BookImporter.validate(valid.author("Herbert").description("d".repeat(2001)).build()));
+  }
+
+  private BookImporter importer(int batchSize, int maxReportedRejects) {
+    return new BookImporter(
+        repository, bookCacheService, new ObjectMapper(), batchSize, 2, maxReportedRejects);
+  }
+
+  private static InputStream feed(String... lines) {
+    return new ByteArrayInputStream(
+        (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,120 @@
+package com.br.bookdata.domain.ingest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.br.bookdata.domain.exception.InvalidImportException;
+import com.br.bookdata.domain.model.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BookRecordReaderTest {
+
+  @Test
+  @DisplayName("Should read NDJSON records and reject malformed lines")
+  void shouldReadNdjson() throws IOException {
+    List<ImportRecord> records =
+        readAll(
+            ImportFormat.NDJSON,
+            "{\"id\":7,\"title\":\"Dune\",\"author\":\"Herbert\",\"genre\":\"Sci-Fi\"}\n"
+                + "\n"
+                + "{\"title\":\"Emma\",\"author\":\"Austen\",\"genre\":\"Romance\",\"extra\":1}\n"
+                + "{\"title\":\n"
+                + "[1,2]\n"
+                + "{\"id\":-1,\"title\":\"Bad\",\"author\":\"A\",\"genre\":\"G\"}\n");
+
+    assertEquals(5, records.size());
+    assertEquals(
+        Book.builder().id(7L).title("Dune").author("Herbert").genre("Sci-Fi").build(),
+        records.get(0).book());
+    assertEquals(3, records.get(1).line());
+    assertNull(records.get(1).book().getId());
+    assertEquals("Emma", records.get(1).book().getTitle());
+    assertTrue(records.get(2).isRejected());
+    assertEquals(4, records.get(2).line());
+    assertEquals("Record is not a JSON object", records.get(3).error());
+    assertTrue(records.get(4).error().startsWith("Invalid id"));
+  }
+
+  @Test
+  @DisplayName("Should read quoted CSV fields with commas, quotes and line breaks")
+  void shouldReadQuotedCsv() throws IOException {
+    List<ImportRecord> records =
+        readAll(
+            ImportFormat.CSV,
+            "ID,Title,Author,Genre,Description,Pages\r\n"
+                + "1,\"Dune, Part One\",Herbert,Sci-Fi,\"The \"\"spice\"\"\nmust flow\",412\r\n"
+                + ",Emma,Austen,Romance,,474\n");
+
+    assertEquals(2, records.size());
+    assertEquals(2, records.get(0).line());
+    assertEquals(
+        Book.builder()
+            .id(1L)
+            .title("Dune, Part One")
+            .author("Herbert")
+            .genre("Sci-Fi")
+            .description("The \"spice\"\nmust flow")
+            .build(),
+        records.get(0).book());
+    assertEquals(4, records.get(1).line());
+    assertNull(records.get(1).book().getId());
+    assertNull(records.get(1).book().getDescription());
+  }
+
+  @Test
+  @DisplayName("Should reject CSV rows with a bad id, the wrong width or an open quote")
+  void shouldRejectBadCsvRows() throws IOException {
+    List<ImportRecord> records =
+        readAll(
+            ImportFormat.CSV,
+            "id,title,author,genre\n"
+                + "x,Dune,Herbert,Sci-Fi\n"
+                + "2,Emma,Austen\n"
+                + "3,Ulysses,Joyce,Modernist\n"
+                + "4,\"Never closed,Joyce,Modernist\n");
+
+    assertEquals(4, records.size());
+    assertTrue(records.get(0).error().startsWith("Invalid id"));
+    assertEquals("Expected 4 columns, found 3", records.get(1).error());
+    assertFalse(records.get(2).isRejected());
+    assertEquals(5, records.get(3).line());
+    assertEquals("Quoted field is never closed", records.get(3).error());
+  }
+
+  @Test
+  @DisplayName("Should refuse a CSV feed whose header misses a required column")
+  void shouldRefuseIncompleteHeader() {
+    assertThrows(
+        InvalidImportException.class, () -> readAll(ImportFormat.CSV, "id,title,author\n1,A,B\n"));
+    assertThrows(InvalidImportException.class, () -> readAll(ImportFormat.CSV, ""));
+  }
+
+  @Test
+  @DisplayName("Should pick the format from the file name")
+  void shouldPickFormatFromFileName() {
+    assertEquals(ImportFormat.CSV, ImportFormat.fromFileName("books.CSV"));
+    assertEquals(ImportFormat.NDJSON, ImportFormat.fromFileName("books.ndjson"));
+    assertEquals(ImportFormat.NDJSON, ImportFormat.fromFileName("-"));
+  }
+
+  private static List<ImportRecord> readAll(ImportFormat format, String feed) throws IOException {
+    List<ImportRecord> records = new ArrayList<>();
+    try (BookRecordReader reader =
+        BookRecordReader.of(
+            format,
+            new ByteArrayInputStream(feed.getBytes(StandardCharsets.UTF_8)),
+            new ObjectMapper())) {
+      ImportRecord record;
+      while ((record = reader.next()) != null) {
+        records.add(record);
+      }
+    }
+    return records;
+  }
+}
@@ -0,0 +1,31 @@
+package com.br.bookdata.domain.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BookTest {
+
+  @Test
+  @DisplayName("Should fill the case-normalized lookup keys before persisting")
+  void shouldNormalizeLookupKeys() {
+    Book book = Book.builder().genre("Science Fiction").author("Darcy BAILEY").build();
+
+    book.normalizeLookupKeys();
+
+    assertEquals("science fiction", book.getGenreKey());
+    assertEquals("darcy bailey", book.getAuthorKey());
+  }
+
+  @Test
+  @DisplayName("Should keep lookup keys empty when the source value is missing")
+  void shouldKeepMissingLookupKeysNull() {
+    Book book = Book.builder().title("Untitled").build();
+
+    book.normalizeLookupKeys();
+
+    assertNull(book.getGenreKey());
+    assertNull(book.getAuthorKey());
+  }
+}
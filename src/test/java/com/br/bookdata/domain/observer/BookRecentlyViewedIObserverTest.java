@@ -37,8 +37,6 @@ class BookRecentlyViewedIObserverTest {
   @Test
   @DisplayName("Should update recently viewed books successfully")
   void shouldUpdateRecentlyViewedBooksSuccessfully() {
-    when(bookCacheService.updateRecentlyViewed(any(Book.class))).thenReturn(List.of(book));
-
     observer.update(book);
 
     verify(bookCacheService, times(1)).updateRecentlyViewed(book);
@@ -55,4 +53,13 @@ class BookRecentlyViewedIObserverTest {
 
     verify(bookCacheService, times(1)).updateRecentlyViewed(book);
   }
+
+  @Test
+  @DisplayName("Should update recently viewed books with a whole batch at once")
+  void shouldUpdateRecentlyViewedBooksInBatch() {
+    observer.updateAll(List.of(book, book));
+
+    verify(bookCacheService, times(1)).updateRecentlyViewed(List.of(book, book));
+    verify(bookCacheService, never()).updateRecentlyViewed(any(Book.class));
+  }
 }
@@ -1,9 +1,18 @@
 package com.br.bookdata.domain.observer;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.observer.AsyncEventBus.Backpressure;
 import com.br.bookdata.domain.observer.contract.IObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,6 +27,8 @@ class BookViewedISubjectTest {
 
   private BookViewedISubject bookViewedISubject;
 
+  private SimpleMeterRegistry meterRegistry;
+
   @Mock private ApplicationContext applicationContext;
 
   @Mock private BookRecentlyViewedIObserver bookRecentlyViewedIObserver;
@@ -28,35 +39,171 @@ class BookViewedISubjectTest {
 
   @BeforeEach
   void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
     when(applicationContext.getBean(
             "bookRecentlyViewedIObserver", BookRecentlyViewedIObserver.class))
         .thenReturn(bookRecentlyViewedIObserver);
-    bookViewedISubject = new BookViewedISubject(applicationContext);
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    bookViewedISubject.shutdown();
   }
 
   @Test
-  @DisplayName("Should notify observers when book is updated")
+  @DisplayName("Should notify observers off the caller thread")
   void shouldNotifyObserversWhenBookIsUpdated() {
+    bookViewedISubject = subject(10, Backpressure.DROP);
+
     bookViewedISubject.notifyObservers(book);
-    verify(bookRecentlyViewedIObserver, times(1)).update(book);
+
+    verify(bookRecentlyViewedIObserver, timeout(1000).times(1)).updateAll(List.of(book));
+    assertEquals(1, meterRegistry.get("bookdata.events.lag").timer().count());
   }
 
   @Test
   @DisplayName("Should add observer and notify all")
   void shouldAddObserverAndNotifyAll() {
+    bookViewedISubject = subject(10, Backpressure.DROP);
+
     bookViewedISubject.addObserver(anotherObserver);
     bookViewedISubject.notifyObservers(book);
-    verify(bookRecentlyViewedIObserver, times(1)).update(book);
-    verify(anotherObserver, times(1)).update(book);
+
+    verify(bookRecentlyViewedIObserver, timeout(1000).times(1)).updateAll(List.of(book));
+    verify(anotherObserver, timeout(1000).times(1)).updateAll(List.of(book));
   }
 
   @Test
   @DisplayName("Should remove observer and not notify it")
   void shouldRemoveObserverAndNotNotifyIt() {
+    bookViewedISubject = subject(10, Backpressure.DROP);
+
     bookViewedISubject.addObserver(anotherObserver);
     bookViewedISubject.removeObserver(anotherObserver);
     bookViewedISubject.notifyObservers(book);
-    verify(bookRecentlyViewedIObserver, times(1)).update(book);
-    verify(anotherObserver, never()).update(book);
+
+    verify(bookRecentlyViewedIObserver, timeout(1000).times(1)).updateAll(List.of(book));
+    verify(anotherObserver, never()).updateAll(anyList());
+  }
+
+  @Test
+  @DisplayName("Should deliver the events queued during a slow delivery as one batch")
+  void shouldDeliverQueuedEventsInBatch() throws Exception {
+    bookViewedISubject = subject(10, Backpressure.DROP);
+    BlockingObserver slowObserver = new BlockingObserver();
+    bookViewedISubject.addObserver(slowObserver);
+
+    bookViewedISubject.notifyObservers(book);
+    assertTrue(slowObserver.started.await(1, TimeUnit.SECONDS));
+    bookViewedISubject.notifyObservers(book);
+    bookViewedISubject.notifyObservers(book);
+    bookViewedISubject.notifyObservers(book);
+    slowObserver.release.countDown();
+
+    verify(bookRecentlyViewedIObserver, timeout(1000)).updateAll(List.of(book, book, book));
+    assertEquals(List.of(1, 3), slowObserver.batchSizes);
+  }
+
+  @Test
+  @DisplayName("Should drop events and count them when the queue is full")
+  void shouldDropEventsWhenQueueIsFull() throws Exception {
+    bookViewedISubject = subject(1, Backpressure.DROP);
+    BlockingObserver slowObserver = new BlockingObserver();
+    bookViewedISubject.addObserver(slowObserver);
+
+    bookViewedISubject.notifyObservers(book);
+    assertTrue(slowObserver.started.await(1, TimeUnit.SECONDS));
+    bookViewedISubject.notifyObservers(book);
+    bookViewedISubject.notifyObservers(book);
+
+    assertEquals(1.0, meterRegistry.get("bookdata.events.dropped").counter().count());
+    assertEquals(1.0, meterRegistry.get("bookdata.events.queue.depth").gauge().value());
+    slowObserver.release.countDown();
+  }
+
+  @Test
+  @DisplayName("Should block the publisher up to the timeout before dropping")
+  void shouldBlockBeforeDroppingWhenQueueIsFull() throws Exception {
+    bookViewedISubject = subject(1, Backpressure.BLOCK);
+    BlockingObserver slowObserver = new BlockingObserver();
+    bookViewedISubject.addObserver(slowObserver);
+
+    bookViewedISubject.notifyObservers(book);
+    assertTrue(slowObserver.started.await(1, TimeUnit.SECONDS));
+    bookViewedISubject.notifyObservers(book);
+    long start = System.nanoTime();
+    bookViewedISubject.notifyObservers(book);
+
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(40));
+    assertEquals(1.0, meterRegistry.get("bookdata.events.dropped").counter().count());
+    slowObserver.release.countDown();
+  }
+
+  @Test
+  @DisplayName("Should keep dispatching after an observer fails")
+  void shouldKeepDispatchingAfterObserverFailure() {
+    bookViewedISubject = subject(10, Backpressure.DROP);
+    doThrow(new RuntimeException("boom")).doNothing().when(anotherObserver).updateAll(anyList());
+    bookViewedISubject.addObserver(anotherObserver);
+
+    bookViewedISubject.notifyObservers(book);
+    verify(anotherObserver, timeout(1000).times(1)).updateAll(anyList());
+    bookViewedISubject.notifyObservers(book);
+
+    verify(bookRecentlyViewedIObserver, timeout(1000).times(2)).updateAll(List.of(book));
+  }
+
+  @Test
+  @DisplayName("Should hold events published before start until the dispatcher runs")
+  void shouldQueueEventsUntilStarted() throws Exception {
+    bookViewedISubject =
+        new BookViewedISubject(
+            applicationContext, meterRegistry, 10, 100, Backpressure.DROP, Duration.ofMillis(50));
+
+    bookViewedISubject.notifyObservers(book);
+    Thread.sleep(100);
+    verify(bookRecentlyViewedIObserver, never()).updateAll(anyList());
+    bookViewedISubject.start();
+
+    verify(bookRecentlyViewedIObserver, timeout(1000)).updateAll(List.of(book));
+  }
+
+  @Test
+  @DisplayName("Should deliver pending events on shutdown")
+  void shouldDrainOnShutdown() throws Exception {
+    bookViewedISubject = subject(10, Backpressure.DROP);
+
+    bookViewedISubject.notifyObservers(book);
+    bookViewedISubject.shutdown();
+
+    verify(bookRecentlyViewedIObserver).updateAll(List.of(book));
+  }
+
+  private BookViewedISubject subject(int capacity, Backpressure backpressure) {
+    BookViewedISubject subject =
+        new BookViewedISubject(
+            applicationContext, meterRegistry, capacity, 100, backpressure, Duration.ofMillis(50));
+    subject.start();
+    return subject;
+  }
+
+  private static final class BlockingObserver implements IObserver<Book> {
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void update(Book book) {}
+
+    @Override
+    public void updateAll(List<Book> books) {
+      batchSizes.add(books.size());
+      started.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
   }
 }
@@ -0,0 +1,37 @@
+package com.br.bookdata.domain.observer;
+
+import static org.mockito.Mockito.*;
+
+import com.br.bookdata.domain.cache.RedisHotKeyManifest;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class HotKeyIObserverTest {
+
+  @Mock private RedisHotKeyManifest manifest;
+
+  @InjectMocks private HotKeyIObserver observer;
+
+  @Test
+  @DisplayName("Should count repeated members of a batch once each")
+  void shouldCountBatch() {
+    observer.updateAll(List.of("id|1", "id|2", "id|1"));
+
+    verify(manifest).incrementAll(Map.of("id|1", 2L, "id|2", 1L));
+  }
+
+  @Test
+  @DisplayName("Should record a single hit")
+  void shouldRecordSingleHit() {
+    observer.update("all|0|10");
+
+    verify(manifest).incrementAll(Map.of("all|0|10", 1L));
+  }
+}
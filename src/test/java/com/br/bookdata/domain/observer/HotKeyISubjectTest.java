@@ -0,0 +1,62 @@
+package com.br.bookdata.domain.observer;
+
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationContext;
+
+@ExtendWith(MockitoExtension.class)
+class HotKeyISubjectTest {
+
+  @Mock private ApplicationContext applicationContext;
+  @Mock private HotKeyIObserver hotKeyIObserver;
+
+  private HotKeyISubject subject;
+
+  @BeforeEach
+  void setUp() {
+    when(applicationContext.getBean("hotKeyIObserver", HotKeyIObserver.class))
+        .thenReturn(hotKeyIObserver);
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    subject.shutdown();
+  }
+
+  @Test
+  @DisplayName("Should publish every hit when the sample rate is one")
+  void shouldPublishSampledHits() {
+    subject = subject(1.0);
+
+    subject.notifyObservers("id|1");
+
+    verify(hotKeyIObserver, timeout(1000)).updateAll(List.of("id|1"));
+  }
+
+  @Test
+  @DisplayName("Should publish nothing when the sample rate is zero")
+  void shouldSkipUnsampledHits() throws InterruptedException {
+    subject = subject(0.0);
+
+    subject.notifyObservers("id|1");
+    subject.shutdown();
+
+    verifyNoInteractions(hotKeyIObserver);
+  }
+
+  private HotKeyISubject subject(double sampleRate) {
+    HotKeyISubject hotKeySubject =
+        new HotKeyISubject(applicationContext, new SimpleMeterRegistry(), sampleRate, 10, 10);
+    hotKeySubject.start();
+    return hotKeySubject;
+  }
+}
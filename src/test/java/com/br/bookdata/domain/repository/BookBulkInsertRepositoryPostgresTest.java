@@ -0,0 +1,84 @@
+package com.br.bookdata.domain.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.br.bookdata.domain.utils.LookupKey;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Runs the lookup key backfill against a real PostgreSQL, in a throwaway schema. Skipped unless one
+ * answers on SPRING_DATASOURCE_URL (the docker-compose database by default).
+ */
+@DisplayName("BookBulkInsertRepository against a local PostgreSQL")
+class BookBulkInsertRepositoryPostgresTest {
+
+  private JdbcTemplate jdbcTemplate;
+  private String schema;
+
+  @BeforeEach
+  void setUp() {
+    String url =
+        System.getenv()
+            .getOrDefault(
+                "SPRING_DATASOURCE_URL", "jdbc:postgresql://localhost:5432/bookstore_db");
+    String username = System.getenv().getOrDefault("SPRING_DATASOURCE_USERNAME", "user");
+    String password = System.getenv().getOrDefault("SPRING_DATASOURCE_PASSWORD", "password");
+    schema = "backfill_test_" + UUID.randomUUID().toString().replace("-", "");
+    try {
+      new JdbcTemplate(new DriverManagerDataSource(url, username, password))
+          .execute("CREATE SCHEMA " + schema);
+    } catch (Exception e) {
+      Assumptions.abort("No PostgreSQL reachable at " + url);
+    }
+    jdbcTemplate =
+        new JdbcTemplate(
+            new DriverManagerDataSource(
+                url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema,
+                username,
+                password));
+    jdbcTemplate.execute(
+        "CREATE TABLE book (id bigint PRIMARY KEY, title varchar(255), author varchar(255),"
+            + " genre varchar(255), description varchar(2000), genre_key varchar(255),"
+            + " author_key varchar(255))");
+    jdbcTemplate.execute("CREATE INDEX idx_genre_key ON book (genre_key, id)");
+    jdbcTemplate.execute("CREATE INDEX idx_author_key ON book (author_key, id)");
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (jdbcTemplate != null) {
+      jdbcTemplate.execute("DROP SCHEMA " + schema + " CASCADE");
+    }
+  }
+
+  @Test
+  @DisplayName("Should backfill the lookup keys exactly as LookupKey computes them")
+  void shouldBackfillLookupKeysLikeLookupKey() {
+    jdbcTemplate.update(
+        "INSERT INTO book (id, title, author, genre) VALUES (1, 'A', 'İlhan Öztürk', 'ÇOCUK'),"
+            + " (2, 'B', 'STRASSE', 'Ficção'), (3, 'C', NULL, 'Drama')");
+    jdbcTemplate.update(
+        "INSERT INTO book (id, title, author, genre, genre_key, author_key)"
+            + " VALUES (4, 'D', 'Ann', 'Poetry', 'poetry', 'ann')");
+    BookBulkInsertRepository repository = new BookBulkInsertRepository(jdbcTemplate);
+
+    assertEquals(3, repository.backfillLookupKeys());
+    assertEquals(0, repository.backfillLookupKeys());
+
+    jdbcTemplate.query(
+        "SELECT genre, author, genre_key, author_key FROM book",
+        resultSet -> {
+          assertEquals(
+              LookupKey.of(resultSet.getString("genre")), resultSet.getString("genre_key"));
+          assertEquals(
+              LookupKey.of(resultSet.getString("author")), resultSet.getString("author_key"));
+        });
+  }
+}
@@ -1,36 +1,79 @@
 package com.br.bookdata.domain.service;
 
+import static com.br.bookdata.domain.service.BookCacheServiceImpl.mountKeyByCursor;
 import static com.br.bookdata.domain.service.BookCacheServiceImpl.mountKeyById;
+import static com.br.bookdata.domain.service.BookCacheServiceImpl.mountKeyByTotal;
+import static com.br.bookdata.domain.service.BookCacheServiceImpl.tagOf;
+import static com.br.bookdata.domain.service.enums.BookCacheKeyType.BOOK_CURSOR_GENRE_KEY;
+import static com.br.bookdata.domain.service.enums.BookCacheKeyType.BOOK_CURSOR_KEY;
 import static com.br.bookdata.domain.service.enums.BookCacheKeyType.BOOK_ID_KEY;
+import static com.br.bookdata.domain.service.enums.BookCacheKeyType.BOOK_PAGED_AUTHOR_KEY;
+import static com.br.bookdata.domain.service.enums.BookCacheKeyType.BOOK_PAGED_GENRE_KEY;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.br.bookdata.domain.cache.CacheEntry;
+import com.br.bookdata.domain.cache.RedisCacheGenerations;
+import com.br.bookdata.domain.cache.RedisCacheTags;
+import com.br.bookdata.domain.cache.RedisRecentList;
+import com.br.bookdata.domain.cache.RefreshAhead;
 import com.br.bookdata.domain.cache.contract.ICache;
 import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.model.BookSummary;
+import com.br.bookdata.domain.service.enums.TotalsMode;
+import com.br.bookdata.domain.service.enums.TotalsScope;
+import com.br.bookdata.domain.utils.CachedTotal;
+import com.br.bookdata.domain.utils.CursorPage;
 import com.br.bookdata.domain.utils.CustomPage;
 import com.fasterxml.jackson.core.type.TypeReference;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class BookCacheServiceImplTest {
 
   @Mock private ICache cache;
 
+  @Mock private RedisRecentList recentList;
+
+  @Mock private RedisCacheTags cacheTags;
+
+  @Mock private RedisCacheGenerations generations;
+
+  @Spy
+  private RefreshAhead refreshAhead =
+      new RefreshAhead(new SimpleMeterRegistry(), true, 1.0, 0.1, 1, 10);
+
   @InjectMocks private BookCacheServiceImpl bookCacheService;
 
   private Book book;
+  private BookSummary summary;
 
   @BeforeEach
   void setUp() {
+    lenient().when(generations.current(anyString())).thenReturn(OptionalLong.of(0));
+    lenient()
+        .when(cacheTags.tag(anyString(), anyString(), anyString(), any(Duration.class), eq("v1")))
+        .thenReturn(true);
+    lenient().when(cacheTags.isCurrent(anyString(), eq("v1"))).thenReturn(true);
     book =
         Book.builder()
             .id(1L)
@@ -39,27 +82,23 @@ class BookCacheServiceImplTest {
             .genre("Fiction")
             .description("A test book description")
             .build();
+    summary = new BookSummary(1L, "Test Book", "Test Author", "Fiction");
   }
 
   @Test
   @DisplayName("Should retrieve all books from cache when available")
   void shouldGetAllBooksFromCache() {
     int page = 0, size = 10;
-    CustomPage<Book> cachedPage = new CustomPage<>(new PageImpl<>(List.of(book)));
+    CustomPage<BookSummary> cachedPage = new CustomPage<>(new PageImpl<>(List.of(summary)));
     when(cache.getFromCache(anyString(), any(TypeReference.class), anyString()))
         .thenReturn(Optional.of(cachedPage));
 
-    Optional<CustomPage<Book>> result = bookCacheService.getAllBooks(page, size);
+    Optional<CustomPage<BookSummary>> result = bookCacheService.getAllBooks(page, size);
 
     assertTrue(result.isPresent());
     assertEquals(1, result.get().getContent().size());
 
-    var responseBook = result.get().getContent().get(0);
-    assertEquals(book.getAuthor(), responseBook.getAuthor());
-    assertEquals(book.getId(), responseBook.getId());
-    assertEquals(book.getTitle(), responseBook.getTitle());
-    assertEquals(book.getGenre(), responseBook.getGenre());
-    assertEquals(book.getDescription(), responseBook.getDescription());
+    assertEquals(summary, result.get().getContent().get(0));
   }
 
   @Test
@@ -69,7 +108,7 @@ class BookCacheServiceImplTest {
     when(cache.getFromCache(anyString(), any(TypeReference.class), anyString()))
         .thenReturn(Optional.empty());
 
-    Optional<CustomPage<Book>> result = bookCacheService.getAllBooks(page, size);
+    Optional<CustomPage<BookSummary>> result = bookCacheService.getAllBooks(page, size);
 
     assertFalse(result.isPresent());
   }
@@ -102,57 +141,38 @@ class BookCacheServiceImplTest {
   }
 
   @Test
-  @DisplayName("Should update recently viewed books in cache")
+  @DisplayName("Should push only the book id to the recently viewed list")
   void shouldUpdateRecentlyViewedBooks() {
-    when(cache.getFromCache(anyString(), any(TypeReference.class), anyString()))
-        .thenReturn(Optional.empty());
-
-    List<Book> result = bookCacheService.updateRecentlyViewed(book);
-
-    assertNotNull(result);
-    assertEquals(1, result.size());
-    assertEquals(book.getId(), result.get(0).getId());
+    Book other = Book.builder().id(2L).build();
 
-    var responseBook = result.get(0);
-    assertEquals(book.getAuthor(), responseBook.getAuthor());
-    assertEquals(book.getId(), responseBook.getId());
-    assertEquals(book.getTitle(), responseBook.getTitle());
-    assertEquals(book.getGenre(), responseBook.getGenre());
-    assertEquals(book.getDescription(), responseBook.getDescription());
+    bookCacheService.updateRecentlyViewed(book);
+    bookCacheService.updateRecentlyViewed(List.of(book, other));
 
-    verify(cache).putToCache(anyString(), any(List.class), anyString(), isNull());
+    verify(recentList).pushAll(endsWith(":recently-viewed-ids"), eq(List.of("1")), eq(10));
+    verify(recentList).pushAll(endsWith(":recently-viewed-ids"), eq(List.of("1", "2")), eq(10));
+    verifyNoInteractions(cache);
   }
 
   @Test
-  @DisplayName("Should retrieve recently viewed books from cache")
-  void shouldGetRecentlyViewedBooksFromCache() {
-    when(cache.getFromCache(anyString(), any(TypeReference.class), anyString()))
-        .thenReturn(Optional.of(List.of(book)));
-
-    List<Book> result = bookCacheService.getRecentlyViewed();
+  @DisplayName("Should read recently viewed ids in viewing order")
+  void shouldGetRecentlyViewedIds() {
+    when(recentList.range(endsWith(":recently-viewed-ids"), eq(10)))
+        .thenReturn(List.of("3", "1", "2"));
 
-    assertNotNull(result);
-
-    var responseBook = result.get(0);
-    assertEquals(book.getAuthor(), responseBook.getAuthor());
-    assertEquals(book.getId(), responseBook.getId());
-    assertEquals(book.getTitle(), responseBook.getTitle());
-    assertEquals(book.getGenre(), responseBook.getGenre());
-    assertEquals(book.getDescription(), responseBook.getDescription());
-
-    assertEquals(1, result.size());
+    assertEquals(List.of(3L, 1L, 2L), bookCacheService.getRecentlyViewedIds());
   }
 
   @Test
-  @DisplayName("Should return empty list when recently viewed books are not in cache")
-  void shouldReturnEmptyListWhenNoRecentlyViewedBooksInCache() {
-    when(cache.getFromCache(anyString(), any(TypeReference.class), anyString()))
-        .thenReturn(Optional.empty());
+  @DisplayName("Should resolve cached books by id with a single multi-get")
+  void shouldGetBooksByIdsFromCache() {
+    when(cache.multiGet(
+            eq(List.of("book-id-1", "book-id-2")), any(TypeReference.class), anyString()))
+        .thenReturn(Map.of("book-id-1", book));
 
-    List<Book> result = bookCacheService.getRecentlyViewed();
+    Map<Long, Book> result = bookCacheService.getBooksByIds(List.of(1L, 2L));
 
-    assertNotNull(result);
-    assertTrue(result.isEmpty());
+    assertEquals(Map.of(1L, book), result);
+    verify(cache, never()).getFromCache(anyString(), any(TypeReference.class), anyString());
   }
 
   @Test
@@ -160,21 +180,16 @@ class BookCacheServiceImplTest {
   void shouldGetBooksByGenreFromCache() {
     int page = 0, size = 10;
     String genre = "Fiction";
-    CustomPage<Book> cachedPage = new CustomPage<>(new PageImpl<>(List.of(book)));
+    CustomPage<BookSummary> cachedPage = new CustomPage<>(new PageImpl<>(List.of(summary)));
     when(cache.getFromCache(anyString(), any(TypeReference.class), anyString()))
         .thenReturn(Optional.of(cachedPage));
 
-    Optional<CustomPage<Book>> result = bookCacheService.getBooksByGenre(genre, page, size);
+    Optional<CustomPage<BookSummary>> result = bookCacheService.getBooksByGenre(genre, page, size);
 
     assertTrue(result.isPresent());
     assertEquals(1, result.get().getContent().size());
 
-    var responseBook = result.get().getContent().get(0);
-    assertEquals(book.getAuthor(), responseBook.getAuthor());
-    assertEquals(book.getId(), responseBook.getId());
-    assertEquals(book.getTitle(), responseBook.getTitle());
-    assertEquals(book.getGenre(), responseBook.getGenre());
-    assertEquals(book.getDescription(), responseBook.getDescription());
+    assertEquals(summary, result.get().getContent().get(0));
   }
 
   @Test
@@ -185,7 +200,7 @@ class BookCacheServiceImplTest {
     when(cache.getFromCache(anyString(), any(TypeReference.class), anyString()))
         .thenReturn(Optional.empty());
 
-    Optional<CustomPage<Book>> result = bookCacheService.getBooksByGenre(genre, page, size);
+    Optional<CustomPage<BookSummary>> result = bookCacheService.getBooksByGenre(genre, page, size);
 
     assertFalse(result.isPresent());
   }
@@ -195,21 +210,16 @@ class BookCacheServiceImplTest {
   void shouldGetBooksByAuthorFromCache() {
     int page = 0, size = 10;
     String author = "Frederico";
-    CustomPage<Book> cachedPage = new CustomPage<>(new PageImpl<>(List.of(book)));
+    CustomPage<BookSummary> cachedPage = new CustomPage<>(new PageImpl<>(List.of(summary)));
     when(cache.getFromCache(anyString(), any(TypeReference.class), anyString()))
         .thenReturn(Optional.of(cachedPage));
 
-    Optional<CustomPage<Book>> result = bookCacheService.getBooksByGenre(author, page, size);
+    Optional<CustomPage<BookSummary>> result = bookCacheService.getBooksByGenre(author, page, size);
 
     assertTrue(result.isPresent());
     assertEquals(1, result.get().getContent().size());
 
-    var responseBook = result.get().getContent().get(0);
-    assertEquals(book.getAuthor(), responseBook.getAuthor());
-    assertEquals(book.getId(), responseBook.getId());
-    assertEquals(book.getTitle(), responseBook.getTitle());
-    assertEquals(book.getGenre(), responseBook.getGenre());
-    assertEquals(book.getDescription(), responseBook.getDescription());
+    assertEquals(summary, result.get().getContent().get(0));
   }
 
   @Test
@@ -220,7 +230,8 @@ class BookCacheServiceImplTest {
     when(cache.getFromCache(anyString(), any(TypeReference.class), anyString()))
         .thenReturn(Optional.empty());
 
-    Optional<CustomPage<Book>> result = bookCacheService.getBooksByAuthor(author, page, size);
+    Optional<CustomPage<BookSummary>> result =
+        bookCacheService.getBooksByAuthor(author, page, size);
 
     assertFalse(result.isPresent());
   }
@@ -237,8 +248,309 @@ class BookCacheServiceImplTest {
   @DisplayName("Should put list the books in cache")
   void shouldPutBooksInCache() {
     String cacheKey = mountKeyById(BOOK_ID_KEY, book.getId());
-    CustomPage<Book> cachedPage = new CustomPage<>(new PageImpl<>(List.of(book)));
-    bookCacheService.putCache(cachedPage, cacheKey);
+    CustomPage<BookSummary> cachedPage = new CustomPage<>(new PageImpl<>(List.of(summary)));
+    bookCacheService.putCache(cachedPage, cacheKey, "all", "v1");
     verify(cache, times(1)).putToCache(eq(cacheKey), eq(cachedPage), anyString(), any());
   }
+
+  @Test
+  @DisplayName("Should write a batch of books by id in one multi-put with jittered TTLs")
+  @SuppressWarnings("unchecked")
+  void shouldPutBooksByIdInOneCall() {
+    Book second = Book.builder().id(2L).build();
+    ArgumentCaptor<Map<String, CacheEntry<Book>>> entries = ArgumentCaptor.forClass(Map.class);
+
+    bookCacheService.putBooks(List.of(book, second));
+
+    verify(cache, times(1)).multiPut(entries.capture(), anyString());
+    assertEquals(List.of("book-id-1", "book-id-2"), List.copyOf(entries.getValue().keySet()));
+    assertEquals(second, entries.getValue().get("book-id-2").value());
+    entries
+        .getValue()
+        .values()
+        .forEach(
+            entry ->
+                assertTrue(
+                    entry.ttl().compareTo(Duration.ofMinutes(54)) >= 0
+                        && entry.ttl().compareTo(Duration.ofMinutes(66)) <= 0));
+    verify(cache, never()).putToCache(anyString(), any(), anyString(), any());
+  }
+
+  @Test
+  @DisplayName("Should write stale copies of a batch when they are enabled")
+  void shouldPutStaleCopiesOfBooks() {
+    ReflectionTestUtils.setField(bookCacheService, "staleCopyEnabled", true);
+
+    bookCacheService.putBooks(List.of(book));
+
+    verify(cache).multiPut(anyMap(), anyString());
+    verify(cache)
+        .multiPut(eq(Map.of("book-id-1:stale", book)), anyString(), eq(Duration.ofHours(6)));
+  }
+
+  @Test
+  @DisplayName("Should stamp pages with their creation time and jittered expiry")
+  void shouldStampPagesWithExpiry() {
+    String cacheKey = "books-page-size-0-10";
+    CustomPage<BookSummary> cachedPage = new CustomPage<>(new PageImpl<>(List.of(summary)));
+
+    bookCacheService.putCache(cachedPage, cacheKey, "all", "v1");
+
+    long ttl = cachedPage.getExpiresAt() - cachedPage.getCachedAt();
+    assertTrue(cachedPage.getCachedAt() > 0);
+    assertTrue(ttl >= Duration.ofMinutes(9).toMillis() && ttl <= Duration.ofMinutes(11).toMillis());
+    verify(cache).putToCache(eq(cacheKey), eq(cachedPage), anyString(), eq(Duration.ofMillis(ttl)));
+  }
+
+  @Test
+  @DisplayName("Should not read or write stale copies when they are disabled")
+  void shouldSkipStaleCopiesWhenDisabled() {
+    String cacheKey = mountKeyById(BOOK_ID_KEY, book.getId());
+
+    bookCacheService.putCache(book, cacheKey);
+
+    assertTrue(bookCacheService.getStaleBook(cacheKey).isEmpty());
+    assertTrue(bookCacheService.getStalePage(cacheKey).isEmpty());
+    verify(cache, times(1)).putToCache(anyString(), any(), anyString(), any());
+    verify(cache, never()).getFromCache(anyString(), any(TypeReference.class), anyString());
+  }
+
+  @Test
+  @DisplayName("Should write and read stale copies when they are enabled")
+  void shouldWriteAndReadStaleCopies() {
+    ReflectionTestUtils.setField(bookCacheService, "staleCopyEnabled", true);
+    String cacheKey = mountKeyById(BOOK_ID_KEY, book.getId());
+    CustomPage<BookSummary> cachedPage = new CustomPage<>(new PageImpl<>(List.of(summary)));
+    when(cache.getFromCache(eq(cacheKey + ":stale"), any(TypeReference.class), anyString()))
+        .thenReturn(Optional.of(book), Optional.of(cachedPage));
+
+    bookCacheService.putCache(book, cacheKey);
+    bookCacheService.putCache(cachedPage, cacheKey, "all", "v1");
+
+    assertEquals(Optional.of(book), bookCacheService.getStaleBook(cacheKey));
+    assertEquals(Optional.of(cachedPage), bookCacheService.getStalePage(cacheKey));
+    verify(cache, times(1)).putToCache(eq(cacheKey + ":stale"), eq(book), anyString(), any());
+    verify(cache, times(1))
+        .putToCache(eq(cacheKey + ":stale"), eq(cachedPage), anyString(), any());
+    verify(cacheTags)
+        .tag(anyString(), eq(cacheKey + ":stale"), eq("all"), eq(Duration.ofHours(6)), eq("v1"));
+  }
+
+  @Test
+  @DisplayName("Should mount cursor keys with the last id, size and filter")
+  void shouldMountKeyByCursor() {
+    assertEquals("books-cursor-0-10", mountKeyByCursor(BOOK_CURSOR_KEY, 0L, 10, null));
+    assertEquals(
+        "books-cursor-genre-42-10-FICTION",
+        mountKeyByCursor(BOOK_CURSOR_GENRE_KEY, 42L, 10, "Fiction"));
+  }
+
+  @Test
+  @DisplayName("Should put and get cursor pages from cache")
+  void shouldPutAndGetCursorPage() {
+    String cacheKey = mountKeyByCursor(BOOK_CURSOR_KEY, 0L, 10, null);
+    CursorPage<BookSummary> cursorPage = new CursorPage<>(List.of(summary), 10, "next");
+    when(cache.getFromCache(eq(cacheKey), any(TypeReference.class), anyString()))
+        .thenReturn(Optional.of(cursorPage));
+
+    bookCacheService.putCache(cursorPage, cacheKey, tagOf(BOOK_CURSOR_KEY, null), "v1");
+
+    assertEquals(Optional.of(cursorPage), bookCacheService.getCursorPage(cacheKey));
+    verify(cache, times(1)).putToCache(eq(cacheKey), eq(cursorPage), anyString(), any());
+    verify(cacheTags).tag(anyString(), eq(cacheKey), eq("all"), any(Duration.class), eq("v1"));
+  }
+
+  @Test
+  @DisplayName("Should mount total keys per mode, scope and filter")
+  void shouldMountKeyByTotal() {
+    assertEquals("books-total-exact-all", mountKeyByTotal(TotalsMode.EXACT, TotalsScope.ALL, null));
+    assertEquals(
+        "books-total-approximate-genre-FICTION",
+        mountKeyByTotal(TotalsMode.APPROXIMATE, TotalsScope.GENRE, "Fiction"));
+  }
+
+  @Test
+  @DisplayName("Should stamp totals with their expiry and read them back from cache")
+  void shouldPutAndGetTotal() {
+    String cacheKey = mountKeyByTotal(TotalsMode.EXACT, TotalsScope.AUTHOR, "Jorge");
+    CachedTotal total = new CachedTotal(42L, 5L);
+    when(cache.getFromCache(eq(cacheKey), any(TypeReference.class), anyString()))
+        .thenReturn(Optional.of(total));
+
+    bookCacheService.putCache(total, cacheKey, tagOf(TotalsScope.AUTHOR, "Jorge"), "v1");
+
+    assertTrue(total.getExpiresAt() > total.getCachedAt());
+    assertEquals(Optional.of(total), bookCacheService.getTotal(cacheKey));
+    verify(cache).putToCache(eq(cacheKey), eq(total), anyString(), any());
+    verify(cacheTags)
+        .tag(anyString(), eq(cacheKey), eq("author:jorge"), any(Duration.class), eq("v1"));
+  }
+
+  @Test
+  @DisplayName("Should evict the ids and the entries tagged with the touched genres and authors")
+  void shouldEvictTaggedKeys() {
+    ReflectionTestUtils.setField(bookCacheService, "staleCopyEnabled", true);
+    when(cacheTags.pop(Set.of("all", "genre:fiction", "author:ann")))
+        .thenReturn(
+            Map.of(
+                "books",
+                List.of("books-page-size-0-10"),
+                BookCacheServiceImpl.RESPONSE_CACHE_NAME,
+                List.of("response-books-page-size-genre-0-10-FICTION")));
+
+    bookCacheService.evictBooks(List.of(1L, 2L), Set.of("fiction"), Set.of("ann"));
+
+    verify(cache)
+        .multiRemove(
+            eq(List.of("book-id-1", "book-id-2", "book-id-1:stale", "book-id-2:stale")),
+            anyString());
+    verify(cache)
+        .multiRemove(
+            List.of("response-book-id-1", "response-book-id-2"),
+            BookCacheServiceImpl.RESPONSE_CACHE_NAME);
+    verify(cache).multiRemove(List.of("books-page-size-0-10"), "books");
+    verify(cache)
+        .multiRemove(
+            List.of("response-books-page-size-genre-0-10-FICTION"),
+            BookCacheServiceImpl.RESPONSE_CACHE_NAME);
+  }
+
+  @Test
+  @DisplayName("Should only evict ids when no genre or author is touched")
+  void shouldEvictOnlyIds() {
+    bookCacheService.evictBooks(List.of(1L), Set.of(), Set.of());
+
+    verify(cache).multiRemove(eq(List.of("book-id-1")), anyString());
+    verifyNoInteractions(cacheTags);
+  }
+
+  @Test
+  @DisplayName("Should retire the list families instead of popping tags for large feeds")
+  void shouldRetireListFamiliesForLargeFeeds() {
+    ReflectionTestUtils.setField(bookCacheService, "bulkEvictionThreshold", 2);
+
+    bookCacheService.evictBooks(List.of(), Set.of("fiction", "drama"), Set.of("ann"));
+
+    verify(generations)
+        .bump(
+            List.of(
+                "BOOK_PAGED_KEY",
+                "BOOK_PAGED_GENRE_KEY",
+                "BOOK_PAGED_AUTHOR_KEY",
+                "BOOK_CURSOR_KEY",
+                "BOOK_CURSOR_GENRE_KEY",
+                "BOOK_CURSOR_AUTHOR_KEY",
+                "BOOK_TOTAL_KEY"));
+    InOrder inOrder = inOrder(cacheTags, generations);
+    inOrder.verify(cacheTags).retireAll();
+    inOrder.verify(generations).bump(anyList());
+    verifyNoMoreInteractions(cacheTags);
+    verifyNoInteractions(cache);
+  }
+
+  @Test
+  @DisplayName("Should tag a list before caching it and skip it when a write evicted the tag")
+  void shouldTagBeforeCachingAndSkipEvictedTag() {
+    CustomPage<BookSummary> page = new CustomPage<>(new PageImpl<>(List.of(summary)));
+    when(cacheTags.tag(anyString(), anyString(), anyString(), any(Duration.class), eq("v0")))
+        .thenReturn(false);
+
+    bookCacheService.putCache(page, "books-page-size-0-10", "all", "v1");
+    bookCacheService.putCache(page, "books-page-size-1-10", "all", "v0");
+
+    InOrder inOrder = inOrder(cacheTags, cache);
+    inOrder
+        .verify(cacheTags)
+        .tag(anyString(), eq("books-page-size-0-10"), eq("all"), any(Duration.class), eq("v1"));
+    inOrder
+        .verify(cache)
+        .putToCache(eq("books-page-size-0-10"), eq(page), anyString(), any(Duration.class));
+    verify(cache, never()).putToCache(eq("books-page-size-1-10"), any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Should drop a list cached while a write evicted its tag")
+  void shouldDropListEvictedWhileCaching() {
+    CursorPage<BookSummary> cursorPage = new CursorPage<>(List.of(summary), 10, "next");
+    when(cacheTags.isCurrent("all", "v1")).thenReturn(false);
+
+    bookCacheService.putCache(cursorPage, "books-cursor-0-10", "all", "v1");
+
+    verify(cache).putToCache(eq("books-cursor-0-10"), eq(cursorPage), anyString(), any());
+    verify(cache).removeCache(eq("books-cursor-0-10"), anyString());
+  }
+
+  @Test
+  @DisplayName("Should read, write and tag keys under the generation of their family")
+  void shouldVersionKeysByFamily() {
+    when(generations.current("BOOK_PAGED_AUTHOR_KEY")).thenReturn(OptionalLong.of(2));
+    when(generations.current("BOOK_ID_KEY")).thenReturn(OptionalLong.of(7));
+    String cacheKey = "books-page-size-genre-author-0-10-ANN";
+    CustomPage<BookSummary> page = new CustomPage<>(new PageImpl<>(List.of(summary)));
+    when(cache.getFromCache(
+            eq("books-page-size-genre-author-v2:0-10-ANN"), any(TypeReference.class), anyString()))
+        .thenReturn(Optional.of(page));
+
+    assertEquals(Optional.of(page), bookCacheService.getBooksByAuthor("Ann", 0, 10));
+    bookCacheService.putCache(page, cacheKey, tagOf(BOOK_PAGED_AUTHOR_KEY, "Ann"), "v1");
+    bookCacheService.evictBooks(List.of(1L), Set.of(), Set.of());
+
+    verify(cache)
+        .putToCache(
+            eq("books-page-size-genre-author-v2:0-10-ANN"),
+            eq(page),
+            anyString(),
+            any(Duration.class));
+    verify(cacheTags)
+        .tag(
+            anyString(),
+            eq("books-page-size-genre-author-v2:0-10-ANN"),
+            eq("author:ann"),
+            any(Duration.class),
+            eq("v1"));
+    verify(cache).multiRemove(eq(List.of("book-id-v7:1")), anyString());
+    verify(cache)
+        .multiRemove(List.of("response-book-id-v7:1"), BookCacheServiceImpl.RESPONSE_CACHE_NAME);
+    assertEquals(
+        Optional.of("recently-viewed-ids"),
+        BookCacheServiceImpl.versionedKey("recently-viewed-ids", generations));
+  }
+
+  @Test
+  @DisplayName("Should bypass the cache and retire evicted ids while generations are unknown")
+  void shouldBypassCacheWhenGenerationsUnknown() {
+    when(generations.current(anyString())).thenReturn(OptionalLong.empty());
+    CustomPage<BookSummary> page = new CustomPage<>(new PageImpl<>(List.of(summary)));
+
+    assertEquals(Optional.empty(), bookCacheService.getBookById(1L));
+    assertEquals(Optional.empty(), bookCacheService.getAllBooks(0, 10));
+    assertEquals(Map.of(), bookCacheService.getBooksByIds(List.of(1L)));
+    bookCacheService.putCache(book, mountKeyById(BOOK_ID_KEY, 1L));
+    bookCacheService.putCache(page, "books-page-size-0-10", "all", "v1");
+    bookCacheService.putBooks(List.of(book));
+    bookCacheService.evictBooks(List.of(1L), Set.of(), Set.of());
+
+    verify(generations).bump(List.of("BOOK_ID_KEY"));
+    verify(cacheTags).retireAll();
+    verifyNoMoreInteractions(cacheTags);
+    verifyNoInteractions(cache);
+  }
+
+  @Test
+  @DisplayName("Should tag lists by the lookup key of their filter whatever the default locale")
+  void shouldTagListsByLookupKey() {
+    Locale defaultLocale = Locale.getDefault();
+    Locale.setDefault(Locale.forLanguageTag("tr"));
+    try {
+      assertEquals("all", tagOf(BOOK_CURSOR_KEY, null));
+      assertEquals("all", tagOf(BOOK_PAGED_GENRE_KEY, " "));
+      assertEquals("genre:fiction", tagOf(BOOK_CURSOR_GENRE_KEY, "fiction"));
+      assertEquals("author:straße", tagOf(BOOK_PAGED_AUTHOR_KEY, "Straße"));
+      assertEquals("all", tagOf(TotalsScope.ALL, "ignored"));
+      assertEquals("genre:fiction", tagOf(TotalsScope.GENRE, "FICTION"));
+      assertEquals("author:bob", tagOf(TotalsScope.AUTHOR, "Bob"));
+    } finally {
+      Locale.setDefault(defaultLocale);
+    }
+  }
 }
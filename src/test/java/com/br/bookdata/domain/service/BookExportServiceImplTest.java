@@ -0,0 +1,54 @@
+package com.br.bookdata.domain.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.repository.BookExportRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BookExportServiceImplTest {
+
+  @Mock private BookExportRepository exportRepository;
+
+  @InjectMocks private BookExportServiceImpl exportService;
+
+  @Test
+  @DisplayName("Should filter by lookup keys and hand every streamed book to the sink")
+  void shouldStreamFilteredBooks() {
+    Book book = Book.builder().id(1L).title("Dune").build();
+    when(exportRepository.streamBooks(eq("science fiction"), isNull(), any()))
+        .thenAnswer(
+            invocation -> {
+              Consumer<Book> sink = invocation.getArgument(2);
+              sink.accept(book);
+              return 1L;
+            });
+    List<Book> exported = new ArrayList<>();
+
+    long rows = exportService.exportBooks("Science Fiction", " ", exported::add);
+
+    assertEquals(1L, rows);
+    assertEquals(List.of(book), exported);
+  }
+
+  @Test
+  @DisplayName("Should export the whole catalog when no filter is given")
+  void shouldStreamWholeCatalog() {
+    exportService.exportBooks(null, null, book -> {});
+
+    verify(exportRepository).streamBooks(isNull(), isNull(), any());
+  }
+}
@@ -3,24 +3,42 @@ package com.br.bookdata.domain.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.br.bookdata.domain.cache.RedisMissLease;
+import com.br.bookdata.domain.cache.RefreshAhead;
+import com.br.bookdata.domain.cache.SingleFlight;
 import com.br.bookdata.domain.exception.BookNotFoundException;
 import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.model.BookSummary;
 import com.br.bookdata.domain.observer.contract.ISubject;
 import com.br.bookdata.domain.repository.IBookRepository;
 import com.br.bookdata.domain.service.contract.IBookCacheService;
+import com.br.bookdata.domain.service.contract.IBookTotalsService;
+import com.br.bookdata.domain.service.enums.TotalsMode;
+import com.br.bookdata.domain.service.enums.TotalsScope;
+import com.br.bookdata.domain.timing.StageTimings;
+import com.br.bookdata.domain.utils.CursorPage;
+import com.br.bookdata.domain.utils.CursorToken;
 import com.br.bookdata.domain.utils.CustomPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 @ExtendWith(MockitoExtension.class)
 class BookServiceImplTest {
@@ -31,9 +49,32 @@ class BookServiceImplTest {
 
   @Mock private ISubject<Book> bookObserver;
 
+  @Mock private IBookTotalsService totalsService;
+
+  @Spy
+  private SingleFlight singleFlight =
+      new SingleFlight(new SimpleMeterRegistry(), Duration.ofSeconds(1));
+
+  @Spy
+  private RedisMissLease missLease =
+      new RedisMissLease(
+          null,
+          new SimpleMeterRegistry(),
+          false,
+          Duration.ofSeconds(5),
+          Duration.ofSeconds(2),
+          Duration.ofMillis(50));
+
+  @Spy
+  private RefreshAhead refreshAhead =
+      new RefreshAhead(new SimpleMeterRegistry(), true, 1.0, 0.1, 1, 10);
+
+  @Spy private StageTimings timings = new StageTimings(new SimpleMeterRegistry(), false);
+
   @InjectMocks private BookServiceImpl bookService;
 
   private Book book;
+  private BookSummary summary;
 
   @BeforeEach
   void setUp() {
@@ -45,44 +86,48 @@ class BookServiceImplTest {
             .author("Test Author")
             .description("Description")
             .build();
+    summary = new BookSummary(1L, "Title", "Test Author", "Fiction");
   }
 
   @Test
   @DisplayName("Should return books from cache when available")
   void shouldGetAllBooksCacheHit() {
     int page = 0, size = 10;
-    Page<Book> expectedPage = new PageImpl<>(List.of(book));
+    Page<BookSummary> expectedPage = new PageImpl<>(List.of(summary));
     when(bookCacheService.getAllBooks(page, size))
         .thenReturn(Optional.of(new CustomPage<>(expectedPage)));
 
-    CustomPage<Book> result = bookService.getAllBooks(page, size);
+    CustomPage<BookSummary> result = bookService.getAllBooks(page, size);
 
     assertNotNull(result);
     assertEquals(1, result.getTotalElements());
-    verify(repository, never()).findAll(any(Pageable.class));
+    verify(repository, never()).findAllBooks(any(Pageable.class));
   }
 
   @Test
   @DisplayName("Should fetch books from repository when cache is empty")
   void shouldGetAllBooksCacheMiss() {
     int page = 0, size = 10;
-    Page<Book> expectedPage = new PageImpl<>(List.of(book));
+    Slice<BookSummary> expectedSlice = new SliceImpl<>(List.of(summary));
     when(bookCacheService.getAllBooks(page, size)).thenReturn(Optional.empty());
-    when(repository.findAll(any(Pageable.class))).thenReturn(expectedPage);
+    when(bookCacheService.tagVersion("all")).thenReturn("3:0");
+    when(repository.findAllBooks(any(Pageable.class))).thenReturn(expectedSlice);
+    when(totalsService.toPage(expectedSlice, TotalsScope.ALL, null))
+        .thenReturn(new CustomPage<>(expectedSlice, TotalsMode.EXACT, 1));
 
-    CustomPage<Book> result = bookService.getAllBooks(page, size);
+    CustomPage<BookSummary> result = bookService.getAllBooks(page, size);
 
     assertNotNull(result);
     assertEquals(1, result.getTotalElements());
 
-    var responseBook = result.getContent().get(0);
-    assertEquals(book.getAuthor(), responseBook.getAuthor());
-    assertEquals(book.getId(), responseBook.getId());
-    assertEquals(book.getTitle(), responseBook.getTitle());
-    assertEquals(book.getGenre(), responseBook.getGenre());
-    assertEquals(book.getDescription(), responseBook.getDescription());
+    assertEquals(summary, result.getContent().get(0));
 
-    verify(bookCacheService).putCache(any(CustomPage.class), anyString());
+    InOrder inOrder = inOrder(bookCacheService, repository);
+    inOrder.verify(bookCacheService).tagVersion("all");
+    inOrder.verify(repository).findAllBooks(any(Pageable.class));
+    inOrder
+        .verify(bookCacheService)
+        .putCache(any(CustomPage.class), anyString(), eq("all"), eq("3:0"));
   }
 
   @Test
@@ -110,6 +155,7 @@ class BookServiceImplTest {
     assertEquals(book.getId(), result.getId());
 
     verify(bookCacheService).putCache(eq(book), anyString());
+    verify(singleFlight).execute(eq("book-id-1"), any());
     verify(bookObserver).notifyObservers(book);
   }
 
@@ -125,7 +171,8 @@ class BookServiceImplTest {
   @Test
   @DisplayName("Should return recently viewed books from cache")
   void shouldGetRecentlyViewed() {
-    when(bookCacheService.getRecentlyViewed()).thenReturn(List.of(book));
+    when(bookCacheService.getRecentlyViewedIds()).thenReturn(List.of(1L));
+    when(bookCacheService.getBooksByIds(List.of(1L))).thenReturn(Map.of(1L, book));
 
     List<Book> result = bookService.getRecentlyViewed();
 
@@ -137,6 +184,59 @@ class BookServiceImplTest {
     assertEquals(book.getGenre(), responseBook.getGenre());
     assertEquals(book.getDescription(), responseBook.getDescription());
     assertEquals(1, result.size());
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("Should hydrate recently viewed books missing from cache in viewing order")
+  void shouldHydrateRecentlyViewedFromDatabase() {
+    Book second = Book.builder().id(2L).title("Second").build();
+    Book third = Book.builder().id(3L).title("Third").build();
+    when(bookCacheService.getRecentlyViewedIds()).thenReturn(List.of(3L, 1L, 2L, 4L));
+    when(bookCacheService.getBooksByIds(List.of(3L, 1L, 2L, 4L))).thenReturn(Map.of(1L, book));
+    when(repository.findAllById(List.of(3L, 2L, 4L))).thenReturn(List.of(second, third));
+
+    List<Book> result = bookService.getRecentlyViewed();
+
+    assertEquals(List.of(third, book, second), result);
+    verify(bookCacheService).putBooks(List.of(second, third));
+  }
+
+  @Test
+  @DisplayName("Should resolve a batch of ids in request order with empty entries for misses")
+  void shouldGetBooksByIds() {
+    Book second = Book.builder().id(2L).title("Second").build();
+    when(bookCacheService.getBooksByIds(List.of(2L, 1L, 9L))).thenReturn(Map.of(1L, book));
+    when(repository.findAllById(List.of(2L, 9L))).thenReturn(List.of(second));
+
+    List<Optional<Book>> result = bookService.getBooksByIds(List.of(2L, 1L, 9L, 1L));
+
+    assertEquals(
+        List.of(Optional.of(second), Optional.of(book), Optional.empty(), Optional.of(book)),
+        result);
+    verify(repository, times(1)).findAllById(any());
+    verify(bookCacheService).putBooks(List.of(second));
+    verifyNoInteractions(bookObserver);
+  }
+
+  @Test
+  @DisplayName("Should not query the database when the whole batch is cached")
+  void shouldGetBooksByIdsFromCache() {
+    when(bookCacheService.getBooksByIds(List.of(1L))).thenReturn(Map.of(1L, book));
+
+    assertEquals(List.of(Optional.of(book)), bookService.getBooksByIds(List.of(1L)));
+    verifyNoInteractions(repository);
+    verify(bookCacheService, never()).putBooks(any());
+  }
+
+  @Test
+  @DisplayName("Should not touch the cache or database when nothing was viewed")
+  void shouldReturnEmptyRecentlyViewed() {
+    when(bookCacheService.getRecentlyViewedIds()).thenReturn(List.of());
+
+    assertTrue(bookService.getRecentlyViewed().isEmpty());
+    verify(bookCacheService, never()).getBooksByIds(any());
+    verifyNoInteractions(repository);
   }
 
   @Test
@@ -144,23 +244,18 @@ class BookServiceImplTest {
   void shouldGetBooksByAuthorCacheHit() {
     int page = 0, size = 10;
     String author = "Jorge";
-    Page<Book> expectedPage = new PageImpl<>(List.of(book));
+    Page<BookSummary> expectedPage = new PageImpl<>(List.of(summary));
     when(bookCacheService.getBooksByAuthor(author, page, size))
         .thenReturn(Optional.of(new CustomPage<>(expectedPage)));
 
-    CustomPage<Book> result = bookService.getBooksByAuthor(author, page, size);
+    CustomPage<BookSummary> result = bookService.getBooksByAuthor(author, page, size);
 
     assertNotNull(result);
     assertEquals(1, result.getTotalElements());
 
-    var responseBook = result.getContent().get(0);
-    assertEquals(book.getAuthor(), responseBook.getAuthor());
-    assertEquals(book.getId(), responseBook.getId());
-    assertEquals(book.getTitle(), responseBook.getTitle());
-    assertEquals(book.getGenre(), responseBook.getGenre());
-    assertEquals(book.getDescription(), responseBook.getDescription());
+    assertEquals(summary, result.getContent().get(0));
 
-    verify(repository, never()).findAll(any(Pageable.class));
+    verify(repository, never()).findAllBooks(any(Pageable.class));
   }
 
   @Test
@@ -169,24 +264,22 @@ class BookServiceImplTest {
     int page = 0, size = 10;
     String author = "Jorge";
 
-    Page<Book> expectedPage = new PageImpl<>(List.of(book));
+    Slice<BookSummary> expectedSlice = new SliceImpl<>(List.of(summary));
     when(bookCacheService.getBooksByAuthor(author, page, size)).thenReturn(Optional.empty());
-    when(repository.findByAuthorIgnoreCase(anyString(), any(Pageable.class)))
-        .thenReturn(expectedPage);
+    when(repository.findByAuthorKey(anyString(), any(Pageable.class)))
+        .thenReturn(expectedSlice);
+    when(totalsService.toPage(expectedSlice, TotalsScope.AUTHOR, author))
+        .thenReturn(new CustomPage<>(expectedSlice, TotalsMode.EXACT, 1));
 
-    CustomPage<Book> result = bookService.getBooksByAuthor(author, page, size);
+    CustomPage<BookSummary> result = bookService.getBooksByAuthor(author, page, size);
 
     assertNotNull(result);
     assertEquals(1, result.getTotalElements());
 
-    var responseBook = result.getContent().get(0);
-    assertEquals(book.getAuthor(), responseBook.getAuthor());
-    assertEquals(book.getId(), responseBook.getId());
-    assertEquals(book.getTitle(), responseBook.getTitle());
-    assertEquals(book.getGenre(), responseBook.getGenre());
-    assertEquals(book.getDescription(), responseBook.getDescription());
+    assertEquals(summary, result.getContent().get(0));
 
-    verify(bookCacheService).putCache(any(CustomPage.class), anyString());
+    verify(bookCacheService)
+        .putCache(any(CustomPage.class), anyString(), eq("author:jorge"), any());
   }
 
   @Test
@@ -194,23 +287,18 @@ class BookServiceImplTest {
   void shouldGetBooksByGenreCacheHit() {
     int page = 0, size = 10;
     String genre = "Adventure";
-    Page<Book> expectedPage = new PageImpl<>(List.of(book));
+    Page<BookSummary> expectedPage = new PageImpl<>(List.of(summary));
     when(bookCacheService.getBooksByGenre(genre, page, size))
         .thenReturn(Optional.of(new CustomPage<>(expectedPage)));
 
-    CustomPage<Book> result = bookService.getBooksByGenre(genre, page, size);
+    CustomPage<BookSummary> result = bookService.getBooksByGenre(genre, page, size);
 
     assertNotNull(result);
     assertEquals(1, result.getTotalElements());
 
-    var responseBook = result.getContent().get(0);
-    assertEquals(book.getAuthor(), responseBook.getAuthor());
-    assertEquals(book.getId(), responseBook.getId());
-    assertEquals(book.getTitle(), responseBook.getTitle());
-    assertEquals(book.getGenre(), responseBook.getGenre());
-    assertEquals(book.getDescription(), responseBook.getDescription());
+    assertEquals(summary, result.getContent().get(0));
 
-    verify(repository, never()).findAll(any(Pageable.class));
+    verify(repository, never()).findAllBooks(any(Pageable.class));
   }
 
   @Test
@@ -219,23 +307,149 @@ class BookServiceImplTest {
     int page = 0, size = 10;
     String genre = "Adventure";
 
-    Page<Book> expectedPage = new PageImpl<>(List.of(book));
+    Slice<BookSummary> expectedSlice = new SliceImpl<>(List.of(summary));
     when(bookCacheService.getBooksByGenre(genre, page, size)).thenReturn(Optional.empty());
-    when(repository.findByGenreIgnoreCase(anyString(), any(Pageable.class)))
-        .thenReturn(expectedPage);
+    when(repository.findByGenreKey(eq("adventure"), any(Pageable.class)))
+        .thenReturn(expectedSlice);
+    when(totalsService.toPage(expectedSlice, TotalsScope.GENRE, genre))
+        .thenReturn(new CustomPage<>(expectedSlice, TotalsMode.EXACT, 1));
 
-    CustomPage<Book> result = bookService.getBooksByGenre(genre, page, size);
+    CustomPage<BookSummary> result = bookService.getBooksByGenre(genre, page, size);
 
     assertNotNull(result);
     assertEquals(1, result.getTotalElements());
 
-    var responseBook = result.getContent().get(0);
-    assertEquals(book.getAuthor(), responseBook.getAuthor());
-    assertEquals(book.getId(), responseBook.getId());
-    assertEquals(book.getTitle(), responseBook.getTitle());
-    assertEquals(book.getGenre(), responseBook.getGenre());
-    assertEquals(book.getDescription(), responseBook.getDescription());
+    assertEquals(summary, result.getContent().get(0));
+
+    verify(bookCacheService)
+        .putCache(any(CustomPage.class), anyString(), eq("genre:adventure"), any());
+  }
+
+  @Test
+  @DisplayName("Should serve the cached page and refresh it in background when about to expire")
+  void shouldRefreshExpiringPageInBackground() {
+    int page = 0, size = 10;
+    String genre = "Adventure";
+    CustomPage<BookSummary> cachedPage = new CustomPage<>(new PageImpl<>(List.of(summary)));
+    cachedPage.setExpiresAt(System.currentTimeMillis() - 1);
+    when(bookCacheService.getBooksByGenre(genre, page, size)).thenReturn(Optional.of(cachedPage));
+    doNothing().when(refreshAhead).refreshAsync(anyString(), any());
+
+    CustomPage<BookSummary> result = bookService.getBooksByGenre(genre, page, size);
+
+    assertSame(cachedPage, result);
+    verify(refreshAhead).refreshAsync(eq("books-page-size-genre-0-10-ADVENTURE"), any());
+    verify(repository, never()).findByGenreKey(anyString(), any(Pageable.class));
+  }
+
+  @Test
+  @DisplayName("Should seek the next page after the cursor and return a next token")
+  void shouldGetAllBooksByCursorCacheMiss() {
+    BookSummary second = new BookSummary(2L, "Second", null, null);
+    String cursor = CursorToken.encode(0L);
+    when(bookCacheService.getCursorPage("books-cursor-0-1")).thenReturn(Optional.empty());
+    when(bookCacheService.tagVersion("all")).thenReturn("3:0");
+    when(repository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+        .thenReturn(List.of(summary, second));
+
+    CursorPage<BookSummary> result = bookService.getAllBooksByCursor(cursor, 1);
+
+    assertEquals(List.of(summary), result.getContent());
+    assertEquals(1L, CursorToken.decode(result.getNext()));
+    verify(bookCacheService).putCache(result, "books-cursor-0-1", "all", "3:0");
+  }
+
+  @Test
+  @DisplayName("Should not return a next token on the last cursor page")
+  void shouldGetBooksByGenreByCursorLastPage() {
+    String cursor = CursorToken.encode(10L);
+    when(bookCacheService.getCursorPage("books-cursor-genre-10-5-FICTION"))
+        .thenReturn(Optional.empty());
+    when(repository.findByGenreKeyAndIdGreaterThanOrderByIdAsc("fiction", 10L, Limit.of(6)))
+        .thenReturn(List.of(summary));
+
+    CursorPage<BookSummary> result = bookService.getBooksByGenreByCursor("Fiction", cursor, 5);
+
+    assertEquals(List.of(summary), result.getContent());
+    assertNull(result.getNext());
+  }
+
+  @Test
+  @DisplayName("Should return cursor pages from cache when available")
+  void shouldGetBooksByAuthorByCursorCacheHit() {
+    CursorPage<BookSummary> cached = new CursorPage<>(List.of(summary), 10, null);
+    when(bookCacheService.getCursorPage("books-cursor-author-0-10-JORGE"))
+        .thenReturn(Optional.of(cached));
+
+    CursorPage<BookSummary> result = bookService.getBooksByAuthorByCursor("Jorge", null, 10);
+
+    assertSame(cached, result);
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("Should notify view observers with the id of a book read from a cached response")
+  void shouldRecordView() {
+    bookService.recordView(7L);
+
+    verify(bookObserver).notifyObservers(argThat(book -> book.getId().equals(7L)));
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("Should write a created book through and evict the lists of its genre and author")
+  void shouldCreateBook() {
+    Book request = Book.builder().id(99L).title("Title").genre("Fiction").author("Ann").build();
+    Book saved = Book.builder().id(7L).title("Title").genre("Fiction").author("Ann").build();
+    when(repository.save(request)).thenReturn(saved);
+
+    assertEquals(saved, bookService.createBook(request));
+
+    assertNull(request.getId());
+    var inOrder = inOrder(bookCacheService);
+    inOrder.verify(bookCacheService).evictBooks(List.of(7L), Set.of("fiction"), Set.of("ann"));
+    inOrder.verify(bookCacheService).putCache(saved, "book-id-7");
+  }
+
+  @Test
+  @DisplayName("Should evict the lists of both the old and the new genre and author on update")
+  void shouldUpdateBook() {
+    when(repository.findById(1L)).thenReturn(Optional.of(book));
+    when(repository.save(book)).thenReturn(book);
+    Book changes =
+        Book.builder().title("New title").genre("Poetry").author("Test Author").build();
+
+    Book result = bookService.updateBook(1L, changes);
+
+    assertEquals("New title", result.getTitle());
+    assertEquals("Poetry", result.getGenre());
+    assertNull(result.getDescription());
+    verify(bookCacheService)
+        .evictBooks(List.of(1L), Set.of("fiction", "poetry"), Set.of("test author"));
+    verify(bookCacheService).putCache(book, "book-id-1");
+  }
+
+  @Test
+  @DisplayName("Should evict a deleted book and the lists it appeared in")
+  void shouldDeleteBook() {
+    when(repository.findById(1L)).thenReturn(Optional.of(book));
+
+    bookService.deleteBook(1L);
+
+    verify(repository).delete(book);
+    verify(bookCacheService).evictBooks(List.of(1L), Set.of("fiction"), Set.of("test author"));
+    verify(bookCacheService, never()).putCache(any(Book.class), anyString());
+  }
+
+  @Test
+  @DisplayName("Should not touch the cache when the book to write does not exist")
+  void shouldNotWriteMissingBook() {
+    when(repository.findById(1L)).thenReturn(Optional.empty());
 
-    verify(bookCacheService).putCache(any(CustomPage.class), anyString());
+    assertThrows(BookNotFoundException.class, () -> bookService.updateBook(1L, book));
+    assertThrows(BookNotFoundException.class, () -> bookService.deleteBook(1L));
+    verify(repository, never()).save(any());
+    verify(repository, never()).delete(any());
+    verifyNoInteractions(bookCacheService);
   }
 }
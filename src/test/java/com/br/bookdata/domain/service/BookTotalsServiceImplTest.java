@@ -0,0 +1,180 @@
+package com.br.bookdata.domain.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.br.bookdata.domain.cache.RefreshAhead;
+import com.br.bookdata.domain.cache.SingleFlight;
+import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.repository.BookStatisticsRepository;
+import com.br.bookdata.domain.repository.IBookRepository;
+import com.br.bookdata.domain.service.contract.IBookCacheService;
+import com.br.bookdata.domain.service.enums.TotalsMode;
+import com.br.bookdata.domain.service.enums.TotalsScope;
+import com.br.bookdata.domain.utils.CachedTotal;
+import com.br.bookdata.domain.utils.CustomPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class BookTotalsServiceImplTest {
+
+  @Mock private IBookRepository repository;
+
+  @Mock private BookStatisticsRepository statisticsRepository;
+
+  @Mock private IBookCacheService<Book, Long> bookCacheService;
+
+  private final SingleFlight singleFlight =
+      new SingleFlight(new SimpleMeterRegistry(), Duration.ofSeconds(1));
+
+  private RefreshAhead refreshAhead;
+
+  private Slice<Book> firstOfMany;
+
+  @BeforeEach
+  void setUp() {
+    refreshAhead = spy(new RefreshAhead(new SimpleMeterRegistry(), true, 1.0, 0.1, 1, 10));
+    Book book = Book.builder().id(1L).title("Title").genre("Fiction").build();
+    firstOfMany = new SliceImpl<>(List.of(book), PageRequest.of(0, 1), true);
+  }
+
+  @Test
+  @DisplayName("Should not look up totals when the scope is configured without them")
+  void shouldSkipTotalsInNoneMode() {
+    CustomPage<Book> page =
+        service(TotalsMode.NONE).toPage(firstOfMany, TotalsScope.GENRE, "Fiction");
+
+    assertEquals(TotalsMode.NONE, page.getTotalsMode());
+    assertEquals(-1, page.getTotalElements());
+    assertEquals(-1, page.getTotalPages());
+    assertFalse(page.isLast());
+    verifyNoInteractions(repository, statisticsRepository, bookCacheService);
+  }
+
+  @Test
+  @DisplayName("Should take the total from the slice when it is the only page")
+  void shouldUseSliceSizeForSinglePage() {
+    Slice<Book> onlyPage = new SliceImpl<>(firstOfMany.getContent(), PageRequest.of(0, 10), false);
+
+    CustomPage<Book> page = service(TotalsMode.EXACT).toPage(onlyPage, TotalsScope.ALL, null);
+
+    assertEquals(1, page.getTotalElements());
+    assertEquals(1, page.getTotalPages());
+    verifyNoInteractions(repository, statisticsRepository, bookCacheService);
+  }
+
+  @Test
+  @DisplayName("Should count and cache the exact total on a miss")
+  void shouldCountAndCacheExactTotal() {
+    when(bookCacheService.getTotal("books-total-exact-genre-FICTION"))
+        .thenReturn(Optional.empty());
+    when(repository.countByGenreKey("fiction")).thenReturn(30L);
+
+    CustomPage<Book> page =
+        service(TotalsMode.EXACT).toPage(firstOfMany, TotalsScope.GENRE, "Fiction");
+
+    assertEquals(30, page.getTotalElements());
+    assertEquals(30, page.getTotalPages());
+    verify(bookCacheService)
+        .putCache(
+            any(CachedTotal.class),
+            eq("books-total-exact-genre-FICTION"),
+            eq("genre:fiction"),
+            any());
+  }
+
+  @Test
+  @DisplayName("Should reuse the cached exact total without counting")
+  void shouldReuseCachedTotal() {
+    CachedTotal cached = new CachedTotal(12L, 0L, 5L, System.currentTimeMillis() + 600_000);
+    when(bookCacheService.getTotal("books-total-exact-author-JORGE"))
+        .thenReturn(Optional.of(cached));
+
+    CustomPage<Book> page =
+        service(TotalsMode.EXACT).toPage(firstOfMany, TotalsScope.AUTHOR, "Jorge");
+
+    assertEquals(12, page.getTotalElements());
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("Should refresh a cached total in background when it is about to expire")
+  void shouldRefreshExpiringTotal() {
+    CachedTotal cached = new CachedTotal(12L, 0L, 5L, System.currentTimeMillis() - 1);
+    when(bookCacheService.getTotal("books-total-exact-all")).thenReturn(Optional.of(cached));
+    doNothing().when(refreshAhead).refreshAsync(anyString(), any());
+
+    CustomPage<Book> page = service(TotalsMode.EXACT).toPage(firstOfMany, TotalsScope.ALL, null);
+
+    assertEquals(12, page.getTotalElements());
+    verify(refreshAhead).refreshAsync(eq("books-total-exact-all"), any());
+  }
+
+  @Test
+  @DisplayName("Should use the statistics estimate in approximate mode")
+  void shouldUseStatisticsEstimate() {
+    when(bookCacheService.getTotal("books-total-approximate-all")).thenReturn(Optional.empty());
+    when(statisticsRepository.estimateAll()).thenReturn(1_000_000L);
+
+    CustomPage<Book> page =
+        service(TotalsMode.APPROXIMATE).toPage(firstOfMany, TotalsScope.ALL, null);
+
+    assertEquals(TotalsMode.APPROXIMATE, page.getTotalsMode());
+    assertEquals(1_000_000L, page.getTotalElements());
+    verify(repository, never()).count();
+  }
+
+  @Test
+  @DisplayName("Should fall back to an exact count while the table has no statistics")
+  void shouldCountWhenThereAreNoStatistics() {
+    when(bookCacheService.getTotal("books-total-approximate-author-JORGE"))
+        .thenReturn(Optional.empty());
+    when(statisticsRepository.estimateByAuthor("jorge")).thenReturn(-1L);
+    when(repository.countByAuthorKey("jorge")).thenReturn(7L);
+
+    CustomPage<Book> page =
+        service(TotalsMode.APPROXIMATE).toPage(firstOfMany, TotalsScope.AUTHOR, "Jorge");
+
+    assertEquals(7, page.getTotalElements());
+  }
+
+  @Test
+  @DisplayName("Should never report fewer elements than the slice proves to exist")
+  void shouldRaiseLowEstimates() {
+    Slice<Book> middle =
+        new SliceImpl<>(firstOfMany.getContent(), PageRequest.of(4, 1), true);
+    when(bookCacheService.getTotal("books-total-approximate-genre-FICTION"))
+        .thenReturn(Optional.empty());
+    when(statisticsRepository.estimateByGenre("fiction")).thenReturn(2L);
+
+    CustomPage<Book> page =
+        service(TotalsMode.APPROXIMATE).toPage(middle, TotalsScope.GENRE, "Fiction");
+
+    assertEquals(6, page.getTotalElements());
+    assertEquals(6, page.getTotalPages());
+  }
+
+  private BookTotalsServiceImpl service(TotalsMode mode) {
+    return new BookTotalsServiceImpl(
+        repository,
+        statisticsRepository,
+        bookCacheService,
+        singleFlight,
+        refreshAhead,
+        mode,
+        mode,
+        mode);
+  }
+}
@@ -0,0 +1,55 @@
+package com.br.bookdata.domain.timing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.br.bookdata.domain.timing.StageTimings.Recording;
+import com.br.bookdata.domain.timing.StageTimings.Stage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class StageTimingsTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final StageTimings timings = new StageTimings(meterRegistry, true);
+
+  @AfterEach
+  void tearDown() {
+    timings.end();
+  }
+
+  @Test
+  @DisplayName("Should sum repeated stages in the Server-Timing value and feed the stage timers")
+  void shouldRecordStages() {
+    Recording recording = timings.begin();
+
+    assertEquals("book", timings.time("redis", () -> "book"));
+    try (Stage decode = timings.start("decode")) {
+      timings.time("redis", () -> null);
+    }
+
+    String serverTiming = recording.serverTiming();
+    assertTrue(
+        serverTiming.matches(
+            "redis;dur=\\d+\\.\\d{3}, decode;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}"),
+        serverTiming);
+    assertEquals(
+        2, meterRegistry.get("bookdata.request.stage").tag("stage", "redis").timer().count());
+    assertEquals(
+        1, meterRegistry.get("bookdata.request.stage").tag("stage", "decode").timer().count());
+  }
+
+  @Test
+  @DisplayName("Should not record stages outside a request or when disabled")
+  void shouldSkipWithoutRecording() {
+    StageTimings disabled = new StageTimings(meterRegistry, false);
+    disabled.begin();
+
+    assertEquals("book", timings.time("redis", () -> "book"));
+    assertEquals("book", disabled.time("redis", () -> "book"));
+    disabled.end();
+
+    assertTrue(meterRegistry.find("bookdata.request.stage").timers().isEmpty());
+  }
+}
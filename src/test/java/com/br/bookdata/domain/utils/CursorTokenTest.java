@@ -0,0 +1,41 @@
+package com.br.bookdata.domain.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.br.bookdata.domain.exception.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CursorTokenTest {
+
+  @Test
+  @DisplayName("Should round trip the last id through an opaque token")
+  void shouldRoundTripLastId() {
+    String cursor = CursorToken.encode(50_000L);
+
+    assertFalse(cursor.contains("50000"));
+    assertEquals(50_000L, CursorToken.decode(cursor));
+  }
+
+  @Test
+  @DisplayName("Should start from the beginning when no cursor is given")
+  void shouldStartFromBeginningWithoutCursor() {
+    assertEquals(0L, CursorToken.decode(null));
+    assertEquals(0L, CursorToken.decode(" "));
+  }
+
+  @Test
+  @DisplayName("Should reject tampered or malformed cursors")
+  void shouldRejectInvalidCursor() {
+    String wrongSortKey =
+        Base64.getUrlEncoder().encodeToString("title:10".getBytes(StandardCharsets.UTF_8));
+    String notANumber =
+        Base64.getUrlEncoder().encodeToString("id:abc".getBytes(StandardCharsets.UTF_8));
+
+    assertThrows(InvalidCursorException.class, () -> CursorToken.decode("%%%"));
+    assertThrows(InvalidCursorException.class, () -> CursorToken.decode(wrongSortKey));
+    assertThrows(InvalidCursorException.class, () -> CursorToken.decode(notANumber));
+  }
+}
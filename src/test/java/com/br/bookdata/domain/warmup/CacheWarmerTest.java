@@ -0,0 +1,98 @@
+package com.br.bookdata.domain.warmup;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.br.bookdata.domain.cache.RedisHotKeyManifest;
+import com.br.bookdata.domain.model.Book;
+import com.br.bookdata.domain.service.contract.IBookService;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmerTest {
+
+  @Mock private RedisHotKeyManifest manifest;
+  @Mock private IBookService<Book, Long> bookService;
+
+  @Test
+  @DisplayName("Should load ids in batches and every page before reporting ready")
+  void shouldWarmHotKeys() {
+    CacheWarmer warmer = warmer(true, Duration.ofSeconds(5));
+    when(manifest.top(100))
+        .thenReturn(
+            List.of(
+                "id|1", "all|0|10", "id|2", "genre|0|10|fiction", "id|3", "author|1|5|poe", "bad"));
+
+    assertEquals(Status.OUT_OF_SERVICE, warmer.health().getStatus());
+    warmer.warmUp();
+
+    verify(bookService).getBooksByIds(List.of(1L, 2L));
+    verify(bookService).getBooksByIds(List.of(3L));
+    verify(bookService).getAllBooks(0, 10);
+    verify(bookService).getBooksByGenre("fiction", 0, 10);
+    verify(bookService).getBooksByAuthor("poe", 1, 5);
+    Health health = warmer.health();
+    assertEquals(Status.UP, health.getStatus());
+    assertEquals(CacheWarmer.State.DONE, health.getDetails().get("state"));
+    assertEquals(5, health.getDetails().get("completed"));
+    assertEquals(5, health.getDetails().get("total"));
+  }
+
+  @Test
+  @DisplayName("Should count failed tasks and still finish the warm-up")
+  void shouldCountFailures() {
+    CacheWarmer warmer = warmer(true, Duration.ofSeconds(5));
+    when(manifest.top(100)).thenReturn(List.of("all|0|10", "id|1"));
+    when(bookService.getAllBooks(0, 10)).thenThrow(new IllegalStateException("boom"));
+
+    warmer.warmUp();
+
+    Health health = warmer.health();
+    assertEquals(Status.UP, health.getStatus());
+    assertEquals(2, health.getDetails().get("completed"));
+    assertEquals(1, health.getDetails().get("failed"));
+  }
+
+  @Test
+  @DisplayName("Should stop waiting for tasks once the time budget is spent")
+  void shouldRespectTimeBudget() {
+    CacheWarmer warmer = warmer(true, Duration.ofMillis(100));
+    when(manifest.top(100)).thenReturn(List.of("all|0|10"));
+    when(bookService.getAllBooks(0, 10))
+        .thenAnswer(
+            invocation -> {
+              Thread.sleep(5_000);
+              return null;
+            });
+
+    long start = System.nanoTime();
+    warmer.warmUp();
+
+    assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+    assertEquals(Status.UP, warmer.health().getStatus());
+  }
+
+  @Test
+  @DisplayName("Should report ready without touching Redis when disabled")
+  void shouldSkipWhenDisabled() {
+    CacheWarmer warmer = warmer(false, Duration.ofSeconds(5));
+
+    warmer.run(null);
+
+    assertEquals(Status.UP, warmer.health().getStatus());
+    assertEquals(CacheWarmer.State.DISABLED, warmer.health().getDetails().get("state"));
+    verifyNoInteractions(manifest, bookService);
+  }
+
+  private CacheWarmer warmer(boolean enabled, Duration maxDuration) {
+    return new CacheWarmer(manifest, bookService, enabled, 100, 2, 2, maxDuration);
+  }
+}
@@ -0,0 +1,43 @@
+package com.br.bookdata.domain.warmup;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.br.bookdata.domain.warmup.HotKey.Kind;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HotKeyTest {
+
+  @Test
+  @DisplayName("Should round-trip every kind through its manifest member")
+  void shouldRoundTripMembers() {
+    for (HotKey hotKey :
+        new HotKey[] {
+          HotKey.byId(42),
+          HotKey.page(Kind.ALL, 0, 10, null),
+          HotKey.page(Kind.GENRE, 1, 20, "fiction"),
+          HotKey.page(Kind.AUTHOR, 2, 5, "a|b")
+        }) {
+      assertEquals(Optional.of(hotKey), HotKey.parse(hotKey.member()));
+    }
+  }
+
+  @Test
+  @DisplayName("Should normalize filters so different casings share one member")
+  void shouldNormalizeFilter() {
+    assertEquals("id|42", HotKey.byId(42).member());
+    assertEquals("all|0|10", HotKey.page(Kind.ALL, 0, 10, "ignored").member());
+    assertEquals(
+        "genre|0|10|science fiction", HotKey.page(Kind.GENRE, 0, 10, "Science Fiction").member());
+  }
+
+  @Test
+  @DisplayName("Should ignore members it cannot parse")
+  void shouldRejectInvalidMembers() {
+    assertTrue(HotKey.parse("").isEmpty());
+    assertTrue(HotKey.parse("shelf|1").isEmpty());
+    assertTrue(HotKey.parse("id|abc").isEmpty());
+    assertTrue(HotKey.parse("genre|0|10").isEmpty());
+  }
+}